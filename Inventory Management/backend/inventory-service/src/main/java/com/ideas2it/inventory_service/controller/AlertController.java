@@ -1,5 +1,6 @@
 package com.ideas2it.inventory_service.controller;
 
+import com.ideas2it.inventory_service.dto.CursorPage;
 import com.ideas2it.inventory_service.dto.AlertRequest;
 import com.ideas2it.inventory_service.dto.AlertResponse;
 import com.ideas2it.inventory_service.entity.Alert;
@@ -47,6 +48,32 @@ public class AlertController {
         }
     }
     
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getAlertsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Alert.AlertStatus status,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET /api/alerts/cursor - Fetching alerts with cursor pagination");
+        try {
+            CursorPage<AlertResponse> page = alertService.getAlertsWithCursor(cursor, size, status, includeTotal);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    page,
+                    true,
+                    "Alerts retrieved successfully",
+                    page.getItems().size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching alerts: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching alerts: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getAlertById(@PathVariable Long id) {
         log.info("GET /api/alerts/{} - Fetching alert by ID", id);
@@ -0,0 +1,175 @@
+package com.ideas2it.inventory_service.controller;
+
+import com.ideas2it.inventory_service.dto.AlertRuleRequest;
+import com.ideas2it.inventory_service.dto.AlertRuleResponse;
+import com.ideas2it.inventory_service.service.AlertRuleService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/alerts/rules")
+@RequiredArgsConstructor
+@Slf4j
+public class AlertRuleController {
+    
+    private final AlertRuleService alertRuleService;
+    
+    @GetMapping
+    public ResponseEntity<?> getAllRules() {
+        log.info("GET /api/alerts/rules - Fetching all alert rules");
+        try {
+            List<AlertRuleResponse> rules = alertRuleService.getAllRules();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    rules,
+                    true,
+                    "Alert rules retrieved successfully",
+                    rules.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching alert rules: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching alert rules: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getRuleById(@PathVariable Long id) {
+        log.info("GET /api/alerts/rules/{} - Fetching alert rule by ID", id);
+        try {
+            AlertRuleResponse rule = alertRuleService.getRuleById(id);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    rule,
+                    true,
+                    "Alert rule retrieved successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching alert rule with ID {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching alert rule: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @PostMapping
+    public ResponseEntity<?> createRule(@Valid @RequestBody AlertRuleRequest request) {
+        log.info("POST /api/alerts/rules - Creating alert rule: {}", request.getName());
+        try {
+            Long currentUserId = 1L; // TODO: Get from JWT token
+            AlertRuleResponse rule = alertRuleService.createRule(request, currentUserId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    rule,
+                    true,
+                    "Alert rule created successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error creating alert rule: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error creating alert rule: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<?> updateRule(@PathVariable Long id, @Valid @RequestBody AlertRuleRequest request) {
+        log.info("PUT /api/alerts/rules/{} - Updating alert rule", id);
+        try {
+            Long currentUserId = 1L; // TODO: Get from JWT token
+            AlertRuleResponse rule = alertRuleService.updateRule(id, request, currentUserId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    rule,
+                    true,
+                    "Alert rule updated successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error updating alert rule with ID {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error updating alert rule: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteRule(@PathVariable Long id) {
+        log.info("DELETE /api/alerts/rules/{} - Deleting alert rule", id);
+        try {
+            alertRuleService.deleteRule(id);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    null,
+                    true,
+                    "Alert rule deleted successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error deleting alert rule with ID {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error deleting alert rule: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @PostMapping("/reload")
+    public ResponseEntity<?> reloadRules() {
+        log.info("POST /api/alerts/rules/reload - Reloading alert rules");
+        try {
+            alertRuleService.reloadRules();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    null,
+                    true,
+                    "Alert rules reloaded successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error reloading alert rules: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error reloading alert rules: " + e.getMessage()
+            ));
+        }
+    }
+    
+    public static class ApiResponse<T> {
+        private T data;
+        private boolean success;
+        private String message;
+        private int count;
+        
+        public ApiResponse(T data, boolean success, String message) {
+            this.data = data;
+            this.success = success;
+            this.message = message;
+        }
+        
+        public ApiResponse(T data, boolean success, String message, int count) {
+            this.data = data;
+            this.success = success;
+            this.message = message;
+            this.count = count;
+        }
+        
+        // Getters and setters
+        public T getData() { return data; }
+        public void setData(T data) { this.data = data; }
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+    }
+}
@@ -1,13 +1,50 @@
 package com.ideas2it.inventory_service.controller;
 
+import com.ideas2it.inventory_service.dto.ApiResponse;
+import com.ideas2it.inventory_service.dto.AvailabilityCacheStatsResponse;
+import com.ideas2it.inventory_service.dto.AvailableToPromiseRequest;
+import com.ideas2it.inventory_service.dto.AvailableToPromiseResponse;
+import com.ideas2it.inventory_service.dto.CycleCountImportResult;
+import com.ideas2it.inventory_service.dto.DemandForecastResponse;
+import com.ideas2it.inventory_service.dto.DemandForecastRunResult;
+import com.ideas2it.inventory_service.dto.InventoryAvailabilityResponse;
+import com.ideas2it.inventory_service.dto.InventoryBalanceResponse;
+import com.ideas2it.inventory_service.dto.InventoryDriftReportResponse;
+import com.ideas2it.inventory_service.dto.InventoryLotResponse;
+import com.ideas2it.inventory_service.dto.InventoryReconciliationRunResponse;
 import com.ideas2it.inventory_service.dto.InventoryRequest;
 import com.ideas2it.inventory_service.dto.InventoryResponse;
+import com.ideas2it.inventory_service.dto.InventoryValuationResponse;
+import com.ideas2it.inventory_service.dto.LotExpirySweepResult;
+import com.ideas2it.inventory_service.dto.ProjectionRebuildResult;
+import com.ideas2it.inventory_service.dto.StockTransferRequest;
+import com.ideas2it.inventory_service.dto.StockTransferResponse;
+import com.ideas2it.inventory_service.entity.InventoryReconciliationRun;
+import com.ideas2it.inventory_service.entity.Product;
+import com.ideas2it.inventory_service.service.AvailableToPromiseService;
+import com.ideas2it.inventory_service.service.CycleCountImportService;
+import com.ideas2it.inventory_service.service.DataExportService;
+import com.ideas2it.inventory_service.service.DemandForecastService;
+import com.ideas2it.inventory_service.service.IdempotencyService;
+import com.ideas2it.inventory_service.service.InventoryAvailabilityService;
+import com.ideas2it.inventory_service.service.InventoryCostService;
+import com.ideas2it.inventory_service.service.InventoryLotService;
+import com.ideas2it.inventory_service.service.InventoryProjectionService;
+import com.ideas2it.inventory_service.service.InventoryReconciliationService;
 import com.ideas2it.inventory_service.service.InventoryService;
+import com.ideas2it.inventory_service.service.InventorySnapshotService;
+import com.ideas2it.inventory_service.service.StockTransferService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,12 +54,28 @@ import java.util.List;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final IdempotencyService idempotencyService;
+    private final InventorySnapshotService inventorySnapshotService;
+    private final InventoryProjectionService inventoryProjectionService;
+    private final InventoryReconciliationService inventoryReconciliationService;
+    private final StockTransferService stockTransferService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final AvailableToPromiseService availableToPromiseService;
+    private final DataExportService dataExportService;
+    private final CycleCountImportService cycleCountImportService;
+    private final InventoryLotService inventoryLotService;
+    private final InventoryCostService inventoryCostService;
+    private final DemandForecastService demandForecastService;
     
     @GetMapping
-    public ResponseEntity<?> getAllInventory() {
-        log.info("GET /api/inventory - Fetching all inventory");
+    public ResponseEntity<?> getAllInventory(
+            @RequestParam(required = false) Product.AbcClass abcClass,
+            @RequestParam(required = false) Product.XyzClass xyzClass) {
+        log.info("GET /api/inventory - Fetching all inventory (abcClass: {}, xyzClass: {})", abcClass, xyzClass);
         try {
-            List<InventoryResponse> inventory = inventoryService.getAllInventory();
+            List<InventoryResponse> inventory = abcClass != null || xyzClass != null
+                    ? inventoryService.getInventoryByProductClassification(abcClass, xyzClass)
+                    : inventoryService.getAllInventory();
             return ResponseEntity.ok(new ApiResponse<>(
                     inventory,
                     true,
@@ -40,6 +93,20 @@ public class InventoryController {
         }
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInventory(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/inventory/export - Exporting inventory as {}", format);
+        try {
+            return dataExportService.exportInventory(format, warehouseId, acceptEncoding);
+        } catch (Exception e) {
+            log.error("Error exporting inventory: {}", e.getMessage());
+            return dataExportService.errorResponse("Error exporting inventory: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getInventoryById(@PathVariable Long id) {
         log.info("GET /api/inventory/{} - Fetching inventory by ID", id);
@@ -188,6 +255,369 @@ public class InventoryController {
         }
     }
     
+    @GetMapping("/availability")
+    public ResponseEntity<?> getInventoryAvailability(@RequestParam Long productId, @RequestParam Long warehouseId) {
+        log.info("GET /api/inventory/availability - Fetching availability for product ID: {} and warehouse ID: {}", productId, warehouseId);
+        try {
+            InventoryAvailabilityResponse availability = inventoryAvailabilityService.getAvailability(productId, warehouseId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    availability,
+                    true,
+                    "Inventory availability retrieved successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching availability for product ID {} and warehouse ID {}: {}", productId, warehouseId, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching inventory availability: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping("/availability/cache/stats")
+    public ResponseEntity<?> getAvailabilityCacheStats() {
+        log.info("GET /api/inventory/availability/cache/stats - Fetching availability cache statistics");
+        try {
+            AvailabilityCacheStatsResponse stats = inventoryAvailabilityService.getCacheStats();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    stats,
+                    true,
+                    "Availability cache statistics retrieved successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching availability cache statistics: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching availability cache statistics: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @PostMapping("/atp")
+    public ResponseEntity<?> getAvailableToPromise(@Valid @RequestBody AvailableToPromiseRequest request) {
+        log.info("POST /api/inventory/atp - Evaluating available to promise for {} line(s)", request.getLines().size());
+        try {
+            AvailableToPromiseResponse promise = availableToPromiseService.promise(request);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    promise,
+                    true,
+                    promise.isFullyPromisable() ? "All lines can be promised" : "Some lines cannot be fully promised",
+                    promise.getLines().size()
+            ));
+        } catch (Exception e) {
+            log.error("Error evaluating available to promise: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error evaluating available to promise: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/as-of")
+    public ResponseEntity<?> getInventoryAsOf(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long productId) {
+        log.info("GET /api/inventory/as-of - Fetching inventory as of {}", date);
+        try {
+            List<InventoryBalanceResponse> balances = inventorySnapshotService.getBalancesAsOf(date, warehouseId, productId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    balances,
+                    true,
+                    "Inventory as of " + date + " retrieved successfully",
+                    balances.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching inventory as of {}: {}", date, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching inventory as of date: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @PostMapping("/projection/rebuild")
+    public ResponseEntity<?> rebuildInventoryProjection(
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(defaultValue = "false") boolean repair) {
+        log.info("POST /api/inventory/projection/rebuild - Rebuilding inventory projection (repair: {})", repair);
+        try {
+            ProjectionRebuildResult result = inventoryProjectionService.rebuild(warehouseId, repair, 1L); // TODO: Get from JWT
+            return ResponseEntity.ok(new ApiResponse<>(
+                    result,
+                    true,
+                    repair ? "Inventory projection rebuilt and repaired" : "Inventory projection drift report generated",
+                    (int) result.getDriftCount()
+            ));
+        } catch (Exception e) {
+            log.error("Error rebuilding inventory projection: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error rebuilding inventory projection: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @PostMapping(value = "/cycle-counts/import", consumes = "text/csv")
+    public ResponseEntity<?> importCycleCounts(InputStream body) {
+        log.info("POST /api/inventory/cycle-counts/import - Importing cycle counts");
+        try {
+            CycleCountImportResult result = cycleCountImportService.importCounts(body, 1L); // TODO: Get from JWT
+            return ResponseEntity.ok(new ApiResponse<>(
+                    result,
+                    true,
+                    "Cycle counts imported",
+                    (int) result.getAcceptedCount()
+            ));
+        } catch (Exception e) {
+            log.error("Error importing cycle counts: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error importing cycle counts: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping("/lots")
+    public ResponseEntity<?> getInventoryLots(@RequestParam Long productId, @RequestParam Long warehouseId) {
+        log.info("GET /api/inventory/lots - Fetching lots for product ID: {} in warehouse ID: {}", productId, warehouseId);
+        try {
+            List<InventoryLotResponse> lots = inventoryLotService.getLots(productId, warehouseId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    lots,
+                    true,
+                    "Inventory lots retrieved successfully",
+                    lots.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching inventory lots: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching inventory lots: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/lots/expiring")
+    public ResponseEntity<?> getExpiringLots(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("GET /api/inventory/lots/expiring - Fetching lots expiring within {} day(s)", days);
+        try {
+            List<InventoryLotResponse> lots = inventoryLotService.getExpiringLots(days, limit);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    lots,
+                    true,
+                    "Expiring lots retrieved successfully",
+                    lots.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching expiring lots: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching expiring lots: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/valuation")
+    public ResponseEntity<?> getInventoryValuation(@RequestParam(required = false) Long warehouseId) {
+        log.info("GET /api/inventory/valuation - Fetching cost-based inventory valuation");
+        try {
+            List<InventoryValuationResponse> valuation = inventoryCostService.getValuation(warehouseId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    valuation,
+                    true,
+                    "Inventory valuation retrieved successfully",
+                    valuation.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching inventory valuation: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching inventory valuation: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/forecasts")
+    public ResponseEntity<?> getDemandForecasts(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(defaultValue = "false") boolean belowReorderPoint,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.info("GET /api/inventory/forecasts - Fetching demand forecasts");
+        try {
+            List<DemandForecastResponse> forecasts = demandForecastService.getForecasts(productId, warehouseId, belowReorderPoint, limit);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    forecasts,
+                    true,
+                    "Demand forecasts retrieved successfully",
+                    forecasts.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching demand forecasts: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching demand forecasts: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @PostMapping("/forecasts/run")
+    public ResponseEntity<?> runDemandForecast() {
+        log.info("POST /api/inventory/forecasts/run - Forecasting demand and reorder points");
+        try {
+            DemandForecastRunResult result = demandForecastService.forecastDemand();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    result,
+                    true,
+                    "Demand forecast completed",
+                    (int) result.getPairsForecast()
+            ));
+        } catch (Exception e) {
+            log.error("Error forecasting demand: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error forecasting demand: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @PostMapping("/lots/expiry-sweep")
+    public ResponseEntity<?> sweepExpiredLots() {
+        log.info("POST /api/inventory/lots/expiry-sweep - Writing off expired lots");
+        try {
+            LotExpirySweepResult result = inventoryLotService.sweepExpiredLots(1L); // TODO: Get from JWT
+            return ResponseEntity.ok(new ApiResponse<>(
+                    result,
+                    true,
+                    "Expired lots written off",
+                    (int) result.getLotsExpired()
+            ));
+        } catch (Exception e) {
+            log.error("Error sweeping expired lots: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error sweeping expired lots: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @PostMapping("/transfers")
+    public ResponseEntity<?> transferStock(
+            @Valid @RequestBody StockTransferRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.info("POST /api/inventory/transfers - Transferring stock from warehouse {} to warehouse {}",
+                request.getSourceWarehouseId(), request.getDestinationWarehouseId());
+        return idempotencyService.execute(idempotencyKey, "inventory.transfer", request, () -> {
+            try {
+                StockTransferResponse transfer = stockTransferService.createTransfer(request, 1L); // TODO: Get from JWT
+                return ResponseEntity.ok(new ApiResponse<>(
+                        transfer,
+                        true,
+                        "Stock transferred successfully"
+                ));
+            } catch (Exception e) {
+                log.error("Error transferring stock: {}", e.getMessage());
+                return ResponseEntity.badRequest().body(new ApiResponse<>(
+                        null,
+                        false,
+                        "Error transferring stock: " + e.getMessage()
+                ));
+            }
+        });
+    }
+    
+    @PostMapping("/reconciliation/runs")
+    public ResponseEntity<?> runInventoryReconciliation() {
+        log.info("POST /api/inventory/reconciliation/runs - Reconciling inventory against the stock movement ledger");
+        try {
+            InventoryReconciliationRunResponse run = inventoryReconciliationService.reconcile();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    run,
+                    run.getStatus() == InventoryReconciliationRun.RunStatus.COMPLETED,
+                    "Inventory reconciliation " + run.getStatus().name().toLowerCase(),
+                    run.getDriftCount().intValue()
+            ));
+        } catch (Exception e) {
+            log.error("Error reconciling inventory: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error reconciling inventory: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/reconciliation/runs")
+    public ResponseEntity<?> getInventoryReconciliationRuns(@RequestParam(defaultValue = "20") int limit) {
+        log.info("GET /api/inventory/reconciliation/runs - Fetching recent reconciliation runs");
+        try {
+            List<InventoryReconciliationRunResponse> runs = inventoryReconciliationService.getRecentRuns(limit);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    runs,
+                    true,
+                    "Reconciliation runs retrieved successfully",
+                    runs.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching reconciliation runs: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching reconciliation runs: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/reconciliation/runs/{id}/drifts")
+    public ResponseEntity<?> getInventoryDriftReport(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        log.info("GET /api/inventory/reconciliation/runs/{}/drifts - Fetching drift report", id);
+        try {
+            List<InventoryDriftReportResponse> drifts = inventoryReconciliationService.getDrifts(id, page, size);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    drifts,
+                    true,
+                    "Drift report retrieved successfully",
+                    drifts.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching drift report for reconciliation run ID {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching drift report: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
     @GetMapping("/count")
     public ResponseEntity<?> getInventoryCount() {
         log.info("GET /api/inventory/count - Fetching inventory count");
@@ -251,25 +681,28 @@ public class InventoryController {
     @PostMapping("/{id}/adjust")
     public ResponseEntity<?> adjustInventory(
             @PathVariable Long id,
-            @RequestBody InventoryAdjustmentRequest request) {
+            @RequestBody InventoryAdjustmentRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("POST /api/inventory/{}/adjust - Adjusting inventory", id);
-        try {
-            InventoryResponse inventory = inventoryService.adjustInventory(
-                    id, request.getQuantityChange(), request.getAdjustmentType(), 1L); // TODO: Get from JWT
-            
-            return ResponseEntity.ok(new ApiResponse<>(
-                    inventory,
-                    true,
-                    "Inventory adjusted successfully"
-            ));
-        } catch (Exception e) {
-            log.error("Error adjusting inventory with ID {}: {}", id, e.getMessage());
-            return ResponseEntity.badRequest().body(new ApiResponse<>(
-                    null,
-                    false,
-                    "Error adjusting inventory: " + e.getMessage()
-            ));
-        }
+        return idempotencyService.execute(idempotencyKey, "inventory.adjust:" + id, request, () -> {
+            try {
+                InventoryResponse inventory = inventoryService.adjustInventory(
+                        id, request.getQuantityChange(), request.getAdjustmentType(), 1L); // TODO: Get from JWT
+                
+                return ResponseEntity.ok(new ApiResponse<>(
+                        inventory,
+                        true,
+                        "Inventory adjusted successfully"
+                ));
+            } catch (Exception e) {
+                log.error("Error adjusting inventory with ID {}: {}", id, e.getMessage());
+                return ResponseEntity.badRequest().body(new ApiResponse<>(
+                        null,
+                        false,
+                        "Error adjusting inventory: " + e.getMessage()
+                ));
+            }
+        });
     }
     
     // Helper class for inventory adjustment requests
@@ -283,35 +716,4 @@ public class InventoryController {
         public String getAdjustmentType() { return adjustmentType; }
         public void setAdjustmentType(String adjustmentType) { this.adjustmentType = adjustmentType; }
     }
-    
-    // Helper class for consistent API responses
-    public static class ApiResponse<T> {
-        private T data;
-        private boolean success;
-        private String message;
-        private int count;
-        
-        public ApiResponse(T data, boolean success, String message) {
-            this.data = data;
-            this.success = success;
-            this.message = message;
-        }
-        
-        public ApiResponse(T data, boolean success, String message, int count) {
-            this.data = data;
-            this.success = success;
-            this.message = message;
-            this.count = count;
-        }
-        
-        // Getters and setters
-        public T getData() { return data; }
-        public void setData(T data) { this.data = data; }
-        public boolean isSuccess() { return success; }
-        public void setSuccess(boolean success) { this.success = success; }
-        public String getMessage() { return message; }
-        public void setMessage(String message) { this.message = message; }
-        public int getCount() { return count; }
-        public void setCount(int count) { this.count = count; }
-    }
 } 
\ No newline at end of file
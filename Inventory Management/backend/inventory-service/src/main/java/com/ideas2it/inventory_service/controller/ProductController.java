@@ -1,13 +1,19 @@
 package com.ideas2it.inventory_service.controller;
 
+import com.ideas2it.inventory_service.dto.ProductClassificationResult;
 import com.ideas2it.inventory_service.dto.ProductRequest;
 import com.ideas2it.inventory_service.dto.ProductResponse;
+import com.ideas2it.inventory_service.entity.Product;
+import com.ideas2it.inventory_service.service.DataExportService;
+import com.ideas2it.inventory_service.service.ProductClassificationService;
 import com.ideas2it.inventory_service.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -21,19 +27,23 @@ import java.util.stream.Collectors;
 public class ProductController {
     
     private final ProductService productService;
+    private final DataExportService dataExportService;
+    private final ProductClassificationService productClassificationService;
     
     @GetMapping
     public ResponseEntity<?> getAllProducts(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) Product.AbcClass abcClass,
+            @RequestParam(required = false) Product.XyzClass xyzClass,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String sortBy,
             @RequestParam(defaultValue = "asc") String sortOrder) {
         
-        log.info("GET /api/products - Fetching products with filters: search={}, categoryId={}, isActive={}, page={}, size={}", 
-                search, categoryId, isActive, page, size);
+        log.info("GET /api/products - Fetching products with filters: search={}, categoryId={}, isActive={}, abcClass={}, xyzClass={}, page={}, size={}", 
+                search, categoryId, isActive, abcClass, xyzClass, page, size);
         
         try {
             List<ProductResponse> products;
@@ -43,10 +53,24 @@ public class ProductController {
                 products = productService.searchProducts(search);
             } else if (categoryId != null) {
                 products = productService.getProductsByCategory(categoryId);
+            } else if (abcClass != null || xyzClass != null) {
+                products = productService.getProductsByClassification(abcClass, xyzClass);
             } else {
                 products = productService.getAllProducts();
             }
             
+            // Apply class filters on top of a search or category
+            if (abcClass != null) {
+                products = products.stream()
+                        .filter(product -> product.getAbcClass() == abcClass)
+                        .collect(Collectors.toList());
+            }
+            if (xyzClass != null) {
+                products = products.stream()
+                        .filter(product -> product.getXyzClass() == xyzClass)
+                        .collect(Collectors.toList());
+            }
+            
             // Apply status filter if provided
             if (isActive != null) {
                 products = products.stream()
@@ -87,6 +111,19 @@ public class ProductController {
         }
     }
     
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/products/export - Exporting products as {}", format);
+        try {
+            return dataExportService.exportProducts(format, acceptEncoding);
+        } catch (Exception e) {
+            log.error("Error exporting products: {}", e.getMessage());
+            return dataExportService.errorResponse("Error exporting products: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
         log.info("GET /api/products/{} - Fetching product by ID", id);
@@ -287,6 +324,26 @@ public class ProductController {
         }
     }
     
+    @PostMapping("/classification/run")
+    public ResponseEntity<?> classifyProducts() {
+        log.info("POST /api/products/classification/run - Classifying products");
+        try {
+            ProductClassificationResult result = productClassificationService.classifyProducts();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    result,
+                    true,
+                    "Products classified successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error classifying products: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error classifying products: " + e.getMessage()
+            ));
+        }
+    }
+    
     @GetMapping("/count")
     public ResponseEntity<?> getProductCount() {
         log.info("GET /api/products/count - Fetching product count");
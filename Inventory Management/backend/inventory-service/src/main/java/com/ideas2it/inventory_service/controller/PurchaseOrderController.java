@@ -1,9 +1,12 @@
 package com.ideas2it.inventory_service.controller;
 
+import com.ideas2it.inventory_service.dto.CursorPage;
 import com.ideas2it.inventory_service.dto.PurchaseOrderRequest;
 import com.ideas2it.inventory_service.dto.PurchaseOrderResponse;
+import com.ideas2it.inventory_service.dto.ReplenishmentRunResult;
 import com.ideas2it.inventory_service.entity.PurchaseOrder;
 import com.ideas2it.inventory_service.service.PurchaseOrderService;
+import com.ideas2it.inventory_service.service.ReplenishmentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -21,6 +24,7 @@ import java.util.List;
 public class PurchaseOrderController {
     
     private final PurchaseOrderService purchaseOrderService;
+    private final ReplenishmentService replenishmentService;
     
     @GetMapping
     public ResponseEntity<?> getAllPurchaseOrders(
@@ -47,6 +51,32 @@ public class PurchaseOrderController {
         }
     }
     
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getPurchaseOrdersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) PurchaseOrder.OrderStatus status,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET /api/purchase-orders/cursor - Fetching purchase orders with cursor pagination");
+        try {
+            CursorPage<PurchaseOrderResponse> page = purchaseOrderService.getPurchaseOrdersWithCursor(cursor, size, status, includeTotal);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    page,
+                    true,
+                    "Purchase orders retrieved successfully",
+                    page.getItems().size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching purchase orders: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching purchase orders: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getPurchaseOrderById(@PathVariable Long id) {
         log.info("GET /api/purchase-orders/{} - Fetching purchase order by ID", id);
@@ -239,6 +269,28 @@ public class PurchaseOrderController {
         }
     }
     
+    @PostMapping("/replenishment/run")
+    public ResponseEntity<?> runReplenishment() {
+        log.info("POST /api/purchase-orders/replenishment/run - Drafting purchase orders for low-stock inventory");
+        try {
+            ReplenishmentRunResult result = replenishmentService.replenish(1L); // TODO: Get from JWT
+            return ResponseEntity.ok(new ApiResponse<>(
+                    result,
+                    true,
+                    "Replenishment drafted " + result.getPurchaseOrderNumbers().size() + " purchase order(s)",
+                    result.getPurchaseOrderNumbers().size()
+            ));
+        } catch (Exception e) {
+            log.error("Error drafting replenishment orders: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error drafting replenishment orders: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
     @GetMapping("/count")
     public ResponseEntity<?> getPurchaseOrderCount() {
         log.info("GET /api/purchase-orders/count - Fetching purchase order count");
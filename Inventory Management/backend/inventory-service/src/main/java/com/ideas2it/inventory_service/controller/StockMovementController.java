@@ -1,8 +1,18 @@
 package com.ideas2it.inventory_service.controller;
 
+import com.ideas2it.inventory_service.dto.BulkMovementResult;
+import com.ideas2it.inventory_service.dto.CostOfGoodsResponse;
+import com.ideas2it.inventory_service.dto.CursorPage;
+import com.ideas2it.inventory_service.dto.ProductMovementSummaryResponse;
+import com.ideas2it.inventory_service.dto.StockMovementArchiveResponse;
 import com.ideas2it.inventory_service.dto.StockMovementRequest;
 import com.ideas2it.inventory_service.dto.StockMovementResponse;
 import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.service.DataExportService;
+import com.ideas2it.inventory_service.service.IdempotencyService;
+import com.ideas2it.inventory_service.service.InventoryCostService;
+import com.ideas2it.inventory_service.service.StockMovementBulkService;
+import com.ideas2it.inventory_service.service.StockMovementCompactionService;
 import com.ideas2it.inventory_service.service.StockMovementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,9 +20,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,6 +36,11 @@ import java.util.List;
 public class StockMovementController {
     
     private final StockMovementService stockMovementService;
+    private final StockMovementBulkService stockMovementBulkService;
+    private final StockMovementCompactionService stockMovementCompactionService;
+    private final IdempotencyService idempotencyService;
+    private final DataExportService dataExportService;
+    private final InventoryCostService inventoryCostService;
     
     @GetMapping
     public ResponseEntity<?> getAllStockMovements(
@@ -49,6 +67,75 @@ public class StockMovementController {
         }
     }
     
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getStockMovementsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("GET /api/inventory/movements/cursor - Fetching stock movements with cursor pagination");
+        try {
+            CursorPage<StockMovementResponse> page = stockMovementService.getStockMovementsWithCursor(
+                    cursor, size, productId, warehouseId, includeTotal);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    page,
+                    true,
+                    "Stock movements retrieved successfully",
+                    page.getItems().size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching stock movements: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching stock movements: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/summary")
+    public ResponseEntity<?> getMovementSummaries(
+            @RequestParam List<Long> productIds,
+            @RequestParam(required = false) Long warehouseId) {
+        log.info("GET /api/inventory/movements/summary - Fetching movement summaries for {} products", productIds.size());
+        try {
+            List<ProductMovementSummaryResponse> summaries = stockMovementService.getMovementSummaries(productIds, warehouseId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    summaries,
+                    true,
+                    "Movement summaries retrieved successfully",
+                    summaries.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching movement summaries: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching movement summaries: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStockMovements(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.info("GET /api/inventory/movements/export - Exporting stock movements as {}", format);
+        try {
+            return dataExportService.exportStockMovements(format, productId, warehouseId, startDate, endDate, acceptEncoding);
+        } catch (Exception e) {
+            log.error("Error exporting stock movements: {}", e.getMessage());
+            return dataExportService.errorResponse("Error exporting stock movements: " + e.getMessage());
+        }
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<?> getStockMovementById(@PathVariable Long id) {
         log.info("GET /api/inventory/movements/{} - Fetching stock movement by ID", id);
@@ -159,6 +246,31 @@ public class StockMovementController {
         }
     }
     
+    @GetMapping("/cogs")
+    public ResponseEntity<?> getCostOfGoods(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long warehouseId) {
+        log.info("GET /api/inventory/movements/cogs - Fetching cost of goods by date range");
+        try {
+            List<CostOfGoodsResponse> costOfGoods = inventoryCostService.getCostOfGoods(startDate, endDate, warehouseId);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    costOfGoods,
+                    true,
+                    "Cost of goods retrieved successfully",
+                    costOfGoods.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching cost of goods: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching cost of goods: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
     @GetMapping("/product/{productId}/date-range")
     public ResponseEntity<?> getStockMovementsByProductAndDateRange(
             @PathVariable Long productId,
@@ -185,21 +297,97 @@ public class StockMovementController {
     }
     
     @PostMapping
-    public ResponseEntity<?> createStockMovement(@RequestBody StockMovementRequest request) {
+    public ResponseEntity<?> createStockMovement(
+            @RequestBody StockMovementRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("POST /api/inventory/movements - Creating stock movement");
+        return idempotencyService.execute(idempotencyKey, "inventory.movements.create", request, () -> {
+            try {
+                // A movement naming a lot can fail on the lot alone, so it does not join a shared batch. A keyed
+                // request does not either: its key is claimed in this transaction, and a batch that commits after
+                // the wait times out would leave the key free for a retry to apply the movement again
+                boolean groupCommit = stockMovementService.isGroupCommitEnabled() && request.getLotNumber() == null
+                        && (idempotencyKey == null || idempotencyKey.isBlank());
+                StockMovementResponse movement = groupCommit
+                        ? stockMovementService.createStockMovementGroupCommitted(request, 1L) // TODO: Get from JWT
+                        : stockMovementService.createStockMovement(request, 1L); // TODO: Get from JWT
+                return ResponseEntity.ok(new ApiResponse<>(
+                        movement,
+                        true,
+                        "Stock movement created successfully"
+                ));
+            } catch (Exception e) {
+                log.error("Error creating stock movement: {}", e.getMessage());
+                return ResponseEntity.badRequest().body(new ApiResponse<>(
+                        null,
+                        false,
+                        "Error creating stock movement: " + e.getMessage()
+                ));
+            }
+        });
+    }
+    
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<?> bulkCreateStockMovements(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        log.info("POST /api/inventory/movements/bulk - Bulk ingesting stock movements");
         try {
-            StockMovementResponse movement = stockMovementService.createStockMovement(request, 1L); // TODO: Get from JWT
+            boolean csv = contentType.toLowerCase().startsWith("text/csv");
+            BulkMovementResult result = stockMovementBulkService.ingest(body, csv, 1L); // TODO: Get from JWT
             return ResponseEntity.ok(new ApiResponse<>(
-                    movement,
+                    result,
+                    true,
+                    "Bulk stock movements processed",
+                    (int) result.getAcceptedCount()
+            ));
+        } catch (Exception e) {
+            log.error("Error bulk ingesting stock movements: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error bulk ingesting stock movements: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping("/archives")
+    public ResponseEntity<?> getStockMovementArchives() {
+        log.info("GET /api/inventory/movements/archives - Fetching stock movement archives");
+        try {
+            List<StockMovementArchiveResponse> archives = stockMovementCompactionService.getArchives();
+            return ResponseEntity.ok(new ApiResponse<>(
+                    archives,
+                    true,
+                    "Stock movement archives retrieved successfully",
+                    archives.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching stock movement archives: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching stock movement archives: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @PostMapping("/archives/{id}/restore")
+    public ResponseEntity<?> restoreStockMovementArchive(@PathVariable Long id) {
+        log.info("POST /api/inventory/movements/archives/{}/restore - Restoring stock movement archive", id);
+        try {
+            StockMovementArchiveResponse archive = stockMovementCompactionService.restoreArchive(id);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    archive,
                     true,
-                    "Stock movement created successfully"
+                    "Stock movement archive restored successfully"
             ));
         } catch (Exception e) {
-            log.error("Error creating stock movement: {}", e.getMessage());
+            log.error("Error restoring stock movement archive with ID {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().body(new ApiResponse<>(
                     null,
                     false,
-                    "Error creating stock movement: " + e.getMessage()
+                    "Error restoring stock movement archive: " + e.getMessage()
             ));
         }
     }
@@ -0,0 +1,171 @@
+package com.ideas2it.inventory_service.controller;
+
+import com.ideas2it.inventory_service.dto.ReservationIdsRequest;
+import com.ideas2it.inventory_service.dto.StockReservationRequest;
+import com.ideas2it.inventory_service.dto.StockReservationResponse;
+import com.ideas2it.inventory_service.service.IdempotencyService;
+import com.ideas2it.inventory_service.service.StockReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory/reservations")
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationController {
+    
+    private final StockReservationService stockReservationService;
+    private final IdempotencyService idempotencyService;
+    
+    @PostMapping
+    public ResponseEntity<?> reserveStock(
+            @Valid @RequestBody StockReservationRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.info("POST /api/inventory/reservations - Reserving {} line(s)", request.getLines().size());
+        return idempotencyService.execute(idempotencyKey, "inventory.reserve", request, () -> {
+            try {
+                List<StockReservationResponse> reservations = stockReservationService.reserve(request, 1L); // TODO: Get from JWT
+                return ResponseEntity.ok(new ApiResponse<>(
+                        reservations,
+                        true,
+                        "Stock reserved successfully",
+                        reservations.size()
+                ));
+            } catch (Exception e) {
+                log.error("Error reserving stock: {}", e.getMessage());
+                return ResponseEntity.badRequest().body(new ApiResponse<>(
+                        null,
+                        false,
+                        "Error reserving stock: " + e.getMessage(),
+                        0
+                ));
+            }
+        });
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getReservationById(@PathVariable Long id) {
+        log.info("GET /api/inventory/reservations/{} - Fetching reservation by ID", id);
+        try {
+            StockReservationResponse reservation = stockReservationService.getReservationById(id);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    reservation,
+                    true,
+                    "Reservation retrieved successfully"
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching reservation with ID {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching reservation: " + e.getMessage()
+            ));
+        }
+    }
+    
+    @GetMapping
+    public ResponseEntity<?> getReservationsByReference(@RequestParam String reference) {
+        log.info("GET /api/inventory/reservations?reference={} - Fetching reservations by reference", reference);
+        try {
+            List<StockReservationResponse> reservations = stockReservationService.getReservationsByReference(reference);
+            return ResponseEntity.ok(new ApiResponse<>(
+                    reservations,
+                    true,
+                    "Reservations retrieved successfully",
+                    reservations.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error fetching reservations by reference {}: {}", reference, e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error fetching reservations: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @PostMapping("/release")
+    public ResponseEntity<?> releaseReservations(@Valid @RequestBody ReservationIdsRequest request) {
+        log.info("POST /api/inventory/reservations/release - Releasing {} reservation(s)", request.getReservationIds().size());
+        try {
+            List<Long> released = stockReservationService.release(request.getReservationIds());
+            return ResponseEntity.ok(new ApiResponse<>(
+                    released,
+                    true,
+                    released.size() + " reservation(s) released",
+                    released.size()
+            ));
+        } catch (Exception e) {
+            log.error("Error releasing reservations: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(new ApiResponse<>(
+                    null,
+                    false,
+                    "Error releasing reservations: " + e.getMessage(),
+                    0
+            ));
+        }
+    }
+    
+    @PostMapping("/commit")
+    public ResponseEntity<?> commitReservations(
+            @Valid @RequestBody ReservationIdsRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        log.info("POST /api/inventory/reservations/commit - Committing {} reservation(s)", request.getReservationIds().size());
+        return idempotencyService.execute(idempotencyKey, "inventory.reservations.commit", request, () -> {
+            try {
+                List<Long> committed = stockReservationService.commit(request.getReservationIds(), 1L); // TODO: Get from JWT
+                return ResponseEntity.ok(new ApiResponse<>(
+                        committed,
+                        true,
+                        committed.size() + " reservation(s) committed",
+                        committed.size()
+                ));
+            } catch (Exception e) {
+                log.error("Error committing reservations: {}", e.getMessage());
+                return ResponseEntity.badRequest().body(new ApiResponse<>(
+                        null,
+                        false,
+                        "Error committing reservations: " + e.getMessage(),
+                        0
+                ));
+            }
+        });
+    }
+    
+    // Helper class for consistent API responses
+    public static class ApiResponse<T> {
+        private T data;
+        private boolean success;
+        private String message;
+        private int count;
+        
+        public ApiResponse(T data, boolean success, String message) {
+            this.data = data;
+            this.success = success;
+            this.message = message;
+        }
+        
+        public ApiResponse(T data, boolean success, String message, int count) {
+            this.data = data;
+            this.success = success;
+            this.message = message;
+            this.count = count;
+        }
+        
+        // Getters and setters
+        public T getData() { return data; }
+        public void setData(T data) { this.data = data; }
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+    }
+} 
@@ -0,0 +1,42 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.Alert;
+import com.ideas2it.inventory_service.entity.AlertRule;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRuleRequest {
+    
+    @NotBlank(message = "Rule name is required")
+    private String name;
+    
+    private String description;
+    
+    @NotNull(message = "Condition type is required")
+    private AlertRule.ConditionType conditionType;
+    
+    @Min(value = 0, message = "Threshold must be greater than or equal to 0")
+    private Integer threshold;
+    
+    private AlertRule.ScopeType scopeType = AlertRule.ScopeType.GLOBAL;
+    
+    private Long scopeId;
+    
+    @NotNull(message = "Alert type is required")
+    private Alert.AlertType alertType;
+    
+    @NotNull(message = "Severity is required")
+    private Alert.Severity severity;
+    
+    @NotNull(message = "Priority is required")
+    private Alert.Priority priority;
+    
+    private Boolean isActive = true;
+}
@@ -0,0 +1,47 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.Alert;
+import com.ideas2it.inventory_service.entity.AlertRule;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRuleResponse {
+    
+    private Long id;
+    private String name;
+    private String description;
+    private AlertRule.ConditionType conditionType;
+    private Integer threshold;
+    private AlertRule.ScopeType scopeType;
+    private Long scopeId;
+    private Alert.AlertType alertType;
+    private Alert.Severity severity;
+    private Alert.Priority priority;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    public static AlertRuleResponse fromAlertRule(AlertRule rule) {
+        AlertRuleResponse response = new AlertRuleResponse();
+        response.setId(rule.getId());
+        response.setName(rule.getName());
+        response.setDescription(rule.getDescription());
+        response.setConditionType(rule.getConditionType());
+        response.setThreshold(rule.getThreshold());
+        response.setScopeType(rule.getScopeType());
+        response.setScopeId(rule.getScopeId());
+        response.setAlertType(rule.getAlertType());
+        response.setSeverity(rule.getSeverity());
+        response.setPriority(rule.getPriority());
+        response.setIsActive(rule.getIsActive());
+        response.setCreatedAt(rule.getCreatedAt());
+        response.setUpdatedAt(rule.getUpdatedAt());
+        return response;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The envelope every endpoint answers with. {@code count} is the number of items in {@code data}
+ * for listings and zero otherwise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiResponse<T> {
+    
+    private T data;
+    private boolean success;
+    private String message;
+    private int count;
+    
+    public ApiResponse(T data, boolean success, String message) {
+        this.data = data;
+        this.success = success;
+        this.message = message;
+    }
+}
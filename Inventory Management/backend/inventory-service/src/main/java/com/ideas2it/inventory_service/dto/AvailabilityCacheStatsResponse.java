@@ -0,0 +1,22 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityCacheStatsResponse {
+    
+    private boolean enabled;
+    private boolean listening;
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long invalidations;
+    private long remoteNotifications;
+}
@@ -0,0 +1,40 @@
+package com.ideas2it.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableToPromiseRequest {
+    
+    @NotEmpty(message = "At least one line is required")
+    @Valid
+    private List<PromiseLine> lines = new ArrayList<>();
+    
+    // Whether open purchase order quantities may cover what stock cannot
+    private Boolean includeInbound = true;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PromiseLine {
+        
+        // Either the SKU or the product ID identifies the product
+        private String sku;
+        
+        private Long productId;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be greater than 0")
+        private Integer quantity;
+    }
+}
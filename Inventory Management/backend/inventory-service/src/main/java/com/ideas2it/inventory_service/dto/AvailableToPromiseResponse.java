@@ -0,0 +1,41 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailableToPromiseResponse {
+    
+    private boolean fullyPromisable;
+    private Integer warehouseCount;
+    private Long evaluationMicros;
+    private List<PromiseLineResponse> lines = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PromiseLineResponse {
+        private Long productId;
+        private String sku;
+        private Integer requestedQuantity;
+        private Integer fromStock;
+        private Integer fromInbound;
+        private Integer shortfall;
+        private List<WarehouseAllocation> allocations = new ArrayList<>();
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WarehouseAllocation {
+        private Long warehouseId;
+        private Integer fromStock;
+        private Integer fromInbound;
+    }
+}
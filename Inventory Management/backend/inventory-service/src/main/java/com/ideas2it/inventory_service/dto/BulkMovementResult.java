@@ -0,0 +1,30 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMovementResult {
+    
+    private long totalLines;
+    private long acceptedCount;
+    private long rejectedCount;
+    private long inventoryRowsUpdated;
+    private long elapsedMillis;
+    private List<LineError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        private long lineNumber;
+        private String message;
+    }
+}
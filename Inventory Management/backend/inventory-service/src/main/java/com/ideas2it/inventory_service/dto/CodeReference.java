@@ -0,0 +1,17 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A business code (product SKU, warehouse code) resolved to the ID of the row that carries it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CodeReference {
+    
+    private String code;
+    private Long id;
+}
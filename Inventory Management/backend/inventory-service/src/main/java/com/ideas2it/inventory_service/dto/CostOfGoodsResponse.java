@@ -0,0 +1,23 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CostOfGoodsResponse {
+    
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private Long warehouseId;
+    private String warehouseCode;
+    private Long quantityOut;
+    private BigDecimal costOfGoods;
+    // Quantity that left before movements were costed, and so is missing from costOfGoods
+    private Long uncostedQuantity;
+}
@@ -0,0 +1,49 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page and
+ * {@code totalCount} is only populated when the caller asked for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 200;
+    
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long totalCount;
+    
+    public static int normalizeSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIZE);
+    }
+    
+    // One row more than the page size, so the presence of a next page is known without a COUNT
+    public static Pageable fetchLimit(int size) {
+        return PageRequest.of(0, normalizeSize(size) + 1);
+    }
+    
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper,
+                                          Function<E, String> cursorOf, Long totalCount) {
+        int pageSize = normalizeSize(size);
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        String nextCursor = hasMore ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        List<T> items = pageRows.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor, hasMore, totalCount);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CycleCountImportResult {
+    
+    private long totalLines;
+    private long acceptedCount;
+    private long rejectedCount;
+    private long adjustedCount;
+    private long unchangedCount;
+    private long netQuantityChange;
+    private long elapsedMillis;
+    private List<BulkMovementResult.LineError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+}
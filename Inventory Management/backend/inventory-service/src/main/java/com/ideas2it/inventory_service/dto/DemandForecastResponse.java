@@ -0,0 +1,29 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandForecastResponse {
+    
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private Long warehouseId;
+    private String warehouseCode;
+    private Integer quantityAvailable;
+    // The product's configured reorder point, for comparison with the suggested one
+    private Integer currentReorderPoint;
+    private BigDecimal averageDailyDemand;
+    private BigDecimal demandDeviation;
+    private BigDecimal leadTimeDays;
+    private Integer safetyStock;
+    private Integer suggestedReorderPoint;
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,21 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandForecastRunResult {
+    
+    // Demand is read from windowStart up to, but not including, windowEnd (whole days)
+    private LocalDate windowStart;
+    private LocalDate windowEnd;
+    private long pairsForecast;
+    private long pairsWithDemand;
+    private int chunks;
+    private long elapsedMillis;
+}
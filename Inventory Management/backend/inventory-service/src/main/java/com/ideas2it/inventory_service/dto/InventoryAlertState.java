@@ -0,0 +1,36 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.Inventory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Flat view of an inventory row with the product fields alert rules evaluate against.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAlertState {
+    
+    private Long inventoryId;
+    private Long productId;
+    private String productName;
+    private Long categoryId;
+    private Long warehouseId;
+    private Integer quantityAvailable;
+    private Integer reorderPoint;
+    
+    public static InventoryAlertState fromInventory(Inventory inventory) {
+        InventoryAlertState state = new InventoryAlertState();
+        state.setInventoryId(inventory.getId());
+        state.setProductId(inventory.getProduct().getId());
+        state.setProductName(inventory.getProduct().getName());
+        state.setCategoryId(inventory.getProduct().getCategory() != null ? inventory.getProduct().getCategory().getId() : null);
+        state.setWarehouseId(inventory.getWarehouse().getId());
+        // Derived here rather than read back, since @PreUpdate only recomputes it on flush
+        state.setQuantityAvailable(inventory.getQuantityOnHand() - inventory.getQuantityReserved());
+        state.setReorderPoint(inventory.getProduct().getReorderPoint());
+        return state;
+    }
+}
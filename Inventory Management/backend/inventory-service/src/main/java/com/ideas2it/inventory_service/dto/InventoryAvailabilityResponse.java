@@ -0,0 +1,21 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAvailabilityResponse {
+    
+    private Long inventoryId;
+    private Long productId;
+    private Long warehouseId;
+    private Integer quantityOnHand;
+    private Integer quantityReserved;
+    private Integer quantityAvailable;
+    private LocalDateTime lastUpdatedAt;
+}
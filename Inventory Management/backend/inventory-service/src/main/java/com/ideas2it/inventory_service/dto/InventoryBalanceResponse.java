@@ -0,0 +1,20 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryBalanceResponse {
+    
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private Long warehouseId;
+    private Long quantityOnHand;
+    private LocalDateTime asOf;
+}
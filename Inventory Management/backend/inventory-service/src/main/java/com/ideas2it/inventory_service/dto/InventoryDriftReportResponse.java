@@ -0,0 +1,23 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDriftReportResponse {
+    
+    private Long id;
+    private Long runId;
+    private Long inventoryId;
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private Long warehouseId;
+    private String warehouseName;
+    private Long inventoryQuantity;
+    private Long ledgerQuantity;
+    private Long difference;
+}
@@ -0,0 +1,25 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLotResponse {
+    
+    private Long id;
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private Long warehouseId;
+    private String warehouseCode;
+    private String lotNumber;
+    private LocalDate expiryDate;
+    private Integer quantity;
+    private LocalDateTime receivedAt;
+}
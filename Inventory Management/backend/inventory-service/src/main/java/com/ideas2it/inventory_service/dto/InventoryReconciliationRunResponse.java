@@ -0,0 +1,40 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.InventoryReconciliationRun;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReconciliationRunResponse {
+    
+    private Long id;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private InventoryReconciliationRun.RunStatus status;
+    private Integer warehousesChecked;
+    private Long inventoryRowsChecked;
+    private Long movementsReplayed;
+    private Long driftCount;
+    private Integer alertsRaised;
+    private String errorMessage;
+    
+    public static InventoryReconciliationRunResponse fromRun(InventoryReconciliationRun run) {
+        return new InventoryReconciliationRunResponse(
+                run.getId(),
+                run.getStartedAt(),
+                run.getFinishedAt(),
+                run.getStatus(),
+                run.getWarehousesChecked(),
+                run.getInventoryRowsChecked(),
+                run.getMovementsReplayed(),
+                run.getDriftCount(),
+                run.getAlertsRaised(),
+                run.getErrorMessage()
+        );
+    }
+}
@@ -20,6 +20,5 @@ public class InventoryRequest {
     @Min(value = 0, message = "Quantity on hand must be greater than or equal to 0")
     private Integer quantityOnHand = 0;
     
-    @Min(value = 0, message = "Quantity reserved must be greater than or equal to 0")
-    private Integer quantityReserved = 0;
+    // quantityReserved is not writable: it is the sum of the HELD reservations (see StockReservationService)
 } 
\ No newline at end of file
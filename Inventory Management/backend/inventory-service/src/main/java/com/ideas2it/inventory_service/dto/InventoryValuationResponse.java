@@ -0,0 +1,23 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryValuationResponse {
+    
+    private Long productId;
+    private String productSku;
+    private String productName;
+    private Long warehouseId;
+    private String warehouseCode;
+    private Integer quantityOnHand;
+    // Moving-average unit cost, or the product's cost price where no movement has been costed yet
+    private BigDecimal averageCost;
+    private BigDecimal totalValue;
+}
@@ -0,0 +1,20 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LotExpirySweepResult {
+    
+    // Lots that expired before this date were swept
+    private LocalDate expiredBefore;
+    private long lotsExpired;
+    private long quantityWrittenOff;
+    private long movementsRecorded;
+    private long elapsedMillis;
+}
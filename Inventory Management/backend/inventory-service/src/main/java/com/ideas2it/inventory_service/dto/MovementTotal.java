@@ -0,0 +1,20 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One (product, movement type) row of the stock movement summary, summed over the selected warehouses.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementTotal {
+    
+    private Long productId;
+    private StockMovement.MovementType movementType;
+    private Long totalQuantity;
+    private Long movementCount;
+}
@@ -0,0 +1,24 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductClassificationResult {
+    
+    // Demand is read from windowStart up to, but not including, windowEnd (whole weeks)
+    private LocalDate windowStart;
+    private LocalDate windowEnd;
+    private long productsClassified;
+    private long productsChanged;
+    // Products per combined class, keyed like "AX"
+    private Map<String, Long> classCounts = new TreeMap<>();
+    private long elapsedMillis;
+}
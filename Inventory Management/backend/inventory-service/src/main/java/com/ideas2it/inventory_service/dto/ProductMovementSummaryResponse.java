@@ -0,0 +1,37 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductMovementSummaryResponse {
+    
+    private Long productId;
+    // Null when the totals cover every warehouse
+    private Long warehouseId;
+    private Map<StockMovement.MovementType, Long> totalQuantity;
+    private Map<StockMovement.MovementType, Long> movementCount;
+    
+    // Starts with every movement type at zero so products without history still report all four
+    public static ProductMovementSummaryResponse empty(Long productId, Long warehouseId) {
+        Map<StockMovement.MovementType, Long> quantities = new EnumMap<>(StockMovement.MovementType.class);
+        Map<StockMovement.MovementType, Long> counts = new EnumMap<>(StockMovement.MovementType.class);
+        for (StockMovement.MovementType type : StockMovement.MovementType.values()) {
+            quantities.put(type, 0L);
+            counts.put(type, 0L);
+        }
+        return new ProductMovementSummaryResponse(productId, warehouseId, quantities, counts);
+    }
+    
+    public void add(MovementTotal total) {
+        totalQuantity.put(total.getMovementType(), total.getTotalQuantity());
+        movementCount.put(total.getMovementType(), total.getMovementCount());
+    }
+}
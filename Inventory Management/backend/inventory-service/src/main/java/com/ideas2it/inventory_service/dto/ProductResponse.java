@@ -28,6 +28,8 @@ public class ProductResponse {
     private Integer reorderPoint;
     private Integer reorderQuantity;
     private Boolean isActive;
+    private Product.AbcClass abcClass;
+    private Product.XyzClass xyzClass;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private UserResponse createdBy;
@@ -53,6 +55,8 @@ public class ProductResponse {
         response.setReorderPoint(product.getReorderPoint());
         response.setReorderQuantity(product.getReorderQuantity());
         response.setIsActive(product.getIsActive());
+        response.setAbcClass(product.getAbcClass());
+        response.setXyzClass(product.getXyzClass());
         response.setCreatedAt(product.getCreatedAt());
         response.setUpdatedAt(product.getUpdatedAt());
         
@@ -0,0 +1,37 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectionRebuildResult {
+    
+    private boolean repair;
+    private int warehousesReplayed;
+    private long movementsReplayed;
+    private long inventoryRowsChecked;
+    private long driftCount;
+    private long repairedCount;
+    private long elapsedMillis;
+    private List<InventoryDrift> drifts = new ArrayList<>();
+    private boolean driftsTruncated;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InventoryDrift {
+        // Null when the ledger has stock for a row that does not exist
+        private Long inventoryId;
+        private Long productId;
+        private Long warehouseId;
+        private Long inventoryQuantity;
+        private Long ledgerQuantity;
+        private boolean repaired;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplenishmentRunResult {
+    
+    private long lowStockRows;
+    // Low-stock rows whose open purchase orders already lift them above the reorder point
+    private long rowsCoveredByOpenOrders;
+    // Low-stock rows of products never bought from an active supplier, left for a buyer
+    private long rowsWithoutSupplier;
+    private long linesCreated;
+    private List<String> purchaseOrderNumbers = new ArrayList<>();
+    private long elapsedMillis;
+}
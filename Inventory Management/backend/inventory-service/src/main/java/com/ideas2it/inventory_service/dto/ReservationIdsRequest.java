@@ -0,0 +1,18 @@
+package com.ideas2it.inventory_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationIdsRequest {
+    
+    @NotEmpty(message = "At least one reservation ID is required")
+    private List<Long> reservationIds = new ArrayList<>();
+}
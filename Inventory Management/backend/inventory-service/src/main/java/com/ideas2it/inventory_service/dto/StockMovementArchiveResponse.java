@@ -0,0 +1,37 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.StockMovementArchive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementArchiveResponse {
+    
+    private Long id;
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private String fileName;
+    private Long rowCount;
+    private String checksum;
+    private LocalDateTime archivedAt;
+    private LocalDateTime restoredAt;
+    
+    public static StockMovementArchiveResponse fromArchive(StockMovementArchive archive) {
+        return new StockMovementArchiveResponse(
+                archive.getId(),
+                archive.getPeriodStart(),
+                archive.getPeriodEnd(),
+                archive.getFileName(),
+                archive.getRowCount(),
+                archive.getChecksum(),
+                archive.getArchivedAt(),
+                archive.getRestoredAt()
+        );
+    }
+}
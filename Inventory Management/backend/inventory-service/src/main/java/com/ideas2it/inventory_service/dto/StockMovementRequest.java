@@ -1,12 +1,17 @@
 package com.ideas2it.inventory_service.dto;
 
 import com.ideas2it.inventory_service.entity.StockMovement;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,4 +35,14 @@ public class StockMovementRequest {
     private Long referenceId;
     
     private String notes;
+    
+    // Lot the stock goes into (IN, with its expiry date) or is taken from (OUT); OUT without a lot is allocated first-expiry-first-out
+    @Size(max = 50, message = "Lot number must not exceed 50 characters")
+    private String lotNumber;
+    
+    private LocalDate expiryDate;
+    
+    // Unit cost of an IN (e.g. the purchase order price); left empty, stock comes in at the current average cost
+    @DecimalMin(value = "0.0", message = "Unit cost cannot be negative")
+    private BigDecimal unitCost;
 } 
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -20,6 +21,7 @@ public class StockMovementResponse {
     private StockMovement.ReferenceType referenceType;
     private Long referenceId;
     private String notes;
+    private BigDecimal unitCost;
     private LocalDateTime movementDate;
     private LocalDateTime createdAt;
     private UserResponse createdBy;
@@ -32,6 +34,7 @@ public class StockMovementResponse {
         response.setReferenceType(stockMovement.getReferenceType());
         response.setReferenceId(stockMovement.getReferenceId());
         response.setNotes(stockMovement.getNotes());
+        response.setUnitCost(stockMovement.getUnitCost());
         response.setMovementDate(stockMovement.getMovementDate());
         response.setCreatedAt(stockMovement.getCreatedAt());
         
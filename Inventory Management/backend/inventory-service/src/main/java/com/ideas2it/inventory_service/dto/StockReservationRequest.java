@@ -0,0 +1,46 @@
+package com.ideas2it.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    
+    @NotEmpty(message = "At least one reservation line is required")
+    @Valid
+    private List<ReservationLine> lines = new ArrayList<>();
+    
+    // Hold duration; the configured default when omitted
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Integer ttlSeconds;
+    
+    @Size(max = 100, message = "Reference must not exceed 100 characters")
+    private String reference;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservationLine {
+        
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+        
+        @NotNull(message = "Warehouse ID is required")
+        private Long warehouseId;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be greater than 0")
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ideas2it.inventory_service.dto;
+
+import com.ideas2it.inventory_service.entity.StockReservation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    
+    private Long id;
+    private Long inventoryId;
+    private Long productId;
+    private Long warehouseId;
+    private Integer quantity;
+    private StockReservation.ReservationStatus status;
+    private String reference;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime resolvedAt;
+    
+    public static StockReservationResponse fromReservation(StockReservation reservation) {
+        return new StockReservationResponse(
+                reservation.getId(),
+                reservation.getInventoryId(),
+                reservation.getProduct().getId(),
+                reservation.getWarehouse().getId(),
+                reservation.getQuantity(),
+                reservation.getStatus(),
+                reservation.getReference(),
+                reservation.getExpiresAt(),
+                reservation.getCreatedAt(),
+                reservation.getResolvedAt()
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.ideas2it.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferRequest {
+    
+    @NotNull(message = "Source warehouse ID is required")
+    private Long sourceWarehouseId;
+    
+    @NotNull(message = "Destination warehouse ID is required")
+    private Long destinationWarehouseId;
+    
+    @NotEmpty(message = "At least one transfer line is required")
+    @Valid
+    private List<TransferLine> lines = new ArrayList<>();
+    
+    private String notes;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransferLine {
+        
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+        
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be greater than 0")
+        private Integer quantity;
+    }
+}
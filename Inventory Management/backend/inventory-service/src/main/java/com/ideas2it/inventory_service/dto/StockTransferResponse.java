@@ -0,0 +1,34 @@
+package com.ideas2it.inventory_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransferResponse {
+    
+    private Long id;
+    private Long sourceWarehouseId;
+    private Long destinationWarehouseId;
+    private Integer lineCount;
+    private Long totalQuantity;
+    private String notes;
+    private LocalDateTime createdAt;
+    private List<TransferLineResponse> lines = new ArrayList<>();
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransferLineResponse {
+        private Long productId;
+        private Integer quantity;
+        private Long outMovementId;
+        private Long inMovementId;
+    }
+}
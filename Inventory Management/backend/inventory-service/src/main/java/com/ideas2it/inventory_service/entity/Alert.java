@@ -10,7 +10,14 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "alerts")
+@Table(name = "alerts", indexes = {
+    @Index(name = "idx_alerts_reference_type_status", columnList = "reference_type, reference_id, alert_type, status"),
+    @Index(name = "idx_alerts_status_triggered_at", columnList = "status, triggered_at DESC, id DESC"),
+    @Index(name = "idx_alerts_alert_type_triggered_at", columnList = "alert_type, triggered_at DESC"),
+    @Index(name = "idx_alerts_severity_status_triggered_at", columnList = "severity, status, triggered_at DESC"),
+    @Index(name = "idx_alerts_priority_status_triggered_at", columnList = "priority, status, triggered_at DESC"),
+    @Index(name = "idx_alerts_triggered_at", columnList = "triggered_at DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
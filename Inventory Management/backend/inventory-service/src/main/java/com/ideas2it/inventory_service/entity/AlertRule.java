@@ -0,0 +1,86 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "alert_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRule {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+    
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "condition_type", nullable = false, length = 50)
+    private ConditionType conditionType;
+    
+    // Quantity for BELOW_THRESHOLD, days ahead for PURCHASE_ORDER_DUE, grace days for PURCHASE_ORDER_OVERDUE
+    @Column(name = "threshold")
+    private Integer threshold;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private ScopeType scopeType = ScopeType.GLOBAL;
+    
+    @Column(name = "scope_id")
+    private Long scopeId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 50)
+    private Alert.AlertType alertType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "severity", nullable = false, length = 20)
+    private Alert.Severity severity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", nullable = false, length = 20)
+    private Alert.Priority priority;
+    
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "updated_by")
+    private User updatedBy;
+    
+    public enum ConditionType {
+        BELOW_REORDER_POINT, BELOW_THRESHOLD, OUT_OF_STOCK, PURCHASE_ORDER_DUE, PURCHASE_ORDER_OVERDUE;
+        
+        public boolean isInventoryCondition() {
+            return this == BELOW_REORDER_POINT || this == BELOW_THRESHOLD || this == OUT_OF_STOCK;
+        }
+    }
+    
+    public enum ScopeType {
+        GLOBAL, CATEGORY, WAREHOUSE, PRODUCT
+    }
+}
@@ -13,6 +13,12 @@ import java.util.List;
 
 @Entity
 @Table(name = "categories")
+// Single-valued associations read by CategoryResponse; children are batch fetched
+@NamedEntityGraph(name = "Category.response", attributeNodes = {
+    @NamedAttributeNode("parent"),
+    @NamedAttributeNode("createdBy"),
+    @NamedAttributeNode("updatedBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
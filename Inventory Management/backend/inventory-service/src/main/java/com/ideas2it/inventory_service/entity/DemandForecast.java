@@ -0,0 +1,57 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Latest demand forecast of one inventory row (product, warehouse), written in batches by
+ * DemandForecastService. The reorder point here is a suggestion computed from the forecast; the
+ * product's own reorder point is left as it is.
+ */
+@Entity
+@Table(name = "demand_forecasts", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_demand_forecasts_product_warehouse", columnNames = {"product_id", "warehouse_id"})
+}, indexes = {
+    @Index(name = "idx_demand_forecasts_warehouse", columnList = "warehouse_id, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DemandForecast {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Column(name = "average_daily_demand", nullable = false, precision = 12, scale = 4)
+    private BigDecimal averageDailyDemand;
+    
+    // Root mean square of the one-day-ahead forecast errors
+    @Column(name = "demand_deviation", nullable = false, precision = 12, scale = 4)
+    private BigDecimal demandDeviation;
+    
+    @Column(name = "lead_time_days", nullable = false, precision = 8, scale = 2)
+    private BigDecimal leadTimeDays;
+    
+    @Column(name = "safety_stock", nullable = false)
+    private Integer safetyStock;
+    
+    @Column(name = "reorder_point", nullable = false)
+    private Integer reorderPoint;
+    
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
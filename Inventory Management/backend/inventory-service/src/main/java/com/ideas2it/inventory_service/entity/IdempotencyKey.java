@@ -0,0 +1,47 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "uk_idempotency_keys_operation_key", columnList = "operation, idempotency_key", unique = true),
+    @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyKey {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Unique per operation, not globally
+    @Column(name = "idempotency_key", nullable = false, length = 255)
+    private String idempotencyKey;
+    
+    // Operation the key guards, e.g. "inventory.adjust:42"
+    @Column(name = "operation", nullable = false, length = 100)
+    private String operation;
+    
+    // SHA-256 of the operation and request body, used to reject a key reused for a different request
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
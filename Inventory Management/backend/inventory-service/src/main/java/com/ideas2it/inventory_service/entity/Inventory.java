@@ -13,6 +13,12 @@ import java.time.LocalDateTime;
 @Table(name = "inventory", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"product_id", "warehouse_id"})
 })
+// Associations read by InventoryResponse, fetched with the rows by the list queries
+@NamedEntityGraph(name = "Inventory.response", attributeNodes = {
+    @NamedAttributeNode(value = "product", subgraph = "product"),
+    @NamedAttributeNode("warehouse"),
+    @NamedAttributeNode("updatedBy")
+}, subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +45,10 @@ public class Inventory {
     @Column(name = "quantity_available", nullable = false)
     private Integer quantityAvailable = 0;
     
+    // Quantity available is at or below the product's reorder point; kept in step by every inventory write
+    @Column(name = "low_stock", nullable = false, columnDefinition = "BOOLEAN NOT NULL DEFAULT FALSE")
+    private Boolean lowStock = false;
+    
     @Column(name = "last_updated_at", nullable = false)
     private LocalDateTime lastUpdatedAt;
     
@@ -58,6 +68,7 @@ public class Inventory {
     @PrePersist
     public void calculateAvailableQuantity() {
         this.quantityAvailable = this.quantityOnHand - this.quantityReserved;
+        this.lowStock = this.product != null && this.quantityAvailable <= this.product.getReorderPoint();
         this.lastUpdatedAt = LocalDateTime.now();
     }
 } 
\ No newline at end of file
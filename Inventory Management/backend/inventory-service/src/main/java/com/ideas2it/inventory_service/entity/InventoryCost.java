@@ -0,0 +1,43 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Moving-average unit cost of one inventory row (product, warehouse), maintained by
+ * InventoryCostJdbcWriter as movements are recorded. The row's value is quantity_on_hand times the
+ * average; a row starts at its product's cost price until costed receipts move it.
+ */
+@Entity
+@Table(name = "inventory_costs", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_inventory_costs_product_warehouse", columnNames = {"product_id", "warehouse_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCost {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    // Null until the product has a cost price or a costed receipt
+    @Column(name = "average_cost", precision = 14, scale = 4)
+    private BigDecimal averageCost;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An inventory row whose on-hand quantity did not match the net of its stock movements in a
+ * reconciliation run. inventoryId and inventoryQuantity are null when the ledger holds stock for a
+ * (product, warehouse) that has no inventory row.
+ */
+@Entity
+@Table(name = "inventory_drift_reports", indexes = {
+    @Index(name = "idx_inventory_drift_reports_run", columnList = "run_id, warehouse_id, product_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryDriftReport {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "run_id", nullable = false)
+    private InventoryReconciliationRun run;
+    
+    @Column(name = "inventory_id")
+    private Long inventoryId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Column(name = "inventory_quantity")
+    private Long inventoryQuantity;
+    
+    @Column(name = "ledger_quantity", nullable = false)
+    private Long ledgerQuantity;
+    
+    // inventoryQuantity (0 when the row is missing) minus ledgerQuantity
+    @Column(name = "difference", nullable = false)
+    private Long difference;
+}
@@ -0,0 +1,52 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A lot of one inventory row (product, warehouse) with its expiry date. The quantities of a row's lots
+ * are part of its quantity_on_hand; any remainder is stock that is not lot-tracked. Kept in step by
+ * InventoryLotJdbcWriter as movements are recorded: OUT movements allocate first-expiry-first-out
+ * from the partial index idx_inventory_lots_fefo, which V19 (or the startup sync) creates.
+ */
+@Entity
+@Table(name = "inventory_lots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_inventory_lots_lot", columnNames = {"product_id", "warehouse_id", "lot_number"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryLot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Column(name = "lot_number", nullable = false, length = 50)
+    private String lotNumber;
+    
+    @Column(name = "expiry_date", nullable = false)
+    private LocalDate expiryDate;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity = 0;
+    
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
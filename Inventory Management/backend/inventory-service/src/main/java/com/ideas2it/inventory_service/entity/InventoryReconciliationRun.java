@@ -0,0 +1,58 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One pass of the inventory reconciler over every warehouse; the rows that did not match the ledger
+ * are kept in inventory_drift_reports.
+ */
+@Entity
+@Table(name = "inventory_reconciliation_runs", indexes = {
+    @Index(name = "idx_inventory_reconciliation_runs_started_at", columnList = "started_at DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryReconciliationRun {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RunStatus status = RunStatus.RUNNING;
+    
+    @Column(name = "warehouses_checked", nullable = false)
+    private Integer warehousesChecked = 0;
+    
+    @Column(name = "inventory_rows_checked", nullable = false)
+    private Long inventoryRowsChecked = 0L;
+    
+    @Column(name = "movements_replayed", nullable = false)
+    private Long movementsReplayed = 0L;
+    
+    @Column(name = "drift_count", nullable = false)
+    private Long driftCount = 0L;
+    
+    @Column(name = "alerts_raised", nullable = false)
+    private Integer alertsRaised = 0;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    public enum RunStatus {
+        RUNNING, COMPLETED, FAILED
+    }
+}
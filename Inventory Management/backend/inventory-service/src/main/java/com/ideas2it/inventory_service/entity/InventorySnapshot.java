@@ -0,0 +1,40 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Balance checkpoint for one (product, warehouse): the net of every stock movement dated before
+ * snapshotAt. Zero balances are not stored, so a missing row means nothing was on hand.
+ */
+@Entity
+@Table(name = "inventory_snapshots", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"snapshot_at", "warehouse_id", "product_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Column(name = "quantity_on_hand", nullable = false)
+    private Long quantityOnHand;
+}
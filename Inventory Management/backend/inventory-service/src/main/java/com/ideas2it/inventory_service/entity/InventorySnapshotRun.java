@@ -0,0 +1,30 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One completed checkpoint of inventory_snapshots. Recorded even when every balance was zero, so
+ * the latest run at or before a date is always the checkpoint to replay from.
+ */
+@Entity
+@Table(name = "inventory_snapshot_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySnapshotRun {
+    
+    @Id
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+    
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -11,7 +11,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_classification", columnList = "abc_class, xyz_class")
+})
+// Associations read by ProductResponse, fetched with the rows by the list queries
+@NamedEntityGraph(name = "Product.response", attributeNodes = {
+    @NamedAttributeNode("category"),
+    @NamedAttributeNode("createdBy"),
+    @NamedAttributeNode("updatedBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -64,6 +72,15 @@ public class Product {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
+    // Written only by ProductClassificationService, so product edits never overwrite a newer class
+    @Enumerated(EnumType.STRING)
+    @Column(name = "abc_class", length = 1, insertable = false, updatable = false)
+    private AbcClass abcClass;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "xyz_class", length = 1, insertable = false, updatable = false)
+    private XyzClass xyzClass;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -79,4 +96,14 @@ public class Product {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "updated_by")
     private User updatedBy;
-} 
\ No newline at end of file
+    
+    // Share of consumption value: A items make up the first ~80%, B the next ~15%, C the rest
+    public enum AbcClass {
+        A, B, C
+    }
+    
+    // Variability of weekly demand: X steady, Y fluctuating, Z erratic or none
+    public enum XyzClass {
+        X, Y, Z
+    }
+}
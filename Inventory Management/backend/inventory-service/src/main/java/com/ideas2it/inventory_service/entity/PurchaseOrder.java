@@ -14,7 +14,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "purchase_orders")
+@Table(name = "purchase_orders", indexes = {
+    @Index(name = "idx_purchase_orders_supplier_order_date", columnList = "supplier_id, order_date DESC"),
+    @Index(name = "idx_purchase_orders_warehouse_order_date", columnList = "warehouse_id, order_date DESC"),
+    @Index(name = "idx_purchase_orders_status_order_date", columnList = "status, order_date DESC, id DESC"),
+    @Index(name = "idx_purchase_orders_status_expected_delivery_date", columnList = "status, expected_delivery_date"),
+    @Index(name = "idx_purchase_orders_order_date", columnList = "order_date DESC, id DESC")
+})
+// Single-valued associations read by PurchaseOrderResponse; items are batch fetched so paging stays in SQL
+@NamedEntityGraph(name = "PurchaseOrder.response", attributeNodes = {
+    @NamedAttributeNode("supplier"),
+    @NamedAttributeNode("warehouse"),
+    @NamedAttributeNode("createdBy"),
+    @NamedAttributeNode("updatedBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
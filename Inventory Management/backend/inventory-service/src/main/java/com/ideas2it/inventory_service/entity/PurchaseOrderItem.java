@@ -11,7 +11,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "purchase_order_items")
+@Table(name = "purchase_order_items", indexes = {
+    @Index(name = "idx_purchase_order_items_product", columnList = "product_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
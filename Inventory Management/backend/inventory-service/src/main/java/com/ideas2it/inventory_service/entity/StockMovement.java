@@ -6,10 +6,24 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "stock_movements")
+@Table(name = "stock_movements", indexes = {
+    @Index(name = "idx_stock_movements_product_movement_date", columnList = "product_id, movement_date DESC, id DESC"),
+    @Index(name = "idx_stock_movements_warehouse_movement_date", columnList = "warehouse_id, movement_date DESC, id DESC"),
+    @Index(name = "idx_stock_movements_product_warehouse_movement_date", columnList = "product_id, warehouse_id, movement_date DESC"),
+    @Index(name = "idx_stock_movements_movement_type_movement_date", columnList = "movement_type, movement_date DESC"),
+    @Index(name = "idx_stock_movements_movement_date", columnList = "movement_date DESC, id DESC"),
+    @Index(name = "idx_stock_movements_reference", columnList = "reference_type, reference_id")
+})
+// Associations read by StockMovementResponse, fetched with the rows by the list queries
+@NamedEntityGraph(name = "StockMovement.response", attributeNodes = {
+    @NamedAttributeNode(value = "product", subgraph = "product"),
+    @NamedAttributeNode("warehouse"),
+    @NamedAttributeNode("createdBy")
+}, subgraphs = @NamedSubgraph(name = "product", attributeNodes = @NamedAttributeNode("category")))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -44,6 +58,10 @@ public class StockMovement {
     @Column(name = "notes", columnDefinition = "TEXT")
     private String notes;
     
+    // Receipt cost of an IN, or the moving-average cost an OUT left at (its cost of goods sold per unit)
+    @Column(name = "unit_cost", precision = 14, scale = 4)
+    private BigDecimal unitCost;
+    
     @Column(name = "movement_date", nullable = false)
     private LocalDateTime movementDate;
     
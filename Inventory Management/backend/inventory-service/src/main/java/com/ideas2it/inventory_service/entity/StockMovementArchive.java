@@ -0,0 +1,46 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One month of stock movements moved out of the table into a compressed archive file.
+ */
+@Entity
+@Table(name = "stock_movement_archives")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementArchive {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "period_start", nullable = false, unique = true)
+    private LocalDate periodStart;
+    
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+    
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+    
+    @Column(name = "row_count", nullable = false)
+    private Long rowCount;
+    
+    // SHA-256 of the compressed file, checked before a restore
+    @Column(name = "checksum", nullable = false, length = 64)
+    private String checksum;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+    
+    @Column(name = "restored_at")
+    private LocalDateTime restoredAt;
+}
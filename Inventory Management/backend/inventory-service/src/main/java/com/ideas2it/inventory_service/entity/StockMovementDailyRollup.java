@@ -0,0 +1,57 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily totals of stock movements that have been compacted out of stock_movements. Together with the
+ * remaining detail rows they still give exact per-day balances; the raw rows live in the month's
+ * {@link StockMovementArchive} file.
+ */
+@Entity
+@Table(name = "stock_movement_daily_rollups", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"movement_day", "product_id", "warehouse_id", "movement_type"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementDailyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "movement_day", nullable = false)
+    private LocalDate movementDay;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private StockMovement.MovementType movementType;
+    
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity;
+    
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount;
+    
+    // quantity * unit_cost of the rolled-up movements other than transfers, for cost of goods reports
+    @Column(name = "cost_of_goods", precision = 18, scale = 4)
+    private BigDecimal costOfGoods;
+    
+    // Distinct "REFERENCE_TYPE:referenceId" pairs of the rolled-up movements, comma separated
+    @Column(name = "reference_keys", columnDefinition = "TEXT")
+    private String referenceKeys;
+}
@@ -0,0 +1,35 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The part of a stock movement that went into (IN) or came out of (OUT) one lot. movement_id has no
+ * foreign key because stock_movements is partitioned and may be compacted into archives.
+ */
+@Entity
+@Table(name = "stock_movement_lots", indexes = {
+    @Index(name = "idx_stock_movement_lots_movement_id", columnList = "movement_id"),
+    @Index(name = "idx_stock_movement_lots_lot_id", columnList = "lot_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementLot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "movement_id", nullable = false)
+    private Long movementId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lot_id", nullable = false)
+    private InventoryLot lot;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+}
@@ -0,0 +1,49 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running totals of stock movements per (product, warehouse, movement type), maintained in the same
+ * transaction as every movement insert so totals never need a scan over stock_movements.
+ */
+@Entity
+@Table(name = "stock_movement_summaries", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"product_id", "warehouse_id", "movement_type"})
+}, indexes = {
+    @Index(name = "idx_stock_movement_summaries_warehouse_type", columnList = "warehouse_id, movement_type")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private StockMovement.MovementType movementType;
+    
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity = 0L;
+    
+    @Column(name = "movement_count", nullable = false)
+    private Long movementCount = 0L;
+    
+    @Column(name = "last_movement_at")
+    private LocalDateTime lastMovementAt;
+}
@@ -0,0 +1,66 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A hold on stock of one inventory row, counted in its quantity_reserved while HELD. A hold ends by
+ * being released, committed (the stock leaves as an OUT movement) or expiring at expiresAt.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+    @Index(name = "idx_stock_reservations_status_expires_at", columnList = "status, expires_at"),
+    @Index(name = "idx_stock_reservations_reference", columnList = "reference")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "inventory_id", nullable = false)
+    private Long inventoryId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "warehouse_id", nullable = false)
+    private Warehouse warehouse;
+    
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ReservationStatus status = ReservationStatus.HELD;
+    
+    // Caller's own key for the hold, e.g. a cart or order number
+    @Column(name = "reference", length = 100)
+    private String reference;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+    
+    public enum ReservationStatus {
+        HELD, RELEASED, COMMITTED, EXPIRED
+    }
+}
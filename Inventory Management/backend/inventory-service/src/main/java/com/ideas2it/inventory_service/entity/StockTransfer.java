@@ -0,0 +1,51 @@
+package com.ideas2it.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Header of a warehouse-to-warehouse transfer. Each line is recorded in the ledger as an OUT movement
+ * at the source and an IN movement at the destination, both referencing this transfer.
+ */
+@Entity
+@Table(name = "stock_transfers", indexes = {
+    @Index(name = "idx_stock_transfers_source_created_at", columnList = "source_warehouse_id, created_at DESC"),
+    @Index(name = "idx_stock_transfers_destination_created_at", columnList = "destination_warehouse_id, created_at DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockTransfer {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_warehouse_id", nullable = false)
+    private Warehouse sourceWarehouse;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "destination_warehouse_id", nullable = false)
+    private Warehouse destinationWarehouse;
+    
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount;
+    
+    @Column(name = "total_quantity", nullable = false)
+    private Long totalQuantity;
+    
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "created_by", nullable = false)
+    private User createdBy;
+}
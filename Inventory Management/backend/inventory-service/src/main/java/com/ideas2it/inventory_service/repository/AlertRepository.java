@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -135,4 +136,27 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     // Find alerts by reference type, reference ID and status
     List<Alert> findByReferenceTypeAndReferenceIdAndStatusOrderByTriggeredAtDesc(
             Alert.ReferenceType referenceType, Long referenceId, Alert.AlertStatus status);
-} 
\ No newline at end of file
+    
+    // Find alerts with a given status for a batch of references
+    List<Alert> findByReferenceTypeAndReferenceIdInAndStatus(
+            Alert.ReferenceType referenceType, Collection<Long> referenceIds, Alert.AlertStatus status);
+    
+    // Find first page of alerts for cursor pagination
+    List<Alert> findAllByOrderByTriggeredAtDescIdDesc(Pageable pageable);
+    
+    // Find alerts after a cursor position
+    @Query("SELECT a FROM Alert a WHERE a.triggeredAt <= :triggeredAt AND " +
+           "(a.triggeredAt < :triggeredAt OR (a.triggeredAt = :triggeredAt AND a.id < :id)) " +
+           "ORDER BY a.triggeredAt DESC, a.id DESC")
+    List<Alert> findPageAfter(@Param("triggeredAt") LocalDateTime triggeredAt, @Param("id") Long id, Pageable pageable);
+    
+    // Find first page of alerts by status for cursor pagination
+    List<Alert> findByStatusOrderByTriggeredAtDescIdDesc(Alert.AlertStatus status, Pageable pageable);
+    
+    // Find alerts by status after a cursor position
+    @Query("SELECT a FROM Alert a WHERE a.status = :status AND a.triggeredAt <= :triggeredAt AND " +
+           "(a.triggeredAt < :triggeredAt OR (a.triggeredAt = :triggeredAt AND a.id < :id)) " +
+           "ORDER BY a.triggeredAt DESC, a.id DESC")
+    List<Alert> findByStatusPageAfter(@Param("status") Alert.AlertStatus status, @Param("triggeredAt") LocalDateTime triggeredAt,
+                                      @Param("id") Long id, Pageable pageable);
+}
@@ -0,0 +1,17 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.entity.AlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+    
+    // Find all active rules
+    List<AlertRule> findByIsActiveTrue();
+    
+    // Find all rules ordered for listing
+    List<AlertRule> findAllByOrderByIdAsc();
+}
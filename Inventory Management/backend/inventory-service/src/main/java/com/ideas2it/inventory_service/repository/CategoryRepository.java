@@ -1,6 +1,7 @@
 package com.ideas2it.inventory_service.repository;
 
 import com.ideas2it.inventory_service.entity.Category;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,14 +14,17 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
     // Find root categories (no parent)
+    @EntityGraph("Category.response")
     @Query("SELECT c FROM Category c WHERE c.parent IS NULL AND c.isActive = true")
     List<Category> findRootCategories();
     
     // Find child categories by parent ID
+    @EntityGraph("Category.response")
     @Query("SELECT c FROM Category c WHERE c.parent.id = :parentId AND c.isActive = true")
     List<Category> findChildrenByParentId(@Param("parentId") Long parentId);
     
     // Find all active categories
+    @EntityGraph("Category.response")
     List<Category> findByIsActiveTrue();
     
     // Find category by name (case-insensitive)
@@ -33,6 +37,7 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
     
     // Search categories by name containing (case-insensitive)
+    @EntityGraph("Category.response")
     @Query("SELECT c FROM Category c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) AND c.isActive = true")
     List<Category> searchByNameContainingIgnoreCase(@Param("searchTerm") String searchTerm);
     
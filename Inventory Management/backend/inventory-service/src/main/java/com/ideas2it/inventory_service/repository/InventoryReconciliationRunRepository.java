@@ -0,0 +1,15 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.entity.InventoryReconciliationRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryReconciliationRunRepository extends JpaRepository<InventoryReconciliationRun, Long> {
+    
+    // Find the most recent runs, newest first
+    List<InventoryReconciliationRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
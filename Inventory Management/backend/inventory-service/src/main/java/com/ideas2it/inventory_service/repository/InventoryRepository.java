@@ -1,31 +1,68 @@
 package com.ideas2it.inventory_service.repository;
 
+import com.ideas2it.inventory_service.dto.InventoryAlertState;
 import com.ideas2it.inventory_service.entity.Inventory;
+import com.ideas2it.inventory_service.entity.Product;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
+    // Find all inventory with the associations the response reads
+    @Override
+    @EntityGraph("Inventory.response")
+    List<Inventory> findAll();
+    
     // Find inventory by product and warehouse
     Optional<Inventory> findByProductIdAndWarehouseId(Long productId, Long warehouseId);
     
+    // Find inventory by ID and lock it, so reservations cannot change quantity_reserved under an update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id = :id")
+    Optional<Inventory> findByIdForUpdate(@Param("id") Long id);
+    
     // Find all inventory for a specific product
+    @EntityGraph("Inventory.response")
     List<Inventory> findByProductId(Long productId);
     
     // Find all inventory for a specific warehouse
+    @EntityGraph("Inventory.response")
     List<Inventory> findByWarehouseId(Long warehouseId);
     
-    // Find inventory with low stock (quantity_available <= reorder_point)
-    @Query("SELECT i FROM Inventory i WHERE i.quantityAvailable <= i.product.reorderPoint AND i.product.isActive = true")
+    // Find inventory of products in the given ABC and/or XYZ class (a null class matches any)
+    @EntityGraph("Inventory.response")
+    @Query("SELECT i FROM Inventory i WHERE (:abcClass IS NULL OR i.product.abcClass = :abcClass) " +
+           "AND (:xyzClass IS NULL OR i.product.xyzClass = :xyzClass)")
+    List<Inventory> findByProductClassification(@Param("abcClass") Product.AbcClass abcClass, @Param("xyzClass") Product.XyzClass xyzClass);
+    
+    // Find inventory with low stock (quantity_available <= reorder_point) through the flag kept by the write paths
+    @EntityGraph("Inventory.response")
+    @Query("SELECT i FROM Inventory i WHERE i.lowStock = true AND i.product.isActive = true")
     List<Inventory> findLowStockInventory();
     
+    // Count inventory with low stock
+    @Query("SELECT COUNT(i) FROM Inventory i WHERE i.lowStock = true AND i.product.isActive = true")
+    long countLowStockInventory();
+    
+    // Recompute the low stock flag of a product's inventory after its reorder point changed
+    @Modifying
+    @Query("UPDATE Inventory i SET i.lowStock = (i.quantityAvailable <= :reorderPoint) WHERE i.product.id = :productId")
+    int updateLowStockByProductId(@Param("productId") Long productId, @Param("reorderPoint") Integer reorderPoint);
+    
     // Find inventory with out of stock (quantity_available = 0)
+    @EntityGraph("Inventory.response")
     @Query("SELECT i FROM Inventory i WHERE i.quantityAvailable = 0 AND i.product.isActive = true")
     List<Inventory> findOutOfStockInventory();
     
@@ -49,4 +86,14 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     // Find inventory by product and warehouse with stock
     @Query("SELECT i FROM Inventory i WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId AND i.quantityAvailable > 0")
     Optional<Inventory> findInventoryWithStockByProductAndWarehouse(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
-} 
\ No newline at end of file
+    
+    // Find alert evaluation state for active products, in id order after the given inventory ID
+    @Query("SELECT new com.ideas2it.inventory_service.dto.InventoryAlertState(i.id, p.id, p.name, c.id, i.warehouse.id, i.quantityAvailable, p.reorderPoint) " +
+           "FROM Inventory i JOIN i.product p LEFT JOIN p.category c WHERE i.id > :afterId AND p.isActive = true ORDER BY i.id")
+    List<InventoryAlertState> findAlertStatesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Find alert evaluation state for the given inventory IDs
+    @Query("SELECT new com.ideas2it.inventory_service.dto.InventoryAlertState(i.id, p.id, p.name, c.id, i.warehouse.id, i.quantityAvailable, p.reorderPoint) " +
+           "FROM Inventory i JOIN i.product p LEFT JOIN p.category c WHERE i.id IN :ids")
+    List<InventoryAlertState> findAlertStatesByIdIn(@Param("ids") Collection<Long> ids);
+}
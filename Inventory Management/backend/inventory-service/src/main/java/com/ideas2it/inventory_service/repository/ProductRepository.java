@@ -1,11 +1,14 @@
 package com.ideas2it.inventory_service.repository;
 
+import com.ideas2it.inventory_service.dto.CodeReference;
 import com.ideas2it.inventory_service.entity.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +19,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findBySkuAndIsActiveTrue(String sku);
     
     // Find all active products
+    @EntityGraph("Product.response")
     List<Product> findByIsActiveTrue();
     
     // Check if product exists by SKU
@@ -24,7 +28,14 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Check if product exists by SKU excluding current ID (for updates)
     boolean existsBySkuAndIdNot(String sku, Long id);
     
+    // Find active products by ABC and/or XYZ class (a null class matches any)
+    @EntityGraph("Product.response")
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND (:abcClass IS NULL OR p.abcClass = :abcClass) " +
+           "AND (:xyzClass IS NULL OR p.xyzClass = :xyzClass)")
+    List<Product> findActiveByClassification(@Param("abcClass") Product.AbcClass abcClass, @Param("xyzClass") Product.XyzClass xyzClass);
+    
     // Find products by category
+    @EntityGraph("Product.response")
     List<Product> findByCategoryIdAndIsActiveTrue(Long categoryId);
     
     // Search products by name containing (case-insensitive)
@@ -36,10 +47,12 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> searchByDescriptionContainingIgnoreCase(@Param("searchTerm") String searchTerm);
     
     // Search products by name or description (case-insensitive)
+    @EntityGraph("Product.response")
     @Query("SELECT p FROM Product p WHERE (LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) AND p.isActive = true")
     List<Product> searchByNameOrDescriptionContainingIgnoreCase(@Param("searchTerm") String searchTerm);
     
     // Find products by price range
+    @EntityGraph("Product.response")
     @Query("SELECT p FROM Product p WHERE p.sellingPrice BETWEEN :minPrice AND :maxPrice AND p.isActive = true")
     List<Product> findBySellingPriceBetweenAndIsActiveTrue(@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
     
@@ -57,6 +70,11 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Count products by category
     long countByCategoryIdAndIsActiveTrue(Long categoryId);
     
+    // Find which of the given product IDs exist and are active
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.isActive = true")
+    List<Long> findActiveIdsByIdIn(@Param("ids") Collection<Long> ids);
     
- 
-} 
\ No newline at end of file
+    // Find the IDs of the active products with the given SKUs
+    @Query("SELECT new com.ideas2it.inventory_service.dto.CodeReference(p.sku, p.id) FROM Product p WHERE p.sku IN :skus AND p.isActive = true")
+    List<CodeReference> findActiveIdsBySkuIn(@Param("skus") Collection<String> skus);
+}
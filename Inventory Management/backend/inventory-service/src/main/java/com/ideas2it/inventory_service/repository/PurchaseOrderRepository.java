@@ -3,6 +3,7 @@ package com.ideas2it.inventory_service.repository;
 import com.ideas2it.inventory_service.entity.PurchaseOrder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,16 +16,24 @@ import java.util.Optional;
 @Repository
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
     
+    // Find all purchase orders with the associations the response reads
+    @Override
+    @EntityGraph("PurchaseOrder.response")
+    List<PurchaseOrder> findAll();
+    
     // Find by PO number
     Optional<PurchaseOrder> findByPoNumber(String poNumber);
     
     // Find by supplier
+    @EntityGraph("PurchaseOrder.response")
     List<PurchaseOrder> findBySupplierIdOrderByOrderDateDesc(Long supplierId);
     
     // Find by warehouse
+    @EntityGraph("PurchaseOrder.response")
     List<PurchaseOrder> findByWarehouseIdOrderByOrderDateDesc(Long warehouseId);
     
     // Find by status
+    @EntityGraph("PurchaseOrder.response")
     List<PurchaseOrder> findByStatusOrderByOrderDateDesc(PurchaseOrder.OrderStatus status);
     
     // Find by supplier and status
@@ -46,15 +55,19 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     List<PurchaseOrder> findByWarehouseIdAndOrderDateBetweenOrderByOrderDateDesc(@Param("warehouseId") Long warehouseId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
     // Find with pagination
+    @EntityGraph("PurchaseOrder.response")
     Page<PurchaseOrder> findAllByOrderByOrderDateDesc(Pageable pageable);
     
     // Find by status with pagination
+    @EntityGraph("PurchaseOrder.response")
     Page<PurchaseOrder> findByStatusOrderByOrderDateDesc(PurchaseOrder.OrderStatus status, Pageable pageable);
     
     // Find by supplier with pagination
+    @EntityGraph("PurchaseOrder.response")
     Page<PurchaseOrder> findBySupplierIdOrderByOrderDateDesc(Long supplierId, Pageable pageable);
     
     // Find by warehouse with pagination
+    @EntityGraph("PurchaseOrder.response")
     Page<PurchaseOrder> findByWarehouseIdOrderByOrderDateDesc(Long warehouseId, Pageable pageable);
     
     // Count by status
@@ -86,4 +99,27 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     
     // Find orders that are ready for receiving (APPROVED status)
     List<PurchaseOrder> findByStatusAndExpectedDeliveryDateLessThanEqualOrderByExpectedDeliveryDateAsc(PurchaseOrder.OrderStatus status, LocalDate date);
-} 
\ No newline at end of file
+    
+    // Find first page of purchase orders for cursor pagination
+    @EntityGraph("PurchaseOrder.response")
+    List<PurchaseOrder> findAllByOrderByOrderDateDescIdDesc(Pageable pageable);
+    
+    // Find purchase orders after a cursor position
+    @EntityGraph("PurchaseOrder.response")
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.orderDate <= :orderDate AND " +
+           "(po.orderDate < :orderDate OR (po.orderDate = :orderDate AND po.id < :id)) " +
+           "ORDER BY po.orderDate DESC, po.id DESC")
+    List<PurchaseOrder> findPageAfter(@Param("orderDate") LocalDate orderDate, @Param("id") Long id, Pageable pageable);
+    
+    // Find first page of purchase orders by status for cursor pagination
+    @EntityGraph("PurchaseOrder.response")
+    List<PurchaseOrder> findByStatusOrderByOrderDateDescIdDesc(PurchaseOrder.OrderStatus status, Pageable pageable);
+    
+    // Find purchase orders by status after a cursor position
+    @EntityGraph("PurchaseOrder.response")
+    @Query("SELECT po FROM PurchaseOrder po WHERE po.status = :status AND po.orderDate <= :orderDate AND " +
+           "(po.orderDate < :orderDate OR (po.orderDate = :orderDate AND po.id < :id)) " +
+           "ORDER BY po.orderDate DESC, po.id DESC")
+    List<PurchaseOrder> findByStatusPageAfter(@Param("status") PurchaseOrder.OrderStatus status, @Param("orderDate") LocalDate orderDate,
+                                              @Param("id") Long id, Pageable pageable);
+}
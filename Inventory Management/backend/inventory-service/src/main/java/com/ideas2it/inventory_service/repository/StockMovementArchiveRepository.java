@@ -0,0 +1,19 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.entity.StockMovementArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockMovementArchiveRepository extends JpaRepository<StockMovementArchive, Long> {
+    
+    // Find all archives, newest month first
+    List<StockMovementArchive> findAllByOrderByPeriodStartDesc();
+    
+    // Find the archive of the month starting on the given date
+    Optional<StockMovementArchive> findByPeriodStart(LocalDate periodStart);
+}
@@ -3,6 +3,7 @@ package com.ideas2it.inventory_service.repository;
 import com.ideas2it.inventory_service.entity.StockMovement;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,26 +15,36 @@ import java.util.List;
 @Repository
 public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
     
+    // Find all stock movements with the associations the response reads
+    @Override
+    @EntityGraph("StockMovement.response")
+    List<StockMovement> findAll();
+    
     // Find movements by product
+    @EntityGraph("StockMovement.response")
     List<StockMovement> findByProductIdOrderByMovementDateDesc(Long productId);
     
     // Find movements by warehouse
+    @EntityGraph("StockMovement.response")
     List<StockMovement> findByWarehouseIdOrderByMovementDateDesc(Long warehouseId);
     
     // Find movements by product and warehouse
     List<StockMovement> findByProductIdAndWarehouseIdOrderByMovementDateDesc(Long productId, Long warehouseId);
     
     // Find movements by movement type
+    @EntityGraph("StockMovement.response")
     List<StockMovement> findByMovementTypeOrderByMovementDateDesc(StockMovement.MovementType movementType);
     
     // Find movements by reference type and reference ID
     List<StockMovement> findByReferenceTypeAndReferenceIdOrderByMovementDateDesc(StockMovement.ReferenceType referenceType, Long referenceId);
     
-    // Find movements by date range
+    // Find movements by date range (movement_date is the partition key, so only overlapping partitions are scanned)
+    @EntityGraph("StockMovement.response")
     @Query("SELECT sm FROM StockMovement sm WHERE sm.movementDate BETWEEN :startDate AND :endDate ORDER BY sm.movementDate DESC")
     List<StockMovement> findByMovementDateBetweenOrderByMovementDateDesc(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Find movements by product and date range
+    @EntityGraph("StockMovement.response")
     @Query("SELECT sm FROM StockMovement sm WHERE sm.product.id = :productId AND sm.movementDate BETWEEN :startDate AND :endDate ORDER BY sm.movementDate DESC")
     List<StockMovement> findByProductIdAndMovementDateBetweenOrderByMovementDateDesc(@Param("productId") Long productId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
@@ -42,12 +53,15 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
     List<StockMovement> findByWarehouseIdAndMovementDateBetweenOrderByMovementDateDesc(@Param("warehouseId") Long warehouseId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
     
     // Find movements with pagination
+    @EntityGraph("StockMovement.response")
     Page<StockMovement> findAllByOrderByMovementDateDesc(Pageable pageable);
     
     // Find movements by product with pagination
+    @EntityGraph("StockMovement.response")
     Page<StockMovement> findByProductIdOrderByMovementDateDesc(Long productId, Pageable pageable);
     
     // Find movements by warehouse with pagination
+    @EntityGraph("StockMovement.response")
     Page<StockMovement> findByWarehouseIdOrderByMovementDateDesc(Long warehouseId, Pageable pageable);
     
     // Count movements by product
@@ -66,4 +80,39 @@ public interface StockMovementRepository extends JpaRepository<StockMovement, Lo
     // Get total quantity moved by warehouse and movement type
     @Query("SELECT SUM(sm.quantity) FROM StockMovement sm WHERE sm.warehouse.id = :warehouseId AND sm.movementType = :movementType")
     Integer getTotalQuantityByWarehouseAndMovementType(@Param("warehouseId") Long warehouseId, @Param("movementType") StockMovement.MovementType movementType);
-} 
\ No newline at end of file
+    
+    // Find first page of movements for cursor pagination
+    @EntityGraph("StockMovement.response")
+    List<StockMovement> findAllByOrderByMovementDateDescIdDesc(Pageable pageable);
+    
+    // Find movements after a cursor position (the redundant movementDate bound gives the index scan its start key)
+    @EntityGraph("StockMovement.response")
+    @Query("SELECT sm FROM StockMovement sm WHERE sm.movementDate <= :movementDate AND " +
+           "(sm.movementDate < :movementDate OR (sm.movementDate = :movementDate AND sm.id < :id)) " +
+           "ORDER BY sm.movementDate DESC, sm.id DESC")
+    List<StockMovement> findPageAfter(@Param("movementDate") LocalDateTime movementDate, @Param("id") Long id, Pageable pageable);
+    
+    // Find first page of movements by product for cursor pagination
+    @EntityGraph("StockMovement.response")
+    List<StockMovement> findByProductIdOrderByMovementDateDescIdDesc(Long productId, Pageable pageable);
+    
+    // Find movements by product after a cursor position
+    @EntityGraph("StockMovement.response")
+    @Query("SELECT sm FROM StockMovement sm WHERE sm.product.id = :productId AND sm.movementDate <= :movementDate AND " +
+           "(sm.movementDate < :movementDate OR (sm.movementDate = :movementDate AND sm.id < :id)) " +
+           "ORDER BY sm.movementDate DESC, sm.id DESC")
+    List<StockMovement> findByProductIdPageAfter(@Param("productId") Long productId, @Param("movementDate") LocalDateTime movementDate,
+                                                 @Param("id") Long id, Pageable pageable);
+    
+    // Find first page of movements by warehouse for cursor pagination
+    @EntityGraph("StockMovement.response")
+    List<StockMovement> findByWarehouseIdOrderByMovementDateDescIdDesc(Long warehouseId, Pageable pageable);
+    
+    // Find movements by warehouse after a cursor position
+    @EntityGraph("StockMovement.response")
+    @Query("SELECT sm FROM StockMovement sm WHERE sm.warehouse.id = :warehouseId AND sm.movementDate <= :movementDate AND " +
+           "(sm.movementDate < :movementDate OR (sm.movementDate = :movementDate AND sm.id < :id)) " +
+           "ORDER BY sm.movementDate DESC, sm.id DESC")
+    List<StockMovement> findByWarehouseIdPageAfter(@Param("warehouseId") Long warehouseId, @Param("movementDate") LocalDateTime movementDate,
+                                                   @Param("id") Long id, Pageable pageable);
+}
@@ -0,0 +1,34 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.dto.MovementTotal;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.entity.StockMovementSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockMovementSummaryRepository extends JpaRepository<StockMovementSummary, Long> {
+    
+    // Total quantity moved for a product and movement type across all warehouses
+    @Query("SELECT COALESCE(SUM(s.totalQuantity), 0) FROM StockMovementSummary s WHERE s.product.id = :productId AND s.movementType = :movementType")
+    Long getTotalQuantityByProductAndMovementType(@Param("productId") Long productId, @Param("movementType") StockMovement.MovementType movementType);
+    
+    // Total quantity moved for a warehouse and movement type across all products
+    @Query("SELECT COALESCE(SUM(s.totalQuantity), 0) FROM StockMovementSummary s WHERE s.warehouse.id = :warehouseId AND s.movementType = :movementType")
+    Long getTotalQuantityByWarehouseAndMovementType(@Param("warehouseId") Long warehouseId, @Param("movementType") StockMovement.MovementType movementType);
+    
+    // Find per-type totals for many products across all warehouses
+    @Query("SELECT new com.ideas2it.inventory_service.dto.MovementTotal(s.product.id, s.movementType, SUM(s.totalQuantity), SUM(s.movementCount)) " +
+           "FROM StockMovementSummary s WHERE s.product.id IN :productIds GROUP BY s.product.id, s.movementType")
+    List<MovementTotal> findTotalsByProductIdIn(@Param("productIds") Collection<Long> productIds);
+    
+    // Find per-type totals for many products in one warehouse
+    @Query("SELECT new com.ideas2it.inventory_service.dto.MovementTotal(s.product.id, s.movementType, s.totalQuantity, s.movementCount) " +
+           "FROM StockMovementSummary s WHERE s.product.id IN :productIds AND s.warehouse.id = :warehouseId")
+    List<MovementTotal> findTotalsByProductIdInAndWarehouseId(@Param("productIds") Collection<Long> productIds, @Param("warehouseId") Long warehouseId);
+}
@@ -0,0 +1,14 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    // Find reservations by the caller's reference
+    List<StockReservation> findByReferenceOrderByIdAsc(String reference);
+}
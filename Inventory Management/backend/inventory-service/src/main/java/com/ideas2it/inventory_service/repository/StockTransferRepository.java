@@ -0,0 +1,9 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.entity.StockTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StockTransferRepository extends JpaRepository<StockTransfer, Long> {
+}
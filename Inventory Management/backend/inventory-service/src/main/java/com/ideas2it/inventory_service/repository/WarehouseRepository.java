@@ -1,11 +1,13 @@
 package com.ideas2it.inventory_service.repository;
 
+import com.ideas2it.inventory_service.dto.CodeReference;
 import com.ideas2it.inventory_service.entity.Warehouse;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,4 +36,12 @@ public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     
     @Query("SELECT COUNT(w) FROM Warehouse w WHERE w.isActive = true")
     long countActiveWarehouses();
-} 
\ No newline at end of file
+    
+    // Find which of the given warehouse IDs exist and are active
+    @Query("SELECT w.id FROM Warehouse w WHERE w.id IN :ids AND w.isActive = true")
+    List<Long> findActiveIdsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Find the IDs of the active warehouses with the given codes
+    @Query("SELECT new com.ideas2it.inventory_service.dto.CodeReference(w.code, w.id) FROM Warehouse w WHERE w.code IN :codes AND w.isActive = true")
+    List<CodeReference> findActiveIdsByCodeIn(@Param("codes") Collection<String> codes);
+}
@@ -0,0 +1,248 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.InventoryAlertState;
+import com.ideas2it.inventory_service.entity.Alert;
+import com.ideas2it.inventory_service.entity.AlertRule;
+import com.ideas2it.inventory_service.repository.AlertRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the configured {@link AlertRule}s into predicates indexed by scope, so evaluating a row
+ * only touches the rules that can apply to it. The compiled set is cached until {@link #invalidate()}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AlertRuleEngine {
+
+    private final AlertRuleRepository alertRuleRepository;
+
+    private volatile CompiledRules compiledRules;
+
+    // Schemas created by Hibernate never run V7's seed; turn off to keep an emptied rule table empty across restarts
+    @Value("${inventory.alert-rules.install-defaults:true}")
+    private boolean installDefaults;
+
+    public Map<Alert.AlertType, CompiledRule> evaluateInventory(InventoryAlertState state) {
+        CompiledRules rules = rules();
+        Map<Alert.AlertType, CompiledRule> matches = new EnumMap<>(Alert.AlertType.class);
+        collect(rules.globalInventoryRules, state, matches);
+        collect(rules.categoryRules.get(state.getCategoryId()), state, matches);
+        collect(rules.warehouseRules.get(state.getWarehouseId()), state, matches);
+        collect(rules.productRules.get(state.getProductId()), state, matches);
+        return matches;
+    }
+
+    public Map<Alert.AlertType, CompiledRule> evaluatePurchaseOrder(Long warehouseId, long daysUntilDue) {
+        CompiledRules rules = rules();
+        Map<Alert.AlertType, CompiledRule> matches = new EnumMap<>(Alert.AlertType.class);
+        collect(rules.globalPurchaseOrderRules, daysUntilDue, matches);
+        collect(rules.warehousePurchaseOrderRules.get(warehouseId), daysUntilDue, matches);
+        return matches;
+    }
+
+    // Alert types produced by inventory rules; active alerts of these types are auto-resolved when no rule matches
+    public Set<Alert.AlertType> getInventoryAlertTypes() {
+        return rules().inventoryAlertTypes;
+    }
+
+    // Alert types produced by purchase order rules
+    public Set<Alert.AlertType> getPurchaseOrderAlertTypes() {
+        return rules().purchaseOrderAlertTypes;
+    }
+
+    // Furthest ahead any due rule looks, used to bound the purchase order scan
+    public int getPurchaseOrderDueHorizonDays() {
+        return rules().dueHorizonDays;
+    }
+
+    // Once at startup rather than on every compile, so rules deleted at runtime stay deleted until restart
+    @EventListener(ApplicationReadyEvent.class)
+    public void installDefaultRules() {
+        if (!installDefaults || alertRuleRepository.count() > 0) {
+            return;
+        }
+        alertRuleRepository.saveAll(defaultRules());
+        invalidate();
+        log.info("No alert rules configured, installed the default rules");
+    }
+
+    public void invalidate() {
+        compiledRules = null;
+        log.info("Alert rules invalidated, will recompile on next evaluation");
+    }
+
+    private CompiledRules rules() {
+        CompiledRules rules = compiledRules;
+        if (rules == null) {
+            synchronized (this) {
+                rules = compiledRules;
+                if (rules == null) {
+                    rules = compile();
+                    compiledRules = rules;
+                }
+            }
+        }
+        return rules;
+    }
+
+    private CompiledRules compile() {
+        List<AlertRule> definitions = alertRuleRepository.findByIsActiveTrue();
+
+        CompiledRules rules = new CompiledRules();
+        for (AlertRule definition : definitions) {
+            CompiledRule rule = new CompiledRule(definition);
+            if (definition.getConditionType().isInventoryCondition()) {
+                rules.inventoryAlertTypes.add(definition.getAlertType());
+                switch (definition.getScopeType()) {
+                    case CATEGORY -> rules.categoryRules.computeIfAbsent(definition.getScopeId(), id -> new ArrayList<>()).add(rule);
+                    case WAREHOUSE -> rules.warehouseRules.computeIfAbsent(definition.getScopeId(), id -> new ArrayList<>()).add(rule);
+                    case PRODUCT -> rules.productRules.computeIfAbsent(definition.getScopeId(), id -> new ArrayList<>()).add(rule);
+                    default -> rules.globalInventoryRules.add(rule);
+                }
+            } else {
+                rules.purchaseOrderAlertTypes.add(definition.getAlertType());
+                if (definition.getConditionType() == AlertRule.ConditionType.PURCHASE_ORDER_DUE) {
+                    rules.dueHorizonDays = Math.max(rules.dueHorizonDays, rule.threshold);
+                }
+                if (definition.getScopeType() == AlertRule.ScopeType.WAREHOUSE) {
+                    rules.warehousePurchaseOrderRules.computeIfAbsent(definition.getScopeId(), id -> new ArrayList<>()).add(rule);
+                } else {
+                    rules.globalPurchaseOrderRules.add(rule);
+                }
+            }
+        }
+
+        log.info("Compiled {} alert rules", definitions.size());
+        return rules;
+    }
+
+    // Built-in rules matching the historical hard-coded behaviour and V7's seed
+    private static List<AlertRule> defaultRules() {
+        List<AlertRule> rules = new ArrayList<>();
+        rules.add(defaultRule("Low stock", AlertRule.ConditionType.BELOW_REORDER_POINT, null,
+                Alert.AlertType.LOW_STOCK, Alert.Severity.MEDIUM, Alert.Priority.HIGH));
+        rules.add(defaultRule("Out of stock", AlertRule.ConditionType.OUT_OF_STOCK, null,
+                Alert.AlertType.OUT_OF_STOCK, Alert.Severity.CRITICAL, Alert.Priority.URGENT));
+        rules.add(defaultRule("Purchase order due", AlertRule.ConditionType.PURCHASE_ORDER_DUE, 0,
+                Alert.AlertType.PURCHASE_ORDER_DUE, Alert.Severity.HIGH, Alert.Priority.HIGH));
+        rules.add(defaultRule("Purchase order overdue", AlertRule.ConditionType.PURCHASE_ORDER_OVERDUE, 0,
+                Alert.AlertType.PURCHASE_ORDER_OVERDUE, Alert.Severity.CRITICAL, Alert.Priority.URGENT));
+        return rules;
+    }
+
+    private static AlertRule defaultRule(String name, AlertRule.ConditionType conditionType, Integer threshold,
+                                         Alert.AlertType alertType, Alert.Severity severity, Alert.Priority priority) {
+        AlertRule rule = new AlertRule();
+        rule.setName(name);
+        rule.setConditionType(conditionType);
+        rule.setThreshold(threshold);
+        rule.setScopeType(AlertRule.ScopeType.GLOBAL);
+        rule.setIsActive(true);
+        rule.setAlertType(alertType);
+        rule.setSeverity(severity);
+        rule.setPriority(priority);
+        return rule;
+    }
+
+    private static void collect(List<CompiledRule> rules, InventoryAlertState state, Map<Alert.AlertType, CompiledRule> matches) {
+        if (rules == null) {
+            return;
+        }
+        for (CompiledRule rule : rules) {
+            if (rule.matches(state)) {
+                matches.merge(rule.alertType, rule, CompiledRule::moreSevere);
+            }
+        }
+    }
+
+    private static void collect(List<CompiledRule> rules, long daysUntilDue, Map<Alert.AlertType, CompiledRule> matches) {
+        if (rules == null) {
+            return;
+        }
+        for (CompiledRule rule : rules) {
+            if (rule.matches(daysUntilDue)) {
+                matches.merge(rule.alertType, rule, CompiledRule::moreSevere);
+            }
+        }
+    }
+
+    private static class CompiledRules {
+        private final List<CompiledRule> globalInventoryRules = new ArrayList<>();
+        private final Map<Long, List<CompiledRule>> categoryRules = new HashMap<>();
+        private final Map<Long, List<CompiledRule>> warehouseRules = new HashMap<>();
+        private final Map<Long, List<CompiledRule>> productRules = new HashMap<>();
+        private final List<CompiledRule> globalPurchaseOrderRules = new ArrayList<>();
+        private final Map<Long, List<CompiledRule>> warehousePurchaseOrderRules = new HashMap<>();
+        private final Set<Alert.AlertType> inventoryAlertTypes = EnumSet.noneOf(Alert.AlertType.class);
+        private final Set<Alert.AlertType> purchaseOrderAlertTypes = EnumSet.noneOf(Alert.AlertType.class);
+        private int dueHorizonDays;
+    }
+
+    public static class CompiledRule {
+        private final AlertRule.ConditionType conditionType;
+        private final int threshold;
+        private final Alert.AlertType alertType;
+        private final Alert.Severity severity;
+        private final Alert.Priority priority;
+        private final String name;
+
+        private CompiledRule(AlertRule rule) {
+            this.conditionType = rule.getConditionType();
+            this.threshold = rule.getThreshold() != null ? rule.getThreshold() : 0;
+            this.alertType = rule.getAlertType();
+            this.severity = rule.getSeverity();
+            this.priority = rule.getPriority();
+            this.name = rule.getName();
+        }
+
+        private boolean matches(InventoryAlertState state) {
+            int available = state.getQuantityAvailable();
+            switch (conditionType) {
+                case BELOW_REORDER_POINT:
+                    return available > 0 && state.getReorderPoint() != null && available <= state.getReorderPoint();
+                case BELOW_THRESHOLD:
+                    return available > 0 && available <= threshold;
+                case OUT_OF_STOCK:
+                    return available <= 0;
+                default:
+                    return false;
+            }
+        }
+
+        private boolean matches(long daysUntilDue) {
+            switch (conditionType) {
+                case PURCHASE_ORDER_DUE:
+                    return daysUntilDue >= 0 && daysUntilDue <= threshold;
+                case PURCHASE_ORDER_OVERDUE:
+                    return daysUntilDue < -threshold;
+                default:
+                    return false;
+            }
+        }
+
+        private static CompiledRule moreSevere(CompiledRule a, CompiledRule b) {
+            return b.severity.compareTo(a.severity) > 0 ? b : a;
+        }
+
+        public AlertRule.ConditionType getConditionType() { return conditionType; }
+        public int getThreshold() { return threshold; }
+        public Alert.AlertType getAlertType() { return alertType; }
+        public Alert.Severity getSeverity() { return severity; }
+        public Alert.Priority getPriority() { return priority; }
+        public String getName() { return name; }
+    }
+}
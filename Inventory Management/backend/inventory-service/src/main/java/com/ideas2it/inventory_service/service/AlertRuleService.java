@@ -0,0 +1,143 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.AlertRuleRequest;
+import com.ideas2it.inventory_service.dto.AlertRuleResponse;
+import com.ideas2it.inventory_service.entity.AlertRule;
+import com.ideas2it.inventory_service.entity.User;
+import com.ideas2it.inventory_service.repository.AlertRuleRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class AlertRuleService {
+    
+    private final AlertRuleRepository alertRuleRepository;
+    private final UserRepository userRepository;
+    private final AlertRuleEngine alertRuleEngine;
+    
+    public List<AlertRuleResponse> getAllRules() {
+        log.info("Fetching all alert rules");
+        return alertRuleRepository.findAllByOrderByIdAsc().stream()
+                .map(AlertRuleResponse::fromAlertRule)
+                .collect(Collectors.toList());
+    }
+    
+    public AlertRuleResponse getRuleById(Long id) {
+        log.info("Fetching alert rule by ID: {}", id);
+        AlertRule rule = alertRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Alert rule not found with ID: " + id));
+        return AlertRuleResponse.fromAlertRule(rule);
+    }
+    
+    public AlertRuleResponse createRule(AlertRuleRequest request, Long currentUserId) {
+        log.info("Creating alert rule: {}", request.getName());
+        validateRule(request);
+        
+        // Get current user for audit
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        
+        AlertRule rule = new AlertRule();
+        applyRequest(rule, request);
+        rule.setCreatedBy(currentUser);
+        rule.setUpdatedBy(currentUser);
+        
+        AlertRule savedRule = alertRuleRepository.save(rule);
+        log.info("Alert rule created successfully with ID: {}", savedRule.getId());
+        
+        invalidateAfterCommit();
+        return AlertRuleResponse.fromAlertRule(savedRule);
+    }
+    
+    public AlertRuleResponse updateRule(Long id, AlertRuleRequest request, Long currentUserId) {
+        log.info("Updating alert rule with ID: {}", id);
+        validateRule(request);
+        
+        AlertRule rule = alertRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Alert rule not found with ID: " + id));
+        
+        // Get current user for audit
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        
+        applyRequest(rule, request);
+        rule.setUpdatedBy(currentUser);
+        
+        AlertRule updatedRule = alertRuleRepository.save(rule);
+        log.info("Alert rule updated successfully with ID: {}", updatedRule.getId());
+        
+        invalidateAfterCommit();
+        return AlertRuleResponse.fromAlertRule(updatedRule);
+    }
+    
+    public void deleteRule(Long id) {
+        log.info("Deleting alert rule with ID: {}", id);
+        
+        AlertRule rule = alertRuleRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Alert rule not found with ID: " + id));
+        
+        alertRuleRepository.delete(rule);
+        log.info("Alert rule deleted successfully with ID: {}", id);
+        
+        invalidateAfterCommit();
+    }
+    
+    public void reloadRules() {
+        alertRuleEngine.invalidate();
+    }
+    
+    private void validateRule(AlertRuleRequest request) {
+        AlertRule.ScopeType scopeType = request.getScopeType() != null ? request.getScopeType() : AlertRule.ScopeType.GLOBAL;
+        
+        if (scopeType != AlertRule.ScopeType.GLOBAL && request.getScopeId() == null) {
+            throw new RuntimeException("Scope ID is required for scope type " + scopeType);
+        }
+        
+        if (request.getConditionType() == AlertRule.ConditionType.BELOW_THRESHOLD && request.getThreshold() == null) {
+            throw new RuntimeException("Threshold is required for condition type BELOW_THRESHOLD");
+        }
+        
+        if (!request.getConditionType().isInventoryCondition()
+                && (scopeType == AlertRule.ScopeType.CATEGORY || scopeType == AlertRule.ScopeType.PRODUCT)) {
+            throw new RuntimeException("Purchase order rules can only be scoped globally or by warehouse");
+        }
+    }
+    
+    private void applyRequest(AlertRule rule, AlertRuleRequest request) {
+        rule.setName(request.getName());
+        rule.setDescription(request.getDescription());
+        rule.setConditionType(request.getConditionType());
+        rule.setThreshold(request.getThreshold());
+        rule.setScopeType(request.getScopeType() != null ? request.getScopeType() : AlertRule.ScopeType.GLOBAL);
+        rule.setScopeId(rule.getScopeType() == AlertRule.ScopeType.GLOBAL ? null : request.getScopeId());
+        rule.setAlertType(request.getAlertType());
+        rule.setSeverity(request.getSeverity());
+        rule.setPriority(request.getPriority());
+        rule.setIsActive(request.getIsActive() != null ? request.getIsActive() : true);
+    }
+    
+    // Recompile only once the change is visible to other transactions
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    alertRuleEngine.invalidate();
+                }
+            });
+        } else {
+            alertRuleEngine.invalidate();
+        }
+    }
+}
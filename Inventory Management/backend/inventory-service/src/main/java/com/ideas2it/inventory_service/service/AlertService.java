@@ -2,7 +2,11 @@ package com.ideas2it.inventory_service.service;
 
 import com.ideas2it.inventory_service.dto.AlertRequest;
 import com.ideas2it.inventory_service.dto.AlertResponse;
+import com.ideas2it.inventory_service.dto.CursorPage;
+import com.ideas2it.inventory_service.dto.InventoryAlertState;
+import com.ideas2it.inventory_service.dto.ProjectionRebuildResult.InventoryDrift;
 import com.ideas2it.inventory_service.entity.Alert;
+import com.ideas2it.inventory_service.entity.AlertRule;
 import com.ideas2it.inventory_service.entity.Inventory;
 import com.ideas2it.inventory_service.entity.PurchaseOrder;
 import com.ideas2it.inventory_service.entity.User;
@@ -10,16 +14,23 @@ import com.ideas2it.inventory_service.repository.AlertRepository;
 import com.ideas2it.inventory_service.repository.InventoryRepository;
 import com.ideas2it.inventory_service.repository.PurchaseOrderRepository;
 import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,6 +43,11 @@ public class AlertService {
     private final InventoryRepository inventoryRepository;
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final UserRepository userRepository;
+    private final AlertRuleEngine alertRuleEngine;
+    
+    private static final Long SYSTEM_USER_ID = 1L;
+    private static final int EVALUATION_CHUNK_SIZE = 500;
+    private static final String DRIFT_ALERT_TITLE = "Inventory Drift: ";
     
     public List<AlertResponse> getAllAlerts() {
         log.info("Fetching all alerts");
@@ -119,6 +135,29 @@ public class AlertService {
         return alertsPage.map(AlertResponse::fromAlert);
     }
     
+    public CursorPage<AlertResponse> getAlertsWithCursor(String cursor, int size, Alert.AlertStatus status, boolean includeTotal) {
+        log.info("Fetching alerts with cursor pagination");
+        Pageable limit = CursorPage.fetchLimit(size);
+        
+        List<Alert> alerts;
+        if (cursor == null) {
+            alerts = status == null
+                    ? alertRepository.findAllByOrderByTriggeredAtDescIdDesc(limit)
+                    : alertRepository.findByStatusOrderByTriggeredAtDescIdDesc(status, limit);
+        } else {
+            CursorCodec.Cursor position = CursorCodec.decode(cursor);
+            alerts = status == null
+                    ? alertRepository.findPageAfter(position.getDateTime(), position.getId(), limit)
+                    : alertRepository.findByStatusPageAfter(status, position.getDateTime(), position.getId(), limit);
+        }
+        
+        Long totalCount = includeTotal
+                ? (status == null ? alertRepository.count() : alertRepository.countByStatus(status))
+                : null;
+        return CursorPage.of(alerts, size, AlertResponse::fromAlert,
+                alert -> CursorCodec.encode(alert.getTriggeredAt(), alert.getId()), totalCount);
+    }
+    
     public AlertResponse createAlert(AlertRequest request, Long currentUserId) {
         log.info("Creating alert: {}", request.getTitle());
         
@@ -185,139 +224,27 @@ public class AlertService {
     public void generateInventoryAlerts() {
         log.info("Generating inventory alerts");
         
-        // Generate low stock alerts
-        List<Inventory> lowStockInventory = inventoryRepository.findLowStockInventory();
-        for (Inventory inventory : lowStockInventory) {
-            createLowStockAlert(inventory);
-        }
-        
-        // Generate out of stock alerts
-        List<Inventory> outOfStockInventory = inventoryRepository.findOutOfStockInventory();
-        for (Inventory inventory : outOfStockInventory) {
-            createOutOfStockAlert(inventory);
-        }
+        // Single keyset-paged pass over all inventory of active products
+        Long afterId = 0L;
+        List<InventoryAlertState> chunk;
+        do {
+            chunk = inventoryRepository.findAlertStatesAfter(afterId, PageRequest.of(0, EVALUATION_CHUNK_SIZE));
+            if (!chunk.isEmpty()) {
+                evaluateInventoryStates(chunk);
+                afterId = chunk.get(chunk.size() - 1).getInventoryId();
+            }
+        } while (chunk.size() == EVALUATION_CHUNK_SIZE);
     }
     
     public void generatePurchaseOrderAlerts() {
         log.info("Generating purchase order alerts");
         
-        LocalDate today = LocalDate.now();
-        
-        // Generate due date alerts (due within 3 days)
-        LocalDate threeDaysFromNow = today.plusDays(3);
+        // Only orders close enough to their delivery date for a due rule to match
+        LocalDate horizon = LocalDate.now().plusDays(alertRuleEngine.getPurchaseOrderDueHorizonDays());
         List<PurchaseOrder> dueOrders = purchaseOrderRepository.findByStatusAndExpectedDeliveryDateLessThanEqualOrderByExpectedDeliveryDateAsc(
-                PurchaseOrder.OrderStatus.APPROVED, threeDaysFromNow);
-        
-        for (PurchaseOrder order : dueOrders) {
-            if (order.getExpectedDeliveryDate().equals(today)) {
-                createPurchaseOrderDueAlert(order);
-            } else if (order.getExpectedDeliveryDate().isBefore(today)) {
-                createPurchaseOrderOverdueAlert(order);
-            }
-        }
-    }
-    
-    private void createLowStockAlert(Inventory inventory) {
-        // Check if alert already exists
-        List<Alert> existingAlerts = alertRepository.findByReferenceTypeAndReferenceIdOrderByTriggeredAtDesc(
-                Alert.ReferenceType.INVENTORY, inventory.getId());
-        
-        boolean hasActiveLowStockAlert = existingAlerts.stream()
-                .anyMatch(alert -> alert.getAlertType() == Alert.AlertType.LOW_STOCK && 
-                        alert.getStatus() == Alert.AlertStatus.ACTIVE);
-        
-        if (!hasActiveLowStockAlert) {
-            AlertRequest request = new AlertRequest();
-            request.setAlertType(Alert.AlertType.LOW_STOCK);
-            request.setSeverity(Alert.Severity.MEDIUM);
-            request.setPriority(Alert.Priority.HIGH);
-            request.setTitle("Low Stock Alert: " + inventory.getProduct().getName());
-            request.setMessage("Product " + inventory.getProduct().getName() + " has low stock. " +
-                    "Current available quantity: " + inventory.getQuantityAvailable() + 
-                    ", Reorder point: " + inventory.getProduct().getReorderPoint());
-            request.setReferenceType(Alert.ReferenceType.INVENTORY);
-            request.setReferenceId(inventory.getId());
-            request.setNotes("Automatically generated low stock alert");
-            
-            createAlert(request, 1L); // TODO: Get from system context
-        }
-    }
-    
-    private void createOutOfStockAlert(Inventory inventory) {
-        // Check if alert already exists
-        List<Alert> existingAlerts = alertRepository.findByReferenceTypeAndReferenceIdOrderByTriggeredAtDesc(
-                Alert.ReferenceType.INVENTORY, inventory.getId());
-        
-        boolean hasActiveOutOfStockAlert = existingAlerts.stream()
-                .anyMatch(alert -> alert.getAlertType() == Alert.AlertType.OUT_OF_STOCK && 
-                        alert.getStatus() == Alert.AlertStatus.ACTIVE);
-        
-        if (!hasActiveOutOfStockAlert) {
-            AlertRequest request = new AlertRequest();
-            request.setAlertType(Alert.AlertType.OUT_OF_STOCK);
-            request.setSeverity(Alert.Severity.CRITICAL);
-            request.setPriority(Alert.Priority.URGENT);
-            request.setTitle("Out of Stock Alert: " + inventory.getProduct().getName());
-            request.setMessage("Product " + inventory.getProduct().getName() + " is out of stock. " +
-                    "Current available quantity: " + inventory.getQuantityAvailable());
-            request.setReferenceType(Alert.ReferenceType.INVENTORY);
-            request.setReferenceId(inventory.getId());
-            request.setNotes("Automatically generated out of stock alert");
-            
-            createAlert(request, 1L); // TODO: Get from system context
-        }
-    }
-    
-    private void createPurchaseOrderDueAlert(PurchaseOrder order) {
-        // Check if alert already exists
-        List<Alert> existingAlerts = alertRepository.findByReferenceTypeAndReferenceIdOrderByTriggeredAtDesc(
-                Alert.ReferenceType.PURCHASE_ORDER, order.getId());
+                PurchaseOrder.OrderStatus.APPROVED, horizon);
         
-        boolean hasActiveDueAlert = existingAlerts.stream()
-                .anyMatch(alert -> alert.getAlertType() == Alert.AlertType.PURCHASE_ORDER_DUE && 
-                        alert.getStatus() == Alert.AlertStatus.ACTIVE);
-        
-        if (!hasActiveDueAlert) {
-            AlertRequest request = new AlertRequest();
-            request.setAlertType(Alert.AlertType.PURCHASE_ORDER_DUE);
-            request.setSeverity(Alert.Severity.HIGH);
-            request.setPriority(Alert.Priority.HIGH);
-            request.setTitle("Purchase Order Due: " + order.getPoNumber());
-            request.setMessage("Purchase order " + order.getPoNumber() + " is due today. " +
-                    "Expected delivery date: " + order.getExpectedDeliveryDate());
-            request.setReferenceType(Alert.ReferenceType.PURCHASE_ORDER);
-            request.setReferenceId(order.getId());
-            request.setNotes("Automatically generated purchase order due alert");
-            
-            createAlert(request, 1L); // TODO: Get from system context
-        }
-    }
-    
-    private void createPurchaseOrderOverdueAlert(PurchaseOrder order) {
-        // Check if alert already exists
-        List<Alert> existingAlerts = alertRepository.findByReferenceTypeAndReferenceIdOrderByTriggeredAtDesc(
-                Alert.ReferenceType.PURCHASE_ORDER, order.getId());
-        
-        boolean hasActiveOverdueAlert = existingAlerts.stream()
-                .anyMatch(alert -> alert.getAlertType() == Alert.AlertType.PURCHASE_ORDER_OVERDUE && 
-                        alert.getStatus() == Alert.AlertStatus.ACTIVE);
-        
-        if (!hasActiveOverdueAlert) {
-            long daysOverdue = LocalDate.now().toEpochDay() - order.getExpectedDeliveryDate().toEpochDay();
-            
-            AlertRequest request = new AlertRequest();
-            request.setAlertType(Alert.AlertType.PURCHASE_ORDER_OVERDUE);
-            request.setSeverity(Alert.Severity.CRITICAL);
-            request.setPriority(Alert.Priority.URGENT);
-            request.setTitle("Purchase Order Overdue: " + order.getPoNumber());
-            request.setMessage("Purchase order " + order.getPoNumber() + " is overdue by " + daysOverdue + " days. " +
-                    "Expected delivery date: " + order.getExpectedDeliveryDate());
-            request.setReferenceType(Alert.ReferenceType.PURCHASE_ORDER);
-            request.setReferenceId(order.getId());
-            request.setNotes("Automatically generated purchase order overdue alert");
-            
-            createAlert(request, 1L); // TODO: Get from system context
-        }
+        evaluatePurchaseOrderAlerts(dueOrders);
     }
     
     public long getAlertCount() {
@@ -353,38 +280,159 @@ public class AlertService {
     }
     
     // Real-time alert generation methods
-    public void checkAndCreateLowStockAlert(Inventory inventory) {
-        if (inventory.getQuantityAvailable() <= inventory.getProduct().getReorderPoint() && 
-            inventory.getQuantityAvailable() > 0) {
-            createLowStockAlert(inventory);
-        } else {
-            // Auto-resolve low stock alerts if stock is replenished
-            resolveLowStockAlerts(inventory);
-        }
+    public void evaluateInventoryAlerts(Collection<Inventory> inventories) {
+        evaluateInventoryStates(inventories.stream()
+                .map(InventoryAlertState::fromInventory)
+                .collect(Collectors.toList()));
     }
     
-    public void checkAndCreateOutOfStockAlert(Inventory inventory) {
-        if (inventory.getQuantityAvailable() == 0) {
-            createOutOfStockAlert(inventory);
-        } else {
-            // Auto-resolve out of stock alerts if stock is replenished
-            resolveOutOfStockAlerts(inventory);
+    public void evaluateInventoryAlertsByIds(Collection<Long> inventoryIds) {
+        if (!inventoryIds.isEmpty()) {
+            evaluateInventoryStates(inventoryRepository.findAlertStatesByIdIn(inventoryIds));
         }
     }
     
-    public void checkAndCreatePurchaseOrderAlerts(PurchaseOrder order) {
+    public void evaluatePurchaseOrderAlerts(Collection<PurchaseOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        
         LocalDate today = LocalDate.now();
+        Map<Long, List<Alert>> activeAlerts = findActiveAlerts(Alert.ReferenceType.PURCHASE_ORDER,
+                orders.stream().map(PurchaseOrder::getId).collect(Collectors.toList()));
+        Set<Alert.AlertType> governedTypes = alertRuleEngine.getPurchaseOrderAlertTypes();
+        
+        List<Alert> changedAlerts = new ArrayList<>();
+        User systemUser = null;
+        for (PurchaseOrder order : orders) {
+            // Only approved orders awaiting delivery are due or overdue
+            Map<Alert.AlertType, AlertRuleEngine.CompiledRule> matches = Collections.emptyMap();
+            if (order.getStatus() == PurchaseOrder.OrderStatus.APPROVED && order.getExpectedDeliveryDate() != null) {
+                long daysUntilDue = order.getExpectedDeliveryDate().toEpochDay() - today.toEpochDay();
+                Long warehouseId = order.getWarehouse() != null ? order.getWarehouse().getId() : null;
+                matches = alertRuleEngine.evaluatePurchaseOrder(warehouseId, daysUntilDue);
+            }
+            
+            List<Alert> existingAlerts = activeAlerts.getOrDefault(order.getId(), Collections.emptyList());
+            resolveUnmatchedAlerts(existingAlerts, matches, governedTypes, "Auto-resolved: Purchase order status updated", changedAlerts);
+            
+            for (AlertRuleEngine.CompiledRule rule : matches.values()) {
+                if (!hasAlertOfType(existingAlerts, rule.getAlertType())) {
+                    if (systemUser == null) {
+                        systemUser = getSystemUser();
+                    }
+                    changedAlerts.add(buildPurchaseOrderAlert(order, rule, today, systemUser));
+                }
+            }
+        }
         
-        if (order.getStatus() == PurchaseOrder.OrderStatus.APPROVED) {
-            if (order.getExpectedDeliveryDate().equals(today)) {
-                createPurchaseOrderDueAlert(order);
-            } else if (order.getExpectedDeliveryDate().isBefore(today)) {
-                createPurchaseOrderOverdueAlert(order);
-            } else {
-                // Auto-resolve due/overdue alerts if delivery date is in the future
-                resolvePurchaseOrderAlerts(order);
+        alertRepository.saveAll(changedAlerts);
+    }
+    
+    private void evaluateInventoryStates(List<InventoryAlertState> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+        
+        // One lookup for the active alerts of the whole batch instead of one per row
+        Map<Long, List<Alert>> activeAlerts = findActiveAlerts(Alert.ReferenceType.INVENTORY,
+                states.stream().map(InventoryAlertState::getInventoryId).collect(Collectors.toList()));
+        Set<Alert.AlertType> governedTypes = alertRuleEngine.getInventoryAlertTypes();
+        
+        List<Alert> changedAlerts = new ArrayList<>();
+        User systemUser = null;
+        for (InventoryAlertState state : states) {
+            Map<Alert.AlertType, AlertRuleEngine.CompiledRule> matches = alertRuleEngine.evaluateInventory(state);
+            
+            List<Alert> existingAlerts = activeAlerts.getOrDefault(state.getInventoryId(), Collections.emptyList());
+            resolveUnmatchedAlerts(existingAlerts, matches, governedTypes, null, changedAlerts);
+            
+            for (AlertRuleEngine.CompiledRule rule : matches.values()) {
+                if (!hasAlertOfType(existingAlerts, rule.getAlertType())) {
+                    if (systemUser == null) {
+                        systemUser = getSystemUser();
+                    }
+                    changedAlerts.add(buildInventoryAlert(state, rule, systemUser));
+                }
             }
         }
+        
+        alertRepository.saveAll(changedAlerts);
+    }
+    
+    private Map<Long, List<Alert>> findActiveAlerts(Alert.ReferenceType referenceType, List<Long> referenceIds) {
+        return alertRepository.findByReferenceTypeAndReferenceIdInAndStatus(referenceType, referenceIds, Alert.AlertStatus.ACTIVE)
+                .stream()
+                .collect(Collectors.groupingBy(Alert::getReferenceId));
+    }
+    
+    private boolean hasAlertOfType(List<Alert> alerts, Alert.AlertType alertType) {
+        return alerts.stream().anyMatch(alert -> alert.getAlertType() == alertType);
+    }
+    
+    private User getSystemUser() {
+        return userRepository.findById(SYSTEM_USER_ID) // TODO: Get from system context
+                .orElseThrow(() -> new RuntimeException("Current user not found"));
+    }
+    
+    private Alert buildInventoryAlert(InventoryAlertState state, AlertRuleEngine.CompiledRule rule, User systemUser) {
+        Alert alert = newRuleAlert(rule, systemUser);
+        alert.setReferenceType(Alert.ReferenceType.INVENTORY);
+        alert.setReferenceId(state.getInventoryId());
+        
+        switch (rule.getConditionType()) {
+            case OUT_OF_STOCK:
+                alert.setTitle("Out of Stock Alert: " + state.getProductName());
+                alert.setMessage("Product " + state.getProductName() + " is out of stock. " +
+                        "Current available quantity: " + state.getQuantityAvailable());
+                break;
+            case BELOW_THRESHOLD:
+                alert.setTitle("Low Stock Alert: " + state.getProductName());
+                alert.setMessage("Product " + state.getProductName() + " has low stock. " +
+                        "Current available quantity: " + state.getQuantityAvailable() + 
+                        ", Threshold: " + rule.getThreshold());
+                break;
+            default:
+                alert.setTitle("Low Stock Alert: " + state.getProductName());
+                alert.setMessage("Product " + state.getProductName() + " has low stock. " +
+                        "Current available quantity: " + state.getQuantityAvailable() + 
+                        ", Reorder point: " + state.getReorderPoint());
+        }
+        
+        log.info("Alert rule '{}' triggered {} for inventory ID: {}", rule.getName(), rule.getAlertType(), state.getInventoryId());
+        return alert;
+    }
+    
+    private Alert buildPurchaseOrderAlert(PurchaseOrder order, AlertRuleEngine.CompiledRule rule, LocalDate today, User systemUser) {
+        Alert alert = newRuleAlert(rule, systemUser);
+        alert.setReferenceType(Alert.ReferenceType.PURCHASE_ORDER);
+        alert.setReferenceId(order.getId());
+        
+        long daysUntilDue = order.getExpectedDeliveryDate().toEpochDay() - today.toEpochDay();
+        if (rule.getConditionType() == AlertRule.ConditionType.PURCHASE_ORDER_OVERDUE) {
+            alert.setTitle("Purchase Order Overdue: " + order.getPoNumber());
+            alert.setMessage("Purchase order " + order.getPoNumber() + " is overdue by " + (-daysUntilDue) + " days. " +
+                    "Expected delivery date: " + order.getExpectedDeliveryDate());
+        } else {
+            alert.setTitle("Purchase Order Due: " + order.getPoNumber());
+            alert.setMessage("Purchase order " + order.getPoNumber() + 
+                    (daysUntilDue == 0 ? " is due today. " : " is due in " + daysUntilDue + " days. ") +
+                    "Expected delivery date: " + order.getExpectedDeliveryDate());
+        }
+        
+        log.info("Alert rule '{}' triggered {} for PO ID: {}", rule.getName(), rule.getAlertType(), order.getId());
+        return alert;
+    }
+    
+    private Alert newRuleAlert(AlertRuleEngine.CompiledRule rule, User systemUser) {
+        Alert alert = new Alert();
+        alert.setAlertType(rule.getAlertType());
+        alert.setSeverity(rule.getSeverity());
+        alert.setPriority(rule.getPriority());
+        alert.setNotes("Automatically generated by alert rule: " + rule.getName());
+        alert.setCreatedBy(systemUser);
+        alert.setUpdatedBy(systemUser);
+        return alert;
     }
     
     public void createInventoryAdjustmentAlert(Inventory inventory, String adjustmentType, int quantityChanged, Long userId) {
@@ -403,65 +451,104 @@ public class AlertService {
         createAlert(request, userId);
     }
     
-    // Auto-resolve methods
-    private void resolveLowStockAlerts(Inventory inventory) {
-        List<Alert> activeLowStockAlerts = alertRepository.findByReferenceTypeAndReferenceIdAndAlertTypeAndStatusOrderByTriggeredAtDesc(
-                Alert.ReferenceType.INVENTORY, inventory.getId(), Alert.AlertType.LOW_STOCK, Alert.AlertStatus.ACTIVE);
-        
-        for (Alert alert : activeLowStockAlerts) {
-            alert.setStatus(Alert.AlertStatus.RESOLVED);
-            alert.setResolvedAt(LocalDateTime.now());
-            alert.setNotes("Auto-resolved: Stock replenished above reorder point");
-            alertRepository.save(alert);
-            log.info("Auto-resolved low stock alert for inventory ID: {}", inventory.getId());
+    /**
+     * Raises one alert per drifted inventory row found by a reconciliation run, updates the message of
+     * rows already alerted, and resolves drift alerts for rows that now match the ledger. At most
+     * maxNewAlerts are created per call; the drift report holds the full list, including ledger stock
+     * without an inventory row, which has nothing to attach an alert to. Returns the alerts created.
+     */
+    public int syncInventoryDriftAlerts(List<InventoryDrift> drifts, int maxNewAlerts) {
+        Map<Long, Alert> activeAlerts = alertRepository
+                .findByAlertTypeAndStatusOrderByTriggeredAtDesc(Alert.AlertType.SYSTEM_ALERT, Alert.AlertStatus.ACTIVE)
+                .stream()
+                .filter(alert -> alert.getReferenceType() == Alert.ReferenceType.INVENTORY
+                        && alert.getTitle().startsWith(DRIFT_ALERT_TITLE))
+                .collect(Collectors.toMap(Alert::getReferenceId, alert -> alert, (first, second) -> first));
+        Map<Long, InventoryDrift> drifted = drifts.stream()
+                .filter(drift -> drift.getInventoryId() != null)
+                .collect(Collectors.toMap(InventoryDrift::getInventoryId, drift -> drift, (first, second) -> first));
+        
+        List<Alert> changedAlerts = new ArrayList<>();
+        for (Alert alert : activeAlerts.values()) {
+            InventoryDrift drift = drifted.get(alert.getReferenceId());
+            if (drift == null) {
+                alert.setStatus(Alert.AlertStatus.RESOLVED);
+                alert.setResolvedAt(LocalDateTime.now());
+                alert.setNotes("Auto-resolved: Inventory matches stock movement ledger");
+                log.info("Auto-resolved inventory drift alert for inventory ID: {}", alert.getReferenceId());
+            } else {
+                alert.setMessage(driftMessage(drift));
+            }
+            changedAlerts.add(alert);
         }
-    }
-    
-    private void resolveOutOfStockAlerts(Inventory inventory) {
-        List<Alert> activeOutOfStockAlerts = alertRepository.findByReferenceTypeAndReferenceIdAndAlertTypeAndStatusOrderByTriggeredAtDesc(
-                Alert.ReferenceType.INVENTORY, inventory.getId(), Alert.AlertType.OUT_OF_STOCK, Alert.AlertStatus.ACTIVE);
         
-        for (Alert alert : activeOutOfStockAlerts) {
-            alert.setStatus(Alert.AlertStatus.RESOLVED);
-            alert.setResolvedAt(LocalDateTime.now());
-            alert.setNotes("Auto-resolved: Stock replenished");
-            alertRepository.save(alert);
-            log.info("Auto-resolved out of stock alert for inventory ID: {}", inventory.getId());
+        List<Long> newAlertIds = drifted.keySet().stream()
+                .filter(inventoryId -> !activeAlerts.containsKey(inventoryId))
+                .sorted()
+                .limit(maxNewAlerts)
+                .collect(Collectors.toList());
+        if (!newAlertIds.isEmpty()) {
+            User systemUser = getSystemUser();
+            for (InventoryAlertState state : inventoryRepository.findAlertStatesByIdIn(newAlertIds)) {
+                Alert alert = new Alert();
+                alert.setAlertType(Alert.AlertType.SYSTEM_ALERT);
+                alert.setSeverity(Alert.Severity.HIGH);
+                alert.setPriority(Alert.Priority.HIGH);
+                alert.setTitle(DRIFT_ALERT_TITLE + state.getProductName());
+                alert.setMessage(driftMessage(drifted.get(state.getInventoryId())));
+                alert.setReferenceType(Alert.ReferenceType.INVENTORY);
+                alert.setReferenceId(state.getInventoryId());
+                alert.setNotes("Automatically generated by inventory reconciliation");
+                alert.setCreatedBy(systemUser);
+                alert.setUpdatedBy(systemUser);
+                changedAlerts.add(alert);
+            }
         }
+        
+        alertRepository.saveAll(changedAlerts);
+        return newAlertIds.size();
     }
     
-    private void resolvePurchaseOrderAlerts(PurchaseOrder order) {
-        List<Alert> activePOAlerts = alertRepository.findByReferenceTypeAndReferenceIdAndStatusOrderByTriggeredAtDesc(
-                Alert.ReferenceType.PURCHASE_ORDER, order.getId(), Alert.AlertStatus.ACTIVE);
-        
-        for (Alert alert : activePOAlerts) {
-            if (alert.getAlertType() == Alert.AlertType.PURCHASE_ORDER_DUE || 
-                alert.getAlertType() == Alert.AlertType.PURCHASE_ORDER_OVERDUE) {
+    private String driftMessage(InventoryDrift drift) {
+        return "Inventory on hand " + drift.getInventoryQuantity() + " does not match the stock movement ledger balance " +
+                drift.getLedgerQuantity() + " for product ID " + drift.getProductId() + " in warehouse ID " + drift.getWarehouseId();
+    }
+    
+    // Auto-resolve methods
+    private void resolveUnmatchedAlerts(List<Alert> activeAlerts, Map<Alert.AlertType, AlertRuleEngine.CompiledRule> matches,
+                                        Set<Alert.AlertType> governedTypes, String notes, List<Alert> changedAlerts) {
+        for (Alert alert : activeAlerts) {
+            if (governedTypes.contains(alert.getAlertType()) && !matches.containsKey(alert.getAlertType())) {
                 alert.setStatus(Alert.AlertStatus.RESOLVED);
                 alert.setResolvedAt(LocalDateTime.now());
-                alert.setNotes("Auto-resolved: Purchase order status updated");
-                alertRepository.save(alert);
-                log.info("Auto-resolved purchase order alert for PO ID: {}", order.getId());
+                alert.setNotes(notes != null ? notes : resolutionNotes(alert.getAlertType()));
+                changedAlerts.add(alert);
+                log.info("Auto-resolved {} alert for {} ID: {}", alert.getAlertType(), alert.getReferenceType(), alert.getReferenceId());
             }
         }
     }
     
+    private String resolutionNotes(Alert.AlertType alertType) {
+        switch (alertType) {
+            case LOW_STOCK:
+                return "Auto-resolved: Stock replenished above reorder point";
+            case OUT_OF_STOCK:
+                return "Auto-resolved: Stock replenished";
+            default:
+                return "Auto-resolved: Alert rule no longer matches";
+        }
+    }
+    
     // Comprehensive real-time alert check
     public void performRealTimeAlertCheck() {
         log.info("Performing real-time alert check");
         
         // Check inventory alerts
-        List<Inventory> allInventory = inventoryRepository.findAll();
-        for (Inventory inventory : allInventory) {
-            checkAndCreateLowStockAlert(inventory);
-            checkAndCreateOutOfStockAlert(inventory);
-        }
+        generateInventoryAlerts();
         
         // Check purchase order alerts
         List<PurchaseOrder> approvedOrders = purchaseOrderRepository.findByStatusOrderByOrderDateDesc(PurchaseOrder.OrderStatus.APPROVED);
-        for (PurchaseOrder order : approvedOrders) {
-            checkAndCreatePurchaseOrderAlerts(order);
-        }
+        evaluatePurchaseOrderAlerts(approvedOrders);
         
         log.info("Real-time alert check completed");
     }
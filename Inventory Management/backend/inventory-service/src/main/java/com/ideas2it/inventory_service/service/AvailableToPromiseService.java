@@ -0,0 +1,380 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.AvailableToPromiseRequest;
+import com.ideas2it.inventory_service.dto.AvailableToPromiseResponse;
+import com.ideas2it.inventory_service.dto.AvailableToPromiseResponse.PromiseLineResponse;
+import com.ideas2it.inventory_service.dto.AvailableToPromiseResponse.WarehouseAllocation;
+import com.ideas2it.inventory_service.service.InventoryAvailabilityService.AvailabilityChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Answers "can we ship these quantities, and from where" from an in-memory index of each product's
+ * per-warehouse position: available (on hand minus reserved) and inbound (still to be received on
+ * approved, ordered or partially received purchase orders). A product is loaded on first use and
+ * dropped whenever {@link InventoryAvailabilityService} reports a change to one of its keys, locally or
+ * from another instance; while that service is not listening the index is bypassed.
+ *
+ * <p>The split prefers a single warehouse that can ship every line from stock, then per line a
+ * warehouse already shipping for the request, then any one warehouse, and only then splits the line
+ * across warehouses by available stock. Inbound quantities cover what stock cannot. Nothing is reserved.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailableToPromiseService {
+
+    private static final int STRIPES = 1024;
+    private static final ProductPosition NO_POSITION = new ProductPosition(new long[0], new int[0], new int[0]);
+
+    private static final String POSITIONS_SQL =
+            "SELECT product_id, warehouse_id, SUM(available), SUM(inbound) FROM (" +
+            "SELECT product_id, warehouse_id, quantity_on_hand - quantity_reserved AS available, 0 AS inbound " +
+            "FROM inventory WHERE product_id = ANY(?) " +
+            "UNION ALL SELECT i.product_id, o.warehouse_id, 0, i.quantity_ordered - i.quantity_received " +
+            "FROM purchase_order_items i JOIN purchase_orders o ON o.id = i.purchase_order_id " +
+            "WHERE i.product_id = ANY(?) AND o.status IN ('APPROVED', 'ORDERED', 'PARTIALLY_RECEIVED') " +
+            "AND i.quantity_ordered > i.quantity_received) p GROUP BY product_id, warehouse_id ORDER BY product_id, warehouse_id";
+
+    private static final String ACTIVE_PRODUCTS_SQL =
+            "SELECT id, sku FROM products WHERE is_active = true AND (id = ANY(?) OR sku = ANY(?))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+
+    private final Map<Long, ProductPosition> index = new ConcurrentHashMap<>();
+    // Bumped before a product (or every product) is dropped, so a load that overlaps the change is not indexed
+    private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPES);
+    private final AtomicLong epoch = new AtomicLong();
+
+    @Value("${inventory.atp.max-lines:1000}")
+    private int maxLines;
+
+    public AvailableToPromiseResponse promise(AvailableToPromiseRequest request) {
+        List<AvailableToPromiseRequest.PromiseLine> lines = request.getLines();
+        log.info("Evaluating available to promise for {} line(s)", lines.size());
+        if (lines.size() > maxLines) {
+            throw new RuntimeException("An available to promise request can have at most " + maxLines + " lines");
+        }
+
+        Map<Long, String> skus = resolveProducts(lines);
+        Map<String, Long> idsBySku = new HashMap<>();
+        skus.forEach((id, sku) -> idsBySku.put(sku, id));
+        List<Long> productIds = new ArrayList<>();
+        for (AvailableToPromiseRequest.PromiseLine line : lines) {
+            Long productId = line.getProductId() != null ? line.getProductId() : idsBySku.get(line.getSku());
+            if (productId == null) {
+                throw new RuntimeException("Product not found or inactive with SKU: " + line.getSku());
+            }
+            productIds.add(productId);
+        }
+        Set<Long> activeWarehouseIds = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT id FROM warehouses WHERE is_active = true", Long.class));
+        Map<Long, ProductPosition> positions = findPositions(new LinkedHashSet<>(productIds));
+
+        long started = System.nanoTime();
+        boolean includeInbound = !Boolean.FALSE.equals(request.getIncludeInbound());
+        Map<Long, Work> work = new HashMap<>();
+        Map<Long, Long> demand = new HashMap<>();
+        for (int i = 0; i < lines.size(); i++) {
+            Long productId = productIds.get(i);
+            work.computeIfAbsent(productId, id -> new Work(positions.get(id), activeWarehouseIds, includeInbound));
+            demand.merge(productId, (long) lines.get(i).getQuantity(), Long::sum);
+        }
+
+        Long single = findSingleWarehouse(work, demand);
+        Set<Long> shipping = new LinkedHashSet<>();
+        if (single != null) {
+            shipping.add(single);
+        }
+        List<PromiseLineResponse> results = new ArrayList<>();
+        boolean fullyPromisable = true;
+        for (int i = 0; i < lines.size(); i++) {
+            Long productId = productIds.get(i);
+            PromiseLineResponse result = allocate(work.get(productId), lines.get(i).getQuantity(), shipping);
+            result.setProductId(productId);
+            result.setSku(skus.get(productId));
+            fullyPromisable &= result.getShortfall() == 0;
+            results.add(result);
+        }
+        long evaluationMicros = (System.nanoTime() - started) / 1000;
+
+        log.info("Available to promise for {} line(s) evaluated in {} us: {} warehouse(s), fully promisable: {}",
+                lines.size(), evaluationMicros, shipping.size(), fullyPromisable);
+        return new AvailableToPromiseResponse(fullyPromisable, shipping.size(), evaluationMicros, results);
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        if (event.isAll()) {
+            epoch.incrementAndGet();
+            index.clear();
+            return;
+        }
+        for (Long packedKey : event.getPackedKeys()) {
+            long productId = AvailabilityChangedEvent.productId(packedKey);
+            stripeVersions.incrementAndGet(stripe(productId));
+            index.remove(productId);
+        }
+    }
+
+    // SKU of every active product in the request by product ID; fails on an unknown or inactive product
+    private Map<Long, String> resolveProducts(List<AvailableToPromiseRequest.PromiseLine> lines) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> skus = new HashSet<>();
+        for (AvailableToPromiseRequest.PromiseLine line : lines) {
+            if (line.getProductId() != null) {
+                ids.add(line.getProductId());
+            } else if (line.getSku() != null && !line.getSku().isBlank()) {
+                skus.add(line.getSku());
+            } else {
+                throw new RuntimeException("SKU or product ID is required");
+            }
+        }
+        Map<Long, String> active = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ACTIVE_PRODUCTS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", skus.toArray()));
+            return ps;
+        }, rs -> {
+            active.put(rs.getLong(1), rs.getString(2));
+        });
+        for (Long id : ids) {
+            if (!active.containsKey(id)) {
+                throw new RuntimeException("Product not found or inactive with ID: " + id);
+            }
+        }
+        return active;
+    }
+
+    private Map<Long, ProductPosition> findPositions(Set<Long> productIds) {
+        if (!inventoryAvailabilityService.isListening()) {
+            return loadPositions(new ArrayList<>(productIds));
+        }
+        Map<Long, ProductPosition> positions = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductPosition position = index.get(productId);
+            if (position != null) {
+                positions.put(productId, position);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return positions;
+        }
+
+        long epochSeen = epoch.get();
+        long[] versionsSeen = new long[missing.size()];
+        for (int i = 0; i < missing.size(); i++) {
+            versionsSeen[i] = stripeVersions.get(stripe(missing.get(i)));
+        }
+        Map<Long, ProductPosition> loaded = loadPositions(missing);
+        for (int i = 0; i < missing.size(); i++) {
+            long version = versionsSeen[i];
+            int stripe = stripe(missing.get(i));
+            ProductPosition position = loaded.get(missing.get(i));
+            positions.put(missing.get(i), position);
+            // Product ids too large for the invalidation keys never receive changes, so they are not indexed
+            if ((missing.get(i) >>> 32) == 0) {
+                index.compute(missing.get(i), (id, current) ->
+                        epoch.get() == epochSeen && stripeVersions.get(stripe) == version ? position : current);
+            }
+        }
+        return positions;
+    }
+
+    private Map<Long, ProductPosition> loadPositions(List<Long> productIds) {
+        Map<Long, List<long[]>> rows = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(POSITIONS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", productIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", productIds.toArray()));
+            return ps;
+        }, rs -> {
+            rows.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+                    .add(new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4)});
+        });
+
+        Map<Long, ProductPosition> positions = new HashMap<>();
+        for (Long productId : productIds) {
+            List<long[]> productRows = rows.get(productId);
+            if (productRows == null) {
+                positions.put(productId, NO_POSITION);
+                continue;
+            }
+            long[] warehouseIds = new long[productRows.size()];
+            int[] available = new int[productRows.size()];
+            int[] inbound = new int[productRows.size()];
+            for (int i = 0; i < productRows.size(); i++) {
+                warehouseIds[i] = productRows.get(i)[0];
+                available[i] = toQuantity(productRows.get(i)[1]);
+                inbound[i] = toQuantity(productRows.get(i)[2]);
+            }
+            positions.put(productId, new ProductPosition(warehouseIds, available, inbound));
+        }
+        return positions;
+    }
+
+    // The warehouse with the most stock among those that can ship the whole request from stock, if any
+    private static Long findSingleWarehouse(Map<Long, Work> work, Map<Long, Long> demand) {
+        Map<Long, Long> candidates = null;
+        for (Map.Entry<Long, Long> entry : demand.entrySet()) {
+            Work product = work.get(entry.getKey());
+            Map<Long, Long> covering = new HashMap<>();
+            for (int w = 0; w < product.warehouseIds.length; w++) {
+                long warehouseId = product.warehouseIds[w];
+                if (product.stock[w] >= entry.getValue() && (candidates == null || candidates.containsKey(warehouseId))) {
+                    covering.put(warehouseId, (candidates == null ? 0 : candidates.get(warehouseId)) + product.stock[w]);
+                }
+            }
+            if (covering.isEmpty()) {
+                return null;
+            }
+            candidates = covering;
+        }
+        Long best = null;
+        for (Map.Entry<Long, Long> candidate : candidates.entrySet()) {
+            if (best == null || candidate.getValue() > candidates.get(best)
+                    || candidate.getValue().equals(candidates.get(best)) && candidate.getKey() < best) {
+                best = candidate.getKey();
+            }
+        }
+        return best;
+    }
+
+    private static PromiseLineResponse allocate(Work product, int quantity, Set<Long> shipping) {
+        Map<Long, int[]> allocations = new LinkedHashMap<>();
+        int need = quantity;
+
+        int whole = -1;
+        for (int w = 0; w < product.warehouseIds.length; w++) {
+            if (product.stock[w] >= need && (whole < 0 || prefer(product, w, whole, shipping))) {
+                whole = w;
+            }
+        }
+        if (whole >= 0) {
+            need -= take(product.stock, whole, need, product.warehouseIds, allocations, 0);
+        } else {
+            for (int w : byDescending(product.stock, product.warehouseIds, shipping)) {
+                if (need == 0) {
+                    break;
+                }
+                need -= take(product.stock, w, need, product.warehouseIds, allocations, 0);
+            }
+        }
+        int fromStock = quantity - need;
+
+        for (int w : byDescending(product.inbound, product.warehouseIds, shipping)) {
+            if (need == 0) {
+                break;
+            }
+            need -= take(product.inbound, w, need, product.warehouseIds, allocations, 1);
+        }
+
+        List<WarehouseAllocation> result = new ArrayList<>();
+        for (Map.Entry<Long, int[]> allocation : allocations.entrySet()) {
+            shipping.add(allocation.getKey());
+            result.add(new WarehouseAllocation(allocation.getKey(), allocation.getValue()[0], allocation.getValue()[1]));
+        }
+        return new PromiseLineResponse(null, null, quantity, fromStock, quantity - need - fromStock, need, result);
+    }
+
+    // Whether warehouse a beats b: one already shipping for the request first, then more stock, then the lower id
+    private static boolean prefer(Work product, int a, int b, Set<Long> shipping) {
+        boolean aShipping = shipping.contains(product.warehouseIds[a]);
+        boolean bShipping = shipping.contains(product.warehouseIds[b]);
+        if (aShipping != bShipping) {
+            return aShipping;
+        }
+        if (product.stock[a] != product.stock[b]) {
+            return product.stock[a] > product.stock[b];
+        }
+        return product.warehouseIds[a] < product.warehouseIds[b];
+    }
+
+    // Indexes of the warehouses with a positive quantity, largest first, warehouses already shipping first on ties
+    private static List<Integer> byDescending(int[] quantities, long[] warehouseIds, Set<Long> shipping) {
+        List<Integer> order = new ArrayList<>();
+        for (int w = 0; w < quantities.length; w++) {
+            if (quantities[w] > 0) {
+                order.add(w);
+            }
+        }
+        order.sort((a, b) -> quantities[a] != quantities[b] ? Integer.compare(quantities[b], quantities[a])
+                : Boolean.compare(shipping.contains(warehouseIds[b]), shipping.contains(warehouseIds[a])));
+        return order;
+    }
+
+    private static int take(int[] quantities, int w, int need, long[] warehouseIds, Map<Long, int[]> allocations, int column) {
+        int taken = Math.min(need, quantities[w]);
+        if (taken > 0) {
+            quantities[w] -= taken;
+            allocations.computeIfAbsent(warehouseIds[w], id -> new int[2])[column] += taken;
+        }
+        return taken;
+    }
+
+    private static int stripe(long productId) {
+        long h = productId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (STRIPES - 1);
+    }
+
+    private static int toQuantity(long quantity) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, quantity));
+    }
+
+    // Immutable snapshot of one product's position, ordered by warehouse id
+    private static class ProductPosition {
+
+        private final long[] warehouseIds;
+        private final int[] available;
+        private final int[] inbound;
+
+        ProductPosition(long[] warehouseIds, int[] available, int[] inbound) {
+            this.warehouseIds = warehouseIds;
+            this.available = available;
+            this.inbound = inbound;
+        }
+    }
+
+    // What is left of a product's position while a request is evaluated; inactive warehouses have nothing
+    private static class Work {
+
+        private final long[] warehouseIds;
+        private final int[] stock;
+        private final int[] inbound;
+
+        Work(ProductPosition position, Set<Long> activeWarehouseIds, boolean includeInbound) {
+            this.warehouseIds = position.warehouseIds;
+            this.stock = Arrays.copyOf(position.available, position.available.length);
+            this.inbound = includeInbound ? Arrays.copyOf(position.inbound, position.inbound.length) : new int[position.inbound.length];
+            for (int w = 0; w < warehouseIds.length; w++) {
+                if (!activeWarehouseIds.contains(warehouseIds[w])) {
+                    stock[w] = 0;
+                    inbound[w] = 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.BulkMovementResult;
+import com.ideas2it.inventory_service.dto.CodeReference;
+import com.ideas2it.inventory_service.dto.CycleCountImportResult;
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.repository.ProductRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryBalance;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryDelta;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import com.ideas2it.inventory_service.util.CsvRecords;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a cycle-count CSV (sku, warehouseCode, countedQuantity[, notes]) from a request body and
+ * sets on-hand stock to the counted quantities, chunk by chunk. Each chunk runs in its own
+ * transaction: SKUs and warehouse codes are resolved with one query per table, the counted
+ * inventory rows are locked, and every difference from the book quantity is written as an IN or
+ * OUT movement referenced as an ADJUSTMENT (like a manual adjustment) and applied with the batched
+ * inventory upsert, which creates rows for stock counted where none was recorded. Bad lines are
+ * reported by line number without stopping the import; when a file counts the same stock twice,
+ * the later line wins.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CycleCountImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String DEFAULT_NOTES = "Cycle count";
+
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final UserRepository userRepository;
+    private final AlertService alertService;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+
+    @Value("${inventory.cycle-counts.chunk-size:5000}")
+    private int chunkSize;
+
+    public CycleCountImportResult importCounts(InputStream body, Long currentUserId) throws IOException {
+        log.info("Starting cycle count import");
+        long started = System.currentTimeMillis();
+
+        if (!userRepository.existsById(currentUserId)) {
+            throw new RuntimeException("Current user not found with ID: " + currentUserId);
+        }
+
+        CycleCountImportResult result = new CycleCountImportResult();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = null;
+            List<CountLine> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (columns == null) {
+                    columns = CsvRecords.parseHeader(line, "sku", "warehouseCode", "countedQuantity");
+                    continue;
+                }
+
+                result.setTotalLines(result.getTotalLines() + 1);
+                try {
+                    chunk.add(parseLine(lineNumber, line, columns));
+                } catch (NumberFormatException e) {
+                    reject(result, lineNumber, "Counted quantity must be a whole number");
+                } catch (Exception e) {
+                    reject(result, lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, currentUserId, result);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, currentUserId, result);
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        log.info("Cycle count import completed: {} accepted ({} adjusted), {} rejected in {} ms",
+                result.getAcceptedCount(), result.getAdjustedCount(), result.getRejectedCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void processChunk(List<CountLine> chunk, Long currentUserId, CycleCountImportResult result) {
+        try {
+            ChunkOutcome outcome = transactionTemplate.execute(status -> applyChunk(chunk, currentUserId));
+            result.setAcceptedCount(result.getAcceptedCount() + outcome.getAcceptedCount());
+            result.setAdjustedCount(result.getAdjustedCount() + outcome.getAdjustedCount());
+            result.setUnchangedCount(result.getUnchangedCount() + outcome.getAcceptedCount() - outcome.getAdjustedCount());
+            result.setNetQuantityChange(result.getNetQuantityChange() + outcome.getNetQuantityChange());
+            for (BulkMovementResult.LineError error : outcome.getRejected()) {
+                reject(result, error.getLineNumber(), error.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Error importing cycle count chunk starting at line {}: {}", chunk.get(0).getLineNumber(), e.getMessage());
+            for (CountLine line : chunk) {
+                reject(result, line.getLineNumber(), "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private ChunkOutcome applyChunk(List<CountLine> chunk, Long currentUserId) {
+        // Resolve every SKU and warehouse code in the chunk with one query each
+        Set<String> skus = new HashSet<>();
+        Set<String> warehouseCodes = new HashSet<>();
+        for (CountLine line : chunk) {
+            skus.add(line.getSku());
+            warehouseCodes.add(line.getWarehouseCode());
+        }
+        Map<String, Long> productIds = toIdMap(productRepository.findActiveIdsBySkuIn(skus));
+        Map<String, Long> warehouseIds = toIdMap(warehouseRepository.findActiveIdsByCodeIn(warehouseCodes));
+
+        // Keep the last count of each (product, warehouse); earlier ones are superseded
+        Map<InventoryKey, CountLine> counts = new LinkedHashMap<>();
+        List<BulkMovementResult.LineError> rejected = new ArrayList<>();
+        for (CountLine line : chunk) {
+            Long productId = productIds.get(line.getSku());
+            Long warehouseId = warehouseIds.get(line.getWarehouseCode());
+            if (productId == null) {
+                rejected.add(new BulkMovementResult.LineError(line.getLineNumber(), "Product not found or inactive with SKU: " + line.getSku()));
+            } else if (warehouseId == null) {
+                rejected.add(new BulkMovementResult.LineError(line.getLineNumber(), "Warehouse not found or inactive with code: " + line.getWarehouseCode()));
+            } else {
+                CountLine previous = counts.put(new InventoryKey(productId, warehouseId), line);
+                if (previous != null) {
+                    rejected.add(new BulkMovementResult.LineError(previous.getLineNumber(), "Superseded by the count on line " + line.getLineNumber()));
+                }
+            }
+        }
+
+        // Lock the counted inventory rows and turn each difference from the book quantity into a movement
+        Map<InventoryKey, InventoryBalance> balances = stockMovementJdbcWriter.lockInventory(counts.keySet());
+        Map<InventoryKey, InventoryDelta> deltas = new LinkedHashMap<>();
+        List<StockMovementRequest> movements = new ArrayList<>();
+        long netQuantityChange = 0;
+        int acceptedCount = counts.size();
+        for (Map.Entry<InventoryKey, CountLine> count : counts.entrySet()) {
+            InventoryKey key = count.getKey();
+            InventoryBalance balance = balances.getOrDefault(key, new InventoryBalance(0, 0));
+            int delta = count.getValue().getCountedQuantity() - balance.getOnHand();
+            if (delta == 0) {
+                continue;
+            }
+            // Held stock leaves only through its reservations, so a count cannot take the row below them
+            if (count.getValue().getCountedQuantity() < balance.getReserved()) {
+                rejected.add(new BulkMovementResult.LineError(count.getValue().getLineNumber(),
+                        "Counted quantity " + count.getValue().getCountedQuantity() + " is below the " + balance.getReserved() +
+                        " unit(s) reserved; release the reservations first"));
+                acceptedCount--;
+                continue;
+            }
+            deltas.put(key, new InventoryDelta(delta, currentUserId));
+            movements.add(new StockMovementRequest(key.getProductId(), key.getWarehouseId(),
+                    delta > 0 ? StockMovement.MovementType.IN : StockMovement.MovementType.OUT, Math.abs(delta),
+                    StockMovement.ReferenceType.ADJUSTMENT, null,
+                    count.getValue().getNotes() != null ? count.getValue().getNotes() : DEFAULT_NOTES, null, null, null));
+            netQuantityChange += delta;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = stockMovementJdbcWriter.allocateMovementIds(movements.size());
+        List<MovementRow> rows = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            rows.add(new MovementRow(ids.get(i), movements.get(i), currentUserId));
+        }
+        stockMovementJdbcWriter.insertMovements(rows, now);
+        stockMovementJdbcWriter.addToSummaries(movements, now);
+        stockMovementJdbcWriter.upsertInventory(deltas, now);
+        alertService.evaluateInventoryAlertsByIds(stockMovementJdbcWriter.findInventoryIds(deltas.keySet()));
+
+        return new ChunkOutcome(acceptedCount, deltas.size(), netQuantityChange, rejected);
+    }
+
+    private static CountLine parseLine(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> values = CsvRecords.split(line);
+        String sku = CsvRecords.column(values, columns, "sku");
+        String warehouseCode = CsvRecords.column(values, columns, "warehouseCode");
+        String countedQuantity = CsvRecords.column(values, columns, "countedQuantity");
+        if (sku == null) {
+            throw new RuntimeException("SKU is required");
+        }
+        if (warehouseCode == null) {
+            throw new RuntimeException("Warehouse code is required");
+        }
+        if (countedQuantity == null) {
+            throw new RuntimeException("Counted quantity is required");
+        }
+        int quantity = Integer.parseInt(countedQuantity);
+        if (quantity < 0) {
+            throw new RuntimeException("Counted quantity cannot be negative");
+        }
+        return new CountLine(lineNumber, sku, warehouseCode, quantity, CsvRecords.column(values, columns, "notes"));
+    }
+
+    private static Map<String, Long> toIdMap(List<CodeReference> references) {
+        Map<String, Long> ids = new HashMap<>();
+        for (CodeReference reference : references) {
+            ids.put(reference.getCode(), reference.getId());
+        }
+        return ids;
+    }
+
+    private static void reject(CycleCountImportResult result, long lineNumber, String message) {
+        result.setRejectedCount(result.getRejectedCount() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new BulkMovementResult.LineError(lineNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class CountLine {
+        private long lineNumber;
+        private String sku;
+        private String warehouseCode;
+        private int countedQuantity;
+        private String notes;
+    }
+
+    // Merged into the result only after the chunk's transaction commits
+    @Data
+    @AllArgsConstructor
+    private static class ChunkOutcome {
+        private int acceptedCount;
+        private int adjustedCount;
+        private long netQuantityChange;
+        private List<BulkMovementResult.LineError> rejected;
+    }
+}
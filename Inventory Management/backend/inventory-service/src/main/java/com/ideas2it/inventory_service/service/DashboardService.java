@@ -24,6 +24,7 @@ public class DashboardService {
     private final WarehouseRepository warehouseRepository;
     private final AlertRepository alertRepository;
     private final CategoryRepository categoryRepository;
+    private final InventoryCostService inventoryCostService;
 
     public Map<String, Object> getDashboardData(LocalDate startDate, LocalDate endDate, String warehouse, String category, String supplier) {
         log.info("Getting dashboard data for period: {} to {}", startDate, endDate);
@@ -53,7 +54,7 @@ public class DashboardService {
         
         // Current month metrics
         long totalProducts = productRepository.countByIsActiveTrue();
-        long lowStockItems = inventoryRepository.findLowStockInventory().size();
+        long lowStockItems = inventoryRepository.countLowStockInventory();
         long activeSuppliers = supplierRepository.countByIsActiveTrue();
         long totalWarehouses = warehouseRepository.countActiveWarehouses();
         long pendingOrders = purchaseOrderRepository.countByStatus(PurchaseOrder.OrderStatus.SUBMITTED);
@@ -102,6 +103,9 @@ public class DashboardService {
         metrics.put("totalValue", totalValue);
         metrics.put("totalValueTrend", totalValueTrend);
         
+        // Stock at moving-average cost, alongside totalValue at selling price
+        metrics.put("inventoryCostValue", inventoryCostService.getTotalValuation());
+        
         metrics.put("activeSuppliers", activeSuppliers);
         metrics.put("totalWarehouses", totalWarehouses);
         metrics.put("pendingOrders", pendingOrders);
@@ -162,7 +166,7 @@ public class DashboardService {
     private long getPreviousMonthLowStockCount(LocalDate startDate, LocalDate endDate) {
         // For low stock, we'll use current count as previous month count
         // In a real scenario, you might want to track historical inventory levels
-        return inventoryRepository.findLowStockInventory().size();
+        return inventoryRepository.countLowStockInventory();
     }
 
     private long getPreviousMonthOrdersCount(LocalDate startDate, LocalDate endDate) {
@@ -0,0 +1,175 @@
+package com.ideas2it.inventory_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideas2it.inventory_service.util.ExportWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full exports of inventory, products and stock movements as CSV or NDJSON. Rows are read through a
+ * JDBC cursor (a fetch size inside a transaction, which is when the PostgreSQL driver uses one) and
+ * written to the response as they arrive, so no entities or DTOs are built and memory stays constant
+ * whatever the row count. The response is gzip-encoded on the fly when the client accepts it.
+ * Movement exports cover the live stock_movements table, not compacted archives.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataExportService {
+
+    private static final String[] INVENTORY_COLUMNS = {"id", "productId", "sku", "productName", "warehouseId", "warehouseCode",
+            "quantityOnHand", "quantityReserved", "quantityAvailable", "lowStock", "lastUpdatedAt"};
+
+    private static final String INVENTORY_SQL =
+            "SELECT i.id, i.product_id, p.sku, p.name, i.warehouse_id, w.code, i.quantity_on_hand, i.quantity_reserved, " +
+            "i.quantity_available, i.low_stock, i.last_updated_at FROM inventory i " +
+            "JOIN products p ON p.id = i.product_id JOIN warehouses w ON w.id = i.warehouse_id";
+
+    private static final String[] PRODUCT_COLUMNS = {"id", "sku", "name", "categoryId", "categoryName", "brand", "model",
+            "unitOfMeasure", "costPrice", "sellingPrice", "reorderPoint", "reorderQuantity", "isActive", "createdAt", "updatedAt"};
+
+    private static final String PRODUCT_SQL =
+            "SELECT p.id, p.sku, p.name, p.category_id, c.name, p.brand, p.model, p.unit_of_measure, p.cost_price, " +
+            "p.selling_price, p.reorder_point, p.reorder_quantity, p.is_active, p.created_at, p.updated_at " +
+            "FROM products p LEFT JOIN categories c ON c.id = p.category_id ORDER BY p.id";
+
+    // Column names match the bulk movement CSV, so an export can be ingested again
+    private static final String[] MOVEMENT_COLUMNS = {"id", "productId", "warehouseId", "movementType", "quantity",
+            "referenceType", "referenceId", "notes", "movementDate", "createdAt", "createdBy", "unitCost"};
+
+    private static final String MOVEMENT_SQL =
+            "SELECT id, product_id, warehouse_id, movement_type, quantity, reference_type, reference_id, notes, " +
+            "movement_date, created_at, created_by, unit_cost FROM stock_movements";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public ResponseEntity<StreamingResponseBody> exportInventory(String format, Long warehouseId, String acceptEncoding) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(INVENTORY_SQL);
+        if (warehouseId != null) {
+            sql.append(" WHERE i.warehouse_id = ?");
+            args.add(warehouseId);
+        }
+        sql.append(" ORDER BY i.id");
+        return export("inventory", format, acceptEncoding, INVENTORY_COLUMNS, sql.toString(), args);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportProducts(String format, String acceptEncoding) {
+        return export("products", format, acceptEncoding, PRODUCT_COLUMNS, PRODUCT_SQL, List.of());
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportStockMovements(String format, Long productId, Long warehouseId,
+                                                                      LocalDateTime startDate, LocalDateTime endDate,
+                                                                      String acceptEncoding) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (productId != null) {
+            conditions.add("product_id = ?");
+            args.add(productId);
+        }
+        if (warehouseId != null) {
+            conditions.add("warehouse_id = ?");
+            args.add(warehouseId);
+        }
+        if (startDate != null) {
+            conditions.add("movement_date >= ?");
+            args.add(Timestamp.valueOf(startDate));
+        }
+        if (endDate != null) {
+            conditions.add("movement_date <= ?");
+            args.add(Timestamp.valueOf(endDate));
+        }
+        String sql = MOVEMENT_SQL + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY movement_date, id";
+        return export("stock-movements", format, acceptEncoding, MOVEMENT_COLUMNS, sql, args);
+    }
+
+    // Same shape as the controllers' ApiResponse; export endpoints must return a streaming body either way
+    public ResponseEntity<StreamingResponseBody> errorResponse(String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("data", null);
+        body.put("success", false);
+        body.put("message", message);
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> objectMapper.writeValue(out, body));
+    }
+
+    // Validates the request up front; once the body starts streaming, a failure can only cut the response short
+    private ResponseEntity<StreamingResponseBody> export(String name, String format, String acceptEncoding,
+                                                         String[] columns, String sql, List<Object> args) {
+        ExportWriter.Format exportFormat = ExportWriter.Format.of(format);
+        boolean gzip = ExportWriter.acceptsGzip(acceptEncoding);
+        String fileName = name + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+
+        StreamingResponseBody body = out -> {
+            long startedAt = System.currentTimeMillis();
+            long rows = writeRows(out, exportFormat, gzip, columns, sql, args);
+            log.info("Exported {} {} row(s) as {} in {} ms", rows, name, exportFormat, System.currentTimeMillis() - startedAt);
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private long writeRows(OutputStream out, ExportWriter.Format format, boolean gzip, String[] columns,
+                           String sql, List<Object> args) throws IOException {
+        try (ExportWriter writer = ExportWriter.open(out, format, gzip, columns)) {
+            Object[] values = new Object[columns.length];
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(sql);
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < args.size(); i++) {
+                    ps.setObject(i + 1, args.get(i));
+                }
+                return ps;
+            }, (ResultSet rs) -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    writer.writeRow(values);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            return writer.getRowCount();
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the transaction has already been rolled back
+            log.warn("Export aborted after a write failure: {}", e.getMessage());
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.DemandForecastResponse;
+import com.ideas2it.inventory_service.dto.DemandForecastRunResult;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.util.DemandSmoothing;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Forecasts the daily demand of every inventory row (product, warehouse) and suggests a safety stock
+ * and reorder point from it, stored in demand_forecasts next to the product's own reorder point,
+ * which is left as configured.
+ *
+ * <p>Demand is the daily OUT quantity of the last lookback-days whole days, transfers excluded, with
+ * days without demand counted as zero, smoothed exponentially ({@link DemandSmoothing}). Lead time is
+ * the average number of days between a purchase order's order date and its receipts into the
+ * warehouse over lead-time-lookback-days, or default-lead-time-days when nothing was received. Then
+ * safety stock = ceil(z * deviation * sqrt(leadTime)) and reorder point = ceil(demand * leadTime +
+ * safety stock).
+ *
+ * <p>Inventory rows are read in id-ordered keyset pages, each forecast as a task on a fork-join pool
+ * with two queries over idx_stock_movements_product_warehouse_movement_date and written back in one
+ * batch upsert, so a run costs a fixed number of statements per chunk however many rows it covers.
+ * The lookback should stay inside the compaction retention horizon: compacted days are not read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DemandForecastService {
+
+    private static final String INVENTORY_PAGE_SQL =
+            "SELECT id, product_id, warehouse_id FROM inventory WHERE id > ? ORDER BY id LIMIT ?";
+
+    // Ordered so each series streams through one DemandSmoothing day by day
+    private static final String DAILY_DEMAND_SQL =
+            "SELECT m.product_id, m.warehouse_id, CAST(m.movement_date AS DATE) AS day, SUM(m.quantity) FROM stock_movements m " +
+            "JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON m.product_id = k.product_id AND m.warehouse_id = k.warehouse_id " +
+            "WHERE m.movement_date >= ? AND m.movement_date < ? " +
+            "AND m.movement_type = 'OUT' AND m.reference_type IS DISTINCT FROM 'TRANSFER' " +
+            "GROUP BY m.product_id, m.warehouse_id, day ORDER BY m.product_id, m.warehouse_id, day";
+
+    private static final String LEAD_TIME_SQL =
+            "SELECT m.product_id, m.warehouse_id, AVG(CAST(m.movement_date AS DATE) - po.order_date) FROM stock_movements m " +
+            "JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON m.product_id = k.product_id AND m.warehouse_id = k.warehouse_id " +
+            "JOIN purchase_orders po ON po.id = m.reference_id " +
+            "WHERE m.movement_date >= ? AND m.movement_type = 'IN' AND m.reference_type = 'PURCHASE_ORDER' " +
+            "GROUP BY m.product_id, m.warehouse_id";
+
+    private static final String UPSERT_FORECAST_SQL =
+            "INSERT INTO demand_forecasts (product_id, warehouse_id, average_daily_demand, demand_deviation, lead_time_days, " +
+            "safety_stock, reorder_point, computed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (product_id, warehouse_id) DO UPDATE SET average_daily_demand = EXCLUDED.average_daily_demand, " +
+            "demand_deviation = EXCLUDED.demand_deviation, lead_time_days = EXCLUDED.lead_time_days, " +
+            "safety_stock = EXCLUDED.safety_stock, reorder_point = EXCLUDED.reorder_point, computed_at = EXCLUDED.computed_at";
+
+    private static final String FORECASTS_SQL =
+            "SELECT f.product_id, p.sku, p.name, f.warehouse_id, w.code, i.quantity_available, p.reorder_point, " +
+            "f.average_daily_demand, f.demand_deviation, f.lead_time_days, f.safety_stock, f.reorder_point, f.computed_at " +
+            "FROM demand_forecasts f JOIN products p ON p.id = f.product_id JOIN warehouses w ON w.id = f.warehouse_id " +
+            "LEFT JOIN inventory i ON i.product_id = f.product_id AND i.warehouse_id = f.warehouse_id WHERE 1 = 1 ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guards against the schedule and a manual trigger overlapping on this instance
+    private final AtomicBoolean forecasting = new AtomicBoolean();
+
+    @Value("${inventory.forecasting.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.forecasting.lookback-days:90}")
+    private int lookbackDays;
+
+    @Value("${inventory.forecasting.lead-time-lookback-days:365}")
+    private int leadTimeLookbackDays;
+
+    @Value("${inventory.forecasting.default-lead-time-days:7}")
+    private double defaultLeadTimeDays;
+
+    @Value("${inventory.forecasting.smoothing-factor:0.3}")
+    private double smoothingFactor;
+
+    @Value("${inventory.forecasting.service-level-z:1.65}")
+    private double serviceLevelZ;
+
+    @Value("${inventory.forecasting.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${inventory.forecasting.parallelism:4}")
+    private int parallelism;
+
+    @Scheduled(cron = "${inventory.forecasting.cron:0 0 2 * * *}")
+    public void forecastDemandScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            forecastDemand();
+        } catch (Exception e) {
+            log.error("Error forecasting demand: {}", e.getMessage());
+        }
+    }
+
+    public DemandForecastRunResult forecastDemand() {
+        if (!forecasting.compareAndSet(false, true)) {
+            throw new RuntimeException("Demand forecasting is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            DemandForecastRunResult result = new DemandForecastRunResult();
+            // Today is still moving, so the window ends at midnight
+            result.setWindowEnd(LocalDate.now());
+            result.setWindowStart(result.getWindowEnd().minusDays(lookbackDays));
+            LocalDateTime computedAt = LocalDateTime.now();
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<long[]>> tasks = new ArrayList<>();
+                long lastId = 0;
+                while (true) {
+                    Set<InventoryKey> keys = new LinkedHashSet<>();
+                    long[] pageLastId = {lastId};
+                    jdbcTemplate.query(INVENTORY_PAGE_SQL, rs -> {
+                        pageLastId[0] = rs.getLong(1);
+                        keys.add(new InventoryKey(rs.getLong(2), rs.getLong(3)));
+                    }, lastId, chunkSize);
+                    if (keys.isEmpty()) {
+                        break;
+                    }
+                    tasks.add(pool.submit(() -> forecastChunk(keys, result, computedAt)));
+                    lastId = pageLastId[0];
+                }
+                for (ForkJoinTask<long[]> task : tasks) {
+                    long[] counts = task.join();
+                    result.setPairsForecast(result.getPairsForecast() + counts[0]);
+                    result.setPairsWithDemand(result.getPairsWithDemand() + counts[1]);
+                }
+                result.setChunks(tasks.size());
+            } finally {
+                pool.shutdown();
+            }
+
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+            log.info("Forecast demand of {} inventory row(s), {} with demand, in {} chunk(s) and {} ms",
+                    result.getPairsForecast(), result.getPairsWithDemand(), result.getChunks(), result.getElapsedMillis());
+            return result;
+        } finally {
+            forecasting.set(false);
+        }
+    }
+
+    public List<DemandForecastResponse> getForecasts(Long productId, Long warehouseId, boolean belowReorderPoint, int limit) {
+        log.info("Fetching demand forecasts");
+        List<Object> args = new ArrayList<>();
+        String sql = FORECASTS_SQL;
+        if (productId != null) {
+            sql += "AND f.product_id = ? ";
+            args.add(productId);
+        }
+        if (warehouseId != null) {
+            sql += "AND f.warehouse_id = ? ";
+            args.add(warehouseId);
+        }
+        if (belowReorderPoint) {
+            sql += "AND f.reorder_point > 0 AND i.quantity_available <= f.reorder_point ";
+        }
+        args.add(limit);
+        return jdbcTemplate.query(sql + "ORDER BY p.sku, w.code LIMIT ?", (rs, rowNum) -> new DemandForecastResponse(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getLong(4),
+                rs.getString(5),
+                (Integer) rs.getObject(6),
+                (Integer) rs.getObject(7),
+                rs.getBigDecimal(8),
+                rs.getBigDecimal(9),
+                rs.getBigDecimal(10),
+                rs.getInt(11),
+                rs.getInt(12),
+                rs.getTimestamp(13).toLocalDateTime()
+        ), args.toArray());
+    }
+
+    // Returns the number of rows forecast and how many of them had any demand in the window
+    private long[] forecastChunk(Set<InventoryKey> keys, DemandForecastRunResult result, LocalDateTime computedAt) {
+        Map<InventoryKey, Double> leadTimes = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LEAD_TIME_SQL);
+            StockMovementJdbcWriter.bindKeyArrays(ps, keys);
+            ps.setTimestamp(3, Timestamp.valueOf(result.getWindowEnd().minusDays(leadTimeLookbackDays).atStartOfDay()));
+            return ps;
+        }, rs -> {
+            leadTimes.put(new InventoryKey(rs.getLong(1), rs.getLong(2)), rs.getDouble(3));
+        });
+
+        Map<InventoryKey, Forecast> forecasts = new HashMap<>();
+        SeriesReader series = new SeriesReader(new DemandSmoothing(smoothingFactor), result.getWindowStart(), result.getWindowEnd());
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DAILY_DEMAND_SQL);
+            StockMovementJdbcWriter.bindKeyArrays(ps, keys);
+            ps.setTimestamp(3, Timestamp.valueOf(result.getWindowStart().atStartOfDay()));
+            ps.setTimestamp(4, Timestamp.valueOf(result.getWindowEnd().atStartOfDay()));
+            return ps;
+        }, rs -> {
+            InventoryKey key = new InventoryKey(rs.getLong(1), rs.getLong(2));
+            if (!key.equals(series.key)) {
+                series.finish(forecasts, leadTimes);
+                series.start(key);
+            }
+            series.add(rs.getDate(3).toLocalDate(), rs.getInt(4));
+        });
+        series.finish(forecasts, leadTimes);
+        long withDemand = forecasts.size();
+
+        List<Forecast> rows = new ArrayList<>(keys.size());
+        for (InventoryKey key : keys) {
+            Forecast forecast = forecasts.get(key);
+            // Nothing went out in the window: no demand to cover, whatever the lead time
+            rows.add(forecast != null ? forecast : forecast(key, 0, 0, leadTime(key, leadTimes)));
+        }
+        Timestamp timestamp = Timestamp.valueOf(computedAt);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_FORECAST_SQL, rows, rows.size(), (ps, forecast) -> {
+            ps.setLong(1, forecast.key.getProductId());
+            ps.setLong(2, forecast.key.getWarehouseId());
+            ps.setBigDecimal(3, BigDecimal.valueOf(forecast.demand).setScale(4, RoundingMode.HALF_UP));
+            ps.setBigDecimal(4, BigDecimal.valueOf(forecast.deviation).setScale(4, RoundingMode.HALF_UP));
+            ps.setBigDecimal(5, BigDecimal.valueOf(forecast.leadTime).setScale(2, RoundingMode.HALF_UP));
+            ps.setInt(6, forecast.safetyStock);
+            ps.setInt(7, forecast.reorderPoint);
+            ps.setTimestamp(8, timestamp);
+        }));
+        return new long[]{rows.size(), withDemand};
+    }
+
+    // Orders placed and received the same day still need a day of cover
+    private double leadTime(InventoryKey key, Map<InventoryKey, Double> leadTimes) {
+        return Math.max(1, leadTimes.getOrDefault(key, defaultLeadTimeDays));
+    }
+
+    private Forecast forecast(InventoryKey key, double demand, double deviation, double leadTime) {
+        int safetyStock = (int) Math.ceil(serviceLevelZ * deviation * Math.sqrt(leadTime));
+        int reorderPoint = (int) Math.ceil(demand * leadTime + safetyStock);
+        return new Forecast(key, demand, deviation, leadTime, safetyStock, reorderPoint);
+    }
+
+    // Feeds one (product, warehouse) series at a time into the smoothing, filling days without demand with zeros
+    private class SeriesReader {
+        private final DemandSmoothing smoothing;
+        private final LocalDate windowStart;
+        private final LocalDate windowEnd;
+        private InventoryKey key;
+        private LocalDate nextDay;
+
+        SeriesReader(DemandSmoothing smoothing, LocalDate windowStart, LocalDate windowEnd) {
+            this.smoothing = smoothing;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+
+        void start(InventoryKey key) {
+            this.key = key;
+            nextDay = windowStart;
+            smoothing.reset();
+        }
+
+        void add(LocalDate day, int quantity) {
+            smoothing.addZeros((int) ChronoUnit.DAYS.between(nextDay, day));
+            smoothing.add(quantity);
+            nextDay = day.plusDays(1);
+        }
+
+        void finish(Map<InventoryKey, Forecast> forecasts, Map<InventoryKey, Double> leadTimes) {
+            if (key == null) {
+                return;
+            }
+            smoothing.addZeros((int) ChronoUnit.DAYS.between(nextDay, windowEnd));
+            forecasts.put(key, forecast(key, smoothing.getLevel(), smoothing.getDeviation(), leadTime(key, leadTimes)));
+            key = null;
+        }
+    }
+
+    private static class Forecast {
+        private final InventoryKey key;
+        private final double demand;
+        private final double deviation;
+        private final double leadTime;
+        private final int safetyStock;
+        private final int reorderPoint;
+
+        Forecast(InventoryKey key, double demand, double deviation, double leadTime, int safetyStock, int reorderPoint) {
+            this.key = key;
+            this.demand = demand;
+            this.deviation = deviation;
+            this.leadTime = leadTime;
+            this.safetyStock = safetyStock;
+            this.reorderPoint = reorderPoint;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.ideas2it.inventory_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideas2it.inventory_service.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Makes write endpoints safe to retry with an Idempotency-Key header. The key is claimed in the same
+ * transaction as the write it guards, so a concurrent retry blocks on the unique key until the first
+ * attempt finishes and then replays its response; if the first attempt fails the claim rolls back with it.
+ * Completed responses are kept in a bounded LRU cache so most retries are answered without a query.
+ * A key is scoped to its operation, so the same key sent to two different endpoints guards two writes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${inventory.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${inventory.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    private Map<String, StoredResponse> cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Runs the action at most once per key. Without a key the action simply runs. Only successful
+     * responses are stored; a failed attempt leaves the key free so the client can retry it.
+     */
+    public ResponseEntity<?> execute(String key, String operation, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return error(HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String requestHash = hash(operation, request);
+        String cacheKey = operation + '\n' + key;
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return replay(key, cached, requestHash);
+            }
+            cache.remove(cacheKey);
+        }
+
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            // Blocks while another transaction holds the same key; an expired row is taken over
+            int claimed = jdbcTemplate.update(
+                    "INSERT INTO idempotency_keys (idempotency_key, operation, request_hash, created_at, expires_at) " +
+                    "VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (operation, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, response_status = NULL, response_body = NULL, " +
+                    "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at " +
+                    "WHERE idempotency_keys.expires_at <= EXCLUDED.created_at",
+                    key, operation, requestHash, Timestamp.valueOf(now), Timestamp.valueOf(now.plusHours(ttlHours)));
+
+            if (claimed == 0) {
+                status.setRollbackOnly();
+                StoredResponse stored = findStoredResponse(operation, key);
+                if (stored == null) {
+                    return error(HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still in progress");
+                }
+                cache.put(cacheKey, stored);
+                return replay(key, stored, requestHash);
+            }
+
+            ResponseEntity<?> response = action.get();
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                status.setRollbackOnly();
+                return response;
+            }
+
+            StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+                    toJson(response.getBody()), now.plusHours(ttlHours));
+            jdbcTemplate.update("UPDATE idempotency_keys SET response_status = ?, response_body = ? " +
+                    "WHERE operation = ? AND idempotency_key = ?", stored.status, stored.body, operation, key);
+            cacheAfterCommit(cacheKey, stored);
+            return response;
+        });
+    }
+
+    @Scheduled(cron = "${inventory.idempotency.cleanup-cron:0 */15 * * * *}")
+    public void purgeExpiredKeys() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?",
+                    Timestamp.valueOf(LocalDateTime.now()));
+            synchronized (cache) {
+                cache.values().removeIf(StoredResponse::isExpired);
+            }
+            log.info("Purged {} expired idempotency key(s)", deleted);
+        } catch (Exception e) {
+            log.error("Error purging expired idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    private StoredResponse findStoredResponse(String operation, String key) {
+        List<StoredResponse> rows = jdbcTemplate.query(
+                "SELECT request_hash, response_status, response_body, expires_at FROM idempotency_keys " +
+                "WHERE operation = ? AND idempotency_key = ? AND response_status IS NOT NULL",
+                (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"), rs.getInt("response_status"),
+                        rs.getString("response_body"), rs.getTimestamp("expires_at").toLocalDateTime()),
+                operation, key);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private ResponseEntity<?> replay(String key, StoredResponse stored, String requestHash) {
+        if (!stored.requestHash.equals(requestHash)) {
+            return error(HttpStatus.UNPROCESSABLE_ENTITY,
+                    IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+        }
+        log.info("Replaying stored response for idempotency key {}", key);
+        return ResponseEntity.status(stored.status)
+                .header(REPLAYED_HEADER, "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(stored.body);
+    }
+
+    // Only cache once the response is durable, otherwise a rolled back write could be replayed
+    private void cacheAfterCommit(String key, StoredResponse stored) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(key, stored);
+            }
+        });
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing idempotent request: " + e.getMessage(), e);
+        }
+    }
+
+    private static ResponseEntity<?> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(new ApiResponse<>(null, false, message, 0));
+    }
+
+    private static class StoredResponse {
+        private final String requestHash;
+        private final int status;
+        private final String body;
+        private final LocalDateTime expiresAt;
+
+        private StoredResponse(String requestHash, int status, String body, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.status = status;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return expiresAt.isBefore(LocalDateTime.now());
+        }
+    }
+}
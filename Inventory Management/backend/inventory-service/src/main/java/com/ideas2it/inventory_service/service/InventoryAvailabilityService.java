@@ -0,0 +1,294 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.AvailabilityCacheStatsResponse;
+import com.ideas2it.inventory_service.dto.InventoryAvailabilityResponse;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.util.LongLruCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache of inventory availability by (product, warehouse), keyed by the two ids packed into one
+ * long. Every write path that changes an inventory row calls {@link #invalidate}: the local entry is
+ * dropped after the transaction commits, and a NOTIFY sent in the same transaction reaches the other
+ * instances only if it commits. Each instance LISTENs on one dedicated connection; while that
+ * connection is down lookups bypass the cache, and the cache is cleared whenever it (re)connects,
+ * because notifications sent in between are lost. Each batch of invalidations this instance applies,
+ * local or remote, is also published as an {@link AvailabilityChangedEvent} for other in-memory views.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryAvailabilityService {
+
+    private static final String CHANNEL = "inventory_availability";
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+
+    private static final String AVAILABILITY_SQL =
+            "SELECT id, quantity_on_hand, quantity_reserved, last_updated_at FROM inventory WHERE product_id = ? AND warehouse_id = ?";
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS payload";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Lets an instance skip its own notifications, which it has already applied after commit
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong remoteNotifications = new AtomicLong();
+
+    @Value("${inventory.availability-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.availability-cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${inventory.availability-cache.segments:16}")
+    private int segments;
+
+    @Value("${inventory.availability-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${inventory.availability-cache.listen-poll-ms:500}")
+    private int listenPollMillis;
+
+    @Value("${inventory.availability-cache.reconnect-delay-ms:5000}")
+    private long reconnectDelayMillis;
+
+    private LongLruCache<InventoryAvailabilityResponse> cache;
+    private Thread listenerThread;
+    private volatile boolean running;
+    private volatile boolean listening;
+
+    @PostConstruct
+    void initCache() {
+        cache = new LongLruCache<>(maxEntries, segments, ttlSeconds * 1000);
+    }
+
+    public InventoryAvailabilityResponse getAvailability(Long productId, Long warehouseId) {
+        InventoryAvailabilityResponse availability = enabled && listening && packable(productId, warehouseId)
+                ? cache.get(packKey(productId, warehouseId), key -> loadAvailability(productId, warehouseId))
+                : loadAvailability(productId, warehouseId);
+        if (availability == null) {
+            throw new RuntimeException("Inventory not found for product ID: " + productId + " and warehouse ID: " + warehouseId);
+        }
+        return availability;
+    }
+
+    public void invalidate(Long productId, Long warehouseId) {
+        invalidate(List.of(new InventoryKey(productId, warehouseId)));
+    }
+
+    /**
+     * Drops the cached availability of the keys on every instance once the current transaction
+     * commits; a rollback leaves the caches as they are. Outside a transaction it applies at once.
+     */
+    public void invalidate(Collection<InventoryKey> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        List<Long> packedKeys = new ArrayList<>(keys.size());
+        for (InventoryKey key : keys) {
+            if (packable(key.getProductId(), key.getWarehouseId())) {
+                packedKeys.add(packKey(key.getProductId(), key.getWarehouseId()));
+            }
+        }
+        if (packedKeys.isEmpty()) {
+            return;
+        }
+        notifyInstances(packedKeys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyInvalidation(packedKeys);
+                }
+            });
+        } else {
+            applyInvalidation(packedKeys);
+        }
+    }
+
+    // False while invalidations from other instances may be missed, so views built on them must not be trusted
+    public boolean isListening() {
+        return enabled && listening;
+    }
+
+    public AvailabilityCacheStatsResponse getCacheStats() {
+        long hits = cache.hits();
+        long misses = cache.misses();
+        double hitRate = hits + misses > 0 ? (double) hits / (hits + misses) : 0;
+        return new AvailabilityCacheStatsResponse(enabled, listening, cache.size(), maxEntries, hits, misses,
+                hitRate, cache.evictions(), cache.invalidations(), remoteNotifications.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListener() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "inventory-availability-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stopListener() throws InterruptedException {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.join(listenPollMillis + 1000L);
+        }
+    }
+
+    // Holds one pooled connection for as long as it stays healthy
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                clearAll();
+                listening = true;
+                log.info("Listening for inventory availability invalidations on channel {}", CHANNEL);
+                try {
+                    while (running) {
+                        PGNotification[] notifications = pgConnection.getNotifications(listenPollMillis);
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                applyNotification(notification.getParameter());
+                            }
+                        }
+                    }
+                } finally {
+                    listening = false;
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("UNLISTEN *");
+                    }
+                }
+            } catch (Exception e) {
+                listening = false;
+                clearAll();
+                if (running) {
+                    log.error("Inventory availability listener failed, retrying in {} ms: {}", reconnectDelayMillis, e.getMessage());
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private void applyNotification(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        remoteNotifications.incrementAndGet();
+        List<Long> packedKeys = new ArrayList<>();
+        for (String key : payload.substring(separator + 1).split(",")) {
+            packedKeys.add(Long.parseLong(key));
+        }
+        applyInvalidation(packedKeys);
+    }
+
+    private void applyInvalidation(List<Long> packedKeys) {
+        packedKeys.forEach(cache::invalidate);
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(packedKeys, false));
+    }
+
+    private void clearAll() {
+        cache.invalidateAll();
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(List.of(), true));
+    }
+
+    // Queued by Postgres until commit and dropped on rollback; large batches are split over several payloads
+    private void notifyInstances(List<Long> packedKeys) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(instanceId).append(':');
+        int emptyLength = payload.length();
+        for (Long key : packedKeys) {
+            if (payload.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(emptyLength);
+            }
+            if (payload.length() > emptyLength) {
+                payload.append(',');
+            }
+            payload.append(key);
+        }
+        payloads.add(payload.toString());
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(NOTIFY_SQL);
+            ps.setString(1, CHANNEL);
+            ps.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            return ps;
+        }, rs -> {
+        });
+    }
+
+    private InventoryAvailabilityResponse loadAvailability(Long productId, Long warehouseId) {
+        List<InventoryAvailabilityResponse> rows = jdbcTemplate.query(AVAILABILITY_SQL, (rs, rowNum) -> {
+            Timestamp lastUpdatedAt = rs.getTimestamp(4);
+            return new InventoryAvailabilityResponse(rs.getLong(1), productId, warehouseId, rs.getInt(2), rs.getInt(3),
+                    rs.getInt(2) - rs.getInt(3), lastUpdatedAt != null ? lastUpdatedAt.toLocalDateTime() : null);
+        }, productId, warehouseId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // Ids up to 2^32 - 1 pack losslessly; larger ones are simply not cached
+    private static boolean packable(Long productId, Long warehouseId) {
+        return productId != null && warehouseId != null && (productId >>> 32) == 0 && (warehouseId >>> 32) == 0;
+    }
+
+    private static long packKey(long productId, long warehouseId) {
+        return productId << 32 | warehouseId;
+    }
+
+    // The (product, warehouse) keys whose availability changed, packed as in the cache, or every key when all is set
+    @Getter
+    @AllArgsConstructor
+    public static class AvailabilityChangedEvent {
+        private final List<Long> packedKeys;
+        private final boolean all;
+
+        public static long productId(long packedKey) {
+            return packedKey >>> 32;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the moving-average cost of each inventory row (inventory_costs) as movements are recorded,
+ * in the caller's transaction, and stamps every IN and OUT request with its unit cost before it is
+ * inserted. A costed IN moves the average: (onHand * average + quantity * cost) / (onHand + quantity).
+ * An OUT leaves at the average, which is its cost of goods sold, and does not move it. An IN without a
+ * cost comes in at the average, except the IN half of a transfer, which carries the cost its OUT half
+ * left the source at. Each batch costs two statements to read and lock its rows and one batch update,
+ * whatever the movement history, so valuation and COGS never replay receipts.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryCostJdbcWriter {
+
+    static final int COST_SCALE = 4;
+
+    // Rows first seen here start at the product's cost price
+    private static final String CREATE_COSTS_SQL =
+            "WITH k AS (SELECT * FROM unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id)) " +
+            "INSERT INTO inventory_costs (product_id, warehouse_id, average_cost, updated_at) " +
+            "SELECT k.product_id, k.warehouse_id, p.cost_price, ? FROM k JOIN products p ON p.id = k.product_id " +
+            "ON CONFLICT (product_id, warehouse_id) DO NOTHING";
+
+    // On-hand as it stands before the batch: callers apply their inventory deltas after inserting the movements
+    private static final String LOCK_COSTS_SQL =
+            "SELECT c.product_id, c.warehouse_id, c.average_cost, COALESCE(i.quantity_on_hand, 0) FROM inventory_costs c " +
+            "JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON c.product_id = k.product_id AND c.warehouse_id = k.warehouse_id " +
+            "LEFT JOIN inventory i ON i.product_id = c.product_id AND i.warehouse_id = c.warehouse_id " +
+            "ORDER BY c.id FOR UPDATE OF c";
+
+    private static final String UPDATE_COST_SQL =
+            "UPDATE inventory_costs SET average_cost = ?, updated_at = ? WHERE product_id = ? AND warehouse_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Applies the movements, in order, to the average costs and sets each IN and OUT request's unit cost
+    public void applyMovements(List<MovementRow> rows, LocalDateTime now) {
+        Set<InventoryKey> keys = new LinkedHashSet<>();
+        for (MovementRow row : rows) {
+            StockMovementRequest request = row.getRequest();
+            if (StockMovementJdbcWriter.signedQuantity(request) != 0) {
+                keys.add(new InventoryKey(request.getProductId(), request.getWarehouseId()));
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        Map<InventoryKey, RunningCost> costs = lockCosts(keys, timestamp);
+        Map<TransferLine, BigDecimal> inTransit = new HashMap<>();
+        for (MovementRow row : rows) {
+            StockMovementRequest request = row.getRequest();
+            int change = StockMovementJdbcWriter.signedQuantity(request);
+            if (change == 0) {
+                continue;
+            }
+            RunningCost cost = costs.get(new InventoryKey(request.getProductId(), request.getWarehouseId()));
+            TransferLine transferLine = request.getReferenceType() == StockMovement.ReferenceType.TRANSFER
+                    ? new TransferLine(request.getReferenceId(), request.getProductId()) : null;
+            if (change > 0) {
+                BigDecimal unitCost = request.getUnitCost();
+                if (unitCost == null && transferLine != null) {
+                    unitCost = inTransit.get(transferLine);
+                }
+                if (unitCost != null) {
+                    cost.receive(change, unitCost);
+                    request.setUnitCost(unitCost);
+                } else {
+                    request.setUnitCost(cost.getAverageCost());
+                }
+                cost.setOnHand(cost.getOnHand() + change);
+            } else {
+                request.setUnitCost(cost.getAverageCost());
+                if (transferLine != null && cost.getAverageCost() != null) {
+                    inTransit.put(transferLine, cost.getAverageCost());
+                }
+                cost.setOnHand(cost.getOnHand() + change);
+            }
+        }
+
+        List<Map.Entry<InventoryKey, RunningCost>> changed = new ArrayList<>();
+        for (Map.Entry<InventoryKey, RunningCost> entry : costs.entrySet()) {
+            if (entry.getValue().isChanged()) {
+                changed.add(entry);
+            }
+        }
+        jdbcTemplate.batchUpdate(UPDATE_COST_SQL, changed, changed.size(), (ps, entry) -> {
+            ps.setBigDecimal(1, entry.getValue().getAverageCost());
+            ps.setTimestamp(2, timestamp);
+            ps.setLong(3, entry.getKey().getProductId());
+            ps.setLong(4, entry.getKey().getWarehouseId());
+        });
+    }
+
+    private Map<InventoryKey, RunningCost> lockCosts(Set<InventoryKey> keys, Timestamp now) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CREATE_COSTS_SQL);
+            StockMovementJdbcWriter.bindKeyArrays(ps, keys);
+            ps.setTimestamp(3, now);
+            return ps;
+        });
+
+        Map<InventoryKey, RunningCost> costs = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_COSTS_SQL);
+            StockMovementJdbcWriter.bindKeyArrays(ps, keys);
+            return ps;
+        }, rs -> {
+            costs.put(new InventoryKey(rs.getLong(1), rs.getLong(2)), new RunningCost(rs.getBigDecimal(3), rs.getLong(4), false));
+        });
+        for (InventoryKey key : keys) {
+            if (!costs.containsKey(key)) {
+                // Unknown product: the caller's own validation rejects the movement
+                costs.put(key, new RunningCost(null, 0, false));
+            }
+        }
+        return costs;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class RunningCost {
+        private BigDecimal averageCost;
+        private long onHand;
+        private boolean changed;
+
+        // Stock already on hand at an unknown cost, or none at all, takes the receipt cost
+        void receive(int quantity, BigDecimal unitCost) {
+            if (onHand <= 0 || averageCost == null) {
+                averageCost = unitCost.setScale(COST_SCALE, RoundingMode.HALF_UP);
+            } else {
+                BigDecimal value = averageCost.multiply(BigDecimal.valueOf(onHand))
+                        .add(unitCost.multiply(BigDecimal.valueOf(quantity)));
+                averageCost = value.divide(BigDecimal.valueOf(onHand + quantity), COST_SCALE, RoundingMode.HALF_UP);
+            }
+            changed = true;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class TransferLine {
+        private Long transferId;
+        private Long productId;
+    }
+}
@@ -0,0 +1,106 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.CostOfGoodsResponse;
+import com.ideas2it.inventory_service.dto.InventoryValuationResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost-based valuation and cost of goods, read from what {@link InventoryCostJdbcWriter} maintains:
+ * stock is valued at quantity_on_hand * average_cost and each OUT movement already carries the cost it
+ * left at, so neither report replays receipts. Cost of goods excludes transfers, which only move
+ * stock between warehouses, and includes compacted months through their daily rollups.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCostService {
+
+    // Stock that has never been costed falls back to the product's cost price
+    private static final String UNIT_COST = "COALESCE(c.average_cost, p.cost_price, 0)";
+
+    private static final String VALUATION_SQL =
+            "SELECT i.product_id, p.sku, p.name, i.warehouse_id, w.code, i.quantity_on_hand, " + UNIT_COST + ", " +
+            "i.quantity_on_hand * " + UNIT_COST + " FROM inventory i JOIN products p ON p.id = i.product_id " +
+            "JOIN warehouses w ON w.id = i.warehouse_id " +
+            "LEFT JOIN inventory_costs c ON c.product_id = i.product_id AND c.warehouse_id = i.warehouse_id " +
+            "WHERE i.quantity_on_hand > 0 ";
+
+    private static final String TOTAL_VALUATION_SQL =
+            "SELECT COALESCE(SUM(i.quantity_on_hand * " + UNIT_COST + "), 0) FROM inventory i " +
+            "JOIN products p ON p.id = i.product_id " +
+            "LEFT JOIN inventory_costs c ON c.product_id = i.product_id AND c.warehouse_id = i.warehouse_id " +
+            "WHERE i.quantity_on_hand > 0";
+
+    // Live OUT movements in the range plus the rollups of compacted days inside it
+    private static final String COST_OF_GOODS_SQL =
+            "SELECT m.product_id, p.sku, p.name, m.warehouse_id, w.code, SUM(m.quantity), COALESCE(SUM(m.cost), 0), " +
+            "COALESCE(SUM(m.quantity) FILTER (WHERE m.cost IS NULL), 0) FROM (" +
+            "SELECT product_id, warehouse_id, quantity, quantity * unit_cost AS cost FROM stock_movements " +
+            "WHERE movement_type = 'OUT' AND movement_date >= ? AND movement_date < ? " +
+            "AND reference_type IS DISTINCT FROM 'TRANSFER' " +
+            "UNION ALL SELECT product_id, warehouse_id, total_quantity, cost_of_goods FROM stock_movement_daily_rollups " +
+            "WHERE movement_type = 'OUT' AND movement_day >= ? AND movement_day < ? AND cost_of_goods IS NOT NULL" +
+            ") m JOIN products p ON p.id = m.product_id JOIN warehouses w ON w.id = m.warehouse_id ";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<InventoryValuationResponse> getValuation(Long warehouseId) {
+        log.info("Fetching inventory valuation{}", warehouseId != null ? " for warehouse ID: " + warehouseId : "");
+        List<Object> args = new ArrayList<>();
+        String sql = VALUATION_SQL;
+        if (warehouseId != null) {
+            sql += "AND i.warehouse_id = ? ";
+            args.add(warehouseId);
+        }
+        return jdbcTemplate.query(sql + "ORDER BY p.sku, w.code", (rs, rowNum) -> new InventoryValuationResponse(
+                rs.getLong(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getLong(4),
+                rs.getString(5),
+                rs.getInt(6),
+                rs.getBigDecimal(7),
+                rs.getBigDecimal(8)
+        ), args.toArray());
+    }
+
+    public BigDecimal getTotalValuation() {
+        return jdbcTemplate.queryForObject(TOTAL_VALUATION_SQL, BigDecimal.class);
+    }
+
+    // Compacted days are matched by date: from the day of startDate up to, but not including, the day of endDate
+    public List<CostOfGoodsResponse> getCostOfGoods(LocalDateTime startDate, LocalDateTime endDate, Long warehouseId) {
+        log.info("Fetching cost of goods between {} and {}", startDate, endDate);
+        if (!startDate.isBefore(endDate)) {
+            throw new RuntimeException("Start date must be before end date");
+        }
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(startDate), Timestamp.valueOf(endDate),
+                Date.valueOf(startDate.toLocalDate()), Date.valueOf(endDate.toLocalDate())));
+        String sql = COST_OF_GOODS_SQL;
+        if (warehouseId != null) {
+            sql += "WHERE m.warehouse_id = ? ";
+            args.add(warehouseId);
+        }
+        return jdbcTemplate.query(sql + "GROUP BY m.product_id, p.sku, p.name, m.warehouse_id, w.code ORDER BY p.sku, w.code",
+                (rs, rowNum) -> new CostOfGoodsResponse(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getLong(4),
+                        rs.getString(5),
+                        rs.getLong(6),
+                        rs.getBigDecimal(7),
+                        rs.getLong(8)
+                ), args.toArray());
+    }
+}
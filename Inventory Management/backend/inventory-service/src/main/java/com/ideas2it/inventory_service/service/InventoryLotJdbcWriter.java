@@ -0,0 +1,396 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the lot sub-ledger (inventory_lots) in step with the movements being recorded, in the
+ * caller's transaction. An IN naming a lot adds to it; an OUT naming a lot takes from it; any other
+ * OUT is allocated first-expiry-first-out from the unexpired lots of its (product, warehouse), read a
+ * few at a time from the front of the partial index idx_inventory_lots_fefo, so an allocation costs
+ * one index descent however many lots the row has. What the lots cannot cover comes from the row's
+ * untracked stock (on-hand not held in any lot), and past that from its expired lots, oldest first,
+ * so an OUT never leaves the lots holding more than on-hand. Callers apply the movements before
+ * updating inventory, so on-hand here is the balance the batch started from. Each part of a movement is recorded in stock_movement_lots, and the IN half of a
+ * transfer receives the lots its OUT half was allocated, keeping their expiry dates.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryLotJdbcWriter {
+
+    // Lots read per FEFO index probe; most allocations are covered by the first lot or two
+    private static final int FEFO_PAGE_SIZE = 8;
+
+    private static final String KEYS_WITH_LOTS_SQL =
+            "SELECT k.product_id, k.warehouse_id FROM unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "WHERE EXISTS (SELECT 1 FROM inventory_lots l WHERE l.product_id = k.product_id " +
+            "AND l.warehouse_id = k.warehouse_id AND l.quantity > 0)";
+
+    private static final String RECEIVE_LOT_SQL =
+            "INSERT INTO inventory_lots (product_id, warehouse_id, lot_number, expiry_date, quantity, received_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (product_id, warehouse_id, lot_number) DO UPDATE SET " +
+            "quantity = inventory_lots.quantity + EXCLUDED.quantity, updated_at = EXCLUDED.updated_at " +
+            "RETURNING id, expiry_date";
+
+    private static final String TAKE_FROM_LOT_SQL =
+            "UPDATE inventory_lots SET quantity = quantity - ?, updated_at = ? WHERE product_id = ? AND warehouse_id = ? " +
+            "AND lot_number = ? AND quantity >= ? RETURNING id, expiry_date";
+
+    // Keyset page over idx_inventory_lots_fefo, starting after (expiry_date, id)
+    private static final String FEFO_PAGE_SQL =
+            "SELECT id, lot_number, expiry_date, quantity FROM inventory_lots WHERE product_id = ? AND warehouse_id = ? " +
+            "AND quantity > 0 AND (expiry_date, id) > (?, ?) ORDER BY expiry_date, id LIMIT ? FOR UPDATE";
+
+    private static final String LOCK_NAMED_LOTS_SQL =
+            "SELECT l.product_id, l.warehouse_id, l.lot_number, l.quantity, l.expiry_date FROM inventory_lots l " +
+            "JOIN unnest(?::bigint[], ?::bigint[], ?::text[]) AS k(product_id, warehouse_id, lot_number) " +
+            "ON l.product_id = k.product_id AND l.warehouse_id = k.warehouse_id AND l.lot_number = k.lot_number " +
+            "ORDER BY l.id FOR UPDATE OF l";
+
+    // On-hand not held in lots, for the rows an OUT may be allocated on
+    private static final String UNTRACKED_SQL =
+            "SELECT i.product_id, i.warehouse_id, i.quantity_on_hand - COALESCE(SUM(l.quantity), 0) FROM inventory i " +
+            "JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON i.product_id = k.product_id AND i.warehouse_id = k.warehouse_id " +
+            "LEFT JOIN inventory_lots l ON l.product_id = i.product_id AND l.warehouse_id = i.warehouse_id " +
+            "GROUP BY i.product_id, i.warehouse_id, i.quantity_on_hand";
+
+    private static final String CONSUME_LOT_SQL =
+            "UPDATE inventory_lots SET quantity = quantity - ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_ALLOCATION_SQL =
+            "INSERT INTO stock_movement_lots (movement_id, lot_id, quantity) VALUES (?, ?, ?)";
+
+    // For schemas created by Hibernate, which cannot declare partial indexes
+    private static final String[] INDEX_SQL = {
+            "CREATE INDEX IF NOT EXISTS idx_inventory_lots_fefo ON inventory_lots(product_id, warehouse_id, expiry_date, id) WHERE quantity > 0",
+            "CREATE INDEX IF NOT EXISTS idx_inventory_lots_expiry ON inventory_lots(expiry_date, id) WHERE quantity > 0"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Applies the movements, in order, to the lots of their inventory rows
+    public void applyMovements(List<MovementRow> rows, LocalDateTime now) {
+        Set<InventoryKey> outKeys = new LinkedHashSet<>();
+        boolean namesLot = false;
+        for (MovementRow row : rows) {
+            StockMovementRequest request = row.getRequest();
+            namesLot |= request.getLotNumber() != null;
+            if (request.getMovementType() == StockMovement.MovementType.OUT && request.getLotNumber() == null) {
+                outKeys.add(new InventoryKey(request.getProductId(), request.getWarehouseId()));
+            }
+        }
+        // Most stock is not lot-tracked; one query finds the rows that have lots at all
+        Set<InventoryKey> keysWithLots = findKeysWithLots(outKeys);
+        if (!namesLot && keysWithLots.isEmpty()) {
+            return;
+        }
+
+        Map<InventoryKey, Integer> untracked = findUntracked(outKeys);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        LocalDate today = now.toLocalDate();
+        List<Object[]> allocations = new ArrayList<>();
+        Map<TransferLine, Deque<LotPart>> inTransit = new HashMap<>();
+        for (MovementRow row : rows) {
+            StockMovementRequest request = row.getRequest();
+            InventoryKey key = new InventoryKey(request.getProductId(), request.getWarehouseId());
+            List<LotPart> parts;
+            if (request.getMovementType() == StockMovement.MovementType.IN) {
+                parts = request.getLotNumber() != null
+                        ? List.of(receive(key, request.getLotNumber(), request.getExpiryDate(), request.getQuantity(), timestamp))
+                        : receiveTransferred(key, request, inTransit, timestamp);
+                if (!parts.isEmpty()) {
+                    keysWithLots.add(key);
+                }
+            } else if (request.getMovementType() == StockMovement.MovementType.OUT) {
+                parts = request.getLotNumber() != null
+                        ? List.of(take(key, request.getLotNumber(), request.getQuantity(), timestamp))
+                        : keysWithLots.contains(key) ? allocate(key, request.getQuantity(), untracked.getOrDefault(key, 0), today, timestamp)
+                        : List.of();
+                if (request.getReferenceType() == StockMovement.ReferenceType.TRANSFER && !parts.isEmpty()) {
+                    inTransit.computeIfAbsent(new TransferLine(request.getReferenceId(), request.getProductId()),
+                            line -> new ArrayDeque<>()).addAll(parts);
+                }
+            } else {
+                continue;
+            }
+            int lotted = 0;
+            for (LotPart part : parts) {
+                allocations.add(new Object[] {row.getId(), part.getLotId(), part.getQuantity()});
+                lotted += part.getQuantity();
+            }
+            // Whatever did not go to or come from a lot moved untracked stock
+            if (untracked.containsKey(key)) {
+                int untrackedPart = request.getQuantity() - lotted;
+                untracked.merge(key, request.getMovementType() == StockMovement.MovementType.IN ? untrackedPart : -untrackedPart, Integer::sum);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ALLOCATION_SQL, allocations);
+    }
+
+    // Rejects what the sub-ledger cannot record: a received lot needs its expiry date
+    public static void validate(StockMovementRequest request) {
+        if (request.getLotNumber() != null && request.getMovementType() == StockMovement.MovementType.IN
+                && request.getExpiryDate() == null) {
+            throw new RuntimeException("Expiry date is required when receiving lot " + request.getLotNumber());
+        }
+    }
+
+    /**
+     * Replays the requests that name a lot, in order, against the lots they name, the way applyMovements
+     * would apply them, and locks those lots. Returns why each request it would refuse fails, keyed by the
+     * request's position, so a batch can reject those requests alone instead of rolling back on the first.
+     */
+    public Map<Integer, String> checkNamedLots(List<StockMovementRequest> requests) {
+        Map<Integer, String> failures = new HashMap<>();
+        Map<LotKey, LotBalance> lots = lockNamedLots(requests);
+        for (int i = 0; i < requests.size(); i++) {
+            StockMovementRequest request = requests.get(i);
+            if (request.getLotNumber() == null) {
+                continue;
+            }
+            LotKey key = new LotKey(request.getProductId(), request.getWarehouseId(), request.getLotNumber());
+            LotBalance lot = lots.get(key);
+            if (request.getMovementType() == StockMovement.MovementType.IN) {
+                if (lot == null) {
+                    lots.put(key, new LotBalance(request.getQuantity(), request.getExpiryDate()));
+                } else if (!lot.getExpiryDate().equals(request.getExpiryDate())) {
+                    failures.put(i, expiryMismatch(request.getLotNumber(), lot.getExpiryDate()));
+                } else {
+                    lot.setQuantity(lot.getQuantity() + request.getQuantity());
+                }
+            } else if (request.getMovementType() == StockMovement.MovementType.OUT) {
+                if (lot == null || lot.getQuantity() < request.getQuantity()) {
+                    failures.put(i, lotShortfall(new InventoryKey(request.getProductId(), request.getWarehouseId()),
+                            request.getLotNumber(), request.getQuantity()));
+                } else {
+                    lot.setQuantity(lot.getQuantity() - request.getQuantity());
+                }
+            }
+        }
+        return failures;
+    }
+
+    public void createIndexes() {
+        for (String sql : INDEX_SQL) {
+            jdbcTemplate.execute(sql);
+        }
+    }
+
+    private Set<InventoryKey> findKeysWithLots(Set<InventoryKey> keys) {
+        Set<InventoryKey> found = new HashSet<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(KEYS_WITH_LOTS_SQL);
+            StockMovementJdbcWriter.bindKeyArrays(ps, keys);
+            return ps;
+        }, rs -> {
+            found.add(new InventoryKey(rs.getLong(1), rs.getLong(2)));
+        });
+        return found;
+    }
+
+    private Map<InventoryKey, Integer> findUntracked(Set<InventoryKey> keys) {
+        Map<InventoryKey, Integer> untracked = new HashMap<>();
+        if (keys.isEmpty()) {
+            return untracked;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UNTRACKED_SQL);
+            StockMovementJdbcWriter.bindKeyArrays(ps, keys);
+            return ps;
+        }, rs -> {
+            untracked.put(new InventoryKey(rs.getLong(1), rs.getLong(2)), Math.max(rs.getInt(3), 0));
+        });
+        return untracked;
+    }
+
+    private Map<LotKey, LotBalance> lockNamedLots(List<StockMovementRequest> requests) {
+        Set<LotKey> keys = new LinkedHashSet<>();
+        for (StockMovementRequest request : requests) {
+            if (request.getLotNumber() != null) {
+                keys.add(new LotKey(request.getProductId(), request.getWarehouseId(), request.getLotNumber()));
+            }
+        }
+        Map<LotKey, LotBalance> lots = new HashMap<>();
+        if (keys.isEmpty()) {
+            return lots;
+        }
+        Long[] productIds = new Long[keys.size()];
+        Long[] warehouseIds = new Long[keys.size()];
+        String[] lotNumbers = new String[keys.size()];
+        int i = 0;
+        for (LotKey key : keys) {
+            productIds[i] = key.getProductId();
+            warehouseIds[i] = key.getWarehouseId();
+            lotNumbers[i] = key.getLotNumber();
+            i++;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_NAMED_LOTS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", productIds));
+            ps.setArray(2, connection.createArrayOf("bigint", warehouseIds));
+            ps.setArray(3, connection.createArrayOf("text", lotNumbers));
+            return ps;
+        }, rs -> {
+            lots.put(new LotKey(rs.getLong(1), rs.getLong(2), rs.getString(3)),
+                    new LotBalance(rs.getInt(4), rs.getDate(5).toLocalDate()));
+        });
+        return lots;
+    }
+
+    private LotPart receive(InventoryKey key, String lotNumber, LocalDate expiryDate, int quantity, Timestamp now) {
+        if (expiryDate == null) {
+            throw new RuntimeException("Expiry date is required when receiving lot " + lotNumber);
+        }
+        return jdbcTemplate.queryForObject(RECEIVE_LOT_SQL, (rs, rowNum) -> {
+            LocalDate lotExpiry = rs.getDate(2).toLocalDate();
+            if (!lotExpiry.equals(expiryDate)) {
+                throw new RuntimeException(expiryMismatch(lotNumber, lotExpiry));
+            }
+            return new LotPart(rs.getLong(1), lotNumber, lotExpiry, quantity);
+        }, key.getProductId(), key.getWarehouseId(), lotNumber, Date.valueOf(expiryDate), quantity, now, now);
+    }
+
+    // The IN half of a transfer gets the lots allocated to its OUT half; anything else arrives untracked
+    private List<LotPart> receiveTransferred(InventoryKey key, StockMovementRequest request,
+                                             Map<TransferLine, Deque<LotPart>> inTransit, Timestamp now) {
+        if (request.getReferenceType() != StockMovement.ReferenceType.TRANSFER) {
+            return List.of();
+        }
+        Deque<LotPart> shipped = inTransit.get(new TransferLine(request.getReferenceId(), request.getProductId()));
+        List<LotPart> parts = new ArrayList<>();
+        int remaining = request.getQuantity();
+        while (remaining > 0 && shipped != null && !shipped.isEmpty()) {
+            LotPart lot = shipped.peekFirst();
+            int quantity = Math.min(remaining, lot.getQuantity());
+            parts.add(receive(key, lot.getLotNumber(), lot.getExpiryDate(), quantity, now));
+            remaining -= quantity;
+            if (quantity == lot.getQuantity()) {
+                shipped.removeFirst();
+            } else {
+                lot.setQuantity(lot.getQuantity() - quantity);
+            }
+        }
+        return parts;
+    }
+
+    private LotPart take(InventoryKey key, String lotNumber, int quantity, Timestamp now) {
+        List<LotPart> taken = jdbcTemplate.query(TAKE_FROM_LOT_SQL,
+                (rs, rowNum) -> new LotPart(rs.getLong(1), lotNumber, rs.getDate(2).toLocalDate(), quantity),
+                quantity, now, key.getProductId(), key.getWarehouseId(), lotNumber, quantity);
+        if (taken.isEmpty()) {
+            throw new RuntimeException(lotShortfall(key, lotNumber, quantity));
+        }
+        return taken.get(0);
+    }
+
+    /**
+     * Takes quantity from the unexpired lots in expiry order, then from the untracked stock, then from
+     * the expired lots, oldest first. Locks only the lots it reads.
+     */
+    private List<LotPart> allocate(InventoryKey key, int quantity, int untracked, LocalDate today, Timestamp now) {
+        List<LotPart> parts = new ArrayList<>();
+        int remaining = takeFefo(key, quantity, Date.valueOf(today), null, parts);
+        remaining -= Math.min(remaining, Math.max(untracked, 0));
+        if (remaining > 0) {
+            takeFefo(key, remaining, Date.valueOf(LocalDate.of(1, 1, 1)), today, parts);
+        }
+        jdbcTemplate.batchUpdate(CONSUME_LOT_SQL, parts, parts.size(), (ps, part) -> {
+            ps.setInt(1, part.getQuantity());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, part.getLotId());
+        });
+        return parts;
+    }
+
+    // Adds parts taking up to quantity from the lots expiring after afterExpiry (and before expiresBefore, if set); returns what is left
+    private int takeFefo(InventoryKey key, int quantity, Date afterExpiry, LocalDate expiresBefore, List<LotPart> parts) {
+        int remaining = quantity;
+        long afterId = 0;
+        while (remaining > 0) {
+            List<LotPart> page = jdbcTemplate.query(FEFO_PAGE_SQL,
+                    (rs, rowNum) -> new LotPart(rs.getLong(1), rs.getString(2), rs.getDate(3).toLocalDate(), rs.getInt(4)),
+                    key.getProductId(), key.getWarehouseId(), afterExpiry, afterId, FEFO_PAGE_SIZE);
+            for (LotPart lot : page) {
+                if (remaining == 0 || (expiresBefore != null && !lot.getExpiryDate().isBefore(expiresBefore))) {
+                    return remaining;
+                }
+                int taken = Math.min(remaining, lot.getQuantity());
+                parts.add(new LotPart(lot.getLotId(), lot.getLotNumber(), lot.getExpiryDate(), taken));
+                remaining -= taken;
+            }
+            if (page.size() < FEFO_PAGE_SIZE) {
+                break;
+            }
+            LotPart last = page.get(page.size() - 1);
+            afterExpiry = Date.valueOf(last.getExpiryDate());
+            afterId = last.getLotId();
+        }
+        return remaining;
+    }
+
+    private static String expiryMismatch(String lotNumber, LocalDate lotExpiry) {
+        return "Lot " + lotNumber + " already exists with expiry date " + lotExpiry;
+    }
+
+    private static String lotShortfall(InventoryKey key, String lotNumber, int quantity) {
+        return "Lot " + lotNumber + " not found or holds less than " + quantity +
+                " for product ID: " + key.getProductId() + " in warehouse ID: " + key.getWarehouseId();
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class LotPart {
+        private long lotId;
+        private String lotNumber;
+        private LocalDate expiryDate;
+        private int quantity;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class LotKey {
+        private Long productId;
+        private Long warehouseId;
+        private String lotNumber;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class LotBalance {
+        private int quantity;
+        private LocalDate expiryDate;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class TransferLine {
+        private Long transferId;
+        private Long productId;
+    }
+}
@@ -0,0 +1,224 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.InventoryLotResponse;
+import com.ideas2it.inventory_service.dto.LotExpirySweepResult;
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryDelta;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the lot sub-ledger and writes off expired lots. Lots are listed in allocation (FEFO) order;
+ * expiring and expired lots are found with range scans on idx_inventory_lots_expiry, so neither the
+ * listing nor the nightly sweep reads lots that are not about to expire. The sweep records each
+ * write-off as an OUT adjustment movement taken from the expired lot, a batch per transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryLotService {
+
+    private static final String LOT_SELECT =
+            "SELECT l.id, l.product_id, p.sku, p.name, l.warehouse_id, w.code, l.lot_number, l.expiry_date, l.quantity, " +
+            "l.received_at FROM inventory_lots l JOIN products p ON p.id = l.product_id JOIN warehouses w ON w.id = l.warehouse_id ";
+
+    private static final String LOTS_SQL =
+            LOT_SELECT + "WHERE l.product_id = ? AND l.warehouse_id = ? AND l.quantity > 0 ORDER BY l.expiry_date, l.id";
+
+    private static final String EXPIRING_LOTS_SQL =
+            LOT_SELECT + "WHERE l.expiry_date >= ? AND l.expiry_date <= ? AND l.quantity > 0 ORDER BY l.expiry_date, l.id LIMIT ?";
+
+    private static final String EXPIRED_LOT_IDS_SQL =
+            "SELECT id, product_id, warehouse_id FROM inventory_lots WHERE expiry_date < ? AND quantity > 0 " +
+            "ORDER BY expiry_date, id LIMIT ?";
+
+    // Locked after their inventory rows, the same order the movement write paths use
+    private static final String LOCK_LOTS_SQL =
+            "SELECT id, product_id, warehouse_id, lot_number, expiry_date, quantity FROM inventory_lots " +
+            "WHERE id = ANY(?) AND quantity > 0 ORDER BY id FOR UPDATE";
+
+    private static final String CLEAR_LOTS_SQL =
+            "UPDATE inventory_lots SET quantity = 0, updated_at = ? WHERE id = ANY(?)";
+
+    private static final RowMapper<InventoryLotResponse> LOT_ROW_MAPPER = (rs, rowNum) -> new InventoryLotResponse(
+            rs.getLong(1),
+            rs.getLong(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getLong(5),
+            rs.getString(6),
+            rs.getString(7),
+            rs.getDate(8).toLocalDate(),
+            rs.getInt(9),
+            rs.getTimestamp(10).toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final InventoryLotJdbcWriter inventoryLotJdbcWriter;
+    private final AlertService alertService;
+
+    // Guards against the schedule and a manual trigger overlapping on this instance
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    @Value("${inventory.lots.expiry-sweep.enabled:true}")
+    private boolean sweepEnabled;
+
+    @Value("${inventory.lots.expiry-sweep.batch-size:1000}")
+    private int sweepBatchSize;
+
+    @Value("${inventory.lots.expiry-sweep.user-id:1}")
+    private long sweepUserId;
+
+    // Schemas created by Hibernate lack the partial indexes allocation and the sweep rely on
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        inventoryLotJdbcWriter.createIndexes();
+    }
+
+    public List<InventoryLotResponse> getLots(Long productId, Long warehouseId) {
+        log.info("Fetching lots for product ID: {} in warehouse ID: {}", productId, warehouseId);
+        return jdbcTemplate.query(LOTS_SQL, LOT_ROW_MAPPER, productId, warehouseId);
+    }
+
+    public List<InventoryLotResponse> getExpiringLots(int days, int limit) {
+        log.info("Fetching lots expiring within {} day(s)", days);
+        LocalDate today = LocalDate.now();
+        return jdbcTemplate.query(EXPIRING_LOTS_SQL, LOT_ROW_MAPPER, Date.valueOf(today), Date.valueOf(today.plusDays(days)), limit);
+    }
+
+    @Scheduled(cron = "${inventory.lots.expiry-sweep.cron:0 15 0 * * *}")
+    public void sweepExpiredLotsScheduled() {
+        if (!sweepEnabled) {
+            return;
+        }
+        try {
+            sweepExpiredLots(sweepUserId);
+        } catch (Exception e) {
+            log.error("Error sweeping expired lots: {}", e.getMessage());
+        }
+    }
+
+    public LotExpirySweepResult sweepExpiredLots(Long currentUserId) {
+        if (!sweeping.compareAndSet(false, true)) {
+            throw new RuntimeException("Expired lot sweep is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            LotExpirySweepResult result = new LotExpirySweepResult();
+            result.setExpiredBefore(LocalDate.now());
+            int swept;
+            do {
+                swept = transactionTemplate.execute(status -> sweepBatch(result, currentUserId));
+            } while (swept == sweepBatchSize);
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+            log.info("Swept {} expired lot(s), writing off {} unit(s) in {} ms",
+                    result.getLotsExpired(), result.getQuantityWrittenOff(), result.getElapsedMillis());
+            return result;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    // Writes off one batch of expired lots; returns how many lots the range scan found
+    private int sweepBatch(LotExpirySweepResult result, Long currentUserId) {
+        List<ExpiredLot> candidates = jdbcTemplate.query(EXPIRED_LOT_IDS_SQL,
+                (rs, rowNum) -> new ExpiredLot(rs.getLong(1), new InventoryKey(rs.getLong(2), rs.getLong(3)), null, null, 0),
+                Date.valueOf(result.getExpiredBefore()), sweepBatchSize);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        Set<InventoryKey> keys = new LinkedHashSet<>();
+        Long[] lotIds = new Long[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            keys.add(candidates.get(i).getKey());
+            lotIds[i] = candidates.get(i).getId();
+        }
+        Map<InventoryKey, Integer> onHand = new HashMap<>();
+        stockMovementJdbcWriter.lockInventory(keys).forEach((key, balance) -> onHand.put(key, balance.getOnHand()));
+        List<ExpiredLot> lots = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_LOTS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", lotIds));
+            return ps;
+        }, (rs, rowNum) -> new ExpiredLot(rs.getLong(1), new InventoryKey(rs.getLong(2), rs.getLong(3)),
+                rs.getString(4), rs.getDate(5).toLocalDate(), rs.getInt(6)));
+
+        // Never write off more than is on hand; a lot that outlived its stock is simply cleared. Expired stock leaves
+        // even when reserved, since it can no longer ship; the holds on it fail to commit and expire
+        Map<InventoryKey, InventoryDelta> deltas = new LinkedHashMap<>();
+        List<StockMovementRequest> movements = new ArrayList<>();
+        for (ExpiredLot lot : lots) {
+            int quantity = Math.min(lot.getQuantity(), onHand.getOrDefault(lot.getKey(), 0));
+            if (quantity == 0) {
+                continue;
+            }
+            onHand.merge(lot.getKey(), -quantity, Integer::sum);
+            deltas.merge(lot.getKey(), new InventoryDelta(-quantity, currentUserId),
+                    (a, b) -> new InventoryDelta(a.getQuantity() + b.getQuantity(), currentUserId));
+            movements.add(new StockMovementRequest(lot.getKey().getProductId(), lot.getKey().getWarehouseId(),
+                    StockMovement.MovementType.OUT, quantity, StockMovement.ReferenceType.ADJUSTMENT, null,
+                    "Expired lot " + lot.getLotNumber() + " (expiry " + lot.getExpiryDate() + ")", lot.getLotNumber(), null, null));
+            result.setQuantityWrittenOff(result.getQuantityWrittenOff() + quantity);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = stockMovementJdbcWriter.allocateMovementIds(movements.size());
+        List<MovementRow> rows = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            rows.add(new MovementRow(ids.get(i), movements.get(i), currentUserId));
+        }
+        stockMovementJdbcWriter.insertMovements(rows, now);
+        stockMovementJdbcWriter.addToSummaries(movements, now);
+        stockMovementJdbcWriter.upsertInventory(deltas, now);
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(CLEAR_LOTS_SQL);
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setArray(2, connection.createArrayOf("bigint", lotIds));
+            return ps;
+        });
+        alertService.evaluateInventoryAlertsByIds(stockMovementJdbcWriter.findInventoryIds(deltas.keySet()));
+
+        result.setLotsExpired(result.getLotsExpired() + lots.size());
+        result.setMovementsRecorded(result.getMovementsRecorded() + movements.size());
+        return candidates.size();
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class ExpiredLot {
+        private long id;
+        private InventoryKey key;
+        private String lotNumber;
+        private LocalDate expiryDate;
+        private int quantity;
+    }
+}
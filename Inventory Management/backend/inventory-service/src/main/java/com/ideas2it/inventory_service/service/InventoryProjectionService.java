@@ -0,0 +1,289 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.ProjectionRebuildResult;
+import com.ideas2it.inventory_service.dto.ProjectionRebuildResult.InventoryDrift;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryBalance;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryDelta;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.util.LongLongHashMap;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Rebuilds the inventory on-hand projection from the stock movement ledger and reports, or repairs,
+ * rows where the two have drifted apart.
+ *
+ * <p>Warehouses are replayed in parallel on a fork-join pool: each task streams one warehouse's
+ * movements (plus the daily rollups of compacted months) into a primitive long-keyed map and compares
+ * the result with that warehouse's inventory rows. Both are read in one repeatable-read snapshot, so
+ * movements committed during the replay never show up as drift. A repair re-reads the ledger for the
+ * drifted rows while holding their inventory row locks and sets on-hand to the ledger balance;
+ * negative ledger balances, and balances below a row's reserved or lot-tracked stock, are reported
+ * but never written. Repair is refused until opening balances have been recorded, since before that
+ * the ledger does not explain stock that predates it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryProjectionService {
+
+    private static final int MAX_REPORTED_DRIFTS = 1000;
+    private static final int FETCH_SIZE = 10000;
+
+    private static final String LEDGER_BY_WAREHOUSE_SQL =
+            "SELECT product_id, movement_type, quantity FROM stock_movements WHERE warehouse_id = ? " +
+            "UNION ALL SELECT product_id, movement_type, total_quantity FROM stock_movement_daily_rollups WHERE warehouse_id = ?";
+
+    private static final String INVENTORY_BY_WAREHOUSE_SQL =
+            "SELECT id, product_id, quantity_on_hand FROM inventory WHERE warehouse_id = ?";
+
+    private static final String LEDGER_BALANCES_SQL =
+            "SELECT product_id, SUM(CASE movement_type WHEN 'IN' THEN quantity WHEN 'OUT' THEN -quantity ELSE 0 END) FROM (" +
+            "SELECT product_id, movement_type, quantity FROM stock_movements WHERE warehouse_id = ? AND product_id = ANY(?) " +
+            "UNION ALL SELECT product_id, movement_type, total_quantity FROM stock_movement_daily_rollups " +
+            "WHERE warehouse_id = ? AND product_id = ANY(?)) l GROUP BY product_id";
+
+    private static final String LOT_TOTALS_SQL =
+            "SELECT product_id, SUM(quantity) FROM inventory_lots WHERE warehouse_id = ? AND product_id = ANY(?) GROUP BY product_id";
+
+    private static final String REPAIR_INVENTORY_SQL =
+            "UPDATE inventory SET quantity_on_hand = ?, quantity_available = ? - quantity_reserved, " +
+            "low_stock = ? - quantity_reserved <= " + StockMovementJdbcWriter.REORDER_POINT_SQL + ", " +
+            "last_updated_at = ?, updated_at = ?, updated_by = ? WHERE product_id = ? AND warehouse_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final AlertService alertService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+
+    @Value("${inventory.projection.parallelism:4}")
+    private int parallelism;
+
+    public ProjectionRebuildResult rebuild(Long warehouseId, boolean repair, Long currentUserId) {
+        log.info("Rebuilding inventory projection (warehouse: {}, repair: {})", warehouseId != null ? warehouseId : "all", repair);
+        if (repair) {
+            checkOpeningBalances();
+        }
+        long started = System.currentTimeMillis();
+
+        List<WarehouseReplay> replays = replayWarehouses(findWarehouseIds(warehouseId), repair, currentUserId);
+
+        ProjectionRebuildResult result = new ProjectionRebuildResult();
+        result.setRepair(repair);
+        result.setWarehousesReplayed(replays.size());
+        List<InventoryDrift> drifts = new ArrayList<>();
+        for (WarehouseReplay replay : replays) {
+            result.setMovementsReplayed(result.getMovementsReplayed() + replay.movements);
+            result.setInventoryRowsChecked(result.getInventoryRowsChecked() + replay.inventoryRows);
+            drifts.addAll(replay.drifts);
+        }
+        drifts.sort(Comparator.comparing(InventoryDrift::getWarehouseId).thenComparing(InventoryDrift::getProductId));
+        result.setDriftCount(drifts.size());
+        result.setRepairedCount(drifts.stream().filter(InventoryDrift::isRepaired).count());
+        result.setDriftsTruncated(drifts.size() > MAX_REPORTED_DRIFTS);
+        result.setDrifts(new ArrayList<>(drifts.subList(0, Math.min(drifts.size(), MAX_REPORTED_DRIFTS))));
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+
+        log.info("Inventory projection rebuild completed: {} movement(s) replayed across {} warehouse(s), {} drifted row(s), {} repaired in {} ms",
+                result.getMovementsReplayed(), result.getWarehousesReplayed(), result.getDriftCount(),
+                result.getRepairedCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    // Stock that predates the ledger would otherwise show as drift, and repair would zero it
+    void checkOpeningBalances() {
+        if (!stockMovementJdbcWriter.openingBalancesRecorded()) {
+            throw new RuntimeException("Opening balances have not been recorded yet (migration V23); inventory cannot be checked against the ledger");
+        }
+    }
+
+    // The given warehouse after checking it exists, or every warehouse
+    List<Long> findWarehouseIds(Long warehouseId) {
+        if (warehouseId == null) {
+            return jdbcTemplate.queryForList("SELECT id FROM warehouses ORDER BY id", Long.class);
+        }
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM warehouses WHERE id = ?", Integer.class, warehouseId) == 0) {
+            throw new RuntimeException("Warehouse not found with ID: " + warehouseId);
+        }
+        return List.of(warehouseId);
+    }
+
+    /**
+     * Replays the warehouses concurrently on a fork-join pool, repairing each one's drift as soon as
+     * its replay finishes when repair is set. Results are in the order of warehouseIds.
+     */
+    List<WarehouseReplay> replayWarehouses(List<Long> warehouseIds, boolean repair, Long currentUserId) {
+        // Each task holds one connection for its whole replay, so parallelism should stay below the pool size
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ForkJoinTask<WarehouseReplay>> tasks = new ArrayList<>();
+            for (Long id : warehouseIds) {
+                tasks.add(pool.submit(() -> {
+                    WarehouseReplay replay = replayWarehouse(id);
+                    if (repair && !replay.drifts.isEmpty()) {
+                        repairWarehouse(id, replay.drifts, currentUserId);
+                    }
+                    return replay;
+                }));
+            }
+            List<WarehouseReplay> replays = new ArrayList<>();
+            for (ForkJoinTask<WarehouseReplay> task : tasks) {
+                replays.add(task.join());
+            }
+            return replays;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private WarehouseReplay replayWarehouse(Long warehouseId) {
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return snapshot.execute(status -> {
+            WarehouseReplay replay = new WarehouseReplay();
+            LongLongHashMap ledger = new LongLongHashMap(1024);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(LEDGER_BY_WAREHOUSE_SQL);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, warehouseId);
+                ps.setLong(2, warehouseId);
+                return ps;
+            }, rs -> {
+                ledger.addTo(rs.getLong(1), signedQuantity(rs.getString(2), rs.getLong(3)));
+                replay.movements++;
+            });
+
+            LongLongHashMap onHand = new LongLongHashMap(1024);
+            LongLongHashMap inventoryIds = new LongLongHashMap(1024);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(INVENTORY_BY_WAREHOUSE_SQL);
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setLong(1, warehouseId);
+                return ps;
+            }, rs -> {
+                onHand.put(rs.getLong(2), rs.getLong(3));
+                inventoryIds.put(rs.getLong(2), rs.getLong(1));
+                replay.inventoryRows++;
+            });
+
+            ledger.forEach((productId, balance) -> {
+                if (onHand.get(productId) != balance) {
+                    boolean exists = inventoryIds.containsKey(productId);
+                    replay.drifts.add(new InventoryDrift(exists ? inventoryIds.get(productId) : null, productId, warehouseId,
+                            exists ? onHand.get(productId) : null, balance, false));
+                }
+            });
+            onHand.forEach((productId, quantity) -> {
+                if (!ledger.containsKey(productId) && quantity != 0) {
+                    replay.drifts.add(new InventoryDrift(inventoryIds.get(productId), productId, warehouseId, quantity, 0L, false));
+                }
+            });
+            return replay;
+        });
+    }
+
+    private void repairWarehouse(Long warehouseId, List<InventoryDrift> drifts, Long currentUserId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<InventoryKey> keys = new LinkedHashSet<>();
+            for (InventoryDrift drift : drifts) {
+                keys.add(new InventoryKey(drift.getProductId(), warehouseId));
+            }
+            // Lock first, then re-read the ledger, so movements committed since the replay are included
+            Map<InventoryKey, InventoryBalance> current = stockMovementJdbcWriter.lockInventory(keys);
+            Map<Long, Long> balances = new HashMap<>();
+            Long[] productIds = drifts.stream().map(InventoryDrift::getProductId).toArray(Long[]::new);
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(LEDGER_BALANCES_SQL);
+                ps.setLong(1, warehouseId);
+                ps.setArray(2, connection.createArrayOf("bigint", productIds));
+                ps.setLong(3, warehouseId);
+                ps.setArray(4, connection.createArrayOf("bigint", productIds));
+                return ps;
+            }, rs -> {
+                balances.put(rs.getLong(1), rs.getLong(2));
+            });
+            // Lots only change under their inventory row lock, so these stay put until commit
+            Map<Long, Long> lotted = new HashMap<>();
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(LOT_TOTALS_SQL);
+                ps.setLong(1, warehouseId);
+                ps.setArray(2, connection.createArrayOf("bigint", productIds));
+                return ps;
+            }, rs -> {
+                lotted.put(rs.getLong(1), rs.getLong(2));
+            });
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Map<InventoryKey, InventoryDelta> created = new HashMap<>();
+            for (InventoryDrift drift : drifts) {
+                InventoryKey key = new InventoryKey(drift.getProductId(), warehouseId);
+                long balance = balances.getOrDefault(drift.getProductId(), 0L);
+                drift.setLedgerQuantity(balance);
+                if (balance < 0 || balance > Integer.MAX_VALUE) {
+                    log.warn("Not repairing inventory for product ID: {} and warehouse ID: {}, ledger balance is {}",
+                            drift.getProductId(), warehouseId, balance);
+                    continue;
+                }
+                // On-hand never drops below what reservations and lots already account for
+                long floor = Math.max(current.containsKey(key) ? current.get(key).getReserved() : 0,
+                        lotted.getOrDefault(drift.getProductId(), 0L));
+                if (balance < floor) {
+                    log.warn("Not repairing inventory for product ID: {} and warehouse ID: {}, ledger balance {} is below " +
+                            "the {} unit(s) reserved or held in lots", drift.getProductId(), warehouseId, balance, floor);
+                    continue;
+                }
+                if (current.containsKey(key)) {
+                    jdbcTemplate.update(REPAIR_INVENTORY_SQL, balance, balance, balance, now, now, currentUserId, drift.getProductId(), warehouseId);
+                } else if (balance > 0) {
+                    created.put(key, new InventoryDelta((int) balance, currentUserId));
+                }
+                drift.setRepaired(true);
+            }
+            stockMovementJdbcWriter.upsertInventory(created, now.toLocalDateTime());
+            inventoryAvailabilityService.invalidate(keys);
+            alertService.evaluateInventoryAlertsByIds(stockMovementJdbcWriter.findInventoryIds(keys));
+        });
+    }
+
+    // Change to on-hand for one ledger entry; only IN and OUT move stock
+    private static long signedQuantity(String movementType, long quantity) {
+        switch (movementType) {
+            case "IN":
+                return quantity;
+            case "OUT":
+                return -quantity;
+            default:
+                return 0;
+        }
+    }
+
+    @Getter
+    static class WarehouseReplay {
+        private long movements;
+        private long inventoryRows;
+        private final List<InventoryDrift> drifts = new ArrayList<>();
+    }
+}
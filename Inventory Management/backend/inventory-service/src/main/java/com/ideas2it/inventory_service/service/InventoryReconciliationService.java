@@ -0,0 +1,174 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.InventoryDriftReportResponse;
+import com.ideas2it.inventory_service.dto.InventoryReconciliationRunResponse;
+import com.ideas2it.inventory_service.dto.ProjectionRebuildResult.InventoryDrift;
+import com.ideas2it.inventory_service.entity.InventoryReconciliationRun;
+import com.ideas2it.inventory_service.repository.InventoryReconciliationRunRepository;
+import com.ideas2it.inventory_service.service.InventoryProjectionService.WarehouseReplay;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Nightly check that inventory on-hand matches the stock movement ledger. Every warehouse is replayed
+ * by {@link InventoryProjectionService} in its own read-only repeatable-read snapshot, so the run takes
+ * no row locks and never blocks stock writes; mismatched rows are written to inventory_drift_reports
+ * and raised as alerts. Nothing is repaired here, that is left to a projection rebuild with repair.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReconciliationService {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String INSERT_DRIFT_SQL =
+            "INSERT INTO inventory_drift_reports (run_id, inventory_id, product_id, warehouse_id, inventory_quantity, " +
+            "ledger_quantity, difference) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_DRIFTS_SQL =
+            "SELECT d.id, d.run_id, d.inventory_id, d.product_id, p.sku, p.name, d.warehouse_id, w.name, " +
+            "d.inventory_quantity, d.ledger_quantity, d.difference FROM inventory_drift_reports d " +
+            "JOIN products p ON p.id = d.product_id JOIN warehouses w ON w.id = d.warehouse_id " +
+            "WHERE d.run_id = ? ORDER BY d.warehouse_id, d.product_id LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryProjectionService inventoryProjectionService;
+    private final InventoryReconciliationRunRepository inventoryReconciliationRunRepository;
+    private final AlertService alertService;
+
+    // Guards against the schedule and a manual trigger overlapping on this instance
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${inventory.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.reconciliation.max-new-alerts:500}")
+    private int maxNewAlerts;
+
+    @Scheduled(cron = "${inventory.reconciliation.cron:0 0 1 * * *}")
+    public void reconcileScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling inventory: {}", e.getMessage());
+        }
+    }
+
+    public InventoryReconciliationRunResponse reconcile() {
+        // Before opening balances exist every row holding older stock would be reported and alerted as drift
+        inventoryProjectionService.checkOpeningBalances();
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Inventory reconciliation is already running");
+        }
+        try {
+            return InventoryReconciliationRunResponse.fromRun(runReconciliation());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public List<InventoryReconciliationRunResponse> getRecentRuns(int limit) {
+        log.info("Fetching the last {} inventory reconciliation runs", limit);
+        return inventoryReconciliationRunRepository.findAllByOrderByStartedAtDesc(PageRequest.of(0, limit)).stream()
+                .map(InventoryReconciliationRunResponse::fromRun)
+                .collect(Collectors.toList());
+    }
+
+    public List<InventoryDriftReportResponse> getDrifts(Long runId, int page, int size) {
+        log.info("Fetching drift report page {} for reconciliation run ID: {}", page, runId);
+        if (!inventoryReconciliationRunRepository.existsById(runId)) {
+            throw new RuntimeException("Reconciliation run not found with ID: " + runId);
+        }
+        return jdbcTemplate.query(SELECT_DRIFTS_SQL, (rs, rowNum) -> new InventoryDriftReportResponse(
+                rs.getLong(1),
+                rs.getLong(2),
+                (Long) rs.getObject(3),
+                rs.getLong(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getLong(7),
+                rs.getString(8),
+                (Long) rs.getObject(9),
+                rs.getLong(10),
+                rs.getLong(11)
+        ), runId, size, (long) page * size);
+    }
+
+    private InventoryReconciliationRun runReconciliation() {
+        failInterruptedRuns();
+
+        InventoryReconciliationRun run = new InventoryReconciliationRun();
+        run.setStartedAt(LocalDateTime.now());
+        run = inventoryReconciliationRunRepository.save(run);
+        log.info("Starting inventory reconciliation run ID: {}", run.getId());
+
+        try {
+            List<Long> warehouseIds = inventoryProjectionService.findWarehouseIds(null);
+            List<WarehouseReplay> replays = inventoryProjectionService.replayWarehouses(warehouseIds, false, null);
+
+            List<InventoryDrift> drifts = new ArrayList<>();
+            for (WarehouseReplay replay : replays) {
+                run.setInventoryRowsChecked(run.getInventoryRowsChecked() + replay.getInventoryRows());
+                run.setMovementsReplayed(run.getMovementsReplayed() + replay.getMovements());
+                drifts.addAll(replay.getDrifts());
+            }
+            insertDrifts(run.getId(), drifts);
+
+            run.setWarehousesChecked(warehouseIds.size());
+            run.setDriftCount((long) drifts.size());
+            run.setAlertsRaised(alertService.syncInventoryDriftAlerts(drifts, maxNewAlerts));
+            run.setStatus(InventoryReconciliationRun.RunStatus.COMPLETED);
+        } catch (Exception e) {
+            run.setStatus(InventoryReconciliationRun.RunStatus.FAILED);
+            run.setErrorMessage(e.getMessage());
+            log.error("Inventory reconciliation run ID: {} failed: {}", run.getId(), e.getMessage());
+        }
+        run.setFinishedAt(LocalDateTime.now());
+        run = inventoryReconciliationRunRepository.save(run);
+
+        log.info("Inventory reconciliation run ID: {} {}: {} row(s) checked against {} movement(s) in {} warehouse(s), {} drifted, {} alert(s) raised",
+                run.getId(), run.getStatus(), run.getInventoryRowsChecked(), run.getMovementsReplayed(),
+                run.getWarehousesChecked(), run.getDriftCount(), run.getAlertsRaised());
+        return run;
+    }
+
+    // A run still marked RUNNING when none is in progress was cut short by a shutdown
+    private void failInterruptedRuns() {
+        jdbcTemplate.update("UPDATE inventory_reconciliation_runs SET status = 'FAILED', finished_at = ?, " +
+                "error_message = 'Interrupted before completion' WHERE status = 'RUNNING'", LocalDateTime.now());
+    }
+
+    private void insertDrifts(Long runId, List<InventoryDrift> drifts) {
+        jdbcTemplate.batchUpdate(INSERT_DRIFT_SQL, drifts, BATCH_SIZE, (ps, drift) -> {
+            long onHand = drift.getInventoryQuantity() != null ? drift.getInventoryQuantity() : 0;
+            ps.setLong(1, runId);
+            if (drift.getInventoryId() != null) {
+                ps.setLong(2, drift.getInventoryId());
+                ps.setLong(5, drift.getInventoryQuantity());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setLong(3, drift.getProductId());
+            ps.setLong(4, drift.getWarehouseId());
+            ps.setLong(6, drift.getLedgerQuantity());
+            ps.setLong(7, onHand - drift.getLedgerQuantity());
+        });
+    }
+}
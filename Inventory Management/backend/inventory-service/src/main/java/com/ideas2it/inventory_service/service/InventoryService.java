@@ -2,8 +2,10 @@ package com.ideas2it.inventory_service.service;
 
 import com.ideas2it.inventory_service.dto.InventoryRequest;
 import com.ideas2it.inventory_service.dto.InventoryResponse;
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
 import com.ideas2it.inventory_service.entity.Inventory;
 import com.ideas2it.inventory_service.entity.Product;
+import com.ideas2it.inventory_service.entity.StockMovement;
 import com.ideas2it.inventory_service.entity.User;
 import com.ideas2it.inventory_service.entity.Warehouse;
 import com.ideas2it.inventory_service.repository.InventoryRepository;
@@ -11,11 +13,15 @@ import com.ideas2it.inventory_service.repository.ProductRepository;
 import com.ideas2it.inventory_service.repository.UserRepository;
 import com.ideas2it.inventory_service.repository.WarehouseRepository;
 import com.ideas2it.inventory_service.service.AlertService;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,6 +36,8 @@ public class InventoryService {
     private final WarehouseRepository warehouseRepository;
     private final UserRepository userRepository;
     private final AlertService alertService;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
     
     public List<InventoryResponse> getAllInventory() {
         log.info("Fetching all inventory");
@@ -39,6 +47,14 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
     
+    public List<InventoryResponse> getInventoryByProductClassification(Product.AbcClass abcClass, Product.XyzClass xyzClass) {
+        log.info("Fetching inventory by product classification: ABC={}, XYZ={}", abcClass, xyzClass);
+        List<Inventory> inventoryList = inventoryRepository.findByProductClassification(abcClass, xyzClass);
+        return inventoryList.stream()
+                .map(InventoryResponse::fromInventory)
+                .collect(Collectors.toList());
+    }
+    
     public InventoryResponse getInventoryById(Long id) {
         log.info("Fetching inventory by ID: {}", id);
         Inventory inventory = inventoryRepository.findById(id)
@@ -112,11 +128,17 @@ public class InventoryService {
         inventory.setProduct(product);
         inventory.setWarehouse(warehouse);
         inventory.setQuantityOnHand(request.getQuantityOnHand());
-        inventory.setQuantityReserved(request.getQuantityReserved());
+        // Nothing can be held on a row that did not exist; reservations raise it from here
+        inventory.setQuantityReserved(0);
         inventory.setUpdatedBy(currentUser);
         
         Inventory savedInventory = inventoryRepository.save(inventory);
         log.info("Inventory created successfully with ID: {}", savedInventory.getId());
+        inventoryAvailabilityService.invalidate(product.getId(), warehouse.getId());
+        
+        // Record the opening balance so the movement ledger replays to the same on-hand
+        recordLedgerMovement(product.getId(), warehouse.getId(), savedInventory.getQuantityOnHand(),
+                savedInventory.getId(), "Opening balance", currentUserId);
         
         return InventoryResponse.fromInventory(savedInventory);
     }
@@ -124,7 +146,7 @@ public class InventoryService {
     public InventoryResponse updateInventory(Long id, InventoryRequest request, Long currentUserId) {
         log.info("Updating inventory with ID: {}", id);
         
-        Inventory inventory = inventoryRepository.findById(id)
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Inventory not found with ID: " + id));
         
         // Validate product exists and is active
@@ -147,18 +169,40 @@ public class InventoryService {
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new RuntimeException("Current user not found"));
         
+        // quantityReserved is kept by the reservation holds; an update may not strand them
+        int reserved = inventory.getQuantityReserved();
+        if (reserved > 0 && (!inventory.getProduct().getId().equals(product.getId())
+                || !inventory.getWarehouse().getId().equals(warehouse.getId()))) {
+            throw new RuntimeException("Inventory has " + reserved + " unit(s) reserved; release the reservations before moving it");
+        }
+        if (request.getQuantityOnHand() < reserved) {
+            throw new RuntimeException("Quantity on hand cannot be below the " + reserved + " unit(s) reserved");
+        }
+        
+        // Record the change in the movement ledger; moving the row to another product or warehouse empties the old key
+        Long previousProductId = inventory.getProduct().getId();
+        Long previousWarehouseId = inventory.getWarehouse().getId();
+        int previousQuantity = inventory.getQuantityOnHand();
+        if (previousProductId.equals(product.getId()) && previousWarehouseId.equals(warehouse.getId())) {
+            recordLedgerMovement(product.getId(), warehouse.getId(), request.getQuantityOnHand() - previousQuantity,
+                    id, "Inventory update", currentUserId);
+        } else {
+            recordLedgerMovement(previousProductId, previousWarehouseId, -previousQuantity, id, "Inventory update", currentUserId);
+            recordLedgerMovement(product.getId(), warehouse.getId(), request.getQuantityOnHand(), id, "Inventory update", currentUserId);
+        }
+        
         inventory.setProduct(product);
         inventory.setWarehouse(warehouse);
         inventory.setQuantityOnHand(request.getQuantityOnHand());
-        inventory.setQuantityReserved(request.getQuantityReserved());
         inventory.setUpdatedBy(currentUser);
         
         Inventory updatedInventory = inventoryRepository.save(inventory);
         log.info("Inventory updated successfully with ID: {}", updatedInventory.getId());
+        inventoryAvailabilityService.invalidate(List.of(new InventoryKey(previousProductId, previousWarehouseId),
+                new InventoryKey(product.getId(), warehouse.getId())));
         
         // Trigger real-time alert checks
-        alertService.checkAndCreateLowStockAlert(updatedInventory);
-        alertService.checkAndCreateOutOfStockAlert(updatedInventory);
+        alertService.evaluateInventoryAlerts(List.of(updatedInventory));
         
         return InventoryResponse.fromInventory(updatedInventory);
     }
@@ -171,6 +215,15 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
     
+    // Schemas where Hibernate just added inventory.low_stock start with every flag false; fix them once
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncLowStockFlags() {
+        int rows = stockMovementJdbcWriter.syncLowStockFlags();
+        if (rows > 0) {
+            log.info("Updated the low stock flag of {} inventory rows", rows);
+        }
+    }
+    
     public List<InventoryResponse> getOutOfStockInventory() {
         log.info("Fetching out of stock inventory");
         List<Inventory> outOfStockList = inventoryRepository.findOutOfStockInventory();
@@ -194,18 +247,22 @@ public class InventoryService {
     public InventoryResponse adjustInventory(Long id, int quantityChange, String adjustmentType, Long currentUserId) {
         log.info("Adjusting inventory with ID: {} by quantity: {} for type: {}", id, quantityChange, adjustmentType);
         
-        Inventory inventory = inventoryRepository.findById(id)
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Inventory not found with ID: " + id));
         
         // Get current user for audit
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new RuntimeException("Current user not found"));
         
-        // Calculate new quantities
+        // Calculate new quantities; units held by reservations cannot be adjusted away
         int newQuantityOnHand = inventory.getQuantityOnHand() + quantityChange;
+        int reserved = inventory.getQuantityReserved();
         if (newQuantityOnHand < 0) {
             throw new RuntimeException("Cannot reduce inventory below zero");
         }
+        if (newQuantityOnHand < reserved) {
+            throw new RuntimeException("Quantity on hand cannot be below the " + reserved + " unit(s) reserved");
+        }
         
         // Update inventory
         inventory.setQuantityOnHand(newQuantityOnHand);
@@ -213,14 +270,29 @@ public class InventoryService {
         
         Inventory updatedInventory = inventoryRepository.save(inventory);
         log.info("Inventory adjusted successfully with ID: {}", updatedInventory.getId());
+        inventoryAvailabilityService.invalidate(inventory.getProduct().getId(), inventory.getWarehouse().getId());
+        
+        recordLedgerMovement(inventory.getProduct().getId(), inventory.getWarehouse().getId(), quantityChange,
+                id, adjustmentType, currentUserId);
         
         // Create inventory adjustment alert
         alertService.createInventoryAdjustmentAlert(updatedInventory, adjustmentType, quantityChange, currentUserId);
         
         // Trigger real-time alert checks
-        alertService.checkAndCreateLowStockAlert(updatedInventory);
-        alertService.checkAndCreateOutOfStockAlert(updatedInventory);
+        alertService.evaluateInventoryAlerts(List.of(updatedInventory));
         
         return InventoryResponse.fromInventory(updatedInventory);
     }
+    
+    // Writes an IN or OUT adjustment movement for a direct change to on-hand; a zero change writes nothing
+    private void recordLedgerMovement(Long productId, Long warehouseId, int quantityChange, Long inventoryId,
+                                      String notes, Long currentUserId) {
+        if (quantityChange == 0) {
+            return;
+        }
+        StockMovementRequest movement = new StockMovementRequest(productId, warehouseId,
+                quantityChange > 0 ? StockMovement.MovementType.IN : StockMovement.MovementType.OUT,
+                Math.abs(quantityChange), StockMovement.ReferenceType.ADJUSTMENT, inventoryId, notes, null, null, null);
+        stockMovementJdbcWriter.recordMovement(movement, currentUserId, LocalDateTime.now());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,168 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.InventoryBalanceResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answers "what was on hand on date D" from the stock movement ledger. Every interval-days a
+ * checkpoint of each (product, warehouse) balance is written to inventory_snapshots, built from the
+ * previous checkpoint plus the movements in between. An as-of query then reads the latest checkpoint
+ * at or before D and replays only the movements after it, so its cost is bounded by one interval.
+ *
+ * <p>Balances count IN as positive and OUT as negative; other movement types do not change stock.
+ * Months compacted by {@link StockMovementCompactionService} are read from their daily rollups.
+ * A checkpoint is only built once settle-minutes have passed after its boundary, so movements stamped
+ * just before the boundary have committed by then.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventorySnapshotService {
+
+    // Movement history as signed quantities: detail rows plus the daily rollups of compacted months
+    private static final String LEDGER_SQL =
+            "(SELECT product_id, warehouse_id, movement_date, " +
+            "CASE movement_type WHEN 'IN' THEN quantity WHEN 'OUT' THEN -quantity ELSE 0 END AS quantity " +
+            "FROM stock_movements UNION ALL " +
+            "SELECT product_id, warehouse_id, CAST(movement_day AS TIMESTAMP), " +
+            "CASE movement_type WHEN 'IN' THEN total_quantity WHEN 'OUT' THEN -total_quantity ELSE 0 END " +
+            "FROM stock_movement_daily_rollups) l";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.snapshots.interval-days:1}")
+    private int intervalDays;
+
+    @Value("${inventory.snapshots.settle-minutes:10}")
+    private int settleMinutes;
+
+    /**
+     * Balances at the end of the given day, i.e. the net of all movements dated before the next day.
+     * Only non-zero balances are returned.
+     */
+    public List<InventoryBalanceResponse> getBalancesAsOf(LocalDate date, Long warehouseId, Long productId) {
+        LocalDateTime asOf = date.plusDays(1).atStartOfDay();
+        LocalDateTime checkpoint = jdbcTemplate.queryForObject(
+                "SELECT MAX(snapshot_at) FROM inventory_snapshot_runs WHERE snapshot_at <= ?",
+                LocalDateTime.class, Timestamp.valueOf(asOf));
+        log.info("Fetching balances as of {} from checkpoint {}", asOf, checkpoint);
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.product_id, p.sku, p.name, b.warehouse_id, SUM(b.quantity) AS quantity_on_hand FROM (");
+        if (checkpoint != null) {
+            sql.append("SELECT product_id, warehouse_id, quantity_on_hand AS quantity FROM inventory_snapshots WHERE snapshot_at = ?");
+            params.add(Timestamp.valueOf(checkpoint));
+            appendFilters(sql, params, warehouseId, productId);
+            sql.append(" UNION ALL ");
+        }
+        sql.append("SELECT product_id, warehouse_id, quantity FROM ").append(LEDGER_SQL).append(" WHERE movement_date < ?");
+        params.add(Timestamp.valueOf(asOf));
+        if (checkpoint != null) {
+            sql.append(" AND movement_date >= ?");
+            params.add(Timestamp.valueOf(checkpoint));
+        }
+        appendFilters(sql, params, warehouseId, productId);
+        sql.append(") b JOIN products p ON p.id = b.product_id " +
+                "GROUP BY b.product_id, p.sku, p.name, b.warehouse_id HAVING SUM(b.quantity) <> 0 " +
+                "ORDER BY b.warehouse_id, b.product_id");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new InventoryBalanceResponse(
+                rs.getLong("product_id"), rs.getString("sku"), rs.getString("name"),
+                rs.getLong("warehouse_id"), rs.getLong("quantity_on_hand"), asOf), params.toArray());
+    }
+
+    /**
+     * Builds every checkpoint that is due and missing, oldest first, each in its own transaction.
+     */
+    @Scheduled(initialDelayString = "${inventory.snapshots.initial-delay-ms:30000}",
+               fixedDelayString = "${inventory.snapshots.check-interval-ms:3600000}")
+    public void buildDueSnapshots() {
+        try {
+            LocalDateTime latest = jdbcTemplate.queryForObject(
+                    "SELECT MAX(snapshot_at) FROM inventory_snapshot_runs", LocalDateTime.class);
+            LocalDateTime next;
+            if (latest != null) {
+                next = latest.plusDays(intervalDays);
+            } else {
+                LocalDateTime firstMovement = jdbcTemplate.queryForObject(
+                        "SELECT MIN(movement_date) FROM " + LEDGER_SQL, LocalDateTime.class);
+                if (firstMovement == null) {
+                    return;
+                }
+                next = boundaryAfter(firstMovement);
+            }
+
+            LocalDateTime settled = LocalDateTime.now().minusMinutes(settleMinutes);
+            int built = 0;
+            while (!next.isAfter(settled)) {
+                LocalDateTime previous = latest;
+                LocalDateTime snapshotAt = next;
+                transactionTemplate.executeWithoutResult(status -> buildSnapshot(previous, snapshotAt));
+                latest = next;
+                next = next.plusDays(intervalDays);
+                built++;
+            }
+            if (built > 0) {
+                log.info("Built {} inventory snapshot checkpoint(s), latest at {}", built, latest);
+            }
+        } catch (Exception e) {
+            log.error("Error building inventory snapshots: {}", e.getMessage());
+        }
+    }
+
+    private void buildSnapshot(LocalDateTime previous, LocalDateTime snapshotAt) {
+        List<Object> params = new ArrayList<>();
+        params.add(Timestamp.valueOf(snapshotAt));
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO inventory_snapshots (snapshot_at, product_id, warehouse_id, quantity_on_hand) " +
+                "SELECT ?, product_id, warehouse_id, SUM(quantity) FROM (");
+        if (previous != null) {
+            sql.append("SELECT product_id, warehouse_id, quantity_on_hand AS quantity FROM inventory_snapshots " +
+                    "WHERE snapshot_at = ? UNION ALL ");
+            params.add(Timestamp.valueOf(previous));
+        }
+        sql.append("SELECT product_id, warehouse_id, quantity FROM ").append(LEDGER_SQL).append(" WHERE movement_date < ?");
+        params.add(Timestamp.valueOf(snapshotAt));
+        if (previous != null) {
+            sql.append(" AND movement_date >= ?");
+            params.add(Timestamp.valueOf(previous));
+        }
+        sql.append(") b GROUP BY product_id, warehouse_id HAVING SUM(quantity) <> 0");
+
+        int rows = jdbcTemplate.update(sql.toString(), params.toArray());
+        // Primary key on snapshot_at makes a concurrent builder for the same boundary roll back
+        jdbcTemplate.update("INSERT INTO inventory_snapshot_runs (snapshot_at, row_count, created_at) VALUES (?, ?, ?)",
+                Timestamp.valueOf(snapshotAt), rows, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // First checkpoint boundary strictly after the given time; boundaries are every intervalDays from the epoch
+    private LocalDateTime boundaryAfter(LocalDateTime time) {
+        long epochDay = time.toLocalDate().toEpochDay();
+        return LocalDate.ofEpochDay((epochDay / intervalDays + 1) * intervalDays).atStartOfDay();
+    }
+
+    private static void appendFilters(StringBuilder sql, List<Object> params, Long warehouseId, Long productId) {
+        if (warehouseId != null) {
+            sql.append(" AND warehouse_id = ?");
+            params.add(warehouseId);
+        }
+        if (productId != null) {
+            sql.append(" AND product_id = ?");
+            params.add(productId);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.ProductClassificationResult;
+import com.ideas2it.inventory_service.entity.Product;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Classifies active products by ABC (share of consumption value) and XYZ (variability of weekly
+ * demand) and stores the classes on the product, where the product and inventory lists filter on
+ * them through idx_products_classification.
+ *
+ * <p>Demand is the OUT movements of the last lookback-weeks whole weeks, transfers excluded, valued
+ * at each movement's unit cost (the product's cost price for movements recorded before costing).
+ * Products are read in id-ordered chunks on a fork-join pool, one aggregate query per chunk over
+ * idx_stock_movements_product_movement_date. ABC needs the ranking of every product, so it is assigned
+ * once all chunks are in; only products whose class changed are written, in a batch per chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductClassificationService {
+
+    private static final String ACTIVE_PRODUCTS_SQL =
+            "SELECT id, abc_class, xyz_class FROM products WHERE is_active = true ORDER BY id";
+
+    // Value, total and sum of squares of each product's weekly demand; weeks without demand add nothing
+    private static final String DEMAND_SQL =
+            "SELECT product_id, SUM(value), SUM(quantity), SUM(quantity * quantity) FROM (" +
+            "SELECT m.product_id, SUM(m.quantity) AS quantity, SUM(m.quantity * COALESCE(m.unit_cost, p.cost_price, 0)) AS value " +
+            "FROM stock_movements m JOIN products p ON p.id = m.product_id " +
+            "WHERE m.product_id = ANY(?) AND m.movement_date >= ? AND m.movement_date < ? " +
+            "AND m.movement_type = 'OUT' AND m.reference_type IS DISTINCT FROM 'TRANSFER' " +
+            "GROUP BY m.product_id, date_trunc('week', m.movement_date)) w GROUP BY product_id";
+
+    private static final String UPDATE_CLASS_SQL =
+            "UPDATE products SET abc_class = ?, xyz_class = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guards against the schedule and a manual trigger overlapping on this instance
+    private final AtomicBoolean classifying = new AtomicBoolean();
+
+    @Value("${inventory.classification.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.classification.lookback-weeks:52}")
+    private int lookbackWeeks;
+
+    @Value("${inventory.classification.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${inventory.classification.parallelism:4}")
+    private int parallelism;
+
+    @Value("${inventory.classification.a-share:0.8}")
+    private double aShare;
+
+    @Value("${inventory.classification.b-share:0.95}")
+    private double bShare;
+
+    @Value("${inventory.classification.x-max-variation:0.5}")
+    private double xMaxVariation;
+
+    @Value("${inventory.classification.y-max-variation:1.0}")
+    private double yMaxVariation;
+
+    @Scheduled(cron = "${inventory.classification.cron:0 45 1 * * MON}")
+    public void classifyProductsScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            classifyProducts();
+        } catch (Exception e) {
+            log.error("Error classifying products: {}", e.getMessage());
+        }
+    }
+
+    public ProductClassificationResult classifyProducts() {
+        if (!classifying.compareAndSet(false, true)) {
+            throw new RuntimeException("Product classification is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            ProductClassificationResult result = new ProductClassificationResult();
+            // date_trunc('week') starts weeks on Monday; the current, partial week is left out
+            result.setWindowEnd(LocalDate.now().with(DayOfWeek.MONDAY));
+            result.setWindowStart(result.getWindowEnd().minusWeeks(lookbackWeeks));
+
+            Classification classification = new Classification();
+            jdbcTemplate.query(ACTIVE_PRODUCTS_SQL, rs -> {
+                classification.add(rs.getLong(1), rs.getString(2), rs.getString(3));
+            });
+            classification.seal();
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                List<ForkJoinTask<?>> reads = new ArrayList<>();
+                for (int from = 0; from < classification.size; from += chunkSize) {
+                    int chunkFrom = from;
+                    int chunkTo = Math.min(from + chunkSize, classification.size);
+                    reads.add(pool.submit(() -> readDemand(classification, chunkFrom, chunkTo, result)));
+                }
+                reads.forEach(ForkJoinTask::join);
+
+                assignAbc(classification);
+                for (int i = 0; i < classification.size; i++) {
+                    classification.newXyz[i] = xyzClass(classification.quantity[i], classification.squares[i]);
+                    result.getClassCounts().merge(classification.newAbc[i].name() + classification.newXyz[i].name(), 1L, Long::sum);
+                }
+
+                List<ForkJoinTask<Integer>> writes = new ArrayList<>();
+                for (int from = 0; from < classification.size; from += chunkSize) {
+                    int chunkFrom = from;
+                    int chunkTo = Math.min(from + chunkSize, classification.size);
+                    writes.add(pool.submit(() -> writeChanges(classification, chunkFrom, chunkTo)));
+                }
+                for (ForkJoinTask<Integer> write : writes) {
+                    result.setProductsChanged(result.getProductsChanged() + write.join());
+                }
+            } finally {
+                pool.shutdown();
+            }
+
+            result.setProductsClassified(classification.size);
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+            log.info("Classified {} product(s), {} changed, in {} ms: {}",
+                    result.getProductsClassified(), result.getProductsChanged(), result.getElapsedMillis(), result.getClassCounts());
+            return result;
+        } finally {
+            classifying.set(false);
+        }
+    }
+
+    private void readDemand(Classification classification, int from, int to, ProductClassificationResult result) {
+        Long[] chunkIds = new Long[to - from];
+        for (int i = from; i < to; i++) {
+            chunkIds[i - from] = classification.ids[i];
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DEMAND_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", chunkIds));
+            ps.setTimestamp(2, Timestamp.valueOf(result.getWindowStart().atStartOfDay()));
+            ps.setTimestamp(3, Timestamp.valueOf(result.getWindowEnd().atStartOfDay()));
+            return ps;
+        }, rs -> {
+            // Each chunk fills only its own slots of the shared arrays
+            int i = Arrays.binarySearch(classification.ids, from, to, rs.getLong(1));
+            classification.value[i] = rs.getDouble(2);
+            classification.quantity[i] = rs.getDouble(3);
+            classification.squares[i] = rs.getDouble(4);
+        });
+    }
+
+    // Ranks by consumption value; a product is A while the value ranked above it is under a-share of the total
+    private void assignAbc(Classification classification) {
+        Integer[] order = new Integer[classification.size];
+        double total = 0;
+        for (int i = 0; i < classification.size; i++) {
+            order[i] = i;
+            total += classification.value[i];
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(classification.value[b], classification.value[a]));
+
+        double above = 0;
+        for (int i : order) {
+            double value = classification.value[i];
+            if (value <= 0) {
+                classification.newAbc[i] = Product.AbcClass.C;
+            } else {
+                double share = above / total;
+                classification.newAbc[i] = share < aShare ? Product.AbcClass.A : share < bShare ? Product.AbcClass.B : Product.AbcClass.C;
+            }
+            above += value;
+        }
+    }
+
+    // Coefficient of variation of weekly demand across the whole window, counting weeks without demand as zero
+    private Product.XyzClass xyzClass(double quantity, double squares) {
+        if (quantity <= 0) {
+            return Product.XyzClass.Z;
+        }
+        double mean = quantity / lookbackWeeks;
+        double variance = Math.max(0, squares / lookbackWeeks - mean * mean);
+        double variation = Math.sqrt(variance) / mean;
+        return variation <= xMaxVariation ? Product.XyzClass.X : variation <= yMaxVariation ? Product.XyzClass.Y : Product.XyzClass.Z;
+    }
+
+    private int writeChanges(Classification classification, int from, int to) {
+        List<Integer> changed = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (classification.newAbc[i] != classification.abc[i] || classification.newXyz[i] != classification.xyz[i]) {
+                changed.add(i);
+            }
+        }
+        if (!changed.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_CLASS_SQL, changed, changed.size(), (ps, i) -> {
+                ps.setString(1, classification.newAbc[i].name());
+                ps.setString(2, classification.newXyz[i].name());
+                ps.setLong(3, classification.ids[i]);
+            }));
+        }
+        return changed.size();
+    }
+
+    // Parallel arrays indexed like ids, which are in ascending order
+    private static class Classification {
+        private final List<Long> idList = new ArrayList<>();
+        private final List<Product.AbcClass> abcList = new ArrayList<>();
+        private final List<Product.XyzClass> xyzList = new ArrayList<>();
+        private int size;
+        private long[] ids;
+        private Product.AbcClass[] abc;
+        private Product.XyzClass[] xyz;
+        private double[] value;
+        private double[] quantity;
+        private double[] squares;
+        private Product.AbcClass[] newAbc;
+        private Product.XyzClass[] newXyz;
+
+        void add(long id, String abcClass, String xyzClass) {
+            idList.add(id);
+            abcList.add(abcClass != null ? Product.AbcClass.valueOf(abcClass) : null);
+            xyzList.add(xyzClass != null ? Product.XyzClass.valueOf(xyzClass) : null);
+        }
+
+        void seal() {
+            size = idList.size();
+            ids = idList.stream().mapToLong(Long::longValue).toArray();
+            abc = abcList.toArray(new Product.AbcClass[0]);
+            xyz = xyzList.toArray(new Product.XyzClass[0]);
+            value = new double[size];
+            quantity = new double[size];
+            squares = new double[size];
+            newAbc = new Product.AbcClass[size];
+            newXyz = new Product.XyzClass[size];
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.ideas2it.inventory_service.entity.Product;
 import com.ideas2it.inventory_service.entity.Supplier;
 import com.ideas2it.inventory_service.entity.User;
 import com.ideas2it.inventory_service.repository.CategoryRepository;
+import com.ideas2it.inventory_service.repository.InventoryRepository;
 import com.ideas2it.inventory_service.repository.ProductRepository;
 import com.ideas2it.inventory_service.repository.SupplierRepository;
 import com.ideas2it.inventory_service.repository.UserRepository;
@@ -28,6 +29,7 @@ public class ProductService {
     private final CategoryRepository categoryRepository;
     private final SupplierRepository supplierRepository;
     private final UserRepository userRepository;
+    private final InventoryRepository inventoryRepository;
     
     public List<ProductResponse> getAllProducts() {
         log.info("Fetching all active products");
@@ -76,6 +78,14 @@ public class ProductService {
     
 
     
+    public List<ProductResponse> getProductsByClassification(Product.AbcClass abcClass, Product.XyzClass xyzClass) {
+        log.info("Fetching products by classification: ABC={}, XYZ={}", abcClass, xyzClass);
+        List<Product> products = productRepository.findActiveByClassification(abcClass, xyzClass);
+        return products.stream()
+                .map(ProductResponse::fromProduct)
+                .collect(Collectors.toList());
+    }
+    
     public List<ProductResponse> searchProducts(String searchTerm) {
         log.info("Searching products with term: {}", searchTerm);
         List<Product> products = productRepository.searchByNameOrDescriptionContainingIgnoreCase(searchTerm);
@@ -185,11 +195,17 @@ public class ProductService {
         product.setUnitOfMeasure(request.getUnitOfMeasure() != null ? request.getUnitOfMeasure() : "PCS");
         product.setCostPrice(request.getCostPrice());
         product.setSellingPrice(request.getSellingPrice());
+        Integer previousReorderPoint = product.getReorderPoint();
         product.setReorderPoint(request.getReorderPoint() != null ? request.getReorderPoint() : 0);
         product.setReorderQuantity(request.getReorderQuantity() != null ? request.getReorderQuantity() : 0);
         product.setUpdatedBy(currentUser);
         
         Product updatedProduct = productRepository.save(product);
+        
+        // The low stock flag of every inventory row of the product depends on its reorder point
+        if (!updatedProduct.getReorderPoint().equals(previousReorderPoint)) {
+            inventoryRepository.updateLowStockByProductId(updatedProduct.getId(), updatedProduct.getReorderPoint());
+        }
         log.info("Product updated successfully with ID: {}", updatedProduct.getId());
         
         return ProductResponse.fromProduct(updatedProduct);
@@ -1,9 +1,11 @@
 package com.ideas2it.inventory_service.service;
 
+import com.ideas2it.inventory_service.dto.CursorPage;
 import com.ideas2it.inventory_service.dto.PurchaseOrderRequest;
 import com.ideas2it.inventory_service.dto.PurchaseOrderResponse;
 import com.ideas2it.inventory_service.entity.*;
 import com.ideas2it.inventory_service.repository.*;
+import com.ideas2it.inventory_service.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -29,8 +31,10 @@ public class PurchaseOrderService {
     private final WarehouseRepository warehouseRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final InventoryService inventoryService;
+    private final InventoryRepository inventoryRepository;
+    private final AlertService alertService;
     private final StockMovementService stockMovementService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
     
     public List<PurchaseOrderResponse> getAllPurchaseOrders() {
         log.info("Fetching all purchase orders");
@@ -102,6 +106,30 @@ public class PurchaseOrderService {
         return ordersPage.map(PurchaseOrderResponse::fromPurchaseOrder);
     }
     
+    public CursorPage<PurchaseOrderResponse> getPurchaseOrdersWithCursor(String cursor, int size, PurchaseOrder.OrderStatus status,
+                                                                         boolean includeTotal) {
+        log.info("Fetching purchase orders with cursor pagination");
+        Pageable limit = CursorPage.fetchLimit(size);
+        
+        List<PurchaseOrder> orders;
+        if (cursor == null) {
+            orders = status == null
+                    ? purchaseOrderRepository.findAllByOrderByOrderDateDescIdDesc(limit)
+                    : purchaseOrderRepository.findByStatusOrderByOrderDateDescIdDesc(status, limit);
+        } else {
+            CursorCodec.Cursor position = CursorCodec.decode(cursor);
+            orders = status == null
+                    ? purchaseOrderRepository.findPageAfter(position.getDate(), position.getId(), limit)
+                    : purchaseOrderRepository.findByStatusPageAfter(status, position.getDate(), position.getId(), limit);
+        }
+        
+        Long totalCount = includeTotal
+                ? (status == null ? purchaseOrderRepository.count() : purchaseOrderRepository.countByStatus(status))
+                : null;
+        return CursorPage.of(orders, size, PurchaseOrderResponse::fromPurchaseOrder,
+                order -> CursorCodec.encode(order.getOrderDate(), order.getId()), totalCount);
+    }
+    
     public PurchaseOrderResponse createPurchaseOrder(PurchaseOrderRequest request, Long currentUserId) {
         log.info("Creating purchase order for supplier ID: {} and warehouse ID: {}", request.getSupplierId(), request.getWarehouseId());
         
@@ -261,6 +289,11 @@ public class PurchaseOrderService {
         PurchaseOrder updatedOrder = purchaseOrderRepository.save(order);
         log.info("Purchase order status updated successfully to: {}", newStatus);
         
+        // The order's open quantities count as inbound stock only in some statuses
+        inventoryAvailabilityService.invalidate(order.getItems().stream()
+                .map(item -> new StockMovementJdbcWriter.InventoryKey(item.getProduct().getId(), order.getWarehouse().getId()))
+                .collect(Collectors.toSet()));
+        
         return PurchaseOrderResponse.fromPurchaseOrder(updatedOrder);
     }
     
@@ -295,7 +328,7 @@ public class PurchaseOrderService {
             item.receiveQuantity(receiveItem.getQuantityReceived());
             
             // Update inventory
-            updateInventoryForReceivedItem(item, order.getWarehouse().getId(), currentUserId, receiveItem.getNotes());
+            updateInventoryForReceivedItem(item, order.getWarehouse().getId(), receiveItem.getQuantityReceived(), currentUserId, receiveItem.getNotes());
         }
         
         // Check if all items are fully received
@@ -314,44 +347,17 @@ public class PurchaseOrderService {
         return PurchaseOrderResponse.fromPurchaseOrder(updatedOrder);
     }
     
-    private void updateInventoryForReceivedItem(PurchaseOrderItem item, Long warehouseId, Long currentUserId, String notes) {
-        // Create inventory update request
-        com.ideas2it.inventory_service.dto.InventoryRequest inventoryRequest = new com.ideas2it.inventory_service.dto.InventoryRequest();
-        inventoryRequest.setProductId(item.getProduct().getId());
-        inventoryRequest.setWarehouseId(warehouseId);
-        
-        // Check if inventory exists for this product and warehouse
-        try {
-            com.ideas2it.inventory_service.dto.InventoryResponse existingInventory = inventoryService.getInventoryByProduct(item.getProduct().getId()).stream()
-                    .filter(inv -> inv.getWarehouse().getId().equals(warehouseId))
-                    .findFirst()
-                    .orElse(null);
-            
-            if (existingInventory != null) {
-                // Update existing inventory
-                inventoryRequest.setQuantityOnHand(existingInventory.getQuantityOnHand() + item.getQuantityReceived());
-                inventoryRequest.setQuantityReserved(existingInventory.getQuantityReserved());
-                inventoryService.updateInventory(existingInventory.getId(), inventoryRequest, currentUserId);
-            } else {
-                // Create new inventory
-                inventoryRequest.setQuantityOnHand(item.getQuantityReceived());
-                inventoryRequest.setQuantityReserved(0);
-                inventoryService.createInventory(inventoryRequest, currentUserId);
-            }
-        } catch (Exception e) {
-            log.error("Error updating inventory for received item: {}", e.getMessage());
-            throw new RuntimeException("Failed to update inventory for received item");
-        }
-        
-        // Create stock movement
+    private void updateInventoryForReceivedItem(PurchaseOrderItem item, Long warehouseId, Integer quantityReceived, Long currentUserId, String notes) {
+        // The IN movement also adds the quantity to inventory, creating the row if needed
         try {
             com.ideas2it.inventory_service.dto.StockMovementRequest movementRequest = new com.ideas2it.inventory_service.dto.StockMovementRequest();
             movementRequest.setProductId(item.getProduct().getId());
             movementRequest.setWarehouseId(warehouseId);
             movementRequest.setMovementType(StockMovement.MovementType.IN);
-            movementRequest.setQuantity(item.getQuantityReceived());
+            movementRequest.setQuantity(quantityReceived);
             movementRequest.setReferenceType(StockMovement.ReferenceType.PURCHASE_ORDER);
             movementRequest.setReferenceId(item.getPurchaseOrder().getId());
+            movementRequest.setUnitCost(item.getUnitPrice());
             movementRequest.setNotes("Received from purchase order " + item.getPurchaseOrder().getPoNumber() + ": " + notes);
             
             stockMovementService.createStockMovement(movementRequest, currentUserId);
@@ -359,6 +365,10 @@ public class PurchaseOrderService {
             log.error("Error creating stock movement for received item: {}", e.getMessage());
             throw new RuntimeException("Failed to create stock movement for received item");
         }
+        
+        // Trigger real-time alert checks
+        inventoryRepository.findByProductIdAndWarehouseId(item.getProduct().getId(), warehouseId)
+                .ifPresent(inventory -> alertService.evaluateInventoryAlerts(List.of(inventory)));
     }
     
     private String generatePoNumber() {
@@ -0,0 +1,264 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.ReplenishmentRunResult;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drafts purchase orders for low-stock inventory. Each low-stock row (flagged by the inventory write
+ * paths, see idx_inventory_low_stock) is netted against the open quantities of its product's purchase
+ * orders into the same warehouse, drafts included, so a rerun does not order twice. A row still at or
+ * below its reorder point orders the larger of the product's reorder quantity and what lifts it above
+ * the reorder point.
+ *
+ * <p>Lines are bought from the product's preferred supplier, which is the active supplier it was last
+ * ordered from, at that order's unit price; products never ordered from an active supplier are counted
+ * and left for a buyer. Lines are grouped into one DRAFT order per (supplier, warehouse).
+ *
+ * <p>Products, warehouses and suppliers are validated in the queries that read them, and open
+ * quantities and suppliers are read for chunk-size products per statement, so a run costs a fixed
+ * number of statements per chunk. The orders and their items are written with two batch inserts in
+ * one transaction: either every draft of a run is created or none is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReplenishmentService {
+
+    // Inactive products and warehouses are not replenished
+    private static final String LOW_STOCK_SQL =
+            "SELECT i.product_id, i.warehouse_id, i.quantity_available, p.reorder_point, p.reorder_quantity " +
+            "FROM inventory i JOIN products p ON p.id = i.product_id JOIN warehouses w ON w.id = i.warehouse_id " +
+            "WHERE i.low_stock AND p.is_active = true AND w.is_active = true ORDER BY i.product_id, i.warehouse_id";
+
+    // Batched form of PurchaseOrderItemRepository.findItemsNotFullyReceivedByProduct, per receiving warehouse
+    private static final String OPEN_QUANTITY_SQL =
+            "SELECT poi.product_id, po.warehouse_id, SUM(poi.quantity_ordered - poi.quantity_received) " +
+            "FROM purchase_order_items poi JOIN purchase_orders po ON po.id = poi.purchase_order_id " +
+            "WHERE poi.product_id = ANY(?) AND poi.quantity_received < poi.quantity_ordered " +
+            "AND po.status IN ('DRAFT', 'SUBMITTED', 'APPROVED', 'ORDERED', 'PARTIALLY_RECEIVED') " +
+            "GROUP BY poi.product_id, po.warehouse_id";
+
+    private static final String PREFERRED_SUPPLIER_SQL =
+            "SELECT DISTINCT ON (poi.product_id) poi.product_id, po.supplier_id, poi.unit_price " +
+            "FROM purchase_order_items poi JOIN purchase_orders po ON po.id = poi.purchase_order_id " +
+            "JOIN suppliers s ON s.id = po.supplier_id " +
+            "WHERE poi.product_id = ANY(?) AND s.is_active = true AND po.status <> 'CANCELLED' " +
+            "ORDER BY poi.product_id, po.order_date DESC, po.id DESC";
+
+    private static final String TODAYS_PO_NUMBERS_SQL =
+            "SELECT po_number FROM purchase_orders WHERE po_number LIKE ?";
+
+    private static final String ALLOCATE_ORDER_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('purchase_orders', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO purchase_orders (id, po_number, supplier_id, warehouse_id, order_date, status, total_amount, notes, " +
+            "created_at, updated_at, created_by, updated_by) VALUES (?, ?, ?, ?, ?, 'DRAFT', ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO purchase_order_items (purchase_order_id, product_id, quantity_ordered, quantity_received, " +
+            "unit_price, total_price, created_at, updated_at) VALUES (?, ?, ?, 0, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guards against the schedule and a manual trigger overlapping on this instance, which would order twice
+    private final AtomicBoolean replenishing = new AtomicBoolean();
+
+    @Value("${inventory.replenishment.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.replenishment.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${inventory.replenishment.user-id:1}")
+    private Long replenishmentUserId;
+
+    @Scheduled(cron = "${inventory.replenishment.cron:0 30 2 * * *}")
+    public void replenishScheduled() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            replenish(replenishmentUserId);
+        } catch (Exception e) {
+            log.error("Error drafting replenishment orders: {}", e.getMessage());
+        }
+    }
+
+    public ReplenishmentRunResult replenish(Long currentUserId) {
+        if (!replenishing.compareAndSet(false, true)) {
+            throw new RuntimeException("Replenishment is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            ReplenishmentRunResult result = new ReplenishmentRunResult();
+            List<LowStockRow> rows = jdbcTemplate.query(LOW_STOCK_SQL, (rs, rowNum) -> new LowStockRow(
+                    rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5)));
+            result.setLowStockRows(rows.size());
+
+            // Rows are ordered by product, so a chunk ends where a product does
+            Map<OrderKey, List<Line>> orders = new LinkedHashMap<>();
+            List<Long> productIds = new ArrayList<>();
+            int chunkFrom = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                long productId = rows.get(i).productId;
+                if (!productIds.isEmpty() && productIds.get(productIds.size() - 1) == productId) {
+                    continue;
+                }
+                if (productIds.size() == chunkSize) {
+                    planChunk(rows.subList(chunkFrom, i), productIds, orders, result);
+                    productIds.clear();
+                    chunkFrom = i;
+                }
+                productIds.add(productId);
+            }
+            if (!productIds.isEmpty()) {
+                planChunk(rows.subList(chunkFrom, rows.size()), productIds, orders, result);
+            }
+
+            if (!orders.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> writeOrders(orders, currentUserId, result));
+            }
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+            log.info("Replenishment drafted {} purchase order(s) with {} line(s) from {} low-stock row(s) in {} ms",
+                    result.getPurchaseOrderNumbers().size(), result.getLinesCreated(), result.getLowStockRows(), result.getElapsedMillis());
+            return result;
+        } finally {
+            replenishing.set(false);
+        }
+    }
+
+    private void planChunk(List<LowStockRow> rows, List<Long> productIds, Map<OrderKey, List<Line>> orders, ReplenishmentRunResult result) {
+        Map<InventoryKey, Integer> openQuantities = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(OPEN_QUANTITY_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", productIds.toArray()));
+            return ps;
+        }, rs -> {
+            openQuantities.put(new InventoryKey(rs.getLong(1), rs.getLong(2)), rs.getInt(3));
+        });
+
+        Map<Long, SupplierPrice> suppliers = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(PREFERRED_SUPPLIER_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", productIds.toArray()));
+            return ps;
+        }, rs -> {
+            suppliers.put(rs.getLong(1), new SupplierPrice(rs.getLong(2), rs.getBigDecimal(3)));
+        });
+
+        for (LowStockRow row : rows) {
+            int position = row.quantityAvailable + openQuantities.getOrDefault(new InventoryKey(row.productId, row.warehouseId), 0);
+            if (position > row.reorderPoint) {
+                result.setRowsCoveredByOpenOrders(result.getRowsCoveredByOpenOrders() + 1);
+                continue;
+            }
+            SupplierPrice supplier = suppliers.get(row.productId);
+            if (supplier == null) {
+                result.setRowsWithoutSupplier(result.getRowsWithoutSupplier() + 1);
+                continue;
+            }
+            int quantity = Math.max(row.reorderQuantity, row.reorderPoint - position + 1);
+            orders.computeIfAbsent(new OrderKey(supplier.supplierId, row.warehouseId), key -> new ArrayList<>())
+                    .add(new Line(row.productId, quantity, supplier.unitPrice));
+        }
+    }
+
+    private void writeOrders(Map<OrderKey, List<Line>> orders, Long currentUserId, ReplenishmentRunResult result) {
+        LocalDate today = LocalDate.now();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_ORDER_IDS_SQL, Long.class, orders.size());
+        List<String> poNumbers = nextPoNumbers(today, orders.size());
+
+        List<Object[]> orderRows = new ArrayList<>();
+        List<Object[]> itemRows = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<OrderKey, List<Line>> order : orders.entrySet()) {
+            long orderId = ids.get(i);
+            BigDecimal totalAmount = BigDecimal.ZERO;
+            for (Line line : order.getValue()) {
+                BigDecimal totalPrice = line.unitPrice.multiply(BigDecimal.valueOf(line.quantity));
+                totalAmount = totalAmount.add(totalPrice);
+                itemRows.add(new Object[]{orderId, line.productId, line.quantity, line.unitPrice, totalPrice, now, now});
+            }
+            orderRows.add(new Object[]{orderId, poNumbers.get(i), order.getKey().supplierId, order.getKey().warehouseId,
+                    Date.valueOf(today), totalAmount, "Drafted by replenishment", now, now, currentUserId, currentUserId});
+            i++;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderRows);
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+        result.setPurchaseOrderNumbers(poNumbers);
+        result.setLinesCreated(itemRows.size());
+    }
+
+    // Continues today's PO-yyyyMMdd-NNN sequence in one read instead of probing each number
+    private List<String> nextPoNumbers(LocalDate today, int count) {
+        String basePoNumber = "PO-" + today.format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
+        int sequence = 0;
+        for (String poNumber : jdbcTemplate.queryForList(TODAYS_PO_NUMBERS_SQL, String.class, basePoNumber + "%")) {
+            try {
+                sequence = Math.max(sequence, Integer.parseInt(poNumber.substring(basePoNumber.length())));
+            } catch (NumberFormatException e) {
+                // Not one of the generated numbers
+            }
+        }
+        List<String> poNumbers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            poNumbers.add(basePoNumber + String.format("%03d", sequence + i));
+        }
+        return poNumbers;
+    }
+
+    @AllArgsConstructor
+    private static class LowStockRow {
+        private final long productId;
+        private final long warehouseId;
+        private final int quantityAvailable;
+        private final int reorderPoint;
+        private final int reorderQuantity;
+    }
+
+    @AllArgsConstructor
+    private static class SupplierPrice {
+        private final long supplierId;
+        private final BigDecimal unitPrice;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class OrderKey {
+        private long supplierId;
+        private long warehouseId;
+    }
+
+    @AllArgsConstructor
+    private static class Line {
+        private final long productId;
+        private final int quantity;
+        private final BigDecimal unitPrice;
+    }
+}
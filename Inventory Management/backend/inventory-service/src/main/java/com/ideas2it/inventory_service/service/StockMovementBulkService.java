@@ -0,0 +1,286 @@
+package com.ideas2it.inventory_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideas2it.inventory_service.dto.BulkMovementResult;
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.repository.ProductRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryDelta;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import com.ideas2it.inventory_service.util.CsvRecords;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON or CSV stock movements from a request body and ingests them in chunks.
+ * Each chunk runs in its own transaction: referenced ids are validated with one query per
+ * table, movements are written with a JDBC batch insert, and inventory is adjusted with one
+ * upsert per (product, warehouse) carrying the net delta of the chunk.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementBulkService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final UserRepository userRepository;
+    private final AlertService alertService;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final InventoryLotJdbcWriter inventoryLotJdbcWriter;
+
+    @Value("${inventory.stock-movements.bulk.chunk-size:5000}")
+    private int chunkSize;
+
+    public BulkMovementResult ingest(InputStream body, boolean csv, Long currentUserId) throws IOException {
+        log.info("Starting bulk stock movement ingestion ({})", csv ? "CSV" : "NDJSON");
+        long started = System.currentTimeMillis();
+
+        if (!userRepository.existsById(currentUserId)) {
+            throw new RuntimeException("Current user not found with ID: " + currentUserId);
+        }
+
+        BulkMovementResult result = new BulkMovementResult();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            List<ParsedLine> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (csv && csvColumns == null) {
+                    csvColumns = CsvRecords.parseHeader(line, "productid", "warehouseid", "movementtype", "quantity");
+                    continue;
+                }
+
+                result.setTotalLines(result.getTotalLines() + 1);
+                try {
+                    StockMovementRequest request = csv ? parseCsvLine(line, csvColumns) : objectMapper.readValue(line, StockMovementRequest.class);
+                    validate(request);
+                    chunk.add(new ParsedLine(lineNumber, request));
+                } catch (Exception e) {
+                    reject(result, lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, currentUserId, result);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, currentUserId, result);
+            }
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        log.info("Bulk ingestion completed: {} accepted, {} rejected in {} ms",
+                result.getAcceptedCount(), result.getRejectedCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void processChunk(List<ParsedLine> chunk, Long currentUserId, BulkMovementResult result) {
+        try {
+            ChunkOutcome outcome = transactionTemplate.execute(status -> applyChunk(chunk, currentUserId));
+            result.setAcceptedCount(result.getAcceptedCount() + outcome.getAcceptedCount());
+            result.setInventoryRowsUpdated(result.getInventoryRowsUpdated() + outcome.getInventoryRowsUpdated());
+            for (BulkMovementResult.LineError error : outcome.getRejected()) {
+                reject(result, error.getLineNumber(), error.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Error ingesting bulk chunk starting at line {}: {}", chunk.get(0).getLineNumber(), e.getMessage());
+            for (ParsedLine line : chunk) {
+                reject(result, line.getLineNumber(), "Chunk rolled back: " + e.getMessage());
+            }
+        }
+    }
+
+    private ChunkOutcome applyChunk(List<ParsedLine> chunk, Long currentUserId) {
+        // Validate every referenced product and warehouse with one query each
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> warehouseIds = new HashSet<>();
+        for (ParsedLine line : chunk) {
+            productIds.add(line.getRequest().getProductId());
+            warehouseIds.add(line.getRequest().getWarehouseId());
+        }
+        Set<Long> activeProductIds = new HashSet<>(productRepository.findActiveIdsByIdIn(productIds));
+        Set<Long> activeWarehouseIds = new HashSet<>(warehouseRepository.findActiveIdsByIdIn(warehouseIds));
+
+        // Group valid lines by (product, warehouse)
+        Map<InventoryKey, List<ParsedLine>> groups = new LinkedHashMap<>();
+        List<BulkMovementResult.LineError> rejected = new ArrayList<>();
+        for (ParsedLine line : chunk) {
+            StockMovementRequest request = line.getRequest();
+            if (!activeProductIds.contains(request.getProductId())) {
+                rejected.add(new BulkMovementResult.LineError(line.getLineNumber(), "Product not found or inactive with ID: " + request.getProductId()));
+            } else if (!activeWarehouseIds.contains(request.getWarehouseId())) {
+                rejected.add(new BulkMovementResult.LineError(line.getLineNumber(), "Warehouse not found or inactive with ID: " + request.getWarehouseId()));
+            } else {
+                groups.computeIfAbsent(new InventoryKey(request.getProductId(), request.getWarehouseId()), key -> new ArrayList<>()).add(line);
+            }
+        }
+
+        // Lock the affected inventory rows and reject groups whose net outflow exceeds stock
+        Map<InventoryKey, Integer> onHand = stockMovementJdbcWriter.lockUnreservedInventory(groups.keySet());
+        rejectLotFailures(groups, rejected);
+        Map<InventoryKey, InventoryDelta> deltas = new LinkedHashMap<>();
+        List<ParsedLine> accepted = new ArrayList<>(chunk.size());
+        for (Map.Entry<InventoryKey, List<ParsedLine>> group : groups.entrySet()) {
+            int delta = 0;
+            for (ParsedLine line : group.getValue()) {
+                delta += StockMovementJdbcWriter.signedQuantity(line.getRequest());
+            }
+
+            int available = onHand.getOrDefault(group.getKey(), 0);
+            if (available + delta < 0) {
+                for (ParsedLine line : group.getValue()) {
+                    rejected.add(new BulkMovementResult.LineError(line.getLineNumber(),
+                            "Insufficient stock. Available: " + available + ", Net change: " + delta));
+                }
+                continue;
+            }
+
+            accepted.addAll(group.getValue());
+            if (delta != 0) {
+                deltas.put(group.getKey(), new InventoryDelta(delta, currentUserId));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = stockMovementJdbcWriter.allocateMovementIds(accepted.size());
+        List<MovementRow> rows = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            rows.add(new MovementRow(ids.get(i), accepted.get(i).getRequest(), currentUserId));
+        }
+        stockMovementJdbcWriter.insertMovements(rows, now);
+        stockMovementJdbcWriter.addToSummaries(accepted.stream().map(ParsedLine::getRequest).collect(Collectors.toList()), now);
+        stockMovementJdbcWriter.upsertInventory(deltas, now);
+        alertService.evaluateInventoryAlertsByIds(stockMovementJdbcWriter.findInventoryIds(deltas.keySet()));
+
+        return new ChunkOutcome(accepted.size(), deltas.size(), rejected);
+    }
+
+    // Lines the lot sub-ledger would refuse are rejected here, each on its own, rather than rolling back the chunk
+    private void rejectLotFailures(Map<InventoryKey, List<ParsedLine>> groups, List<BulkMovementResult.LineError> rejected) {
+        List<ParsedLine> lines = new ArrayList<>();
+        groups.values().forEach(lines::addAll);
+        Map<Integer, String> failures = inventoryLotJdbcWriter.checkNamedLots(
+                lines.stream().map(ParsedLine::getRequest).collect(Collectors.toList()));
+        if (failures.isEmpty()) {
+            return;
+        }
+        Set<Long> failed = new HashSet<>();
+        failures.forEach((index, message) -> {
+            ParsedLine line = lines.get(index);
+            failed.add(line.getLineNumber());
+            rejected.add(new BulkMovementResult.LineError(line.getLineNumber(), message));
+        });
+        groups.values().forEach(group -> group.removeIf(line -> failed.contains(line.getLineNumber())));
+        groups.values().removeIf(List::isEmpty);
+    }
+
+    private static void validate(StockMovementRequest request) {
+        if (request.getProductId() == null) {
+            throw new RuntimeException("Product ID is required");
+        }
+        if (request.getWarehouseId() == null) {
+            throw new RuntimeException("Warehouse ID is required");
+        }
+        if (request.getMovementType() == null) {
+            throw new RuntimeException("Movement type is required");
+        }
+        if (request.getMovementType() != StockMovement.MovementType.IN && request.getMovementType() != StockMovement.MovementType.OUT) {
+            throw new RuntimeException("Only IN and OUT movements can be bulk ingested, got " + request.getMovementType());
+        }
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            throw new RuntimeException("Quantity must be greater than 0");
+        }
+        if (request.getUnitCost() != null && request.getUnitCost().signum() < 0) {
+            throw new RuntimeException("Unit cost cannot be negative");
+        }
+        InventoryLotJdbcWriter.validate(request);
+    }
+
+    private static void reject(BulkMovementResult result, long lineNumber, String message) {
+        result.setRejectedCount(result.getRejectedCount() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new BulkMovementResult.LineError(lineNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private static StockMovementRequest parseCsvLine(String line, Map<String, Integer> columns) {
+        List<String> values = CsvRecords.split(line);
+        StockMovementRequest request = new StockMovementRequest();
+        request.setProductId(parseLong(CsvRecords.column(values, columns, "productid")));
+        request.setWarehouseId(parseLong(CsvRecords.column(values, columns, "warehouseid")));
+        String movementType = CsvRecords.column(values, columns, "movementtype");
+        request.setMovementType(movementType != null ? StockMovement.MovementType.valueOf(movementType.toUpperCase(Locale.ROOT)) : null);
+        String quantity = CsvRecords.column(values, columns, "quantity");
+        request.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+        String referenceType = CsvRecords.column(values, columns, "referencetype");
+        request.setReferenceType(referenceType != null ? StockMovement.ReferenceType.valueOf(referenceType.toUpperCase(Locale.ROOT)) : null);
+        request.setReferenceId(parseLong(CsvRecords.column(values, columns, "referenceid")));
+        request.setNotes(CsvRecords.column(values, columns, "notes"));
+        request.setLotNumber(CsvRecords.column(values, columns, "lotnumber"));
+        String expiryDate = CsvRecords.column(values, columns, "expirydate");
+        request.setExpiryDate(expiryDate != null ? LocalDate.parse(expiryDate) : null);
+        String unitCost = CsvRecords.column(values, columns, "unitcost");
+        request.setUnitCost(unitCost != null ? new BigDecimal(unitCost) : null);
+        return request;
+    }
+
+    private static Long parseLong(String value) {
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class ParsedLine {
+        private long lineNumber;
+        private StockMovementRequest request;
+    }
+
+    // Merged into the result only after the chunk's transaction commits
+    @Data
+    @AllArgsConstructor
+    private static class ChunkOutcome {
+        private int acceptedCount;
+        private int inventoryRowsUpdated;
+        private List<BulkMovementResult.LineError> rejected;
+    }
+}
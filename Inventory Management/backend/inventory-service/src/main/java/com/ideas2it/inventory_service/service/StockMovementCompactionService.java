@@ -0,0 +1,364 @@
+package com.ideas2it.inventory_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ideas2it.inventory_service.dto.StockMovementArchiveResponse;
+import com.ideas2it.inventory_service.entity.StockMovementArchive;
+import com.ideas2it.inventory_service.repository.StockMovementArchiveRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compacts stock movement history older than the retention horizon, one calendar month at a time and
+ * in one transaction per month: the month's rows are written to a gzipped NDJSON file in archive-dir,
+ * replaced by per-day totals in stock_movement_daily_rollups, and removed from stock_movements (the
+ * month's partition is truncated when the table is partitioned, so no dead tuples are left to vacuum).
+ *
+ * <p>Balances stay exact: stock_movement_summaries are running totals that compaction does not touch,
+ * and as-of queries read the rollups alongside the remaining rows (see {@link InventorySnapshotService}).
+ * A restore verifies the file checksum, puts the rows back and drops that month's rollups; the month
+ * is then left alone for restore-hold-days before it can be compacted again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementCompactionService {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String SELECT_MONTH_SQL =
+            "SELECT id, product_id, warehouse_id, movement_type, quantity, reference_type, reference_id, notes, " +
+            "movement_date, created_at, created_by, unit_cost FROM stock_movements " +
+            "WHERE movement_date >= ? AND movement_date < ? ORDER BY movement_date, id";
+
+    private static final String INSERT_ROLLUPS_SQL =
+            "INSERT INTO stock_movement_daily_rollups (movement_day, product_id, warehouse_id, movement_type, " +
+            "total_quantity, movement_count, cost_of_goods, reference_keys) " +
+            "SELECT CAST(movement_date AS DATE), product_id, warehouse_id, movement_type, SUM(quantity), COUNT(*), " +
+            "SUM(quantity * unit_cost) FILTER (WHERE reference_type IS DISTINCT FROM 'TRANSFER'), " +
+            "string_agg(DISTINCT reference_type || ':' || reference_id, ',') FROM stock_movements " +
+            "WHERE movement_date >= ? AND movement_date < ? " +
+            "GROUP BY CAST(movement_date AS DATE), product_id, warehouse_id, movement_type";
+
+    private static final String RESTORE_MOVEMENT_SQL =
+            "INSERT INTO stock_movements (id, product_id, warehouse_id, movement_type, quantity, reference_type, " +
+            "reference_id, notes, movement_date, created_at, created_by, unit_cost) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final StockMovementArchiveRepository stockMovementArchiveRepository;
+
+    @Value("${inventory.stock-movements.compaction.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.stock-movements.compaction.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${inventory.stock-movements.compaction.archive-dir:archive/stock-movements}")
+    private String archiveDir;
+
+    @Value("${inventory.stock-movements.compaction.restore-hold-days:30}")
+    private int restoreHoldDays;
+
+    @Scheduled(cron = "${inventory.stock-movements.compaction.cron:0 30 3 * * *}")
+    public void compactAgedMovements() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate horizon = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+            LocalDateTime oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(movement_date) FROM stock_movements WHERE movement_date < ?",
+                    LocalDateTime.class, Timestamp.valueOf(horizon.atStartOfDay()));
+            if (oldest == null) {
+                return;
+            }
+
+            int compacted = 0;
+            for (LocalDate month = oldest.toLocalDate().withDayOfMonth(1); month.isBefore(horizon); month = month.plusMonths(1)) {
+                if (isEligible(month)) {
+                    LocalDate periodStart = month;
+                    transactionTemplate.executeWithoutResult(status -> compactMonth(periodStart));
+                    compacted++;
+                }
+            }
+            log.info("Stock movement compaction completed, {} month(s) archived before {}", compacted, horizon);
+        } catch (Exception e) {
+            log.error("Error compacting stock movements: {}", e.getMessage());
+        }
+    }
+
+    public List<StockMovementArchiveResponse> getArchives() {
+        log.info("Fetching stock movement archives");
+        return stockMovementArchiveRepository.findAllByOrderByPeriodStartDesc().stream()
+                .map(StockMovementArchiveResponse::fromArchive)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Puts an archived month back into stock_movements and removes its rollups. Running totals are not
+     * touched since compaction never removed the movements from them.
+     */
+    public StockMovementArchiveResponse restoreArchive(Long id) {
+        log.info("Restoring stock movement archive with ID: {}", id);
+        return transactionTemplate.execute(status -> {
+            StockMovementArchive archive = stockMovementArchiveRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Stock movement archive not found with ID: " + id));
+            if (archive.getRestoredAt() != null) {
+                throw new RuntimeException("Stock movement archive is already restored with ID: " + id);
+            }
+
+            Path file = Paths.get(archiveDir).resolve(archive.getFileName());
+            if (!archive.getChecksum().equals(checksum(file))) {
+                throw new RuntimeException("Checksum mismatch for archive file: " + archive.getFileName());
+            }
+
+            long restored = restoreRows(file);
+            if (restored != archive.getRowCount()) {
+                throw new RuntimeException("Archive file " + archive.getFileName() + " has " + restored +
+                        " movement(s), expected " + archive.getRowCount());
+            }
+            jdbcTemplate.update("DELETE FROM stock_movement_daily_rollups WHERE movement_day >= ? AND movement_day < ?",
+                    archive.getPeriodStart(), archive.getPeriodEnd());
+
+            archive.setRestoredAt(LocalDateTime.now());
+            StockMovementArchive saved = stockMovementArchiveRepository.save(archive);
+            log.info("Restored {} stock movement(s) for {}", restored, archive.getPeriodStart());
+            return StockMovementArchiveResponse.fromArchive(saved);
+        });
+    }
+
+    // A month with rows is compacted unless its archive still holds rows that were never restored, or it was restored recently
+    private boolean isEligible(LocalDate month) {
+        Boolean hasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM stock_movements WHERE movement_date >= ? AND movement_date < ?)", Boolean.class,
+                Timestamp.valueOf(month.atStartOfDay()), Timestamp.valueOf(month.plusMonths(1).atStartOfDay()));
+        if (!Boolean.TRUE.equals(hasRows)) {
+            return false;
+        }
+        StockMovementArchive archive = stockMovementArchiveRepository.findByPeriodStart(month).orElse(null);
+        if (archive == null) {
+            return true;
+        }
+        if (archive.getRestoredAt() == null) {
+            log.warn("Skipping compaction of {}: movements were added after the month was archived", month);
+            return false;
+        }
+        return archive.getRestoredAt().isBefore(LocalDateTime.now().minusDays(restoreHoldDays));
+    }
+
+    private void compactMonth(LocalDate periodStart) {
+        LocalDate periodEnd = periodStart.plusMonths(1);
+        Timestamp from = Timestamp.valueOf(periodStart.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(periodEnd.atStartOfDay());
+
+        // Block writes to the month while it is copied, so the file, the rollups and the delete see the same rows
+        String partition = "stock_movements_p" + periodStart.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        Boolean partitioned = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        String lockedTable = Boolean.TRUE.equals(partitioned) ? partition : "stock_movements";
+        jdbcTemplate.execute("LOCK TABLE " + lockedTable + " IN SHARE MODE");
+
+        String fileName = "stock_movements_" + periodStart.format(DateTimeFormatter.ofPattern("yyyyMM")) + ".ndjson.gz";
+        Path file = Paths.get(archiveDir).resolve(fileName);
+        ArchiveFile written = writeArchive(file, from, to);
+
+        jdbcTemplate.update(INSERT_ROLLUPS_SQL, from, to);
+        Long rolledUp = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(movement_count), 0) FROM stock_movement_daily_rollups WHERE movement_day >= ? AND movement_day < ?",
+                Long.class, periodStart, periodEnd);
+        if (rolledUp == null || rolledUp != written.getRowCount()) {
+            throw new IllegalStateException("Rollups for " + periodStart + " cover " + rolledUp +
+                    " movement(s) but " + written.getRowCount() + " were archived");
+        }
+
+        StockMovementArchive archive = stockMovementArchiveRepository.findByPeriodStart(periodStart).orElse(new StockMovementArchive());
+        archive.setPeriodStart(periodStart);
+        archive.setPeriodEnd(periodEnd);
+        archive.setFileName(fileName);
+        archive.setRowCount(written.getRowCount());
+        archive.setChecksum(written.getChecksum());
+        archive.setArchivedAt(LocalDateTime.now());
+        archive.setRestoredAt(null);
+        stockMovementArchiveRepository.save(archive);
+
+        if (Boolean.TRUE.equals(partitioned)) {
+            jdbcTemplate.execute("TRUNCATE TABLE " + partition);
+        } else {
+            jdbcTemplate.update("DELETE FROM stock_movements WHERE movement_date >= ? AND movement_date < ?", from, to);
+        }
+        log.info("Compacted {} stock movement(s) for {} into {}", written.getRowCount(), periodStart, fileName);
+    }
+
+    // Streams the month to a temporary file, syncs it and moves it into place; returns the row count and checksum
+    private ArchiveFile writeArchive(Path file, Timestamp from, Timestamp to) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            MessageDigest digest = sha256();
+            long[] rows = new long[1];
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                DigestOutputStream digestOut = new DigestOutputStream(new BufferedOutputStream(out), digest);
+                GZIPOutputStream gzip = new GZIPOutputStream(digestOut);
+                JsonGenerator generator = objectMapper.getFactory().createGenerator((OutputStream) gzip);
+                generator.setRootValueSeparator(null);
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(SELECT_MONTH_SQL);
+                    ps.setFetchSize(BATCH_SIZE);
+                    ps.setTimestamp(1, from);
+                    ps.setTimestamp(2, to);
+                    return ps;
+                }, rs -> {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeNumberField("id", rs.getLong("id"));
+                        generator.writeNumberField("productId", rs.getLong("product_id"));
+                        generator.writeNumberField("warehouseId", rs.getLong("warehouse_id"));
+                        generator.writeStringField("movementType", rs.getString("movement_type"));
+                        generator.writeNumberField("quantity", rs.getInt("quantity"));
+                        generator.writeStringField("referenceType", rs.getString("reference_type"));
+                        generator.writeObjectField("referenceId", rs.getObject("reference_id"));
+                        generator.writeStringField("notes", rs.getString("notes"));
+                        generator.writeStringField("movementDate", rs.getTimestamp("movement_date").toLocalDateTime().toString());
+                        generator.writeStringField("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+                        generator.writeObjectField("createdBy", rs.getObject("created_by"));
+                        generator.writeObjectField("unitCost", rs.getBigDecimal("unit_cost"));
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.flush();
+                gzip.finish();
+                digestOut.flush();
+                out.getFD().sync();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new ArchiveFile(rows[0], HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing archive file " + file, e);
+        }
+    }
+
+    private long restoreRows(Path file) {
+        long restored = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            List<JsonNode> batch = new ArrayList<>(BATCH_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                batch.add(objectMapper.readTree(line));
+                if (batch.size() == BATCH_SIZE) {
+                    restored += insertRestored(batch);
+                    batch.clear();
+                }
+            }
+            restored += insertRestored(batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading archive file " + file, e);
+        }
+        return restored;
+    }
+
+    private int insertRestored(List<JsonNode> rows) {
+        jdbcTemplate.batchUpdate(RESTORE_MOVEMENT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.get("id").asLong());
+            ps.setLong(2, row.get("productId").asLong());
+            ps.setLong(3, row.get("warehouseId").asLong());
+            ps.setString(4, row.get("movementType").asText());
+            ps.setInt(5, row.get("quantity").asInt());
+            ps.setString(6, textOrNull(row, "referenceType"));
+            if (row.hasNonNull("referenceId")) {
+                ps.setLong(7, row.get("referenceId").asLong());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setString(8, textOrNull(row, "notes"));
+            ps.setTimestamp(9, Timestamp.valueOf(LocalDateTime.parse(row.get("movementDate").asText())));
+            ps.setTimestamp(10, Timestamp.valueOf(LocalDateTime.parse(row.get("createdAt").asText())));
+            if (row.hasNonNull("createdBy")) {
+                ps.setLong(11, row.get("createdBy").asLong());
+            } else {
+                ps.setNull(11, Types.BIGINT);
+            }
+            // Archives written before movements were costed have no unitCost
+            ps.setBigDecimal(12, row.hasNonNull("unitCost") ? row.get("unitCost").decimalValue() : null);
+        });
+        return rows.size();
+    }
+
+    private static String textOrNull(JsonNode row, String field) {
+        return row.hasNonNull(field) ? row.get(field).asText() : null;
+    }
+
+    private static String checksum(Path file) {
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading archive file " + file, e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class ArchiveFile {
+        private long rowCount;
+        private String checksum;
+    }
+}
@@ -0,0 +1,241 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.dto.StockMovementResponse;
+import com.ideas2it.inventory_service.entity.Product;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.entity.User;
+import com.ideas2it.inventory_service.entity.Warehouse;
+import com.ideas2it.inventory_service.repository.ProductRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryDelta;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import com.ideas2it.inventory_service.util.GroupCommitQueue;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in write-behind path for single stock movements (inventory.stock-movements.group-commit.enabled).
+ * Movements are queued and a writer thread commits them in groups, so one fsync covers many
+ * movements. Each movement is still validated and applied in submission order with the same rules as
+ * {@link StockMovementService#createStockMovement}; a rejected movement does not affect the rest of its batch.
+ *
+ * <p>A caller's future completes only once its batch has committed (see {@link GroupCommitQueue} for the
+ * crash semantics). On shutdown everything already queued is written before the application stops.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementGroupCommitService {
+
+    private final TransactionTemplate transactionTemplate;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final UserRepository userRepository;
+    private final AlertService alertService;
+
+    @Value("${inventory.stock-movements.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.stock-movements.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${inventory.stock-movements.group-commit.max-delay-ms:5}")
+    private long maxDelayMillis;
+
+    @Value("${inventory.stock-movements.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private GroupCommitQueue<PendingMovement, StockMovementResponse> queue;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new GroupCommitQueue<>("stock-movement-group-commit", queueCapacity, maxBatchSize, maxDelayMillis,
+                batch -> transactionTemplate.execute(status -> applyBatch(batch)));
+        queue.start();
+        log.info("Stock movement group commit enabled (batch size {}, max delay {} ms)", maxBatchSize, maxDelayMillis);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (queue != null) {
+            log.info("Flushing {} queued stock movement(s) before shutdown", queue.getQueuedCount());
+            queue.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<StockMovementResponse> submit(StockMovementRequest request, Long currentUserId) {
+        if (queue == null) {
+            throw new IllegalStateException("Stock movement group commit is not enabled");
+        }
+        validate(request);
+        return queue.submit(new PendingMovement(request, currentUserId));
+    }
+
+    private List<GroupCommitQueue.Outcome<StockMovementResponse>> applyBatch(List<PendingMovement> batch) {
+        // Load everything the batch references with one query per table
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> warehouseIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (PendingMovement movement : batch) {
+            productIds.add(movement.getRequest().getProductId());
+            warehouseIds.add(movement.getRequest().getWarehouseId());
+            userIds.add(movement.getUserId());
+        }
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Warehouse> warehouses = warehouseRepository.findAllById(warehouseIds).stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Set<InventoryKey> keys = new HashSet<>();
+        for (PendingMovement movement : batch) {
+            keys.add(keyOf(movement.getRequest()));
+        }
+        Map<InventoryKey, Integer> onHand = stockMovementJdbcWriter.lockUnreservedInventory(keys);
+
+        // Apply in sequence order so each OUT sees the stock left by the movements before it
+        List<GroupCommitQueue.Outcome<StockMovementResponse>> outcomes = new ArrayList<>(batch.size());
+        List<StockMovement> accepted = new ArrayList<>(batch.size());
+        List<PendingMovement> acceptedPending = new ArrayList<>(batch.size());
+        Map<InventoryKey, InventoryDelta> deltas = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (PendingMovement pending : batch) {
+            StockMovementRequest request = pending.getRequest();
+            try {
+                StockMovement movement = buildMovement(pending, products, warehouses, users, now);
+                InventoryKey key = keyOf(request);
+                int current = onHand.getOrDefault(key, 0);
+                int change = StockMovementJdbcWriter.signedQuantity(request);
+                if (current + change < 0) {
+                    throw new RuntimeException("Insufficient stock. Available: " + current + ", Requested: " + request.getQuantity());
+                }
+                if (change != 0) {
+                    onHand.put(key, current + change);
+                    deltas.merge(key, new InventoryDelta(change, pending.getUserId()),
+                            (a, b) -> new InventoryDelta(a.getQuantity() + b.getQuantity(), b.getUpdatedBy()));
+                }
+                accepted.add(movement);
+                acceptedPending.add(pending);
+                outcomes.add(null);
+            } catch (RuntimeException e) {
+                outcomes.add(GroupCommitQueue.Outcome.rejected(e));
+            }
+        }
+
+        List<Long> ids = stockMovementJdbcWriter.allocateMovementIds(accepted.size());
+        List<MovementRow> rows = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).setId(ids.get(i));
+            rows.add(new MovementRow(ids.get(i), acceptedPending.get(i).getRequest(), acceptedPending.get(i).getUserId()));
+        }
+        stockMovementJdbcWriter.insertMovements(rows, now);
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).setUnitCost(acceptedPending.get(i).getRequest().getUnitCost());
+        }
+        stockMovementJdbcWriter.addToSummaries(acceptedPending.stream().map(PendingMovement::getRequest).collect(Collectors.toList()), now);
+        deltas.values().removeIf(delta -> delta.getQuantity() == 0);
+        stockMovementJdbcWriter.upsertInventory(deltas, now);
+        alertService.evaluateInventoryAlertsByIds(stockMovementJdbcWriter.findInventoryIds(deltas.keySet()));
+
+        int next = 0;
+        for (int i = 0; i < outcomes.size(); i++) {
+            if (outcomes.get(i) == null) {
+                outcomes.set(i, GroupCommitQueue.Outcome.success(StockMovementResponse.fromStockMovement(accepted.get(next++))));
+            }
+        }
+        log.debug("Group committed {} stock movement(s), {} rejected", accepted.size(), batch.size() - accepted.size());
+        return outcomes;
+    }
+
+    private static StockMovement buildMovement(PendingMovement pending, Map<Long, Product> products,
+                                               Map<Long, Warehouse> warehouses, Map<Long, User> users, LocalDateTime now) {
+        StockMovementRequest request = pending.getRequest();
+        Product product = products.get(request.getProductId());
+        if (product == null) {
+            throw new RuntimeException("Product not found with ID: " + request.getProductId());
+        }
+        if (!product.getIsActive()) {
+            throw new RuntimeException("Product is inactive with ID: " + request.getProductId());
+        }
+        Warehouse warehouse = warehouses.get(request.getWarehouseId());
+        if (warehouse == null) {
+            throw new RuntimeException("Warehouse not found with ID: " + request.getWarehouseId());
+        }
+        if (!warehouse.getIsActive()) {
+            throw new RuntimeException("Warehouse is inactive with ID: " + request.getWarehouseId());
+        }
+        User user = users.get(pending.getUserId());
+        if (user == null) {
+            throw new RuntimeException("Current user not found with ID: " + pending.getUserId());
+        }
+
+        StockMovement movement = new StockMovement();
+        movement.setProduct(product);
+        movement.setWarehouse(warehouse);
+        movement.setMovementType(request.getMovementType());
+        movement.setQuantity(request.getQuantity());
+        movement.setReferenceType(request.getReferenceType());
+        movement.setReferenceId(request.getReferenceId());
+        movement.setNotes(request.getNotes());
+        movement.setMovementDate(now);
+        movement.setCreatedAt(now);
+        movement.setCreatedBy(user);
+        return movement;
+    }
+
+    private static InventoryKey keyOf(StockMovementRequest request) {
+        return new InventoryKey(request.getProductId(), request.getWarehouseId());
+    }
+
+    private static void validate(StockMovementRequest request) {
+        if (request.getProductId() == null) {
+            throw new RuntimeException("Product ID is required");
+        }
+        if (request.getWarehouseId() == null) {
+            throw new RuntimeException("Warehouse ID is required");
+        }
+        if (request.getMovementType() == null) {
+            throw new RuntimeException("Movement type is required");
+        }
+        if (request.getQuantity() == null || request.getQuantity() < 1) {
+            throw new RuntimeException("Quantity must be greater than 0");
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class PendingMovement {
+        private StockMovementRequest request;
+        private Long userId;
+    }
+}
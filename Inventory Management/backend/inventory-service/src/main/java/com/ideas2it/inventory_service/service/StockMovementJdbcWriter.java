@@ -0,0 +1,319 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Set-based JDBC writes shared by the stock movement write paths (single, bulk ingestion and group
+ * commit). Callers run these inside their own transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockMovementJdbcWriter {
+
+    private static final String ALLOCATE_MOVEMENT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('stock_movements', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movements (id, product_id, warehouse_id, movement_type, quantity, reference_type, " +
+            "reference_id, notes, movement_date, created_at, created_by, unit_cost) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LOCK_INVENTORY_SQL =
+            "SELECT i.product_id, i.warehouse_id, i.quantity_on_hand, i.quantity_reserved FROM inventory i " +
+            "JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON i.product_id = k.product_id AND i.warehouse_id = k.warehouse_id " +
+            "ORDER BY i.id FOR UPDATE OF i";
+
+    // Reorder point of an inventory row's product, for keeping inventory.low_stock in step with quantity_available
+    static final String REORDER_POINT_SQL = "(SELECT reorder_point FROM products WHERE id = inventory.product_id)";
+
+    private static final String UPSERT_INVENTORY_SQL =
+            "INSERT INTO inventory (product_id, warehouse_id, quantity_on_hand, quantity_reserved, quantity_available, low_stock, " +
+            "last_updated_at, created_at, updated_at, updated_by) VALUES (?, ?, ?, 0, ?, (SELECT ? <= reorder_point FROM products WHERE id = ?), " +
+            "?, ?, ?, ?) ON CONFLICT (product_id, warehouse_id) DO UPDATE SET " +
+            "quantity_on_hand = inventory.quantity_on_hand + EXCLUDED.quantity_on_hand, " +
+            "quantity_available = inventory.quantity_on_hand + EXCLUDED.quantity_on_hand - inventory.quantity_reserved, " +
+            "low_stock = inventory.quantity_on_hand + EXCLUDED.quantity_on_hand - inventory.quantity_reserved <= " + REORDER_POINT_SQL + ", " +
+            "last_updated_at = EXCLUDED.last_updated_at, updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by";
+
+    private static final String INVENTORY_IDS_SQL =
+            "SELECT i.id FROM inventory i JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON i.product_id = k.product_id AND i.warehouse_id = k.warehouse_id";
+
+    private static final String UPSERT_SUMMARY_SQL =
+            "INSERT INTO stock_movement_summaries (product_id, warehouse_id, movement_type, total_quantity, movement_count, last_movement_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (product_id, warehouse_id, movement_type) DO UPDATE SET " +
+            "total_quantity = stock_movement_summaries.total_quantity + EXCLUDED.total_quantity, " +
+            "movement_count = stock_movement_summaries.movement_count + EXCLUDED.movement_count, " +
+            "last_movement_at = GREATEST(stock_movement_summaries.last_movement_at, EXCLUDED.last_movement_at)";
+
+    // The opening balances V23 gives stock that predates the ledger: not movements, so kept out of the summaries
+    private static final String PRE_LEDGER_OPENING_BALANCE_SQL =
+            "reference_type = 'ADJUSTMENT' AND notes = 'Opening balance before ledger' AND created_by IS NULL";
+
+    private static final String BACKFILL_SUMMARIES_SQL =
+            "INSERT INTO stock_movement_summaries (product_id, warehouse_id, movement_type, total_quantity, movement_count, last_movement_at) " +
+            "SELECT product_id, warehouse_id, movement_type, SUM(total_quantity), SUM(movement_count), MAX(last_movement_at) FROM (" +
+            "SELECT product_id, warehouse_id, movement_type, SUM(quantity) AS total_quantity, COUNT(*) AS movement_count, " +
+            "MAX(movement_date) AS last_movement_at FROM stock_movements WHERE NOT (" + PRE_LEDGER_OPENING_BALANCE_SQL + ") " +
+            "GROUP BY product_id, warehouse_id, movement_type " +
+            "UNION ALL SELECT product_id, warehouse_id, movement_type, total_quantity, movement_count, CAST(movement_day AS TIMESTAMP) " +
+            "FROM stock_movement_daily_rollups) m GROUP BY product_id, warehouse_id, movement_type";
+
+    private static final String SYNC_LOW_STOCK_SQL =
+            "UPDATE inventory SET low_stock = quantity_available <= " + REORDER_POINT_SQL + " " +
+            "WHERE low_stock IS DISTINCT FROM (quantity_available <= " + REORDER_POINT_SQL + ")";
+
+    private static final String LOW_STOCK_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_inventory_low_stock ON inventory(product_id) WHERE low_stock";
+
+    private static final Comparator<SummaryKey> SUMMARY_KEY_ORDER = Comparator.comparingLong(SummaryKey::getProductId)
+            .thenComparingLong(SummaryKey::getWarehouseId)
+            .thenComparing(SummaryKey::getMovementType);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final InventoryLotJdbcWriter inventoryLotJdbcWriter;
+    private final InventoryCostJdbcWriter inventoryCostJdbcWriter;
+
+    // Locks the existing inventory rows for the keys in id order (so concurrent batches cannot deadlock) and returns their balances
+    public Map<InventoryKey, InventoryBalance> lockInventory(Set<InventoryKey> keys) {
+        Map<InventoryKey, InventoryBalance> balances = new HashMap<>();
+        if (keys.isEmpty()) {
+            return balances;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_INVENTORY_SQL);
+            bindKeyArrays(ps, keys);
+            return ps;
+        }, rs -> {
+            balances.put(new InventoryKey(rs.getLong(1), rs.getLong(2)), new InventoryBalance(rs.getInt(3), rs.getInt(4)));
+        });
+        return balances;
+    }
+
+    // What an OUT may take from each locked row: stock held by reservations leaves only through their commit
+    public Map<InventoryKey, Integer> lockUnreservedInventory(Set<InventoryKey> keys) {
+        Map<InventoryKey, Integer> unreserved = new HashMap<>();
+        lockInventory(keys).forEach((key, balance) -> unreserved.put(key, balance.getUnreserved()));
+        return unreserved;
+    }
+
+    public List<Long> findInventoryIds(Set<InventoryKey> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INVENTORY_IDS_SQL);
+            bindKeyArrays(ps, keys);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    // Reserves ids from the stock_movements sequence up front so batch inserts can report them back
+    public List<Long> allocateMovementIds(int count) {
+        if (count == 0) {
+            return new ArrayList<>();
+        }
+        return jdbcTemplate.queryForList(ALLOCATE_MOVEMENT_IDS_SQL, Long.class, count);
+    }
+
+    // Costs the movements, inserts them and applies them to the lot sub-ledger
+    public void insertMovements(List<MovementRow> rows, LocalDateTime now) {
+        inventoryCostJdbcWriter.applyMovements(rows, now);
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, rows, rows.size(), (ps, row) -> {
+            StockMovementRequest request = row.getRequest();
+            ps.setLong(1, row.getId());
+            ps.setLong(2, request.getProductId());
+            ps.setLong(3, request.getWarehouseId());
+            ps.setString(4, request.getMovementType().name());
+            ps.setInt(5, request.getQuantity());
+            ps.setString(6, request.getReferenceType() != null ? request.getReferenceType().name() : null);
+            if (request.getReferenceId() != null) {
+                ps.setLong(7, request.getReferenceId());
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            ps.setString(8, request.getNotes());
+            ps.setTimestamp(9, timestamp);
+            ps.setTimestamp(10, timestamp);
+            ps.setLong(11, row.getCreatedBy());
+            ps.setBigDecimal(12, request.getUnitCost());
+        });
+        inventoryLotJdbcWriter.applyMovements(rows, now);
+    }
+
+    // Applies each net delta with one upsert, creating missing inventory rows
+    public void upsertInventory(Map<InventoryKey, InventoryDelta> deltas, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Map.Entry<InventoryKey, InventoryDelta>> entries = new ArrayList<>(deltas.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_INVENTORY_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey().getProductId());
+            ps.setLong(2, entry.getKey().getWarehouseId());
+            ps.setInt(3, entry.getValue().getQuantity());
+            ps.setInt(4, entry.getValue().getQuantity());
+            ps.setInt(5, entry.getValue().getQuantity());
+            ps.setLong(6, entry.getKey().getProductId());
+            ps.setTimestamp(7, timestamp);
+            ps.setTimestamp(8, timestamp);
+            ps.setTimestamp(9, timestamp);
+            ps.setLong(10, entry.getValue().getUpdatedBy());
+        });
+        inventoryAvailabilityService.invalidate(deltas.keySet());
+    }
+
+    // Records a movement for a stock change already applied to inventory by the caller, keeping the ledger in step with on-hand
+    public void recordMovement(StockMovementRequest request, long createdBy, LocalDateTime now) {
+        List<MovementRow> rows = new ArrayList<>();
+        rows.add(new MovementRow(allocateMovementIds(1).get(0), request, createdBy));
+        insertMovements(rows, now);
+        addToSummaries(List.of(request), now);
+    }
+
+    // Adds the movements to the running totals in stock_movement_summaries; must run in the transaction that inserts them
+    public void addToSummaries(List<StockMovementRequest> requests, LocalDateTime movementDate) {
+        // Aggregate first and upsert in key order so concurrent writers lock summary rows in the same order
+        Map<SummaryKey, long[]> totals = new TreeMap<>(SUMMARY_KEY_ORDER);
+        for (StockMovementRequest request : requests) {
+            long[] total = totals.computeIfAbsent(
+                    new SummaryKey(request.getProductId(), request.getWarehouseId(), request.getMovementType()), key -> new long[2]);
+            total[0] += request.getQuantity();
+            total[1]++;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(movementDate);
+        List<Map.Entry<SummaryKey, long[]>> entries = new ArrayList<>(totals.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SUMMARY_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getKey().getProductId());
+            ps.setLong(2, entry.getKey().getWarehouseId());
+            ps.setString(3, entry.getKey().getMovementType().name());
+            ps.setLong(4, entry.getValue()[0]);
+            ps.setLong(5, entry.getValue()[1]);
+            ps.setTimestamp(6, timestamp);
+        });
+    }
+
+    /**
+     * Builds the summaries from the full movement history, including the daily rollups of compacted
+     * months, when the table is empty (e.g. a schema created by Hibernate rather than V11). Blocks
+     * movement writes while it runs. Returns the rows created.
+     */
+    public int backfillSummariesIfEmpty() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM stock_movement_summaries)", Boolean.class);
+        if (!Boolean.TRUE.equals(empty)) {
+            return 0;
+        }
+        jdbcTemplate.execute("LOCK TABLE stock_movements IN SHARE MODE");
+        return jdbcTemplate.update(BACKFILL_SUMMARIES_SQL);
+    }
+
+    // Whether V23 has given pre-ledger stock its opening balances, i.e. on-hand and the ledger net can be compared
+    public boolean openingBalancesRecorded() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT to_regclass('inventory_opening_balance_runs') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(exists)) {
+            return false;
+        }
+        Boolean recorded = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM inventory_opening_balance_runs)", Boolean.class);
+        return Boolean.TRUE.equals(recorded);
+    }
+
+    /**
+     * Brings inventory.low_stock in line with quantity_available and the reorder points, and creates its
+     * partial index, for schemas where the column was just added by Hibernate rather than V18. Touches
+     * only rows whose flag is wrong, so on an up-to-date schema it writes nothing. Returns the rows fixed.
+     */
+    public int syncLowStockFlags() {
+        jdbcTemplate.execute(LOW_STOCK_INDEX_SQL);
+        return jdbcTemplate.update(SYNC_LOW_STOCK_SQL);
+    }
+
+    // Change to quantity on hand; only IN and OUT move stock, other types are recorded as history only
+    public static int signedQuantity(StockMovementRequest request) {
+        switch (request.getMovementType()) {
+            case IN:
+                return request.getQuantity();
+            case OUT:
+                return -request.getQuantity();
+            default:
+                return 0;
+        }
+    }
+
+    static void bindKeyArrays(PreparedStatement ps, Set<InventoryKey> keys) throws SQLException {
+        Long[] productIds = new Long[keys.size()];
+        Long[] warehouseIds = new Long[keys.size()];
+        int i = 0;
+        for (InventoryKey key : keys) {
+            productIds[i] = key.getProductId();
+            warehouseIds[i] = key.getWarehouseId();
+            i++;
+        }
+        Array productArray = ps.getConnection().createArrayOf("bigint", productIds);
+        Array warehouseArray = ps.getConnection().createArrayOf("bigint", warehouseIds);
+        ps.setArray(1, productArray);
+        ps.setArray(2, warehouseArray);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class InventoryKey {
+        private long productId;
+        private long warehouseId;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SummaryKey {
+        private long productId;
+        private long warehouseId;
+        private StockMovement.MovementType movementType;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class InventoryBalance {
+        private int onHand;
+        private int reserved;
+
+        public int getUnreserved() {
+            return onHand - reserved;
+        }
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class InventoryDelta {
+        private int quantity;
+        private long updatedBy;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class MovementRow {
+        private long id;
+        private StockMovementRequest request;
+        private long createdBy;
+    }
+}
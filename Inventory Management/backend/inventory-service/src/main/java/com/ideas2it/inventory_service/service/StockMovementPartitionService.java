@@ -0,0 +1,48 @@
+package com.ideas2it.inventory_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps monthly stock_movements partitions created ahead of time (see V9__Partition_stock_movements.sql),
+ * so inserts never fall into the default partition. A no-op on schemas where the table is not partitioned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockMovementPartitionService {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${inventory.stock-movements.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitionsOnStartup() {
+        ensurePartitions();
+    }
+    
+    @Scheduled(cron = "${inventory.stock-movements.partitions.maintenance-cron:0 0 2 * * *}")
+    public void ensurePartitions() {
+        try {
+            Boolean partitioned = jdbcTemplate.queryForObject(
+                    "SELECT to_regprocedure('ensure_stock_movement_partitions(integer)') IS NOT NULL", Boolean.class);
+            if (!Boolean.TRUE.equals(partitioned)) {
+                log.debug("stock_movements is not partitioned, skipping partition maintenance");
+                return;
+            }
+            
+            Integer created = jdbcTemplate.queryForObject(
+                    "SELECT ensure_stock_movement_partitions(?)", Integer.class, monthsAhead);
+            log.info("Stock movement partition maintenance completed, {} partition(s) created", created);
+        } catch (Exception e) {
+            log.error("Error maintaining stock movement partitions: {}", e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.ideas2it.inventory_service.service;
 
+import com.ideas2it.inventory_service.dto.CursorPage;
+import com.ideas2it.inventory_service.dto.MovementTotal;
+import com.ideas2it.inventory_service.dto.ProductMovementSummaryResponse;
 import com.ideas2it.inventory_service.dto.StockMovementRequest;
 import com.ideas2it.inventory_service.dto.StockMovementResponse;
 import com.ideas2it.inventory_service.entity.Inventory;
@@ -10,17 +13,31 @@ import com.ideas2it.inventory_service.entity.Warehouse;
 import com.ideas2it.inventory_service.repository.InventoryRepository;
 import com.ideas2it.inventory_service.repository.ProductRepository;
 import com.ideas2it.inventory_service.repository.StockMovementRepository;
+import com.ideas2it.inventory_service.repository.StockMovementSummaryRepository;
 import com.ideas2it.inventory_service.repository.UserRepository;
 import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import com.ideas2it.inventory_service.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,11 +46,22 @@ import java.util.stream.Collectors;
 @Transactional
 public class StockMovementService {
     
+    private static final int MAX_SUMMARY_PRODUCTS = 1000;
+    
     private final StockMovementRepository stockMovementRepository;
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
     private final UserRepository userRepository;
     private final InventoryRepository inventoryRepository;
+    private final StockMovementGroupCommitService stockMovementGroupCommitService;
+    private final StockMovementSummaryRepository stockMovementSummaryRepository;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final InventoryLotJdbcWriter inventoryLotJdbcWriter;
+    private final InventoryCostJdbcWriter inventoryCostJdbcWriter;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    
+    @Value("${inventory.stock-movements.group-commit.await-timeout-ms:10000}")
+    private long groupCommitTimeoutMillis;
     
     public List<StockMovementResponse> getAllStockMovements() {
         log.info("Fetching all stock movements");
@@ -114,6 +142,48 @@ public class StockMovementService {
         return movementsPage.map(StockMovementResponse::fromStockMovement);
     }
     
+    public CursorPage<StockMovementResponse> getStockMovementsWithCursor(String cursor, int size, Long productId, Long warehouseId,
+                                                                         boolean includeTotal) {
+        log.info("Fetching stock movements with cursor pagination");
+        if (productId != null && warehouseId != null) {
+            throw new RuntimeException("Filter by either product ID or warehouse ID, not both");
+        }
+        Pageable limit = CursorPage.fetchLimit(size);
+        
+        List<StockMovement> movements;
+        if (cursor == null) {
+            if (productId != null) {
+                movements = stockMovementRepository.findByProductIdOrderByMovementDateDescIdDesc(productId, limit);
+            } else if (warehouseId != null) {
+                movements = stockMovementRepository.findByWarehouseIdOrderByMovementDateDescIdDesc(warehouseId, limit);
+            } else {
+                movements = stockMovementRepository.findAllByOrderByMovementDateDescIdDesc(limit);
+            }
+        } else {
+            CursorCodec.Cursor position = CursorCodec.decode(cursor);
+            if (productId != null) {
+                movements = stockMovementRepository.findByProductIdPageAfter(productId, position.getDateTime(), position.getId(), limit);
+            } else if (warehouseId != null) {
+                movements = stockMovementRepository.findByWarehouseIdPageAfter(warehouseId, position.getDateTime(), position.getId(), limit);
+            } else {
+                movements = stockMovementRepository.findPageAfter(position.getDateTime(), position.getId(), limit);
+            }
+        }
+        
+        Long totalCount = null;
+        if (includeTotal) {
+            if (productId != null) {
+                totalCount = stockMovementRepository.countByProductId(productId);
+            } else if (warehouseId != null) {
+                totalCount = stockMovementRepository.countByWarehouseId(warehouseId);
+            } else {
+                totalCount = stockMovementRepository.count();
+            }
+        }
+        return CursorPage.of(movements, size, StockMovementResponse::fromStockMovement,
+                movement -> CursorCodec.encode(movement.getMovementDate(), movement.getId()), totalCount);
+    }
+    
     public StockMovementResponse createStockMovement(StockMovementRequest request, Long currentUserId) {
         log.info("Creating stock movement for product ID: {} and warehouse ID: {}", request.getProductId(), request.getWarehouseId());
         
@@ -133,12 +203,18 @@ public class StockMovementService {
             throw new RuntimeException("Warehouse is inactive with ID: " + request.getWarehouseId());
         }
         
+        InventoryLotJdbcWriter.validate(request);
+        
         // Get current user for audit
         log.info("Looking up user with ID: {}", currentUserId);
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new RuntimeException("Current user not found with ID: " + currentUserId));
         log.info("Found user: {} (ID: {})", currentUser.getUsername(), currentUser.getId());
         
+        // Cost the movement against the locked inventory row, in the same lock order as the batch paths
+        stockMovementJdbcWriter.lockInventory(Set.of(new InventoryKey(product.getId(), warehouse.getId())));
+        inventoryCostJdbcWriter.applyMovements(List.of(new MovementRow(0, request, currentUserId)), LocalDateTime.now());
+        
         // Create and save the stock movement
         StockMovement movement = new StockMovement();
         movement.setProduct(product);
@@ -148,9 +224,13 @@ public class StockMovementService {
         movement.setReferenceType(request.getReferenceType());
         movement.setReferenceId(request.getReferenceId());
         movement.setNotes(request.getNotes());
+        movement.setUnitCost(request.getUnitCost());
         movement.setCreatedBy(currentUser);
         
         StockMovement savedMovement = stockMovementRepository.save(movement);
+        stockMovementJdbcWriter.addToSummaries(List.of(request), savedMovement.getMovementDate());
+        inventoryLotJdbcWriter.applyMovements(List.of(new MovementRow(savedMovement.getId(), request, currentUserId)),
+                savedMovement.getMovementDate());
         log.info("Stock movement created successfully with ID: {}", savedMovement.getId());
         
         // Update inventory quantities based on the stock movement
@@ -159,6 +239,34 @@ public class StockMovementService {
         return StockMovementResponse.fromStockMovement(savedMovement);
     }
     
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public boolean isGroupCommitEnabled() {
+        return stockMovementGroupCommitService.isEnabled();
+    }
+    
+    /**
+     * Group commit mode: queues the movement and waits until the batch containing it has committed.
+     * Runs outside a transaction so the wait does not hold a connection of its own; a caller already in a
+     * transaction keeps that one checked out while it waits. A timeout does not withdraw the movement, so
+     * callers guarding the request with an Idempotency-Key use createStockMovement instead.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public StockMovementResponse createStockMovementGroupCommitted(StockMovementRequest request, Long currentUserId) {
+        log.info("Queueing stock movement for product ID: {} and warehouse ID: {}", request.getProductId(), request.getWarehouseId());
+        try {
+            return stockMovementGroupCommitService.submit(request, currentUserId)
+                    .get(groupCommitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            // Still queued or in flight, so it may yet be applied
+            throw new RuntimeException("Timed out waiting for stock movement to commit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for stock movement to commit");
+        }
+    }
+    
     /**
      * Update inventory quantities based on stock movement
      */
@@ -186,9 +294,10 @@ public class StockMovementService {
             inventory.setQuantityOnHand(inventory.getQuantityOnHand() + quantity);
             log.info("Added {} to quantity on hand. New total: {}", quantity, inventory.getQuantityOnHand());
         } else if (movementType == StockMovement.MovementType.OUT) {
-            // Check if we have enough stock
-            if (inventory.getQuantityOnHand() < quantity) {
-                throw new RuntimeException("Insufficient stock. Available: " + inventory.getQuantityOnHand() + ", Requested: " + quantity);
+            // Check if we have enough stock; reserved stock leaves only through its reservations
+            int unreserved = inventory.getQuantityOnHand() - inventory.getQuantityReserved();
+            if (unreserved < quantity) {
+                throw new RuntimeException("Insufficient stock. Available: " + unreserved + ", Requested: " + quantity);
             }
             inventory.setQuantityOnHand(inventory.getQuantityOnHand() - quantity);
             log.info("Removed {} from quantity on hand. New total: {}", quantity, inventory.getQuantityOnHand());
@@ -200,6 +309,7 @@ public class StockMovementService {
         
         // Save the updated inventory
         inventoryRepository.save(inventory);
+        inventoryAvailabilityService.invalidate(productId, warehouseId);
         log.info("Inventory updated successfully for product ID: {} and warehouse ID: {}", productId, warehouseId);
     }
     
@@ -220,12 +330,44 @@ public class StockMovementService {
     }
     
     public Integer getTotalQuantityByProductAndMovementType(Long productId, StockMovement.MovementType movementType) {
-        Integer total = stockMovementRepository.getTotalQuantityByProductAndMovementType(productId, movementType);
-        return total != null ? total : 0;
+        return Math.toIntExact(stockMovementSummaryRepository.getTotalQuantityByProductAndMovementType(productId, movementType));
     }
     
     public Integer getTotalQuantityByWarehouseAndMovementType(Long warehouseId, StockMovement.MovementType movementType) {
-        Integer total = stockMovementRepository.getTotalQuantityByWarehouseAndMovementType(warehouseId, movementType);
-        return total != null ? total : 0;
+        return Math.toIntExact(stockMovementSummaryRepository.getTotalQuantityByWarehouseAndMovementType(warehouseId, movementType));
+    }
+    
+    /**
+     * Totals and counts of every movement type for each requested product, read from the maintained
+     * summary table. Covers all warehouses unless warehouseId is given.
+     */
+    public List<ProductMovementSummaryResponse> getMovementSummaries(List<Long> productIds, Long warehouseId) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new RuntimeException("At least one product ID is required");
+        }
+        if (productIds.size() > MAX_SUMMARY_PRODUCTS) {
+            throw new RuntimeException("At most " + MAX_SUMMARY_PRODUCTS + " product IDs can be requested at once");
+        }
+        
+        Map<Long, ProductMovementSummaryResponse> summaries = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            summaries.putIfAbsent(productId, ProductMovementSummaryResponse.empty(productId, warehouseId));
+        }
+        List<MovementTotal> totals = warehouseId != null
+                ? stockMovementSummaryRepository.findTotalsByProductIdInAndWarehouseId(summaries.keySet(), warehouseId)
+                : stockMovementSummaryRepository.findTotalsByProductIdIn(summaries.keySet());
+        for (MovementTotal total : totals) {
+            summaries.get(total.getProductId()).add(total);
+        }
+        return List.copyOf(summaries.values());
+    }
+    
+    // Schemas created by Hibernate start with an empty summary table; build it once from history
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMovementSummaries() {
+        int rows = stockMovementJdbcWriter.backfillSummariesIfEmpty();
+        if (rows > 0) {
+            log.info("Backfilled {} stock movement summary rows from movement history", rows);
+        }
     }
 } 
\ No newline at end of file
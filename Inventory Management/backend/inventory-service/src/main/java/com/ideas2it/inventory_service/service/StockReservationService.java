@@ -0,0 +1,484 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.dto.StockReservationRequest;
+import com.ideas2it.inventory_service.dto.StockReservationResponse;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.entity.StockReservation;
+import com.ideas2it.inventory_service.repository.ProductRepository;
+import com.ideas2it.inventory_service.repository.StockReservationRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import com.ideas2it.inventory_service.util.TimingWheel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Expiring holds on available stock. A reservation adds to inventory.quantity_reserved with one
+ * conditional UPDATE per line that only succeeds while quantity_on_hand - quantity_reserved still
+ * covers it, so concurrent reservations can never over-allocate and need no explicit lock; a request
+ * is all or nothing. Holds end by release, commit (the stock leaves as an OUT movement) or expiry.
+ *
+ * <p>Every state change is a conditional HELD -> X update on stock_reservations, so a hold ends at
+ * most once even when a release, commit and expiry race. Expiry is driven by an in-memory timing
+ * wheel filled as holds are created (and from the table at startup), with a periodic table sweep as
+ * the backstop for holds created on other instances. Inventory rows are always updated in id order,
+ * the same order the transfer and bulk paths lock them in.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+
+    private static final int EXPIRY_BATCH_SIZE = 1000;
+
+    private static final Comparator<InventoryKey> KEY_ORDER = Comparator.comparingLong(InventoryKey::getProductId)
+            .thenComparingLong(InventoryKey::getWarehouseId);
+
+    private static final String FIND_INVENTORY_SQL =
+            "SELECT i.id, i.product_id, i.warehouse_id FROM inventory i " +
+            "JOIN unnest(?::bigint[], ?::bigint[]) AS k(product_id, warehouse_id) " +
+            "ON i.product_id = k.product_id AND i.warehouse_id = k.warehouse_id";
+
+    private static final String RESERVE_SQL =
+            "UPDATE inventory SET quantity_reserved = quantity_reserved + ?, quantity_available = quantity_on_hand - quantity_reserved - ?, " +
+            "low_stock = quantity_on_hand - quantity_reserved - ? <= " + StockMovementJdbcWriter.REORDER_POINT_SQL + ", " +
+            "last_updated_at = ?, updated_at = ?, updated_by = ? WHERE id = ? AND quantity_on_hand - quantity_reserved >= ?";
+
+    private static final String UNRESERVE_SQL =
+            "UPDATE inventory SET quantity_reserved = GREATEST(quantity_reserved - ?, 0), " +
+            "quantity_available = quantity_on_hand - GREATEST(quantity_reserved - ?, 0), " +
+            "low_stock = quantity_on_hand - GREATEST(quantity_reserved - ?, 0) <= " + StockMovementJdbcWriter.REORDER_POINT_SQL + ", " +
+            "last_updated_at = ?, updated_at = ? WHERE id = ?";
+
+    private static final String COMMIT_SQL =
+            "UPDATE inventory SET quantity_on_hand = quantity_on_hand - ?, quantity_reserved = GREATEST(quantity_reserved - ?, 0), " +
+            "quantity_available = quantity_on_hand - ? - GREATEST(quantity_reserved - ?, 0), " +
+            "low_stock = quantity_on_hand - ? - GREATEST(quantity_reserved - ?, 0) <= " + StockMovementJdbcWriter.REORDER_POINT_SQL + ", " +
+            "last_updated_at = ?, updated_at = ?, updated_by = ? WHERE id = ? AND quantity_on_hand >= ?";
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('stock_reservations', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_RESERVATION_SQL =
+            "INSERT INTO stock_reservations (id, inventory_id, product_id, warehouse_id, quantity, status, reference, " +
+            "expires_at, created_at, created_by) VALUES (?, ?, ?, ?, ?, 'HELD', ?, ?, ?, ?)";
+
+    // Locks the holds in id order before ending them; rows no longer HELD once locked are skipped
+    private static final String END_HOLDS_SQL =
+            "UPDATE stock_reservations r SET status = ?, resolved_at = ? FROM (" +
+            "SELECT id FROM stock_reservations WHERE id = ANY(?) AND status = 'HELD' %s ORDER BY id FOR UPDATE) h " +
+            "WHERE r.id = h.id RETURNING r.id, r.inventory_id, r.product_id, r.warehouse_id, r.quantity, r.reference";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final UserRepository userRepository;
+    private final AlertService alertService;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+
+    @Value("${inventory.reservations.default-ttl-seconds:900}")
+    private int defaultTtlSeconds;
+
+    @Value("${inventory.reservations.max-ttl-seconds:86400}")
+    private int maxTtlSeconds;
+
+    @Value("${inventory.reservations.max-lines:1000}")
+    private int maxLines;
+
+    // One turn of the wheel is an hour at the default one-second tick; longer holds wait out extra rounds
+    private final TimingWheel expiryWheel = new TimingWheel(1000, 3600, System.currentTimeMillis());
+
+    public List<StockReservationResponse> reserve(StockReservationRequest request, Long currentUserId) {
+        int ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        log.info("Reserving {} line(s) for {} second(s) (reference: {})", request.getLines().size(), ttlSeconds, request.getReference());
+
+        if (ttlSeconds < 1 || ttlSeconds > maxTtlSeconds) {
+            throw new RuntimeException("TTL must be between 1 and " + maxTtlSeconds + " seconds");
+        }
+        if (request.getLines().size() > maxLines) {
+            throw new RuntimeException("A reservation can have at most " + maxLines + " lines");
+        }
+        for (StockReservationRequest.ReservationLine line : request.getLines()) {
+            if (line.getProductId() == null || line.getWarehouseId() == null) {
+                throw new RuntimeException("Product ID and warehouse ID are required");
+            }
+            if (line.getQuantity() == null || line.getQuantity() < 1) {
+                throw new RuntimeException("Quantity must be greater than 0");
+            }
+        }
+        if (!userRepository.existsById(currentUserId)) {
+            throw new RuntimeException("Current user not found with ID: " + currentUserId);
+        }
+
+        List<StockReservationResponse> reservations = transactionTemplate.execute(status ->
+                createHolds(request.getLines(), request.getReference(), ttlSeconds, currentUserId));
+
+        // Scheduled only once committed; expiry re-checks the row anyway
+        for (StockReservationResponse reservation : reservations) {
+            expiryWheel.schedule(reservation.getId(), toEpochMillis(reservation.getExpiresAt()));
+        }
+        log.info("Reserved {} line(s), expiring at {}", reservations.size(), reservations.get(0).getExpiresAt());
+        return reservations;
+    }
+
+    public StockReservationResponse getReservationById(Long id) {
+        log.info("Fetching reservation with ID: {}", id);
+        return transactionTemplate.execute(status -> stockReservationRepository.findById(id)
+                .map(StockReservationResponse::fromReservation)
+                .orElseThrow(() -> new RuntimeException("Reservation not found with ID: " + id)));
+    }
+
+    public List<StockReservationResponse> getReservationsByReference(String reference) {
+        log.info("Fetching reservations with reference: {}", reference);
+        return transactionTemplate.execute(status -> stockReservationRepository.findByReferenceOrderByIdAsc(reference).stream()
+                .map(StockReservationResponse::fromReservation)
+                .collect(Collectors.toList()));
+    }
+
+    // Ends the holds that are still HELD and returns their IDs; others are left as they are
+    public List<Long> release(List<Long> reservationIds) {
+        log.info("Releasing {} reservation(s)", reservationIds.size());
+        List<Long> released = transactionTemplate.execute(status ->
+                endHolds(reservationIds, StockReservation.ReservationStatus.RELEASED, ""));
+        log.info("Released {} of {} reservation(s)", released.size(), reservationIds.size());
+        return released;
+    }
+
+    /**
+     * Turns the holds into OUT movements of the reserved stock. Fails as a whole if any of them is no
+     * longer held or has passed its expiry.
+     */
+    public List<Long> commit(List<Long> reservationIds, Long currentUserId) {
+        log.info("Committing {} reservation(s)", reservationIds.size());
+        Set<Long> requested = new LinkedHashSet<>(reservationIds);
+        List<Long> committed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EndedHold> holds = lockAndEnd(new ArrayList<>(requested), StockReservation.ReservationStatus.COMMITTED,
+                    "AND expires_at > ?", now);
+            if (holds.size() != requested.size()) {
+                Set<Long> missing = new LinkedHashSet<>(requested);
+                holds.forEach(hold -> missing.remove(hold.getId()));
+                throw new RuntimeException("Reservations are not held or have expired: " + missing);
+            }
+
+            // Inventory rows first, in id order like every other writer, before the cost and lot rows;
+            // the movements are recorded before the rows change, so lots are allocated against the locked on-hand
+            Set<InventoryKey> keys = keysOf(holds);
+            stockMovementJdbcWriter.lockInventory(keys);
+
+            List<StockMovementRequest> movements = new ArrayList<>();
+            for (EndedHold hold : holds) {
+                StockMovementRequest movement = new StockMovementRequest();
+                movement.setProductId(hold.getProductId());
+                movement.setWarehouseId(hold.getWarehouseId());
+                movement.setMovementType(StockMovement.MovementType.OUT);
+                movement.setQuantity(hold.getQuantity());
+                movement.setReferenceType(StockMovement.ReferenceType.SALE_ORDER);
+                movement.setReferenceId(hold.getId());
+                movement.setNotes(hold.getReference() != null ? "Committed reservation for " + hold.getReference() : "Committed reservation");
+                movements.add(movement);
+            }
+            List<Long> movementIds = stockMovementJdbcWriter.allocateMovementIds(movements.size());
+            List<MovementRow> rows = new ArrayList<>(movements.size());
+            for (int m = 0; m < movements.size(); m++) {
+                rows.add(new MovementRow(movementIds.get(m), movements.get(m), currentUserId));
+            }
+            stockMovementJdbcWriter.insertMovements(rows, now);
+            stockMovementJdbcWriter.addToSummaries(movements, now);
+
+            Map<Long, Long> quantities = totalsByInventory(holds);
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(quantities.entrySet());
+            Timestamp timestamp = Timestamp.valueOf(now);
+            int[][] counts = jdbcTemplate.batchUpdate(COMMIT_SQL, entries, entries.size(), (ps, entry) -> {
+                ps.setLong(1, entry.getValue());
+                ps.setLong(2, entry.getValue());
+                ps.setLong(3, entry.getValue());
+                ps.setLong(4, entry.getValue());
+                ps.setLong(5, entry.getValue());
+                ps.setLong(6, entry.getValue());
+                ps.setTimestamp(7, timestamp);
+                ps.setTimestamp(8, timestamp);
+                ps.setLong(9, currentUserId);
+                ps.setLong(10, entry.getKey());
+                ps.setLong(11, entry.getValue());
+            });
+            int i = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    if (count == 0) {
+                        throw new RuntimeException("Insufficient stock on hand to commit reservations for inventory ID: " + entries.get(i).getKey());
+                    }
+                    i++;
+                }
+            }
+
+            inventoryAvailabilityService.invalidate(keys);
+            alertService.evaluateInventoryAlertsByIds(quantities.keySet());
+            return holds.stream().map(EndedHold::getId).collect(Collectors.toList());
+        });
+        log.info("Committed {} reservation(s)", committed.size());
+        return committed;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.expiry-tick-ms:1000}")
+    public void expireDueReservations() {
+        List<Long> due = expiryWheel.advance(System.currentTimeMillis());
+        if (!due.isEmpty()) {
+            expire(due);
+        }
+    }
+
+    // Backstop for holds this instance has not scheduled, e.g. created by another instance
+    @Scheduled(fixedDelayString = "${inventory.reservations.sweep-interval-ms:60000}")
+    public void sweepExpiredReservations() {
+        try {
+            List<Long> due;
+            do {
+                due = jdbcTemplate.queryForList(
+                        "SELECT id FROM stock_reservations WHERE status = 'HELD' AND expires_at <= ? ORDER BY expires_at LIMIT ?",
+                        Long.class, Timestamp.valueOf(LocalDateTime.now()), EXPIRY_BATCH_SIZE);
+                if (!due.isEmpty()) {
+                    expire(due);
+                }
+            } while (due.size() == EXPIRY_BATCH_SIZE);
+        } catch (Exception e) {
+            log.error("Error sweeping expired reservations: {}", e.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleHeldReservations() {
+        jdbcTemplate.query("SELECT id, expires_at FROM stock_reservations WHERE status = 'HELD'", rs -> {
+            expiryWheel.schedule(rs.getLong(1), toEpochMillis(rs.getTimestamp(2).toLocalDateTime()));
+        });
+        if (expiryWheel.size() > 0) {
+            log.info("Scheduled expiry of {} held reservation(s)", expiryWheel.size());
+        }
+    }
+
+    private void expire(List<Long> reservationIds) {
+        for (int from = 0; from < reservationIds.size(); from += EXPIRY_BATCH_SIZE) {
+            List<Long> batch = reservationIds.subList(from, Math.min(reservationIds.size(), from + EXPIRY_BATCH_SIZE));
+            try {
+                List<Long> expired = transactionTemplate.execute(status ->
+                        endHolds(batch, StockReservation.ReservationStatus.EXPIRED, "AND expires_at <= ?", LocalDateTime.now()));
+                if (!expired.isEmpty()) {
+                    log.info("Expired {} reservation(s)", expired.size());
+                }
+            } catch (Exception e) {
+                // Left HELD, so the sweep retries them
+                log.error("Error expiring {} reservation(s): {}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private List<StockReservationResponse> createHolds(List<StockReservationRequest.ReservationLine> lines, String reference,
+                                                       int ttlSeconds, Long currentUserId) {
+        Set<InventoryKey> keys = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> warehouseIds = new HashSet<>();
+        for (StockReservationRequest.ReservationLine line : lines) {
+            keys.add(new InventoryKey(line.getProductId(), line.getWarehouseId()));
+            productIds.add(line.getProductId());
+            warehouseIds.add(line.getWarehouseId());
+        }
+        Set<Long> activeProductIds = new HashSet<>(productRepository.findActiveIdsByIdIn(productIds));
+        Set<Long> activeWarehouseIds = new HashSet<>(warehouseRepository.findActiveIdsByIdIn(warehouseIds));
+        Map<InventoryKey, Long> inventoryIds = findInventoryIds(keys);
+
+        List<PendingHold> holds = new ArrayList<>(lines.size());
+        for (StockReservationRequest.ReservationLine line : lines) {
+            InventoryKey key = new InventoryKey(line.getProductId(), line.getWarehouseId());
+            if (!activeProductIds.contains(line.getProductId())) {
+                throw new RuntimeException("Product not found or inactive with ID: " + line.getProductId());
+            }
+            if (!activeWarehouseIds.contains(line.getWarehouseId())) {
+                throw new RuntimeException("Warehouse not found or inactive with ID: " + line.getWarehouseId());
+            }
+            if (!inventoryIds.containsKey(key)) {
+                throw new RuntimeException("No inventory for product ID: " + line.getProductId() + " in warehouse ID: " + line.getWarehouseId());
+            }
+            holds.add(new PendingHold(inventoryIds.get(key), line));
+        }
+        holds.sort(Comparator.comparingLong(PendingHold::getInventoryId));
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        int[][] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, holds, holds.size(), (ps, hold) -> {
+            ps.setInt(1, hold.getLine().getQuantity());
+            ps.setInt(2, hold.getLine().getQuantity());
+            ps.setInt(3, hold.getLine().getQuantity());
+            ps.setTimestamp(4, timestamp);
+            ps.setTimestamp(5, timestamp);
+            ps.setLong(6, currentUserId);
+            ps.setLong(7, hold.getInventoryId());
+            ps.setInt(8, hold.getLine().getQuantity());
+        });
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    StockReservationRequest.ReservationLine line = holds.get(i).getLine();
+                    throw new RuntimeException("Insufficient available stock for product ID: " + line.getProductId() +
+                            " in warehouse ID: " + line.getWarehouseId() + ". Requested: " + line.getQuantity());
+                }
+                i++;
+            }
+        }
+
+        LocalDateTime expiresAt = now.plusSeconds(ttlSeconds);
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, holds.size());
+        List<StockReservationResponse> reservations = new ArrayList<>(holds.size());
+        for (int h = 0; h < holds.size(); h++) {
+            StockReservationRequest.ReservationLine line = holds.get(h).getLine();
+            reservations.add(new StockReservationResponse(ids.get(h), holds.get(h).getInventoryId(), line.getProductId(),
+                    line.getWarehouseId(), line.getQuantity(), StockReservation.ReservationStatus.HELD, reference, expiresAt, now, null));
+        }
+        Timestamp expiresTimestamp = Timestamp.valueOf(expiresAt);
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, reservations, reservations.size(), (ps, reservation) -> {
+            ps.setLong(1, reservation.getId());
+            ps.setLong(2, reservation.getInventoryId());
+            ps.setLong(3, reservation.getProductId());
+            ps.setLong(4, reservation.getWarehouseId());
+            ps.setInt(5, reservation.getQuantity());
+            ps.setString(6, reference);
+            ps.setTimestamp(7, expiresTimestamp);
+            ps.setTimestamp(8, timestamp);
+            ps.setLong(9, currentUserId);
+        });
+
+        inventoryAvailabilityService.invalidate(keys);
+        alertService.evaluateInventoryAlertsByIds(holds.stream().map(PendingHold::getInventoryId).collect(Collectors.toSet()));
+        return reservations;
+    }
+
+    // Ends the holds matching the extra condition and gives their quantity back to available
+    private List<Long> endHolds(List<Long> reservationIds, StockReservation.ReservationStatus newStatus, String condition,
+                                LocalDateTime... conditionArgs) {
+        LocalDateTime now = LocalDateTime.now();
+        List<EndedHold> holds = lockAndEnd(reservationIds, newStatus, condition, conditionArgs);
+
+        Map<Long, Long> quantities = totalsByInventory(holds);
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(quantities.entrySet());
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UNRESERVE_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, entry.getValue());
+            ps.setLong(3, entry.getValue());
+            ps.setTimestamp(4, timestamp);
+            ps.setTimestamp(5, timestamp);
+            ps.setLong(6, entry.getKey());
+        });
+        inventoryAvailabilityService.invalidate(keysOf(holds));
+        alertService.evaluateInventoryAlertsByIds(quantities.keySet());
+        return holds.stream().map(EndedHold::getId).collect(Collectors.toList());
+    }
+
+    private List<EndedHold> lockAndEnd(List<Long> reservationIds, StockReservation.ReservationStatus newStatus,
+                                       String condition, LocalDateTime... conditionArgs) {
+        if (reservationIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Long[] ids = reservationIds.toArray(new Long[0]);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(String.format(END_HOLDS_SQL, condition));
+            ps.setString(1, newStatus.name());
+            ps.setTimestamp(2, now);
+            ps.setArray(3, connection.createArrayOf("bigint", ids));
+            for (int i = 0; i < conditionArgs.length; i++) {
+                ps.setTimestamp(4 + i, Timestamp.valueOf(conditionArgs[i]));
+            }
+            return ps;
+        }, (rs, rowNum) -> new EndedHold(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getInt(5), rs.getString(6)));
+    }
+
+    private Map<InventoryKey, Long> findInventoryIds(Set<InventoryKey> keys) {
+        Long[] productIds = new Long[keys.size()];
+        Long[] warehouseIds = new Long[keys.size()];
+        int i = 0;
+        for (InventoryKey key : keys) {
+            productIds[i] = key.getProductId();
+            warehouseIds[i] = key.getWarehouseId();
+            i++;
+        }
+        Map<InventoryKey, Long> inventoryIds = new TreeMap<>(KEY_ORDER);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_INVENTORY_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", productIds));
+            ps.setArray(2, connection.createArrayOf("bigint", warehouseIds));
+            return ps;
+        }, rs -> {
+            inventoryIds.put(new InventoryKey(rs.getLong(2), rs.getLong(3)), rs.getLong(1));
+        });
+        return inventoryIds;
+    }
+
+    // Quantity per inventory id, in id order so inventory rows are updated in the same order everywhere
+    private static Map<Long, Long> totalsByInventory(List<EndedHold> holds) {
+        Map<Long, Long> totals = new TreeMap<>();
+        for (EndedHold hold : holds) {
+            totals.merge(hold.getInventoryId(), (long) hold.getQuantity(), Long::sum);
+        }
+        return totals;
+    }
+
+    private static Set<InventoryKey> keysOf(List<EndedHold> holds) {
+        Set<InventoryKey> keys = new HashSet<>();
+        for (EndedHold hold : holds) {
+            keys.add(new InventoryKey(hold.getProductId(), hold.getWarehouseId()));
+        }
+        return keys;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class PendingHold {
+        private long inventoryId;
+        private StockReservationRequest.ReservationLine line;
+    }
+
+    @Data
+    @AllArgsConstructor
+    private static class EndedHold {
+        private long id;
+        private long inventoryId;
+        private long productId;
+        private long warehouseId;
+        private int quantity;
+        private String reference;
+    }
+}
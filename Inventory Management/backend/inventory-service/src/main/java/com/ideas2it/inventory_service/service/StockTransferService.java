@@ -0,0 +1,173 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.StockMovementRequest;
+import com.ideas2it.inventory_service.dto.StockTransferRequest;
+import com.ideas2it.inventory_service.dto.StockTransferResponse;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.entity.StockTransfer;
+import com.ideas2it.inventory_service.entity.User;
+import com.ideas2it.inventory_service.repository.ProductRepository;
+import com.ideas2it.inventory_service.repository.StockTransferRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryDelta;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.InventoryKey;
+import com.ideas2it.inventory_service.service.StockMovementJdbcWriter.MovementRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Moves stock between two warehouses in one transaction. Every source and destination inventory row
+ * of the transfer is locked up front in inventory id order, so concurrent transfers in opposite
+ * directions wait on each other instead of deadlocking. Each line is written to the ledger as an OUT
+ * at the source and an IN at the destination (reference type TRANSFER), which keeps the projection
+ * rebuild, reconciliation and as-of balances consistent with on-hand. Any invalid line or shortfall
+ * fails the whole transfer.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class StockTransferService {
+
+    private static final Comparator<InventoryKey> KEY_ORDER = Comparator.comparingLong(InventoryKey::getProductId)
+            .thenComparingLong(InventoryKey::getWarehouseId);
+
+    private final StockTransferRepository stockTransferRepository;
+    private final ProductRepository productRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final UserRepository userRepository;
+    private final AlertService alertService;
+    private final StockMovementJdbcWriter stockMovementJdbcWriter;
+
+    @Value("${inventory.transfers.max-lines:1000}")
+    private int maxLines;
+
+    public StockTransferResponse createTransfer(StockTransferRequest request, Long currentUserId) {
+        Long sourceId = request.getSourceWarehouseId();
+        Long destinationId = request.getDestinationWarehouseId();
+        log.info("Transferring {} line(s) from warehouse ID: {} to warehouse ID: {}", request.getLines().size(), sourceId, destinationId);
+
+        if (sourceId.equals(destinationId)) {
+            throw new RuntimeException("Source and destination warehouse must be different");
+        }
+        if (request.getLines().size() > maxLines) {
+            throw new RuntimeException("A transfer can have at most " + maxLines + " lines");
+        }
+        List<Long> activeWarehouseIds = warehouseRepository.findActiveIdsByIdIn(List.of(sourceId, destinationId));
+        for (Long warehouseId : List.of(sourceId, destinationId)) {
+            if (!activeWarehouseIds.contains(warehouseId)) {
+                throw new RuntimeException("Warehouse not found or inactive with ID: " + warehouseId);
+            }
+        }
+
+        // Lines for the same product are merged so each inventory row changes once
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (StockTransferRequest.TransferLine line : request.getLines()) {
+            if (line.getProductId() == null) {
+                throw new RuntimeException("Product ID is required");
+            }
+            if (line.getQuantity() == null || line.getQuantity() < 1) {
+                throw new RuntimeException("Quantity must be greater than 0");
+            }
+            quantities.merge(line.getProductId(), line.getQuantity(), Math::addExact);
+        }
+        Set<Long> activeProductIds = new HashSet<>(productRepository.findActiveIdsByIdIn(quantities.keySet()));
+        for (Long productId : quantities.keySet()) {
+            if (!activeProductIds.contains(productId)) {
+                throw new RuntimeException("Product not found or inactive with ID: " + productId);
+            }
+        }
+
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new RuntimeException("Current user not found with ID: " + currentUserId));
+
+        // Source and destination rows are locked together so the lock order is by inventory id across both warehouses
+        Set<InventoryKey> keys = new LinkedHashSet<>();
+        for (Long productId : quantities.keySet()) {
+            keys.add(new InventoryKey(productId, sourceId));
+            keys.add(new InventoryKey(productId, destinationId));
+        }
+        Map<InventoryKey, Integer> onHand = stockMovementJdbcWriter.lockUnreservedInventory(keys);
+
+        // Upserted in key order so rows created by concurrent transfers are also inserted in a consistent order
+        Map<InventoryKey, InventoryDelta> deltas = new TreeMap<>(KEY_ORDER);
+        List<StockMovementRequest> movements = new ArrayList<>();
+        long totalQuantity = 0;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            int available = onHand.getOrDefault(new InventoryKey(productId, sourceId), 0);
+            if (available < quantity) {
+                throw new RuntimeException("Insufficient stock for product ID: " + productId + " in warehouse ID: " + sourceId +
+                        ". Available: " + available + ", Requested: " + quantity);
+            }
+            deltas.put(new InventoryKey(productId, sourceId), new InventoryDelta(-quantity, currentUserId));
+            deltas.put(new InventoryKey(productId, destinationId), new InventoryDelta(quantity, currentUserId));
+            movements.add(transferMovement(productId, sourceId, StockMovement.MovementType.OUT, quantity, request.getNotes()));
+            movements.add(transferMovement(productId, destinationId, StockMovement.MovementType.IN, quantity, request.getNotes()));
+            totalQuantity += quantity;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StockTransfer transfer = new StockTransfer();
+        transfer.setSourceWarehouse(warehouseRepository.getReferenceById(sourceId));
+        transfer.setDestinationWarehouse(warehouseRepository.getReferenceById(destinationId));
+        transfer.setLineCount(quantities.size());
+        transfer.setTotalQuantity(totalQuantity);
+        transfer.setNotes(request.getNotes());
+        transfer.setCreatedAt(now);
+        transfer.setCreatedBy(currentUser);
+        StockTransfer savedTransfer = stockTransferRepository.saveAndFlush(transfer);
+
+        List<Long> movementIds = stockMovementJdbcWriter.allocateMovementIds(movements.size());
+        List<MovementRow> rows = new ArrayList<>(movements.size());
+        for (int i = 0; i < movements.size(); i++) {
+            movements.get(i).setReferenceId(savedTransfer.getId());
+            rows.add(new MovementRow(movementIds.get(i), movements.get(i), currentUserId));
+        }
+        stockMovementJdbcWriter.insertMovements(rows, now);
+        stockMovementJdbcWriter.addToSummaries(movements, now);
+        stockMovementJdbcWriter.upsertInventory(deltas, now);
+        alertService.evaluateInventoryAlertsByIds(stockMovementJdbcWriter.findInventoryIds(deltas.keySet()));
+
+        log.info("Transfer ID: {} moved {} unit(s) of {} product(s) from warehouse ID: {} to warehouse ID: {}",
+                savedTransfer.getId(), totalQuantity, quantities.size(), sourceId, destinationId);
+
+        // Movements were built as OUT/IN pairs in line order
+        List<StockTransferResponse.TransferLineResponse> lines = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            lines.add(new StockTransferResponse.TransferLineResponse(line.getKey(), line.getValue(), movementIds.get(i), movementIds.get(i + 1)));
+            i += 2;
+        }
+        return new StockTransferResponse(savedTransfer.getId(), sourceId, destinationId, savedTransfer.getLineCount(),
+                totalQuantity, savedTransfer.getNotes(), now, lines);
+    }
+
+    private StockMovementRequest transferMovement(Long productId, Long warehouseId, StockMovement.MovementType movementType,
+                                                  int quantity, String notes) {
+        StockMovementRequest movement = new StockMovementRequest();
+        movement.setProductId(productId);
+        movement.setWarehouseId(warehouseId);
+        movement.setMovementType(movementType);
+        movement.setQuantity(quantity);
+        movement.setReferenceType(StockMovement.ReferenceType.TRANSFER);
+        movement.setNotes(notes);
+        return movement;
+    }
+}
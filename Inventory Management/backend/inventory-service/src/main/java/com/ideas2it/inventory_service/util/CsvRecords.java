@@ -0,0 +1,72 @@
+package com.ideas2it.inventory_service.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Line-at-a-time CSV helpers for the streaming imports. A record is one line; fields may be
+ * double-quoted with "" escapes, but quoted line breaks are not supported. Header names are
+ * matched case-insensitively and blank fields read as null.
+ */
+public final class CsvRecords {
+
+    private CsvRecords() {
+    }
+
+    // Maps each lowercased header name to its column index, failing when a required column is missing
+    public static Map<String, Integer> parseHeader(String line, String... required) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = split(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String name : required) {
+            if (!columns.containsKey(name.toLowerCase(Locale.ROOT))) {
+                throw new RuntimeException("CSV header is missing column: " + name);
+            }
+        }
+        return columns;
+    }
+
+    // Trimmed value of the named column, or null when it is absent or blank
+    public static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name.toLowerCase(Locale.ROOT));
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Splits one CSV record, honouring double-quoted fields with "" escapes
+    public static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ideas2it.inventory_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes the (sortKey, id) position of the last row on a page into an opaque cursor string
+ * and back. The encoding is an implementation detail; clients must treat cursors as tokens.
+ */
+public final class CursorCodec {
+    
+    private static final char SEPARATOR = '|';
+    
+    private CursorCodec() {
+    }
+    
+    public static String encode(LocalDateTime sortKey, Long id) {
+        return encode(sortKey.toString(), id);
+    }
+    
+    public static String encode(LocalDate sortKey, Long id) {
+        return encode(sortKey.toString(), id);
+    }
+    
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return new Cursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    private static String encode(String sortKey, Long id) {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static final class Cursor {
+        private final String sortKey;
+        private final Long id;
+        
+        private Cursor(String sortKey, Long id) {
+            this.sortKey = sortKey;
+            this.id = id;
+        }
+        
+        public LocalDateTime getDateTime() {
+            try {
+                return LocalDateTime.parse(sortKey);
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid cursor position: " + sortKey);
+            }
+        }
+        
+        public LocalDate getDate() {
+            try {
+                return LocalDate.parse(sortKey);
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid cursor position: " + sortKey);
+            }
+        }
+        
+        public Long getId() { return id; }
+    }
+}
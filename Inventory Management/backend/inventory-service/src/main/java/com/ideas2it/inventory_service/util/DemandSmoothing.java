@@ -0,0 +1,60 @@
+package com.ideas2it.inventory_service.util;
+
+/**
+ * Simple exponential smoothing of a daily demand series, fed one day at a time so a forecast run
+ * can stream each series out of an ordered query without holding it. The level after the last day
+ * is the forecast daily demand; the deviation is the root mean square of the one-step-ahead
+ * forecast errors, which is the spread safety stock is sized against. Not thread-safe; reset it
+ * between series.
+ */
+public class DemandSmoothing {
+
+    private final double alpha;
+    private int days;
+    private double level;
+    private double squaredErrors;
+
+    public DemandSmoothing(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Smoothing factor must be in (0, 1], got " + alpha);
+        }
+        this.alpha = alpha;
+    }
+
+    // The first day seeds the level; every later day is forecast by the level before it
+    public void add(double demand) {
+        if (days == 0) {
+            level = demand;
+        } else {
+            double error = demand - level;
+            squaredErrors += error * error;
+            level += alpha * error;
+        }
+        days++;
+    }
+
+    // Adds count days without demand
+    public void addZeros(int count) {
+        for (int i = 0; i < count; i++) {
+            add(0);
+        }
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public double getDeviation() {
+        return days > 1 ? Math.sqrt(squaredErrors / (days - 1)) : 0;
+    }
+
+    public void reset() {
+        days = 0;
+        level = 0;
+        squaredErrors = 0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ideas2it.inventory_service.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes export rows as CSV (with a header line) or NDJSON (one object per line) straight to an
+ * output stream, optionally gzip-compressed on the way. Nothing is retained per row, so memory
+ * stays constant however many rows are written. Values are numbers, booleans, strings, JDBC
+ * timestamps or nulls; anything else is written as its string form. Not thread-safe.
+ */
+public class ExportWriter implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String[] columns;
+    private final GZIPOutputStream gzip;
+    private final Writer csv;
+    private final JsonGenerator json;
+    private long rowCount;
+
+    private ExportWriter(OutputStream out, Format format, boolean compress, String[] columns) throws IOException {
+        this.columns = columns;
+        this.gzip = compress ? new GZIPOutputStream(out, 8192) : null;
+        OutputStream target = gzip != null ? gzip : out;
+        if (format == Format.CSV) {
+            this.csv = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 8192);
+            this.json = null;
+            writeCsvRow(columns);
+        } else {
+            this.csv = null;
+            this.json = JSON_FACTORY.createGenerator(target);
+            this.json.setRootValueSeparator(null);
+        }
+    }
+
+    public static ExportWriter open(OutputStream out, Format format, boolean compress, String... columns) throws IOException {
+        return new ExportWriter(out, format, compress, columns);
+    }
+
+    // Values in column order
+    public void writeRow(Object... values) throws IOException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values but got " + values.length);
+        }
+        if (csv != null) {
+            writeCsvRow(values);
+        } else {
+            json.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                json.writeFieldName(columns[i]);
+                writeJsonValue(values[i]);
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    // Flushes everything written and ends the gzip stream; the underlying stream is left open
+    @Override
+    public void close() throws IOException {
+        if (csv != null) {
+            csv.flush();
+        } else {
+            json.flush();
+        }
+        if (gzip != null) {
+            gzip.finish();
+            gzip.flush();
+        }
+    }
+
+    // True when an Accept-Encoding header value allows a gzip response
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if ((parts[0].equals("gzip") || parts[0].equals("*")) && !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeCsvRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            Object value = normalize(values[i]);
+            if (value != null) {
+                String text = value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    csv.write('"');
+                    csv.write(text.replace("\"", "\"\""));
+                    csv.write('"');
+                } else {
+                    csv.write(text);
+                }
+            }
+        }
+        csv.write('\n');
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        Object normalized = normalize(value);
+        if (normalized == null) {
+            json.writeNull();
+        } else if (normalized instanceof Number || normalized instanceof Boolean) {
+            json.writeObject(normalized);
+        } else {
+            json.writeString(normalized.toString());
+        }
+    }
+
+    // Timestamps as ISO local date-times, like the JSON endpoints
+    private static Object normalize(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime();
+        }
+        return value;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported export format: " + name + " (expected csv or ndjson)");
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.ideas2it.inventory_service.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequenced in-memory queue drained by a single writer thread in group commits: a batch is written
+ * once it holds maxBatchSize items or its oldest item has waited maxDelayMillis, whichever comes first.
+ *
+ * <p>Durability contract: an item's future completes only after the {@link BatchWriter} has returned,
+ * i.e. after the batch's transaction committed. A crash can therefore lose queued or in-flight items,
+ * but never one whose future already completed. Batches are written one at a time in submission
+ * (sequence) order, so nothing queued after the batch in flight at the crash has been written. A batch
+ * that committed just before the crash but whose futures were not completed looks lost to its callers,
+ * so a caller retrying after a failure must check whether the first attempt was applied.
+ */
+@Slf4j
+public class GroupCommitQueue<T, R> {
+
+    /**
+     * Writes one batch atomically and returns one outcome per item, in order. Throwing fails every
+     * item in the batch.
+     */
+    @FunctionalInterface
+    public interface BatchWriter<T, R> {
+        List<Outcome<R>> write(List<T> batch);
+    }
+
+    private final BlockingQueue<Pending<T, R>> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BatchWriter<T, R> batchWriter;
+    private final Thread writer;
+    private final Object submitLock = new Object();
+
+    private long nextSequence = 1;
+    private volatile long lastCommittedSequence;
+    private volatile boolean accepting = true;
+    private volatile boolean halted;
+
+    public GroupCommitQueue(String name, int capacity, int maxBatchSize, long maxDelayMillis, BatchWriter<T, R> batchWriter) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.batchWriter = batchWriter;
+        this.writer = new Thread(this::run, name);
+        this.writer.setDaemon(true);
+    }
+
+    public void start() {
+        writer.start();
+    }
+
+    // Fails fast when the queue is full so callers see back-pressure instead of piling up
+    public CompletableFuture<R> submit(T item) {
+        synchronized (submitLock) {
+            if (!accepting) {
+                throw new IllegalStateException("Group commit queue is shut down");
+            }
+            Pending<T, R> pending = new Pending<>(nextSequence, item);
+            if (!queue.offer(pending)) {
+                throw new IllegalStateException("Group commit queue is full");
+            }
+            nextSequence++;
+            return pending.future;
+        }
+    }
+
+    // Sequence number of the last item whose batch committed
+    public long getLastCommittedSequence() {
+        return lastCommittedSequence;
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    /**
+     * Stops accepting items, writes everything already queued and waits for the writer to finish.
+     */
+    public void close() throws InterruptedException {
+        synchronized (submitLock) {
+            accepting = false;
+        }
+        writer.join();
+    }
+
+    /**
+     * Simulates a crash: the writer stops immediately without writing queued items or completing the
+     * futures of the batch in flight.
+     */
+    void halt() throws InterruptedException {
+        synchronized (submitLock) {
+            accepting = false;
+            halted = true;
+        }
+        writer.interrupt();
+        writer.join();
+    }
+
+    private void run() {
+        List<Pending<T, R>> batch = new ArrayList<>(maxBatchSize);
+        try {
+            while (!halted && (accepting || !queue.isEmpty())) {
+                Pending<T, R> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = first.enqueuedAt + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T, R> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<Pending<T, R>> batch) {
+        List<T> items = new ArrayList<>(batch.size());
+        for (Pending<T, R> pending : batch) {
+            items.add(pending.item);
+        }
+
+        List<Outcome<R>> outcomes;
+        try {
+            outcomes = batchWriter.write(items);
+        } catch (RuntimeException e) {
+            if (halted) {
+                return;
+            }
+            log.error("Group commit of {} item(s) failed: {}", batch.size(), e.getMessage());
+            for (Pending<T, R> pending : batch) {
+                pending.future.completeExceptionally(e);
+            }
+            return;
+        }
+        if (halted) {
+            return;
+        }
+
+        lastCommittedSequence = batch.get(batch.size() - 1).sequence;
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome<R> outcome = outcomes.get(i);
+            if (outcome.error != null) {
+                batch.get(i).future.completeExceptionally(outcome.error);
+            } else {
+                batch.get(i).future.complete(outcome.value);
+            }
+        }
+    }
+
+    /**
+     * Result for one item of a committed batch: either a value or a rejection that did not prevent
+     * the rest of the batch from committing.
+     */
+    public static final class Outcome<R> {
+        private final R value;
+        private final RuntimeException error;
+
+        private Outcome(R value, RuntimeException error) {
+            this.value = value;
+            this.error = error;
+        }
+
+        public static <R> Outcome<R> success(R value) {
+            return new Outcome<>(value, null);
+        }
+
+        public static <R> Outcome<R> rejected(RuntimeException error) {
+            return new Outcome<>(null, error);
+        }
+    }
+
+    private static final class Pending<T, R> {
+        private final long sequence;
+        private final T item;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private Pending(long sequence, T item) {
+            this.sequence = sequence;
+            this.item = item;
+        }
+    }
+}
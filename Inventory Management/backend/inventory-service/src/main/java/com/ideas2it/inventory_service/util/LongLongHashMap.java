@@ -0,0 +1,128 @@
+package com.ideas2it.inventory_service.util;
+
+/**
+ * Open-addressing hash map from long to long without boxing, for tallying millions of values by id.
+ * Missing keys read as 0. Not thread-safe.
+ */
+public class LongLongHashMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    // Key 0 marks a free slot, so an entry for key 0 is kept outside the table
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    public long get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int slot = find(keys, key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return keys[find(keys, key)] == key;
+    }
+
+    public void put(long key, long value) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int slot = find(keys, key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        ensureCapacity();
+    }
+
+    // Adds delta to the value for key (0 if absent) and returns the new value
+    public long addTo(long key, long delta) {
+        if (key == 0) {
+            hasZeroKey = true;
+            zeroValue += delta;
+            return zeroValue;
+        }
+        int slot = find(keys, key);
+        if (keys[slot] != key) {
+            keys[slot] = key;
+            values[slot] = delta;
+            size++;
+            ensureCapacity();
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Slot holding key, or the free slot where it would go
+    private static int find(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = mix(key) & mask;
+        while (table[slot] != 0 && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void ensureCapacity() {
+        if (size <= keys.length * LOAD_FACTOR) {
+            return;
+        }
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length << 1];
+        values = new long[oldValues.length << 1];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
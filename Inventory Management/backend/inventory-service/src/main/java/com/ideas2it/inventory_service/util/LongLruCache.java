@@ -0,0 +1,156 @@
+package com.ideas2it.inventory_service.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded LRU cache keyed by a long. Entries are spread over independently locked segments, each
+ * evicting its least recently used entry once full, so concurrent readers rarely contend. Loads run
+ * outside the lock; a load that overlaps an invalidation of its segment is returned but not cached,
+ * so a value read before a write committed cannot outlive the invalidation for that write.
+ * Thread-safe.
+ */
+public class LongLruCache<V> {
+
+    private final Segment<V>[] segments;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // A ttlMillis of 0 keeps entries until they are evicted or invalidated
+    public LongLruCache(int maxEntries, int segmentCount, long ttlMillis) {
+        int count = Integer.highestOneBit(Math.max(1, segmentCount) * 2 - 1);
+        int perSegment = Math.max(1, (maxEntries + count - 1) / count);
+        this.segments = newSegments(count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment, evictions);
+        }
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    // Returns the cached value or loads it; null values are never cached
+    public V get(long key, LongFunction<V> loader) {
+        Segment<V> segment = segmentFor(key);
+        long generation;
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry != null) {
+                if (ttlNanos == 0 || System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.value;
+                }
+                segment.remove(key);
+            }
+            generation = segment.generation;
+        }
+        misses.increment();
+
+        long loadedAt = System.nanoTime();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (segment) {
+                if (segment.generation == generation) {
+                    segment.put(key, new Entry<>(value, loadedAt));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(long key) {
+        Segment<V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.generation++;
+            if (segment.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                segment.generation++;
+                invalidations.add(segment.size());
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long invalidations() {
+        return invalidations.sum();
+    }
+
+    // Generic arrays cannot be created directly; the constructor fills every slot with a Segment<V>
+    @SuppressWarnings("unchecked")
+    private static <V> Segment<V>[] newSegments(int count) {
+        return (Segment<V>[]) new Segment<?>[count];
+    }
+
+    private Segment<V> segmentFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return segments[(int) (h ^ (h >>> 32)) & (segments.length - 1)];
+    }
+
+    private static class Segment<V> extends LinkedHashMap<Long, Entry<V>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final LongAdder evictions;
+        // Bumped by every invalidation so loads that started before it are not cached
+        private long generation;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final V value;
+        private final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ideas2it.inventory_service.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hashed timing wheel of long ids with deadlines. Scheduling is O(1), and each call to advance only
+ * visits the slots for the ticks that have passed, so millions of pending deadlines cost nothing
+ * until they fall due. Deadlines further out than one turn of the wheel wait in their slot for the
+ * later rounds. Thread-safe.
+ */
+public class TimingWheel {
+
+    private final long tickMillis;
+    private final long[][] ids;
+    private final long[][] deadlines;
+    private final int[] sizes;
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int slotCount, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.ids = new long[slotCount][];
+        this.deadlines = new long[slotCount][];
+        this.sizes = new int[slotCount];
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    // Deadlines already past are returned by the next advance
+    public synchronized void schedule(long id, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick);
+        int slot = (int) (tick % sizes.length);
+        if (ids[slot] == null) {
+            ids[slot] = new long[8];
+            deadlines[slot] = new long[8];
+        } else if (sizes[slot] == ids[slot].length) {
+            ids[slot] = Arrays.copyOf(ids[slot], sizes[slot] * 2);
+            deadlines[slot] = Arrays.copyOf(deadlines[slot], sizes[slot] * 2);
+        }
+        ids[slot][sizes[slot]] = id;
+        deadlines[slot][sizes[slot]] = deadlineMillis;
+        sizes[slot]++;
+        size++;
+    }
+
+    // Removes and returns the ids whose deadline is at or before nowMillis
+    public synchronized List<Long> advance(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        // After a long pause one pass over every slot is enough
+        long firstTick = Math.max(currentTick, targetTick - sizes.length + 1);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            collectDue((int) (tick % sizes.length), nowMillis, due);
+        }
+        currentTick = targetTick;
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void collectDue(int slot, long nowMillis, List<Long> due) {
+        int kept = 0;
+        for (int i = 0; i < sizes[slot]; i++) {
+            if (deadlines[slot][i] <= nowMillis) {
+                due.add(ids[slot][i]);
+            } else {
+                ids[slot][kept] = ids[slot][i];
+                deadlines[slot][kept] = deadlines[slot][i];
+                kept++;
+            }
+        }
+        size -= sizes[slot] - kept;
+        sizes[slot] = kept;
+    }
+}
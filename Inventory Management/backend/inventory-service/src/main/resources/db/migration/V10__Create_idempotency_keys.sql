@@ -0,0 +1,15 @@
+-- Stored responses for requests sent with an Idempotency-Key header (see IdempotencyService).
+-- The key row is inserted in the same transaction as the write it guards, so a retry either
+-- waits for and replays the committed response or finds no row because the first attempt rolled back.
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL UNIQUE,
+    operation VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_status INTEGER,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,22 @@
+-- Running movement totals per (product, warehouse, movement type). Maintained by the application
+-- in the same transaction as each stock_movements insert (see StockMovementJdbcWriter).
+CREATE TABLE IF NOT EXISTS stock_movement_summaries (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    movement_type VARCHAR(20) NOT NULL,
+    total_quantity BIGINT NOT NULL DEFAULT 0,
+    movement_count BIGINT NOT NULL DEFAULT 0,
+    last_movement_at TIMESTAMP,
+    UNIQUE (product_id, warehouse_id, movement_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movement_summaries_warehouse_type
+    ON stock_movement_summaries(warehouse_id, movement_type);
+
+-- Backfill from existing history
+INSERT INTO stock_movement_summaries (product_id, warehouse_id, movement_type, total_quantity, movement_count, last_movement_at)
+SELECT product_id, warehouse_id, movement_type, SUM(quantity), COUNT(*), MAX(movement_date)
+FROM stock_movements
+GROUP BY product_id, warehouse_id, movement_type
+ON CONFLICT (product_id, warehouse_id, movement_type) DO NOTHING;
@@ -0,0 +1,16 @@
+-- Periodic balance checkpoints of the stock movement ledger, used to answer as-of queries with
+-- one checkpoint read plus at most one interval of movements (see InventorySnapshotService).
+CREATE TABLE IF NOT EXISTS inventory_snapshots (
+    id BIGSERIAL PRIMARY KEY,
+    snapshot_at TIMESTAMP NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    quantity_on_hand BIGINT NOT NULL,
+    UNIQUE (snapshot_at, warehouse_id, product_id)
+);
+
+CREATE TABLE IF NOT EXISTS inventory_snapshot_runs (
+    snapshot_at TIMESTAMP PRIMARY KEY,
+    row_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,24 @@
+-- Compaction of aged stock movement history (see StockMovementCompactionService): months older
+-- than the retention horizon are written to compressed archive files and replaced by daily totals.
+CREATE TABLE IF NOT EXISTS stock_movement_daily_rollups (
+    id BIGSERIAL PRIMARY KEY,
+    movement_day DATE NOT NULL,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    movement_type VARCHAR(20) NOT NULL,
+    total_quantity BIGINT NOT NULL,
+    movement_count BIGINT NOT NULL,
+    reference_keys TEXT,
+    UNIQUE (movement_day, product_id, warehouse_id, movement_type)
+);
+
+CREATE TABLE IF NOT EXISTS stock_movement_archives (
+    id BIGSERIAL PRIMARY KEY,
+    period_start DATE NOT NULL UNIQUE,
+    period_end DATE NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    row_count BIGINT NOT NULL,
+    checksum VARCHAR(64) NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    restored_at TIMESTAMP
+);
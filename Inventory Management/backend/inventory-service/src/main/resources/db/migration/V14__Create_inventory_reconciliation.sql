@@ -0,0 +1,29 @@
+-- Nightly reconciliation of inventory on-hand against the stock movement ledger (see
+-- InventoryReconciliationService): one row per run, plus one drift row per mismatched inventory row.
+CREATE TABLE IF NOT EXISTS inventory_reconciliation_runs (
+    id BIGSERIAL PRIMARY KEY,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    status VARCHAR(20) NOT NULL,
+    warehouses_checked INTEGER NOT NULL DEFAULT 0,
+    inventory_rows_checked BIGINT NOT NULL DEFAULT 0,
+    movements_replayed BIGINT NOT NULL DEFAULT 0,
+    drift_count BIGINT NOT NULL DEFAULT 0,
+    alerts_raised INTEGER NOT NULL DEFAULT 0,
+    error_message TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_reconciliation_runs_started_at ON inventory_reconciliation_runs(started_at DESC);
+
+CREATE TABLE IF NOT EXISTS inventory_drift_reports (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL REFERENCES inventory_reconciliation_runs(id) ON DELETE CASCADE,
+    inventory_id BIGINT,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    inventory_quantity BIGINT,
+    ledger_quantity BIGINT NOT NULL,
+    difference BIGINT NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_inventory_drift_reports_run ON inventory_drift_reports(run_id, warehouse_id, product_id);
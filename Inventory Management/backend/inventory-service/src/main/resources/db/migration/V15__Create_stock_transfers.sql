@@ -0,0 +1,16 @@
+-- Warehouse-to-warehouse transfers (see StockTransferService). The quantities themselves live in
+-- stock_movements as OUT/IN pairs with reference_type TRANSFER and reference_id = stock_transfers.id.
+CREATE TABLE IF NOT EXISTS stock_transfers (
+    id BIGSERIAL PRIMARY KEY,
+    source_warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    destination_warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    line_count INTEGER NOT NULL,
+    total_quantity BIGINT NOT NULL,
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    created_by BIGINT NOT NULL REFERENCES users(id),
+    CHECK (source_warehouse_id <> destination_warehouse_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_transfers_source_created_at ON stock_transfers(source_warehouse_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_transfers_destination_created_at ON stock_transfers(destination_warehouse_id, created_at DESC);
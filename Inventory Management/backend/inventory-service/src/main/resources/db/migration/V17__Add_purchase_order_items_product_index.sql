@@ -0,0 +1,3 @@
+-- Purchase order items: open inbound quantities by product (see AvailableToPromiseService)
+CREATE INDEX IF NOT EXISTS idx_purchase_order_items_product
+    ON purchase_order_items(product_id);
@@ -0,0 +1,10 @@
+-- Inventory: low stock flag maintained by every inventory write, so the low stock list and count
+-- read only the flagged rows instead of joining every inventory row to products
+ALTER TABLE inventory ADD COLUMN IF NOT EXISTS low_stock BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE inventory i SET low_stock = (i.quantity_available <= p.reorder_point)
+FROM products p
+WHERE p.id = i.product_id;
+
+CREATE INDEX IF NOT EXISTS idx_inventory_low_stock
+    ON inventory(product_id) WHERE low_stock;
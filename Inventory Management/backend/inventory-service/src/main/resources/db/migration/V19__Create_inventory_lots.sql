@@ -0,0 +1,32 @@
+-- Lot sub-ledger under inventory (see InventoryLotJdbcWriter). A row's lots are part of its
+-- quantity_on_hand; OUT movements allocate from them first-expiry-first-out.
+CREATE TABLE IF NOT EXISTS inventory_lots (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    lot_number VARCHAR(50) NOT NULL,
+    expiry_date DATE NOT NULL,
+    quantity INTEGER NOT NULL DEFAULT 0 CHECK (quantity >= 0),
+    received_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_inventory_lots_lot UNIQUE (product_id, warehouse_id, lot_number)
+);
+
+-- FEFO order per (product, warehouse): allocation reads a few entries from the front of this range
+CREATE INDEX IF NOT EXISTS idx_inventory_lots_fefo
+    ON inventory_lots(product_id, warehouse_id, expiry_date, id) WHERE quantity > 0;
+
+-- Expiry sweeps and expiring-soon listings are range scans on this
+CREATE INDEX IF NOT EXISTS idx_inventory_lots_expiry
+    ON inventory_lots(expiry_date, id) WHERE quantity > 0;
+
+-- Which lots each movement went into or came out of; stock_movements is partitioned, so no foreign key
+CREATE TABLE IF NOT EXISTS stock_movement_lots (
+    id BIGSERIAL PRIMARY KEY,
+    movement_id BIGINT NOT NULL,
+    lot_id BIGINT NOT NULL REFERENCES inventory_lots(id),
+    quantity INTEGER NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movement_lots_movement_id ON stock_movement_lots(movement_id);
+CREATE INDEX IF NOT EXISTS idx_stock_movement_lots_lot_id ON stock_movement_lots(lot_id);
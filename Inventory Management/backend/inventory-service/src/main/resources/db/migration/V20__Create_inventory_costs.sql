@@ -0,0 +1,16 @@
+-- Moving-average cost per inventory row (see InventoryCostJdbcWriter). Valuation is
+-- inventory.quantity_on_hand * average_cost, so it never replays receipt history.
+CREATE TABLE IF NOT EXISTS inventory_costs (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    average_cost NUMERIC(14,4),
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_inventory_costs_product_warehouse UNIQUE (product_id, warehouse_id)
+);
+
+-- Unit cost of each movement: the receipt cost of an IN, the average cost it left at for an OUT (its COGS)
+ALTER TABLE stock_movements ADD COLUMN IF NOT EXISTS unit_cost NUMERIC(14,4);
+
+-- Compacted months keep their cost of goods (transfers excluded) in the daily rollups
+ALTER TABLE stock_movement_daily_rollups ADD COLUMN IF NOT EXISTS cost_of_goods NUMERIC(18,4);
@@ -0,0 +1,6 @@
+-- ABC/XYZ classes written by ProductClassificationService: ABC by share of consumption value,
+-- XYZ by variability of weekly demand. Product and inventory lists filter on them.
+ALTER TABLE products ADD COLUMN IF NOT EXISTS abc_class VARCHAR(1);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS xyz_class VARCHAR(1);
+
+CREATE INDEX IF NOT EXISTS idx_products_classification ON products(abc_class, xyz_class);
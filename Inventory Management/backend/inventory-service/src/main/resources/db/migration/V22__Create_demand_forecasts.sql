@@ -0,0 +1,16 @@
+-- Demand forecast per inventory row (see DemandForecastService): smoothed daily demand, its
+-- deviation, the observed lead time and the safety stock and reorder point suggested from them.
+CREATE TABLE IF NOT EXISTS demand_forecasts (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    average_daily_demand NUMERIC(12,4) NOT NULL,
+    demand_deviation NUMERIC(12,4) NOT NULL,
+    lead_time_days NUMERIC(8,2) NOT NULL,
+    safety_stock INTEGER NOT NULL,
+    reorder_point INTEGER NOT NULL,
+    computed_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_demand_forecasts_product_warehouse UNIQUE (product_id, warehouse_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_demand_forecasts_warehouse ON demand_forecasts(warehouse_id, product_id);
@@ -0,0 +1,43 @@
+-- Opening balances for inventory rows that predate the stock movement ledger: one ADJUSTMENT IN or
+-- OUT per row for quantity_on_hand minus the ledger net, so as-of balances, reconciliation and
+-- repair see that stock. They are not movements, so stock_movement_summaries are left alone (the
+-- summary backfill skips them too, by their notes and missing created_by). A row in
+-- inventory_opening_balance_runs marks it as done; repair and reconciliation wait for it.
+CREATE TABLE IF NOT EXISTS inventory_opening_balance_runs (
+    id BIGSERIAL PRIMARY KEY,
+    movement_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Dated when the row was created, but never inside a month whose archive is still out
+CREATE TEMP TABLE opening_balances AS
+SELECT i.id AS inventory_id, i.product_id, i.warehouse_id,
+       i.quantity_on_hand - COALESCE(l.net, 0) AS delta,
+       GREATEST(COALESCE(i.created_at, LOCALTIMESTAMP),
+                (SELECT CAST(MAX(period_end) AS TIMESTAMP) FROM stock_movement_archives WHERE restored_at IS NULL)) AS movement_date
+FROM inventory i
+LEFT JOIN (
+    SELECT product_id, warehouse_id,
+           SUM(CASE movement_type WHEN 'IN' THEN quantity WHEN 'OUT' THEN -quantity ELSE 0 END) AS net
+    FROM (SELECT product_id, warehouse_id, movement_type, quantity FROM stock_movements
+          UNION ALL
+          SELECT product_id, warehouse_id, movement_type, total_quantity FROM stock_movement_daily_rollups) m
+    GROUP BY product_id, warehouse_id
+) l ON l.product_id = i.product_id AND l.warehouse_id = i.warehouse_id
+WHERE NOT EXISTS (SELECT 1 FROM inventory_opening_balance_runs)
+  AND i.quantity_on_hand <> COALESCE(l.net, 0);
+
+INSERT INTO stock_movements (product_id, warehouse_id, movement_type, quantity, reference_type, reference_id, notes, movement_date, created_at)
+SELECT product_id, warehouse_id, CASE WHEN delta > 0 THEN 'IN' ELSE 'OUT' END, ABS(delta), 'ADJUSTMENT', inventory_id,
+       'Opening balance before ledger', movement_date, LOCALTIMESTAMP
+FROM opening_balances;
+
+-- Checkpoints after the earliest opening balance no longer match the ledger; they are rebuilt on the next run
+DELETE FROM inventory_snapshots WHERE snapshot_at > (SELECT MIN(movement_date) FROM opening_balances);
+DELETE FROM inventory_snapshot_runs WHERE snapshot_at > (SELECT MIN(movement_date) FROM opening_balances);
+
+INSERT INTO inventory_opening_balance_runs (movement_count, created_at)
+SELECT COUNT(*), LOCALTIMESTAMP FROM opening_balances
+WHERE NOT EXISTS (SELECT 1 FROM inventory_opening_balance_runs);
+
+DROP TABLE opening_balances;
@@ -0,0 +1,19 @@
+-- An Idempotency-Key is unique per operation rather than globally, so the same key sent to two
+-- different endpoints guards two writes instead of replaying the first one's response.
+-- The old unique constraint on the key alone is named idempotency_keys_idempotency_key_key by V1 and
+-- UK<hash> on schemas created by Hibernate, so it is found by its column
+DO $$
+DECLARE
+    c TEXT;
+BEGIN
+    FOR c IN
+        SELECT conname FROM pg_constraint
+        WHERE conrelid = 'idempotency_keys'::regclass AND contype = 'u'
+          AND conkey = ARRAY[(SELECT attnum FROM pg_attribute
+                              WHERE attrelid = 'idempotency_keys'::regclass AND attname = 'idempotency_key')]
+    LOOP
+        EXECUTE format('ALTER TABLE idempotency_keys DROP CONSTRAINT %I', c);
+    END LOOP;
+END $$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_idempotency_keys_operation_key ON idempotency_keys(operation, idempotency_key);
@@ -0,0 +1,77 @@
+-- Composite indexes aligned with the derived queries in AlertRepository,
+-- StockMovementRepository and PurchaseOrderRepository
+
+-- Bring the alerts table in line with the Alert entity so the indexes below
+-- can reference the columns the repository actually filters on
+ALTER TABLE alerts ADD COLUMN IF NOT EXISTS reference_type VARCHAR(50);
+ALTER TABLE alerts ADD COLUMN IF NOT EXISTS reference_id BIGINT;
+ALTER TABLE alerts ADD COLUMN IF NOT EXISTS status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE';
+ALTER TABLE alerts ADD COLUMN IF NOT EXISTS priority VARCHAR(20) NOT NULL DEFAULT 'NORMAL';
+ALTER TABLE alerts ADD COLUMN IF NOT EXISTS triggered_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- is_acknowledged is not used by the entity and alert_type alone is superseded below
+DROP INDEX IF EXISTS idx_alerts_is_acknowledged;
+DROP INDEX IF EXISTS idx_alerts_alert_type;
+
+-- Alerts: duplicate checks and auto-resolve lookups
+-- (findByReferenceTypeAndReferenceId[AndAlertType][AndStatus]OrderByTriggeredAtDesc)
+CREATE INDEX IF NOT EXISTS idx_alerts_reference_type_status
+    ON alerts(reference_type, reference_id, alert_type, status);
+
+-- Alerts: status listings and counts (findByStatusOrderByTriggeredAtDesc, countByStatus, unresolved)
+CREATE INDEX IF NOT EXISTS idx_alerts_status_triggered_at
+    ON alerts(status, triggered_at DESC);
+
+-- Alerts: type listings and counts (findByAlertType[AndStatus]OrderByTriggeredAtDesc, type + date range)
+CREATE INDEX IF NOT EXISTS idx_alerts_alert_type_triggered_at
+    ON alerts(alert_type, triggered_at DESC);
+
+-- Alerts: severity and priority listings, counts and critical/urgent views
+CREATE INDEX IF NOT EXISTS idx_alerts_severity_status_triggered_at
+    ON alerts(severity, status, triggered_at DESC);
+CREATE INDEX IF NOT EXISTS idx_alerts_priority_status_triggered_at
+    ON alerts(priority, status, triggered_at DESC);
+
+-- Alerts: paged feed, recent alerts and date ranges (findAllByOrderByTriggeredAtDesc, findRecentAlerts)
+CREATE INDEX IF NOT EXISTS idx_alerts_triggered_at
+    ON alerts(triggered_at DESC);
+
+-- Stock movements: per-product history ordered by date (replaces idx_stock_movements_product_id)
+DROP INDEX IF EXISTS idx_stock_movements_product_id;
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_movement_date
+    ON stock_movements(product_id, movement_date DESC);
+
+-- Stock movements: per-warehouse history and date ranges
+CREATE INDEX IF NOT EXISTS idx_stock_movements_warehouse_movement_date
+    ON stock_movements(warehouse_id, movement_date DESC);
+
+-- Stock movements: product + warehouse history
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_warehouse_movement_date
+    ON stock_movements(product_id, warehouse_id, movement_date DESC);
+
+-- Stock movements: movement type listings
+CREATE INDEX IF NOT EXISTS idx_stock_movements_movement_type_movement_date
+    ON stock_movements(movement_type, movement_date DESC);
+
+-- Stock movements: lookups by originating document
+CREATE INDEX IF NOT EXISTS idx_stock_movements_reference
+    ON stock_movements(reference_type, reference_id);
+
+-- Purchase orders: supplier and warehouse listings and date ranges
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_supplier_order_date
+    ON purchase_orders(supplier_id, order_date DESC);
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_warehouse_order_date
+    ON purchase_orders(warehouse_id, order_date DESC);
+
+-- Purchase orders: status listings (replaces idx_purchase_orders_status)
+DROP INDEX IF EXISTS idx_purchase_orders_status;
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_status_order_date
+    ON purchase_orders(status, order_date DESC);
+
+-- Purchase orders: due/overdue scans (findByStatusAndExpectedDeliveryDateLessThanEqual...)
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_status_expected_delivery_date
+    ON purchase_orders(status, expected_delivery_date);
+
+-- Purchase orders: dashboard date ranges
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_order_date
+    ON purchase_orders(order_date DESC);
@@ -0,0 +1,25 @@
+-- Data-driven alert rules evaluated by AlertRuleEngine
+CREATE TABLE IF NOT EXISTS alert_rules (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    condition_type VARCHAR(50) NOT NULL,
+    threshold INTEGER,
+    scope_type VARCHAR(20) NOT NULL DEFAULT 'GLOBAL',
+    scope_id BIGINT,
+    alert_type VARCHAR(50) NOT NULL,
+    severity VARCHAR(20) NOT NULL,
+    priority VARCHAR(20) NOT NULL,
+    is_active BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by BIGINT REFERENCES users(id),
+    updated_by BIGINT REFERENCES users(id)
+);
+
+-- Default rules reproducing the previously hard-coded alert behaviour
+INSERT INTO alert_rules (name, description, condition_type, threshold, scope_type, alert_type, severity, priority) VALUES
+('Low stock', 'Available quantity at or below the product reorder point', 'BELOW_REORDER_POINT', NULL, 'GLOBAL', 'LOW_STOCK', 'MEDIUM', 'HIGH'),
+('Out of stock', 'No available quantity left', 'OUT_OF_STOCK', NULL, 'GLOBAL', 'OUT_OF_STOCK', 'CRITICAL', 'URGENT'),
+('Purchase order due', 'Approved purchase order due for delivery today', 'PURCHASE_ORDER_DUE', 0, 'GLOBAL', 'PURCHASE_ORDER_DUE', 'HIGH', 'HIGH'),
+('Purchase order overdue', 'Approved purchase order past its expected delivery date', 'PURCHASE_ORDER_OVERDUE', 0, 'GLOBAL', 'PURCHASE_ORDER_OVERDUE', 'CRITICAL', 'URGENT');
@@ -0,0 +1,31 @@
+-- Keyset pagination orders by (sort key, id); extend the listing indexes with id
+-- so seek queries read the next page straight off the index
+
+DROP INDEX IF EXISTS idx_alerts_triggered_at;
+CREATE INDEX IF NOT EXISTS idx_alerts_triggered_at
+    ON alerts(triggered_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_alerts_status_triggered_at;
+CREATE INDEX IF NOT EXISTS idx_alerts_status_triggered_at
+    ON alerts(status, triggered_at DESC, id DESC);
+
+-- Replaces the ascending single-column index from V1
+DROP INDEX IF EXISTS idx_stock_movements_movement_date;
+CREATE INDEX IF NOT EXISTS idx_stock_movements_movement_date
+    ON stock_movements(movement_date DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_stock_movements_product_movement_date;
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_movement_date
+    ON stock_movements(product_id, movement_date DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_stock_movements_warehouse_movement_date;
+CREATE INDEX IF NOT EXISTS idx_stock_movements_warehouse_movement_date
+    ON stock_movements(warehouse_id, movement_date DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_purchase_orders_order_date;
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_order_date
+    ON purchase_orders(order_date DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_purchase_orders_status_order_date;
+CREATE INDEX IF NOT EXISTS idx_purchase_orders_status_order_date
+    ON purchase_orders(status, order_date DESC, id DESC);
@@ -0,0 +1,104 @@
+-- Convert stock_movements into a table range-partitioned by month on movement_date.
+-- Date-range queries only touch the partitions overlapping the range, and inserts
+-- always land in a small, recent partition with small indexes.
+
+-- created_by is mapped by the StockMovement entity but missing from V1
+ALTER TABLE stock_movements ADD COLUMN IF NOT EXISTS created_by BIGINT REFERENCES users(id);
+
+ALTER TABLE stock_movements RENAME TO stock_movements_legacy;
+
+CREATE SEQUENCE IF NOT EXISTS stock_movements_partitioned_id_seq;
+SELECT setval('stock_movements_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM stock_movements_legacy), 0) + 1, false);
+
+-- The partition key has to be part of the primary key
+CREATE TABLE stock_movements (
+    id BIGINT NOT NULL DEFAULT nextval('stock_movements_partitioned_id_seq'),
+    product_id BIGINT NOT NULL REFERENCES products(id),
+    warehouse_id BIGINT NOT NULL REFERENCES warehouses(id),
+    movement_type VARCHAR(20) NOT NULL,
+    quantity INTEGER NOT NULL,
+    reference_type VARCHAR(50),
+    reference_id BIGINT,
+    notes TEXT,
+    movement_date TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_by BIGINT REFERENCES users(id),
+    PRIMARY KEY (id, movement_date)
+) PARTITION BY RANGE (movement_date);
+
+ALTER SEQUENCE stock_movements_partitioned_id_seq OWNED BY stock_movements.id;
+
+-- Catches rows outside every monthly partition so inserts never fail
+CREATE TABLE stock_movements_default PARTITION OF stock_movements DEFAULT;
+
+-- Creates the partition for the month containing p_month, moving any rows for that
+-- month out of the default partition first. Returns false if it already exists.
+CREATE OR REPLACE FUNCTION create_stock_movement_partition(p_month DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name TEXT := 'stock_movements_p' || to_char(p_month, 'YYYYMM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE stock_movements INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', v_name);
+    EXECUTE format('WITH moved AS (DELETE FROM stock_movements_default WHERE movement_date >= %L AND movement_date < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved', v_start, v_end, v_name);
+    EXECUTE format('ALTER TABLE stock_movements ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', v_name, v_start, v_end);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Makes sure partitions exist from the current month through p_months_ahead months
+-- ahead. Called on startup and on a schedule by StockMovementPartitionService.
+CREATE OR REPLACE FUNCTION ensure_stock_movement_partitions(p_months_ahead INTEGER) RETURNS INTEGER AS $$
+DECLARE
+    v_created INTEGER := 0;
+    v_month DATE := date_trunc('month', CURRENT_DATE)::DATE;
+BEGIN
+    FOR i IN 0..p_months_ahead LOOP
+        IF create_stock_movement_partition((v_month + make_interval(months => i))::DATE) THEN
+            v_created := v_created + 1;
+        END IF;
+    END LOOP;
+    RETURN v_created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that already has movements, plus the months ahead
+DO $$
+DECLARE
+    v_month DATE;
+BEGIN
+    FOR v_month IN
+        SELECT DISTINCT date_trunc('month', movement_date)::DATE FROM stock_movements_legacy
+    LOOP
+        PERFORM create_stock_movement_partition(v_month);
+    END LOOP;
+    PERFORM ensure_stock_movement_partitions(3);
+END;
+$$;
+
+INSERT INTO stock_movements (id, product_id, warehouse_id, movement_type, quantity, reference_type,
+                             reference_id, notes, movement_date, created_at, created_by)
+SELECT id, product_id, warehouse_id, movement_type, quantity, reference_type,
+       reference_id, notes, movement_date, created_at, created_by
+FROM stock_movements_legacy;
+
+DROP TABLE stock_movements_legacy;
+
+-- Recreate the indexes from V6/V8 on the partitioned table; they cascade to every partition
+CREATE INDEX IF NOT EXISTS idx_stock_movements_movement_date
+    ON stock_movements(movement_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_movement_date
+    ON stock_movements(product_id, movement_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_movements_warehouse_movement_date
+    ON stock_movements(warehouse_id, movement_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_warehouse_movement_date
+    ON stock_movements(product_id, warehouse_id, movement_date DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_movements_movement_type_movement_date
+    ON stock_movements(movement_type, movement_date DESC);
+CREATE INDEX IF NOT EXISTS idx_stock_movements_reference
+    ON stock_movements(reference_type, reference_id);
@@ -0,0 +1,262 @@
+package com.ideas2it.inventory_service.repository;
+
+import com.ideas2it.inventory_service.dto.CategoryResponse;
+import com.ideas2it.inventory_service.dto.InventoryResponse;
+import com.ideas2it.inventory_service.dto.PurchaseOrderResponse;
+import com.ideas2it.inventory_service.dto.StockMovementResponse;
+import com.ideas2it.inventory_service.entity.Category;
+import com.ideas2it.inventory_service.entity.Inventory;
+import com.ideas2it.inventory_service.entity.Product;
+import com.ideas2it.inventory_service.entity.PurchaseOrder;
+import com.ideas2it.inventory_service.entity.PurchaseOrderItem;
+import com.ideas2it.inventory_service.entity.StockMovement;
+import com.ideas2it.inventory_service.entity.Supplier;
+import com.ideas2it.inventory_service.entity.User;
+import com.ideas2it.inventory_service.entity.Warehouse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the list queries behind the list endpoints, mapped to their responses the way the
+ * services do, issue the same number of statements however many rows they return: associations the
+ * responses read come from the entity graphs or from batch fetching, never from one select per row
+ * (listings stay below the batch size here, beyond it batch fetching adds a statement per batch).
+ * Runs against the PostgreSQL instance given by TEST_DB_URL / TEST_DB_USERNAME / TEST_DB_PASSWORD (or
+ * the matching test.db.* system properties) in a schema of its own, and is skipped when none is configured.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.default_schema=" + ListFetchPlanTest.SCHEMA,
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("databaseConfigured")
+class ListFetchPlanTest {
+
+    static final String SCHEMA = "fetch_plan_test";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Statistics statistics;
+    private User[] users;
+    private Category rootCategory;
+    private int sequence;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> setting("test.db.url", "TEST_DB_URL"));
+        registry.add("spring.datasource.username", () -> setting("test.db.username", "TEST_DB_USERNAME"));
+        registry.add("spring.datasource.password", () -> setting("test.db.password", "TEST_DB_PASSWORD"));
+    }
+
+    static boolean databaseConfigured() {
+        return setting("test.db.url", "TEST_DB_URL") != null;
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        users = new User[] {newUser(), newUser(), newUser()};
+        rootCategory = newCategory(null);
+    }
+
+    @Test
+    void inventoryListingStatementsDoNotGrowWithRows() {
+        Runnable listing = () -> inventoryRepository.findAll().forEach(InventoryResponse::fromInventory);
+
+        seedInventory(5);
+        long fewRows = statements(listing);
+        seedInventory(35);
+        long manyRows = statements(listing);
+
+        assertThat(manyRows).isEqualTo(fewRows);
+    }
+
+    @Test
+    void stockMovementListingStatementsDoNotGrowWithRows() {
+        Runnable listing = () -> stockMovementRepository.findAllByOrderByMovementDateDescIdDesc(PageRequest.of(0, 100))
+                .forEach(StockMovementResponse::fromStockMovement);
+
+        seedStockMovements(5);
+        long fewRows = statements(listing);
+        seedStockMovements(35);
+        long manyRows = statements(listing);
+
+        assertThat(manyRows).isEqualTo(fewRows);
+    }
+
+    @Test
+    void purchaseOrderListingStatementsDoNotGrowWithRows() {
+        Runnable listing = () -> purchaseOrderRepository.findAllByOrderByOrderDateDescIdDesc(PageRequest.of(0, 100))
+                .forEach(PurchaseOrderResponse::fromPurchaseOrder);
+
+        seedPurchaseOrders(5);
+        long fewRows = statements(listing);
+        seedPurchaseOrders(35);
+        long manyRows = statements(listing);
+
+        assertThat(manyRows).isEqualTo(fewRows);
+    }
+
+    @Test
+    void categoryListingStatementsDoNotGrowWithRows() {
+        Runnable listing = () -> categoryRepository.findByIsActiveTrue().forEach(CategoryResponse::fromCategory);
+
+        seedCategories(5);
+        long fewRows = statements(listing);
+        seedCategories(35);
+        long manyRows = statements(listing);
+
+        assertThat(manyRows).isEqualTo(fewRows);
+    }
+
+    // Statements prepared by the listing, starting from an empty persistence context
+    private long statements(Runnable listing) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        listing.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Every row gets its own product, warehouse and category, the worst case for per-row loading; users come from a small pool as in practice
+    private void seedInventory(int rows) {
+        for (int i = 0; i < rows; i++) {
+            Inventory inventory = new Inventory();
+            inventory.setProduct(newProduct());
+            inventory.setWarehouse(newWarehouse());
+            inventory.setQuantityOnHand(10);
+            inventory.setUpdatedBy(someUser());
+            entityManager.persist(inventory);
+        }
+    }
+
+    private void seedStockMovements(int rows) {
+        for (int i = 0; i < rows; i++) {
+            StockMovement movement = new StockMovement();
+            movement.setProduct(newProduct());
+            movement.setWarehouse(newWarehouse());
+            movement.setMovementType(StockMovement.MovementType.IN);
+            movement.setQuantity(10);
+            movement.setMovementDate(LocalDateTime.now());
+            movement.setCreatedBy(someUser());
+            entityManager.persist(movement);
+        }
+    }
+
+    private void seedPurchaseOrders(int rows) {
+        for (int i = 0; i < rows; i++) {
+            Supplier supplier = new Supplier();
+            supplier.setName("Supplier " + ++sequence);
+            supplier.setCode("S" + sequence);
+            supplier.setCreatedBy(someUser());
+            entityManager.persist(supplier);
+
+            PurchaseOrder order = new PurchaseOrder();
+            order.setPoNumber("PO-" + ++sequence);
+            order.setSupplier(supplier);
+            order.setWarehouse(newWarehouse());
+            order.setOrderDate(LocalDate.now());
+            order.setCreatedBy(someUser());
+            for (int line = 0; line < 2; line++) {
+                PurchaseOrderItem item = new PurchaseOrderItem();
+                item.setProduct(newProduct());
+                item.setQuantityOrdered(5);
+                item.setUnitPrice(BigDecimal.ONE);
+                item.setTotalPrice(BigDecimal.valueOf(5));
+                order.addItem(item);
+            }
+            entityManager.persist(order);
+        }
+    }
+
+    private void seedCategories(int rows) {
+        for (int i = 0; i < rows; i++) {
+            newCategory(newCategory(rootCategory));
+        }
+    }
+
+    private Category newCategory(Category parent) {
+        Category category = new Category();
+        category.setName("Category " + ++sequence);
+        category.setParent(parent);
+        category.setCreatedBy(someUser());
+        return entityManager.persist(category);
+    }
+
+    private Product newProduct() {
+        Product product = new Product();
+        product.setName("Product " + ++sequence);
+        product.setSku("SKU" + sequence);
+        product.setCategory(newCategory(rootCategory));
+        product.setCreatedBy(someUser());
+        return entityManager.persist(product);
+    }
+
+    private Warehouse newWarehouse() {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Warehouse " + ++sequence);
+        warehouse.setCode("W" + sequence);
+        warehouse.setAddress("Street");
+        warehouse.setCity("City");
+        warehouse.setState("State");
+        warehouse.setCountry("Country");
+        warehouse.setPostalCode("0000");
+        warehouse.setManager(someUser());
+        return entityManager.persist(warehouse);
+    }
+
+    private User someUser() {
+        return users[++sequence % users.length];
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setUsername("user" + ++sequence);
+        user.setEmail("user" + sequence + "@example.com");
+        user.setPasswordHash("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        return entityManager.persist(user);
+    }
+
+    private static String setting(String property, String env) {
+        return Arrays.asList(System.getProperty(property), System.getenv(env)).stream()
+                .filter(value -> value != null && !value.isBlank())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,333 @@
+package com.ideas2it.inventory_service.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifies that the hot repository query shapes are served by the indexes added in
+ * V6__Add_query_aligned_indexes.sql, V8__Add_cursor_pagination_indexes.sql,
+ * V17__Add_purchase_order_items_product_index.sql, V18__Add_inventory_low_stock_flag.sql, V19__Create_inventory_lots.sql and
+ * V21__Add_product_classification.sql. Runs against a real PostgreSQL instance given by
+ * the TEST_DB_URL / TEST_DB_USERNAME / TEST_DB_PASSWORD environment variables (or the
+ * matching test.db.* system properties) and is skipped when none is configured.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryIndexUsageTest {
+
+    private static final String SCHEMA = "index_usage_test";
+
+    private Connection connection;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        String url = setting("test.db.url", "TEST_DB_URL");
+        assumeTrue(url != null, "No PostgreSQL test database configured");
+
+        connection = DriverManager.getConnection(url,
+                setting("test.db.username", "TEST_DB_USERNAME"),
+                setting("test.db.password", "TEST_DB_PASSWORD"));
+
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("SET search_path TO " + SCHEMA);
+        execute(migration("V1__Create_initial_schema.sql"));
+        execute(migration("V6__Add_query_aligned_indexes.sql"));
+        execute(migration("V8__Add_cursor_pagination_indexes.sql"));
+        execute(migration("V17__Add_purchase_order_items_product_index.sql"));
+        seedData();
+        // Applied after seeding so its backfill flags the seeded inventory
+        execute(migration("V18__Add_inventory_low_stock_flag.sql"));
+        execute(migration("V19__Create_inventory_lots.sql"));
+        seedLots();
+        execute(migration("V21__Add_product_classification.sql"));
+        execute("UPDATE products SET abc_class = (ARRAY['A','B','C'])[1 + id % 3], xyz_class = (ARRAY['X','Y','Z'])[1 + id % 3]");
+        execute("ANALYZE");
+        execute("SET enable_seqscan = off");
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            connection.close();
+        }
+    }
+
+    @Test
+    void alertReferenceLookupUsesReferenceIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM alerts WHERE reference_type = 'INVENTORY' AND reference_id = 42 " +
+                "AND alert_type = 'LOW_STOCK' AND status = 'ACTIVE' ORDER BY triggered_at DESC",
+                "idx_alerts_reference_type_status");
+    }
+
+    @Test
+    void alertStatusListingUsesStatusIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM alerts WHERE status = 'ACTIVE' ORDER BY triggered_at DESC",
+                "idx_alerts_status_triggered_at");
+    }
+
+    @Test
+    void alertTypeListingUsesTypeIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM alerts WHERE alert_type = 'OUT_OF_STOCK' ORDER BY triggered_at DESC",
+                "idx_alerts_alert_type_triggered_at");
+    }
+
+    @Test
+    void alertSeverityCountUsesSeverityIndex() throws SQLException {
+        assertUsesIndex("SELECT COUNT(*) FROM alerts WHERE severity = 'CRITICAL' AND status = 'ACTIVE'",
+                "idx_alerts_severity_status_triggered_at");
+    }
+
+    @Test
+    void alertPriorityListingUsesPriorityIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM alerts WHERE priority = 'URGENT' AND status = 'ACTIVE' ORDER BY triggered_at DESC",
+                "idx_alerts_priority_status_triggered_at");
+    }
+
+    @Test
+    void alertFeedUsesTriggeredAtIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM alerts ORDER BY triggered_at DESC LIMIT 20",
+                "idx_alerts_triggered_at");
+    }
+
+    @Test
+    void movementWarehouseDateRangeUsesWarehouseIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM stock_movements WHERE warehouse_id = 3 " +
+                "AND movement_date BETWEEN TIMESTAMP '2023-07-01' AND TIMESTAMP '2024-07-01' ORDER BY movement_date DESC",
+                "idx_stock_movements_warehouse_movement_date");
+    }
+
+    @Test
+    void movementProductWarehouseHistoryUsesCompositeIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM stock_movements WHERE product_id = 7 AND warehouse_id = 3 ORDER BY movement_date DESC",
+                "idx_stock_movements_product_warehouse_movement_date");
+    }
+
+    @Test
+    void movementReferenceLookupUsesReferenceIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM stock_movements WHERE reference_type = 'PURCHASE_ORDER' AND reference_id = 11 " +
+                "ORDER BY movement_date DESC",
+                "idx_stock_movements_reference");
+    }
+
+    @Test
+    void purchaseOrderSupplierListingUsesSupplierIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM purchase_orders WHERE supplier_id = 2 ORDER BY order_date DESC",
+                "idx_purchase_orders_supplier_order_date");
+    }
+
+    @Test
+    void purchaseOrderWarehouseDateRangeUsesWarehouseIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM purchase_orders WHERE warehouse_id = 4 " +
+                "AND order_date BETWEEN DATE '2024-01-01' AND DATE '2024-03-01' ORDER BY order_date DESC",
+                "idx_purchase_orders_warehouse_order_date");
+    }
+
+    @Test
+    void purchaseOrderDueScanUsesExpectedDeliveryIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM purchase_orders WHERE status = 'APPROVED' " +
+                "AND expected_delivery_date <= DATE '2024-02-01' ORDER BY expected_delivery_date ASC",
+                "idx_purchase_orders_status_expected_delivery_date");
+    }
+
+    @Test
+    void alertCursorSeekUsesTriggeredAtIndex() throws SQLException {
+        assertSeeksIndex("SELECT * FROM alerts WHERE triggered_at <= TIMESTAMP '2023-02-01' AND (triggered_at < TIMESTAMP '2023-02-01' " +
+                "OR (triggered_at = TIMESTAMP '2023-02-01' AND id < 44640)) ORDER BY triggered_at DESC, id DESC LIMIT 21",
+                "idx_alerts_triggered_at", "triggered_at");
+    }
+
+    @Test
+    void movementWarehouseCursorSeekUsesWarehouseIndex() throws SQLException {
+        assertSeeksIndex("SELECT * FROM stock_movements WHERE warehouse_id = 3 AND movement_date <= TIMESTAMP '2024-01-01' AND " +
+                "(movement_date < TIMESTAMP '2024-01-01' OR (movement_date = TIMESTAMP '2024-01-01' AND id < 30000)) " +
+                "ORDER BY movement_date DESC, id DESC LIMIT 21",
+                "idx_stock_movements_warehouse_movement_date", "movement_date");
+    }
+
+    @Test
+    void movementProductCursorSeekUsesProductIndex() throws SQLException {
+        assertSeeksIndex("SELECT * FROM stock_movements WHERE product_id = 7 AND movement_date <= TIMESTAMP '2024-01-01' AND " +
+                "(movement_date < TIMESTAMP '2024-01-01' OR (movement_date = TIMESTAMP '2024-01-01' AND id < 30000)) " +
+                "ORDER BY movement_date DESC, id DESC LIMIT 21",
+                "idx_stock_movements_product_movement_date", "movement_date");
+    }
+
+    @Test
+    void movementFeedCursorSeekUsesMovementDateIndex() throws SQLException {
+        assertSeeksIndex("SELECT * FROM stock_movements WHERE movement_date <= TIMESTAMP '2024-01-01' AND (movement_date < TIMESTAMP '2024-01-01' " +
+                "OR (movement_date = TIMESTAMP '2024-01-01' AND id < 30000)) ORDER BY movement_date DESC, id DESC LIMIT 21",
+                "idx_stock_movements_movement_date", "movement_date");
+    }
+
+    @Test
+    void purchaseOrderCursorSeekUsesOrderDateIndex() throws SQLException {
+        assertSeeksIndex("SELECT * FROM purchase_orders WHERE order_date <= DATE '2023-06-01' AND (order_date < DATE '2023-06-01' " +
+                "OR (order_date = DATE '2023-06-01' AND id < 20000)) ORDER BY order_date DESC, id DESC LIMIT 21",
+                "idx_purchase_orders_order_date", "order_date");
+    }
+
+    @Test
+    void purchaseOrderStatusCursorSeekUsesStatusIndex() throws SQLException {
+        assertSeeksIndex("SELECT * FROM purchase_orders WHERE status = 'APPROVED' AND order_date <= DATE '2023-06-01' AND " +
+                "(order_date < DATE '2023-06-01' OR (order_date = DATE '2023-06-01' AND id < 20000)) " +
+                "ORDER BY order_date DESC, id DESC LIMIT 21",
+                "idx_purchase_orders_status_order_date", "order_date");
+    }
+
+    @Test
+    void lowStockListingUsesPartialIndex() throws SQLException {
+        assertUsesIndex("SELECT i.* FROM inventory i JOIN products p ON p.id = i.product_id " +
+                "WHERE i.low_stock = true AND p.is_active = true",
+                "idx_inventory_low_stock");
+    }
+
+    @Test
+    void fefoAllocationPageUsesFefoIndex() throws SQLException {
+        assertUsesIndex("SELECT id, lot_number, expiry_date, quantity FROM inventory_lots WHERE product_id = 7 AND warehouse_id = 3 " +
+                "AND quantity > 0 AND (expiry_date, id) > (DATE '2024-03-01', 0) ORDER BY expiry_date, id LIMIT 8 FOR UPDATE",
+                "idx_inventory_lots_fefo");
+    }
+
+    @Test
+    void expiredLotSweepUsesExpiryIndex() throws SQLException {
+        assertUsesIndex("SELECT id, product_id, warehouse_id FROM inventory_lots WHERE expiry_date < DATE '2024-01-15' " +
+                "AND quantity > 0 ORDER BY expiry_date, id LIMIT 1000",
+                "idx_inventory_lots_expiry");
+    }
+
+    @Test
+    void productClassFilterUsesClassificationIndex() throws SQLException {
+        assertUsesIndex("SELECT * FROM products WHERE is_active = true AND abc_class = 'A' AND xyz_class = 'X'",
+                "idx_products_classification");
+    }
+
+    @Test
+    void classificationDemandChunkUsesProductMovementDateIndex() throws SQLException {
+        assertUsesIndex("SELECT product_id, date_trunc('week', movement_date), SUM(quantity) FROM stock_movements " +
+                "WHERE product_id = ANY('{1,2,3,4,5}'::bigint[]) AND movement_date >= TIMESTAMP '2023-07-03' " +
+                "AND movement_date < TIMESTAMP '2024-07-01' AND movement_type = 'OUT' " +
+                "GROUP BY product_id, date_trunc('week', movement_date)",
+                "idx_stock_movements_product_movement_date");
+    }
+
+    @Test
+    void forecastDailyDemandChunkUsesProductWarehouseMovementDateIndex() throws SQLException {
+        assertUsesIndex("SELECT m.product_id, m.warehouse_id, CAST(m.movement_date AS DATE) AS day, SUM(m.quantity) " +
+                "FROM stock_movements m JOIN unnest('{1,2,3}'::bigint[], '{1,1,2}'::bigint[]) AS k(product_id, warehouse_id) " +
+                "ON m.product_id = k.product_id AND m.warehouse_id = k.warehouse_id " +
+                "WHERE m.movement_date >= TIMESTAMP '2024-04-02' AND m.movement_date < TIMESTAMP '2024-07-01' " +
+                "AND m.movement_type = 'OUT' GROUP BY m.product_id, m.warehouse_id, day",
+                "idx_stock_movements_product_warehouse_movement_date");
+    }
+
+    @Test
+    void replenishmentOpenQuantityChunkUsesItemProductIndex() throws SQLException {
+        assertUsesIndex("SELECT poi.product_id, po.warehouse_id, SUM(poi.quantity_ordered - poi.quantity_received) " +
+                "FROM purchase_order_items poi JOIN purchase_orders po ON po.id = poi.purchase_order_id " +
+                "WHERE poi.product_id = ANY('{1,2,3}'::bigint[]) AND poi.quantity_received < poi.quantity_ordered " +
+                "AND po.status IN ('DRAFT', 'SUBMITTED', 'APPROVED', 'ORDERED', 'PARTIALLY_RECEIVED') " +
+                "GROUP BY poi.product_id, po.warehouse_id",
+                "idx_purchase_order_items_product");
+    }
+
+    private void assertUsesIndex(String sql, String indexName) throws SQLException {
+        String plan = explain(sql);
+        assertThat(plan)
+                .as("Plan for [%s]", sql)
+                .contains(indexName)
+                .doesNotContain("Seq Scan");
+    }
+
+    // A cursor page must start with an index descent to the sort key, not filter its way there from the first entry
+    private void assertSeeksIndex(String sql, String indexName, String sortKey) throws SQLException {
+        assertUsesIndex(sql, indexName);
+        assertThat(explain(sql))
+                .as("Plan for [%s]", sql)
+                .containsPattern("Index Cond: .*\\b" + sortKey + " <=");
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private void seedData() throws SQLException {
+        execute("INSERT INTO categories (name) VALUES ('Test')");
+        execute("INSERT INTO products (sku, name, category_id) " +
+                "SELECT 'SKU' || g, 'Product ' || g, 1 FROM generate_series(1, 200) g");
+        execute("INSERT INTO warehouses (name, code, address, city, state, country, postal_code) " +
+                "SELECT 'Warehouse ' || g, 'W' || g, 'Street', 'City', 'State', 'Country', '0000' FROM generate_series(1, 20) g");
+        execute("INSERT INTO suppliers (name, code) SELECT 'Supplier ' || g, 'S' || g FROM generate_series(1, 20) g");
+        execute("INSERT INTO stock_movements (product_id, warehouse_id, movement_type, quantity, reference_type, reference_id, movement_date) " +
+                "SELECT 1 + g % 200, 1 + g % 20, (ARRAY['IN','OUT','TRANSFER','ADJUSTMENT'])[1 + g % 4], 1 + g % 50, " +
+                "'PURCHASE_ORDER', g % 5000, TIMESTAMP '2023-06-01' + (g * 10 || ' minutes')::interval " +
+                "FROM generate_series(1, 100000) g");
+        execute("INSERT INTO alerts (alert_type, message, severity, reference_type, reference_id, status, priority, triggered_at) " +
+                "SELECT (ARRAY['LOW_STOCK','OUT_OF_STOCK','PURCHASE_ORDER_DUE','PURCHASE_ORDER_OVERDUE','INVENTORY_ADJUSTMENT','SYSTEM_ALERT'])[1 + g % 6], " +
+                "'message', (ARRAY['LOW','MEDIUM','HIGH','CRITICAL'])[1 + g % 4], 'INVENTORY', g % 5000, " +
+                "(ARRAY['ACTIVE','ACKNOWLEDGED','RESOLVED','DISMISSED'])[1 + g % 4], (ARRAY['LOW','NORMAL','HIGH','URGENT'])[1 + g % 4], " +
+                "TIMESTAMP '2023-01-01' + (g || ' minutes')::interval FROM generate_series(1, 100000) g");
+        execute("INSERT INTO purchase_orders (po_number, supplier_id, warehouse_id, order_date, expected_delivery_date, status) " +
+                "SELECT 'PO-' || g, 1 + g % 20, 1 + g % 20, DATE '2022-01-01' + g % 1000, DATE '2022-01-15' + g % 1000, " +
+                "(ARRAY['DRAFT','SUBMITTED','APPROVED','ORDERED','PARTIALLY_RECEIVED','FULLY_RECEIVED','CANCELLED','CLOSED'])[1 + g % 8] " +
+                "FROM generate_series(1, 50000) g");
+        execute("INSERT INTO purchase_order_items (purchase_order_id, product_id, quantity_ordered, quantity_received, unit_price, total_price) " +
+                "SELECT 1 + g % 50000, 1 + g % 200, 10, g % 11, 1, 10 FROM generate_series(1, 100000) g");
+        execute("UPDATE products SET reorder_point = 10 WHERE id % 50 = 0");
+        execute("INSERT INTO inventory (product_id, warehouse_id, quantity_on_hand, quantity_available) " +
+                "SELECT p, w, 100, 100 FROM generate_series(1, 200) p, generate_series(1, 20) w");
+        execute("UPDATE inventory SET quantity_on_hand = 5, quantity_available = 5 WHERE product_id % 50 = 0 AND warehouse_id = 1");
+    }
+
+    // 50 lots per inventory row of the first 20 products, expiring over two years; every tenth is used up
+    private void seedLots() throws SQLException {
+        execute("INSERT INTO inventory_lots (product_id, warehouse_id, lot_number, expiry_date, quantity, received_at, updated_at) " +
+                "SELECT p, w, 'LOT-' || l, DATE '2024-01-01' + (p * 7 + w * 3 + l * 13) % 730, CASE WHEN l % 10 = 0 THEN 0 ELSE 20 END, " +
+                "TIMESTAMP '2023-06-01', TIMESTAMP '2023-06-01' " +
+                "FROM generate_series(1, 20) p, generate_series(1, 20) w, generate_series(1, 50) l");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String migration(String fileName) throws IOException {
+        try (InputStream in = QueryIndexUsageTest.class.getResourceAsStream("/db/migration/" + fileName)) {
+            if (in == null) {
+                throw new IOException("Migration not found: " + fileName);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String setting(String property, String env) {
+        return Arrays.asList(System.getProperty(property), System.getenv(env)).stream()
+                .filter(value -> value != null && !value.isBlank())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ideas2it.inventory_service.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Verifies that date-bounded stock movement history queries on the table partitioned by
+ * V9__Partition_stock_movements.sql only touch the monthly partitions overlapping the range,
+ * both with literal bounds and with the bind parameters the repositories send. Runs against a
+ * real PostgreSQL instance given by the TEST_DB_URL / TEST_DB_USERNAME / TEST_DB_PASSWORD
+ * environment variables (or the matching test.db.* system properties) and is skipped when none
+ * is configured.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StockMovementPartitionPruningTest {
+
+    private static final String SCHEMA = "partition_pruning_test";
+
+    private Connection connection;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        String url = setting("test.db.url", "TEST_DB_URL");
+        assumeTrue(url != null, "No PostgreSQL test database configured");
+
+        connection = DriverManager.getConnection(url,
+                setting("test.db.username", "TEST_DB_USERNAME"),
+                setting("test.db.password", "TEST_DB_PASSWORD"));
+
+        execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        execute("CREATE SCHEMA " + SCHEMA);
+        execute("SET search_path TO " + SCHEMA);
+        execute(migration("V1__Create_initial_schema.sql"));
+        seedData();
+        // Applied after seeding so it partitions the months that already hold movements
+        execute(migration("V9__Partition_stock_movements.sql"));
+        execute("ANALYZE");
+    }
+
+    @AfterAll
+    void tearDown() throws SQLException {
+        if (connection != null) {
+            execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+            connection.close();
+        }
+    }
+
+    @Test
+    void migrationPartitionsExistingMonths() throws SQLException {
+        assertThat(partitions()).contains(
+                "stock_movements_p202401", "stock_movements_p202402", "stock_movements_p202403",
+                "stock_movements_p202404", "stock_movements_p202405", "stock_movements_p202406",
+                "stock_movements_default");
+    }
+
+    @Test
+    void dateRangeTouchesOnlyItsMonth() throws SQLException {
+        assertTouchesOnly("SELECT * FROM stock_movements " +
+                "WHERE movement_date BETWEEN TIMESTAMP '2024-02-10' AND TIMESTAMP '2024-02-20' ORDER BY movement_date DESC",
+                "stock_movements_p202402");
+    }
+
+    @Test
+    void warehouseDateRangeTouchesOnlyOverlappingMonths() throws SQLException {
+        assertTouchesOnly("SELECT * FROM stock_movements WHERE warehouse_id = 3 " +
+                "AND movement_date BETWEEN TIMESTAMP '2024-02-15' AND TIMESTAMP '2024-03-15' ORDER BY movement_date DESC",
+                "stock_movements_p202402", "stock_movements_p202403");
+    }
+
+    @Test
+    void boundDateRangeIsPrunedAtExecutorStartup() throws SQLException {
+        // The repositories bind the range, so a cached generic plan can only prune when it starts executing
+        execute("SET plan_cache_mode = force_generic_plan");
+        try {
+            execute("PREPARE product_history(BIGINT, TIMESTAMP, TIMESTAMP) AS SELECT * FROM stock_movements " +
+                    "WHERE product_id = $1 AND movement_date BETWEEN $2 AND $3 ORDER BY movement_date DESC");
+            String sql = "EXECUTE product_history(7, TIMESTAMP '2024-04-05', TIMESTAMP '2024-04-25')";
+            assertThat(explain(sql)).as("Plan for [%s]", sql).contains("Subplans Removed");
+            assertTouchesOnly(sql, "stock_movements_p202404");
+        } finally {
+            execute("DEALLOCATE ALL");
+            execute("RESET plan_cache_mode");
+        }
+    }
+
+    private void assertTouchesOnly(String sql, String... expected) throws SQLException {
+        String plan = explain(sql);
+        for (String partition : partitions()) {
+            if (Arrays.asList(expected).contains(partition)) {
+                assertThat(plan).as("Plan for [%s]", sql).contains(partition);
+            } else {
+                assertThat(plan).as("Plan for [%s]", sql).doesNotContainPattern("\\b" + partition + "\\b");
+            }
+        }
+    }
+
+    private List<String> partitions() throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT c.relname FROM pg_inherits i " +
+                     "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + SCHEMA + ".stock_movements'::regclass")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+
+    private String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + sql)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    // Six months of movements, January to June 2024
+    private void seedData() throws SQLException {
+        execute("INSERT INTO categories (name) VALUES ('Test')");
+        execute("INSERT INTO products (sku, name, category_id) " +
+                "SELECT 'SKU' || g, 'Product ' || g, 1 FROM generate_series(1, 50) g");
+        execute("INSERT INTO warehouses (name, code, address, city, state, country, postal_code) " +
+                "SELECT 'Warehouse ' || g, 'W' || g, 'Street', 'City', 'State', 'Country', '0000' FROM generate_series(1, 5) g");
+        execute("INSERT INTO stock_movements (product_id, warehouse_id, movement_type, quantity, reference_type, reference_id, movement_date) " +
+                "SELECT 1 + g % 50, 1 + g % 5, (ARRAY['IN','OUT','TRANSFER','ADJUSTMENT'])[1 + g % 4], 1 + g % 50, " +
+                "'PURCHASE_ORDER', g % 5000, TIMESTAMP '2024-01-01' + (g * 10 || ' minutes')::interval " +
+                "FROM generate_series(0, 26000) g");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static String migration(String fileName) throws IOException {
+        try (InputStream in = StockMovementPartitionPruningTest.class.getResourceAsStream("/db/migration/" + fileName)) {
+            if (in == null) {
+                throw new IOException("Migration not found: " + fileName);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String setting(String property, String env) {
+        return Arrays.asList(System.getProperty(property), System.getenv(env)).stream()
+                .filter(value -> value != null && !value.isBlank())
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -0,0 +1,140 @@
+package com.ideas2it.inventory_service.service;
+
+import com.ideas2it.inventory_service.dto.InventoryRequest;
+import com.ideas2it.inventory_service.dto.InventoryResponse;
+import com.ideas2it.inventory_service.entity.Alert;
+import com.ideas2it.inventory_service.entity.Category;
+import com.ideas2it.inventory_service.entity.Product;
+import com.ideas2it.inventory_service.entity.User;
+import com.ideas2it.inventory_service.entity.Warehouse;
+import com.ideas2it.inventory_service.repository.AlertRepository;
+import com.ideas2it.inventory_service.repository.AlertRuleRepository;
+import com.ideas2it.inventory_service.repository.CategoryRepository;
+import com.ideas2it.inventory_service.repository.ProductRepository;
+import com.ideas2it.inventory_service.repository.UserRepository;
+import com.ideas2it.inventory_service.repository.WarehouseRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that a fresh schema created by Hibernate, where Flyway never seeds alert_rules, still
+ * raises low-stock alerts out of the box. Starts the whole application against the PostgreSQL
+ * instance given by TEST_DB_URL / TEST_DB_USERNAME / TEST_DB_PASSWORD (or the matching test.db.*
+ * system properties) in a schema of its own, and is skipped when none is configured.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.default_schema=" + DefaultAlertRulesTest.SCHEMA,
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@EnabledIf("databaseConfigured")
+class DefaultAlertRulesTest {
+
+    static final String SCHEMA = "default_alert_rules_test";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private AlertRuleRepository alertRuleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        // The services' own SQL is unqualified, so it has to resolve to the test schema too
+        registry.add("spring.datasource.url", () -> {
+            String url = setting("test.db.url", "TEST_DB_URL");
+            return url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA;
+        });
+        registry.add("spring.datasource.username", () -> setting("test.db.username", "TEST_DB_USERNAME"));
+        registry.add("spring.datasource.password", () -> setting("test.db.password", "TEST_DB_PASSWORD"));
+    }
+
+    static boolean databaseConfigured() {
+        return setting("test.db.url", "TEST_DB_URL") != null;
+    }
+
+    @Test
+    void freshSchemaRaisesLowStockAlerts() {
+        assertThat(alertRuleRepository.findByIsActiveTrue()).isNotEmpty();
+
+        User user = newUser();
+        Product product = newProduct(user);
+        Warehouse warehouse = newWarehouse(user);
+
+        InventoryResponse inventory = inventoryService.createInventory(
+                new InventoryRequest(product.getId(), warehouse.getId(), 20), user.getId());
+        inventoryService.adjustInventory(inventory.getId(), -17, "Cycle count", user.getId());
+
+        assertThat(alertRepository.findByAlertTypeOrderByTriggeredAtDesc(Alert.AlertType.LOW_STOCK))
+                .anySatisfy(alert -> assertThat(alert.getMessage()).contains(product.getName()));
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setUsername("alert-rules-user");
+        user.setEmail("alert-rules-user@example.com");
+        user.setPasswordHash("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        return userRepository.save(user);
+    }
+
+    private Product newProduct(User user) {
+        Category category = new Category();
+        category.setName("Category");
+        category.setCreatedBy(user);
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("Low Stock Product");
+        product.setSku("LOW-STOCK-1");
+        product.setCategory(category);
+        product.setReorderPoint(10);
+        product.setCreatedBy(user);
+        return productRepository.save(product);
+    }
+
+    private Warehouse newWarehouse(User user) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setName("Warehouse");
+        warehouse.setCode("W1");
+        warehouse.setAddress("Street");
+        warehouse.setCity("City");
+        warehouse.setState("State");
+        warehouse.setCountry("Country");
+        warehouse.setPostalCode("0000");
+        warehouse.setManager(user);
+        return warehouseRepository.save(warehouse);
+    }
+
+    private static String setting(String property, String env) {
+        return Arrays.asList(System.getProperty(property), System.getenv(env)).stream()
+                .filter(value -> value != null && !value.isBlank())
+                .findFirst()
+                .orElse(null);
+    }
+}
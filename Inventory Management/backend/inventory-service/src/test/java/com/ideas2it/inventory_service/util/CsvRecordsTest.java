@@ -0,0 +1,36 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordsTest {
+
+    @Test
+    void splitsQuotedFieldsWithEscapedQuotes() {
+        assertThat(CsvRecords.split("a,\"b, c\",\"say \"\"hi\"\"\",,"))
+                .containsExactly("a", "b, c", "say \"hi\"", "", "");
+    }
+
+    @Test
+    void readsColumnsByCaseInsensitiveHeaderName() {
+        Map<String, Integer> columns = CsvRecords.parseHeader(" SKU ,WarehouseCode,countedQuantity,notes", "sku", "warehouseCode");
+        List<String> values = CsvRecords.split("ABC-1, MAIN ,12,");
+
+        assertThat(CsvRecords.column(values, columns, "sku")).isEqualTo("ABC-1");
+        assertThat(CsvRecords.column(values, columns, "warehousecode")).isEqualTo("MAIN");
+        assertThat(CsvRecords.column(values, columns, "notes")).isNull();
+        assertThat(CsvRecords.column(values, columns, "missing")).isNull();
+        assertThat(CsvRecords.column(CsvRecords.split("ABC-1"), columns, "countedQuantity")).isNull();
+    }
+
+    @Test
+    void rejectsHeaderWithoutRequiredColumn() {
+        assertThatThrownBy(() -> CsvRecords.parseHeader("sku,notes", "sku", "countedQuantity"))
+                .hasMessage("CSV header is missing column: countedQuantity");
+    }
+}
@@ -0,0 +1,63 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class DemandSmoothingTest {
+
+    @Test
+    void steadyDemandHasNoDeviation() {
+        DemandSmoothing smoothing = new DemandSmoothing(0.3);
+        for (int i = 0; i < 30; i++) {
+            smoothing.add(10);
+        }
+
+        assertThat(smoothing.getDays()).isEqualTo(30);
+        assertThat(smoothing.getLevel()).isEqualTo(10);
+        assertThat(smoothing.getDeviation()).isZero();
+    }
+
+    @Test
+    void levelMovesByAlphaOfTheError() {
+        DemandSmoothing smoothing = new DemandSmoothing(0.5);
+        smoothing.add(10);
+        smoothing.add(20);
+        smoothing.add(5);
+
+        // 10 -> 15 -> 10, errors 10 and -10
+        assertThat(smoothing.getLevel()).isCloseTo(10, within(1e-9));
+        assertThat(smoothing.getDeviation()).isCloseTo(10, within(1e-9));
+    }
+
+    @Test
+    void zerosDecayTheLevel() {
+        DemandSmoothing smoothing = new DemandSmoothing(0.5);
+        smoothing.add(8);
+        smoothing.addZeros(3);
+
+        assertThat(smoothing.getDays()).isEqualTo(4);
+        assertThat(smoothing.getLevel()).isCloseTo(1, within(1e-9));
+    }
+
+    @Test
+    void resetStartsANewSeries() {
+        DemandSmoothing smoothing = new DemandSmoothing(0.3);
+        smoothing.add(100);
+        smoothing.add(0);
+        smoothing.reset();
+        smoothing.add(4);
+
+        assertThat(smoothing.getDays()).isEqualTo(1);
+        assertThat(smoothing.getLevel()).isEqualTo(4);
+        assertThat(smoothing.getDeviation()).isZero();
+    }
+
+    @Test
+    void rejectsSmoothingFactorOutsideUnitInterval() {
+        assertThatThrownBy(() -> new DemandSmoothing(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DemandSmoothing(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportWriterTest {
+
+    @Test
+    void writesCsvWithHeaderAndQuotesSpecialValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ExportWriter writer = ExportWriter.open(out, ExportWriter.Format.CSV, false, "id", "notes", "price")) {
+            writer.writeRow(1L, "plain", new BigDecimal("9.50"));
+            writer.writeRow(2L, "comma, \"quoted\"\nnewline", null);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,notes,price\n1,plain,9.50\n2,\"comma, \"\"quoted\"\"\nnewline\",\n");
+    }
+
+    @Test
+    void writesOneJsonObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ExportWriter writer = ExportWriter.open(out, ExportWriter.Format.NDJSON, false, "id", "active", "at", "notes")) {
+            writer.writeRow(1L, true, Timestamp.valueOf("2024-03-01 10:15:30"), "a \"b\"");
+            writer.writeRow(2L, false, null, null);
+            assertThat(writer.getRowCount()).isEqualTo(2);
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"active\":true,\"at\":\"2024-03-01T10:15:30\",\"notes\":\"a \\\"b\\\"\"}\n" +
+                "{\"id\":2,\"active\":false,\"at\":null,\"notes\":null}\n");
+    }
+
+    @Test
+    void compressesWhenAsked() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ExportWriter writer = ExportWriter.open(out, ExportWriter.Format.CSV, true, "id")) {
+            for (long i = 0; i < 1000; i++) {
+                writer.writeRow(i);
+            }
+        }
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertThat(csv).startsWith("id\n0\n1\n").endsWith("\n999\n");
+        }
+    }
+
+    @Test
+    void rejectsRowsOfTheWrongWidthAndUnknownFormats() throws IOException {
+        ExportWriter writer = ExportWriter.open(new ByteArrayOutputStream(), ExportWriter.Format.CSV, false, "id", "name");
+
+        assertThatThrownBy(() -> writer.writeRow(1L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ExportWriter.Format.of("xml")).hasMessageContaining("Unsupported export format");
+        assertThat(ExportWriter.Format.of("NDJSON")).isEqualTo(ExportWriter.Format.NDJSON);
+    }
+
+    @Test
+    void readsGzipFromAcceptEncoding() {
+        assertThat(ExportWriter.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ExportWriter.acceptsGzip("deflate, *")).isTrue();
+        assertThat(ExportWriter.acceptsGzip("gzip;q=0, deflate")).isFalse();
+        assertThat(ExportWriter.acceptsGzip("identity")).isFalse();
+        assertThat(ExportWriter.acceptsGzip(null)).isFalse();
+    }
+}
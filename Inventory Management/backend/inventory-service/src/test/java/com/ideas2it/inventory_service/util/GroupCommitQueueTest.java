@@ -0,0 +1,184 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitQueueTest {
+
+    @Test
+    void writesBatchesInSequenceOrderUpToMaxBatchSize() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1000, 10, 50, batch -> {
+            batches.add(new ArrayList<>(batch));
+            return successes(batch);
+        });
+        queue.start();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            futures.add(queue.submit(i));
+        }
+        queue.close();
+
+        List<Integer> written = new ArrayList<>();
+        for (List<Integer> batch : batches) {
+            assertThat(batch.size()).isLessThanOrEqualTo(10);
+            written.addAll(batch);
+        }
+        assertThat(written).containsExactlyElementsOf(range(95));
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get()).isEqualTo(i * 2);
+        }
+        assertThat(queue.getLastCommittedSequence()).isEqualTo(95);
+    }
+
+    @Test
+    void flushesPartialBatchOnceMaxDelayElapses() throws Exception {
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1000, 1000, 20, GroupCommitQueueTest::successes);
+        queue.start();
+
+        CompletableFuture<Integer> future = queue.submit(21);
+
+        assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(42);
+        queue.close();
+    }
+
+    @Test
+    void rejectedItemDoesNotFailTheRestOfItsBatch() throws Exception {
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1000, 10, 50, batch -> {
+            List<GroupCommitQueue.Outcome<Integer>> outcomes = new ArrayList<>();
+            for (Integer item : batch) {
+                outcomes.add(item < 0
+                        ? GroupCommitQueue.Outcome.rejected(new RuntimeException("Insufficient stock"))
+                        : GroupCommitQueue.Outcome.success(item));
+            }
+            return outcomes;
+        });
+        queue.start();
+
+        CompletableFuture<Integer> accepted = queue.submit(1);
+        CompletableFuture<Integer> rejected = queue.submit(-1);
+        queue.close();
+
+        assertThat(accepted.get()).isEqualTo(1);
+        assertThatThrownBy(rejected::get).isInstanceOf(ExecutionException.class).hasMessageContaining("Insufficient stock");
+    }
+
+    @Test
+    void failedBatchFailsItsFuturesAndLaterBatchesStillCommit() throws Exception {
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1000, 1, 0, batch -> {
+            if (batch.get(0) == 1) {
+                throw new IllegalStateException("connection lost");
+            }
+            return successes(batch);
+        });
+        queue.start();
+
+        CompletableFuture<Integer> failed = queue.submit(1);
+        CompletableFuture<Integer> next = queue.submit(2);
+        queue.close();
+
+        assertThatThrownBy(failed::get).isInstanceOf(ExecutionException.class).hasMessageContaining("connection lost");
+        assertThat(next.get()).isEqualTo(4);
+    }
+
+    @Test
+    void crashNeverLosesAnAcknowledgedItem() throws Exception {
+        // The "database": items become durable only when a batch commits
+        List<Integer> durable = new CopyOnWriteArrayList<>();
+        CountDownLatch inFlight = new CountDownLatch(1);
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 1000, 10, 5, batch -> {
+            if (durable.size() >= 30) {
+                // Block before committing, as if fsync never returned; the crash interrupts it
+                inFlight.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("crashed before commit");
+                }
+            }
+            durable.addAll(batch);
+            return successes(batch);
+        });
+        queue.start();
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            futures.add(queue.submit(i));
+        }
+        futures.get(29).get(5, TimeUnit.SECONDS);
+        for (int i = 30; i < 60; i++) {
+            futures.add(queue.submit(i));
+        }
+        assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+        queue.halt();
+
+        List<Integer> acknowledged = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            CompletableFuture<Integer> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                acknowledged.add(i);
+            }
+        }
+        assertThat(durable).containsAll(acknowledged);
+        // Writes are sequential, so what survived is exactly the items submitted before the crashed batch
+        assertThat(durable).containsExactlyElementsOf(range(30));
+        assertThat(acknowledged).containsExactlyElementsOf(range(30));
+        assertThat(queue.getLastCommittedSequence()).isEqualTo(30);
+        assertThatThrownBy(() -> queue.submit(99)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsSubmissionsWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test", 2, 1, 0, batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return successes(batch);
+        });
+        queue.start();
+
+        queue.submit(1);
+        // Wait until the writer has taken the first item so the queue itself is empty
+        while (queue.getQueuedCount() > 0) {
+            Thread.sleep(5);
+        }
+        queue.submit(2);
+        queue.submit(3);
+
+        assertThatThrownBy(() -> queue.submit(4)).isInstanceOf(IllegalStateException.class).hasMessageContaining("full");
+        release.countDown();
+        queue.close();
+    }
+
+    private static List<GroupCommitQueue.Outcome<Integer>> successes(List<Integer> batch) {
+        List<GroupCommitQueue.Outcome<Integer>> outcomes = new ArrayList<>();
+        for (Integer item : batch) {
+            outcomes.add(GroupCommitQueue.Outcome.success(item * 2));
+        }
+        return outcomes;
+    }
+
+    private static List<Integer> range(int count) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
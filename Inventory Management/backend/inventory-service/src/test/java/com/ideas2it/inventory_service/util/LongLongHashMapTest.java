@@ -0,0 +1,66 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLongHashMapTest {
+
+    @Test
+    void missingKeysReadAsZero() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        assertThat(map.get(42)).isZero();
+        assertThat(map.containsKey(42)).isFalse();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void addToAccumulatesAndPutOverwrites() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        map.addTo(7, 10);
+        map.addTo(7, -3);
+        map.put(8, 5);
+        map.put(8, 6);
+
+        assertThat(map.get(7)).isEqualTo(7);
+        assertThat(map.get(8)).isEqualTo(6);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void zeroAndNegativeKeysAreOrdinaryKeys() {
+        LongLongHashMap map = new LongLongHashMap();
+
+        map.addTo(0, 4);
+        map.addTo(-1, 9);
+
+        assertThat(map.containsKey(0)).isTrue();
+        assertThat(map.get(0)).isEqualTo(4);
+        assertThat(map.get(-1)).isEqualTo(9);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void matchesHashMapAcrossResizes() {
+        LongLongHashMap map = new LongLongHashMap(2);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(50_000);
+            long delta = random.nextInt(200) - 100;
+            map.addTo(key, delta);
+            expected.merge(key, delta, Long::sum);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertThat(actual).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongLruCacheTest {
+
+    @Test
+    void loadsOnceAndCountsHitsAndMisses() {
+        LongLruCache<String> cache = new LongLruCache<>(10, 1, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> "v" + loads.incrementAndGet());
+        String value = cache.get(1, key -> "v" + loads.incrementAndGet());
+
+        assertThat(value).isEqualTo("v1");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        LongLruCache<String> cache = new LongLruCache<>(2, 1, 0);
+
+        cache.get(1, key -> "a");
+        cache.get(2, key -> "b");
+        cache.get(1, key -> "a");
+        cache.get(3, key -> "c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+        assertThat(cache.get(1, key -> "reloaded")).isEqualTo("a");
+        assertThat(cache.get(2, key -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    void invalidationDuringLoadKeepsTheStaleValueOut() {
+        LongLruCache<String> cache = new LongLruCache<>(10, 1, 0);
+
+        String stale = cache.get(1, key -> {
+            cache.invalidate(1);
+            return "stale";
+        });
+
+        assertThat(stale).isEqualTo("stale");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1, key -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void nullsAreNotCachedAndInvalidateAllClears() {
+        LongLruCache<String> cache = new LongLruCache<>(10, 4, 0);
+
+        assertThat(cache.get(1, key -> null)).isNull();
+        cache.get(2, key -> "b");
+        cache.get(3, key -> "c");
+        cache.invalidateAll();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.invalidations()).isEqualTo(2);
+        assertThat(cache.misses()).isEqualTo(3);
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() throws InterruptedException {
+        LongLruCache<String> cache = new LongLruCache<>(10, 1, 1);
+
+        cache.get(1, key -> "old");
+        Thread.sleep(5);
+
+        assertThat(cache.get(1, key -> "new")).isEqualTo("new");
+    }
+}
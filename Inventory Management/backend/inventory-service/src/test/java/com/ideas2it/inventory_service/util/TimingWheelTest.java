@@ -0,0 +1,56 @@
+package com.ideas2it.inventory_service.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    void returnsIdsOnlyOnceTheirDeadlinePasses() {
+        TimingWheel wheel = new TimingWheel(100, 16, 0);
+
+        wheel.schedule(1, 250);
+        wheel.schedule(2, 900);
+
+        assertThat(wheel.advance(200)).isEmpty();
+        assertThat(wheel.advance(250)).containsExactly(1L);
+        assertThat(wheel.advance(899)).isEmpty();
+        assertThat(wheel.advance(900)).containsExactly(2L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlinesBeyondOneTurnWaitForLaterRounds() {
+        TimingWheel wheel = new TimingWheel(100, 4, 0);
+
+        // Same slot as tick 1, three turns later
+        wheel.schedule(7, 1300);
+
+        assertThat(wheel.advance(100)).isEmpty();
+        assertThat(wheel.advance(500)).isEmpty();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(1300)).containsExactly(7L);
+    }
+
+    @Test
+    void pastDeadlinesAreDueOnTheNextAdvance() {
+        TimingWheel wheel = new TimingWheel(100, 8, 1000);
+
+        wheel.schedule(3, 400);
+
+        assertThat(wheel.advance(1000)).containsExactly(3L);
+    }
+
+    @Test
+    void longPausesStillReturnEverythingDue() {
+        TimingWheel wheel = new TimingWheel(10, 8, 0);
+        for (long id = 1; id <= 1000; id++) {
+            wheel.schedule(id, id * 7);
+        }
+
+        assertThat(wheel.advance(3500)).hasSize(500);
+        assertThat(wheel.advance(100_000)).hasSize(500);
+        assertThat(wheel.size()).isZero();
+    }
+}